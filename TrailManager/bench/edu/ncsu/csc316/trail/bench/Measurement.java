@@ -0,0 +1,157 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Measurement times repeated runs of one benchmark operation on the calling thread. Each run is timed on its own
+ * so that latency percentiles can be reported, and the bytes the thread allocates across all measured runs are
+ * read from the JVM's thread MXBean to report an allocation rate. Allocation is reported as -1 on a JVM that
+ * cannot measure it.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class Measurement {
+
+	/**
+	 * Operation that is benchmarked.
+	 */
+	public interface Operation {
+		/**
+		 * Runs the operation once.
+		 * @param run number of the run, starting at 0 for the first warmup run
+		 * @return a value computed by the run, which is kept so the JIT cannot discard the work
+		 * @throws Exception if the operation fails
+		 */
+		long run(int run) throws Exception;
+	}
+
+	/** Thread MXBean that can report allocated bytes, or null */
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+	/** Time taken by each measured run in nanoseconds */
+	private final long[] samples;
+
+	/** Number of measured runs */
+	private final int count;
+
+	/** Total time of the measured runs in nanoseconds */
+	private final long elapsed;
+
+	/** Bytes allocated by the measured runs, or -1 if unknown */
+	private final long allocated;
+
+	/** Combination of the values returned by every run */
+	private final long blackhole;
+
+	/**
+	 * Measures an operation.
+	 * @param operation the operation to run
+	 * @param warmup number of runs before measuring starts
+	 * @param iterations largest number of measured runs
+	 * @param timeLimitMillis time after which no further measured runs are started
+	 * @throws Exception if the operation fails
+	 */
+	public Measurement(Operation operation, int warmup, int iterations, long timeLimitMillis) throws Exception {
+		long sink = 0;
+		for (int i = 0; i < warmup; i++) {
+			sink += operation.run(i);
+		}
+		samples = new long[iterations];
+		long deadline = System.nanoTime() + timeLimitMillis * 1000000L;
+		long startBytes = allocatedBytes();
+		int runs = 0;
+		long total = 0;
+		while (runs < iterations && (runs == 0 || System.nanoTime() < deadline)) {
+			long start = System.nanoTime();
+			sink += operation.run(warmup + runs);
+			long time = System.nanoTime() - start;
+			samples[runs++] = time;
+			total += time;
+		}
+		long endBytes = allocatedBytes();
+		count = runs;
+		elapsed = total;
+		allocated = startBytes < 0 ? -1 : endBytes - startBytes;
+		blackhole = sink;
+		Arrays.sort(samples, 0, count);
+	}
+
+	/**
+	 * Returns the number of measured runs.
+	 * @return the number of runs
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of runs per second.
+	 * @return the throughput of the operation
+	 */
+	public double getThroughput() {
+		return elapsed == 0 ? 0 : count * 1e9 / elapsed;
+	}
+
+	/**
+	 * Returns the time below which the given fraction of the measured runs finished.
+	 * @param fraction the percentile as a fraction between 0 and 1
+	 * @return the latency in microseconds
+	 */
+	public double getPercentile(double fraction) {
+		int index = (int) Math.ceil(fraction * count) - 1;
+		return samples[Math.max(0, Math.min(count - 1, index))] / 1000.0;
+	}
+
+	/**
+	 * Returns the average number of bytes allocated per run.
+	 * @return bytes allocated per run, or -1 if unknown
+	 */
+	public double getBytesPerRun() {
+		return allocated < 0 ? -1 : (double) allocated / count;
+	}
+
+	/**
+	 * Returns the allocation rate of the measured runs.
+	 * @return megabytes allocated per second, or -1 if unknown
+	 */
+	public double getAllocationRate() {
+		return allocated < 0 || elapsed == 0 ? -1 : allocated / (1024.0 * 1024.0) / (elapsed / 1e9);
+	}
+
+	/**
+	 * Returns a combination of the values returned by every run.
+	 * @return the combined value
+	 */
+	public long getBlackhole() {
+		return blackhole;
+	}
+
+	/**
+	 * Returns the bytes allocated so far by the calling thread.
+	 * @return the allocated bytes, or -1 if unknown
+	 */
+	private static long allocatedBytes() {
+		if (THREADS == null) {
+			return -1;
+		}
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Returns the thread MXBean if it can report allocated bytes.
+	 * @return the thread MXBean, or null
+	 */
+	private static com.sun.management.ThreadMXBean threads() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+			if (sunThreads.isThreadAllocatedMemorySupported()) {
+				sunThreads.setThreadAllocatedMemoryEnabled(true);
+				return sunThreads;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,231 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+import edu.ncsu.csc316.trail.generator.ParkGenerator;
+import edu.ncsu.csc316.trail.generator.ParkGenerator.Topology;
+import edu.ncsu.csc316.trail.graph.AltIndex;
+import edu.ncsu.csc316.trail.graph.RouteSearch;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+import edu.ncsu.csc316.trail.graph.TrailSearch;
+
+/**
+ * RouteBenchmark compares point-to-point distance queries on parks of several sizes written by ParkGenerator: a
+ * full Dijkstra search from the origin, the bidirectional RouteSearch, and the bidirectional A* RouteSearch over
+ * an AltIndex with each selected number of anchors. For every index it also reports the preprocessing time, the
+ * size of the index in memory and on disk, and the time to map the saved index back. Parks default to grids with
+ * no extra trails, since random long trails make every park a small world where the bounds add little.
+ *
+ * Results are printed as CSV with one line per size, operation, and anchor count: throughput in operations per
+ * second, latency percentiles in microseconds, landmarks settled per query, and the index size in bytes.
+ *
+ * Usage: java RouteBenchmark [--sizes 10000,100000,1000000] [--anchors 4,16] [--queries 1000] [--warmup 200]
+ * [--iterations 2000] [--time 5000] [--topology grid] [--extra-trails 0] [--seed 1] [--out file]
+ *
+ * @author Maddie Moore
+ *
+ */
+public class RouteBenchmark {
+
+	/** Header of the CSV results */
+	private static final String HEADER = "landmarks,operation,anchors,runs,opsPerSecond,p50Micros,p90Micros,p99Micros,"
+			+ "maxMicros,settledPerQuery,indexBytes";
+
+	/** Sizes of the parks to measure */
+	private int[] sizes = {10000, 100000, 1000000};
+
+	/** Anchor counts of the indexes to build */
+	private int[] anchorCounts = {4, AltIndex.DEFAULT_ANCHORS};
+
+	/** Number of origin and destination pairs the queries cycle through */
+	private int queries = 1000;
+
+	/** Number of runs before measuring starts */
+	private int warmup = 200;
+
+	/** Largest number of measured runs */
+	private int iterations = 2000;
+
+	/** Time in milliseconds after which no further measured runs are started */
+	private long timeLimit = 5000;
+
+	/** Layout of the synthetic parks */
+	private Topology topology = Topology.GRID;
+
+	/** Number of extra trails per landmark in the synthetic parks */
+	private double extraTrails = 0;
+
+	/** Seed of the synthetic parks and queries */
+	private long seed = 1;
+
+	/** Destination of the results */
+	private PrintStream out = System.out;
+
+	/**
+	 * Runs the benchmarks.
+	 * @param args command line options
+	 * @throws Exception if a benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+		RouteBenchmark benchmark = new RouteBenchmark();
+		benchmark.parse(args);
+		benchmark.run();
+	}
+
+	/**
+	 * Reads the command line options.
+	 * @param args command line options
+	 * @throws IOException if the results file cannot be opened
+	 */
+	private void parse(String[] args) throws IOException {
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			String value = args[i + 1];
+			switch (args[i]) {
+			case "--sizes":
+				sizes = parseInts(value);
+				break;
+			case "--anchors":
+				anchorCounts = parseInts(value);
+				break;
+			case "--queries":
+				queries = Integer.parseInt(value);
+				break;
+			case "--warmup":
+				warmup = Integer.parseInt(value);
+				break;
+			case "--iterations":
+				iterations = Integer.parseInt(value);
+				break;
+			case "--time":
+				timeLimit = Long.parseLong(value);
+				break;
+			case "--topology":
+				topology = Topology.valueOf(value.toUpperCase());
+				break;
+			case "--extra-trails":
+				extraTrails = Double.parseDouble(value);
+				break;
+			case "--seed":
+				seed = Long.parseLong(value);
+				break;
+			case "--out":
+				out = new PrintStream(Files.newOutputStream(Paths.get(value)), true, "UTF-8");
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+	}
+
+	/**
+	 * Parses a comma separated list of ints.
+	 * @param value the list
+	 * @return the ints of the list
+	 */
+	private static int[] parseInts(String value) {
+		String[] parts = value.split(",");
+		int[] ints = new int[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			ints[i] = Integer.parseInt(parts[i].trim());
+		}
+		return ints;
+	}
+
+	/**
+	 * Runs every query type on a park of each size.
+	 * @throws Exception if a benchmark fails
+	 */
+	private void run() throws Exception {
+		out.println(HEADER);
+		for (int size : sizes) {
+			Path directory = Files.createTempDirectory("route-bench");
+			Path landmarkFile = directory.resolve("landmarks.csv");
+			Path trailFile = directory.resolve("trails.csv");
+			Path indexFile = AltIndex.pathFor(directory.resolve("park.snapshot"));
+			try {
+				new ParkGenerator(topology, size, seed).setExtraTrails(extraTrails).generate(landmarkFile, trailFile);
+				runSize(size, TrailGraphLoader.load(landmarkFile.toString(), trailFile.toString()), indexFile);
+			} finally {
+				Files.deleteIfExists(landmarkFile);
+				Files.deleteIfExists(trailFile);
+				Files.deleteIfExists(indexFile);
+				Files.deleteIfExists(directory);
+			}
+		}
+	}
+
+	/**
+	 * Runs every query type on one park.
+	 * @param size number of landmarks in the park
+	 * @param graph graph of the park
+	 * @param indexFile path the indexes are saved to
+	 * @throws Exception if a benchmark fails
+	 */
+	private void runSize(int size, TrailGraph graph, Path indexFile) throws Exception {
+		int[] origins = new int[queries];
+		int[] destinations = new int[queries];
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = 0; i < queries; i++) {
+			origins[i] = random.nextInt(size);
+			destinations[i] = random.nextInt(size);
+		}
+		TrailSearch search = new TrailSearch(graph);
+		long[] settled = new long[1];
+		Measurement full = new Measurement(run -> {
+			int query = run % queries;
+			search.search(origins[query]);
+			settled[0] += search.getReachedCount();
+			return search.getDistance(destinations[query]);
+		}, Math.min(warmup, 20), Math.min(iterations, 200), timeLimit);
+		report(size, "dijkstra", 0, full, settled[0], Math.min(warmup, 20), 0);
+		RouteSearch bidirectional = new RouteSearch(graph);
+		settled[0] = 0;
+		report(size, "bidirectional", 0, new Measurement(run -> {
+			int query = run % queries;
+			int distance = bidirectional.search(origins[query], destinations[query]);
+			settled[0] += bidirectional.getSettledCount();
+			return distance;
+		}, warmup, iterations, timeLimit), settled[0], warmup, 0);
+		for (int anchors : anchorCounts) {
+			AltIndex[] built = new AltIndex[1];
+			report(size, "altPreprocess", anchors,
+					new Measurement(run -> (built[0] = AltIndex.build(graph, anchors)).getAnchorCount(), 0, 3, timeLimit), 0, 0,
+					built[0].getBytes());
+			built[0].write(indexFile);
+			report(size, "altMap", anchors, new Measurement(run -> AltIndex.map(indexFile, graph).getAnchorCount(), 1, 20,
+					timeLimit), 0, 0, Files.size(indexFile));
+			RouteSearch alt = new RouteSearch(graph, built[0]);
+			settled[0] = 0;
+			report(size, "alt", anchors, new Measurement(run -> {
+				int query = run % queries;
+				int distance = alt.search(origins[query], destinations[query]);
+				settled[0] += alt.getSettledCount();
+				return distance;
+			}, warmup, iterations, timeLimit), settled[0], warmup, built[0].getBytes());
+		}
+	}
+
+	/**
+	 * Prints one line of results.
+	 * @param size number of landmarks in the park
+	 * @param operation name of the operation
+	 * @param anchors number of anchors, or 0
+	 * @param measurement the measured runs
+	 * @param settled landmarks settled across the warmup and measured runs
+	 * @param warmupRuns number of warmup runs included in settled
+	 * @param indexBytes size of the index in bytes, or 0
+	 */
+	private void report(int size, String operation, int anchors, Measurement measurement, long settled, int warmupRuns,
+			long indexBytes) {
+		double perQuery = (double) settled / (measurement.getCount() + warmupRuns);
+		out.printf("%d,%s,%d,%d,%.2f,%.1f,%.1f,%.1f,%.1f,%.1f,%d%n", size, operation, anchors, measurement.getCount(),
+				measurement.getThroughput(), measurement.getPercentile(0.5), measurement.getPercentile(0.9),
+				measurement.getPercentile(0.99), measurement.getPercentile(1.0), perQuery, indexBytes);
+	}
+}
@@ -0,0 +1,328 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import edu.ncsu.csc316.dsa.data.Identifiable;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.dsa.sorter.Sorter;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.dsa.Algorithm;
+import edu.ncsu.csc316.trail.dsa.DSAFactory;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.generator.ParkGenerator;
+import edu.ncsu.csc316.trail.generator.ParkGenerator.Topology;
+import edu.ncsu.csc316.trail.manager.ReportManager;
+import edu.ncsu.csc316.trail.manager.TrailManager;
+
+/**
+ * TrailBenchmark measures TrailManager construction, getDistancesToDestinations, getProposedFirstAidLocations,
+ * and the distance report on parks of several sizes written by ParkGenerator, under every DSAFactory data
+ * structure and algorithm that the operation depends on. Each operation is run only over the factory settings it
+ * uses, with the other settings left at the ones ReportManager chooses, so the same code is not timed several
+ * times. The distance report sorts its own packed keys rather than using a DSAFactory sorter, so it is run once
+ * per map type. Data structures that take quadratic time are skipped for parks larger than the quadratic limit.
+ *
+ * Results are printed as CSV with one line per size, operation, and setting: throughput in operations per
+ * second, latency percentiles in microseconds, and bytes allocated per operation and per second.
+ *
+ * Usage: java TrailBenchmark [--sizes 1000,10000,100000] [--warmup 20] [--iterations 200] [--time 5000]
+ * [--quadratic-limit 20000] [--ops construct,distances,report,firstAid,identifiedSort] [--topology tree]
+ * [--extra-trails 0.5] [--seed 1] [--out file]
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailBenchmark {
+
+	/** Header of the CSV results */
+	private static final String HEADER = "landmarks,operation,map,list,comparisonSorter,nonComparisonSorter,runs,"
+			+ "opsPerSecond,p50Micros,p90Micros,p99Micros,maxMicros,bytesPerOp,allocMBPerSecond";
+
+	/** Map types that take linear time per insertion */
+	private static final DataStructure[] LINEAR_MAPS = {DataStructure.UNORDEREDLINKEDMAP, DataStructure.SEARCHTABLE};
+
+	/** Map types that DSAFactory can create */
+	private static final DataStructure[] MAPS = {DataStructure.UNORDEREDLINKEDMAP, DataStructure.SEARCHTABLE,
+			DataStructure.SKIPLIST};
+
+	/** List types that DSAFactory can create */
+	private static final DataStructure[] LISTS = {DataStructure.ARRAYBASEDLIST, DataStructure.SINGLYLINKEDLIST};
+
+	/** Non-comparison sorters that DSAFactory can create */
+	private static final Algorithm[] NON_COMPARISON_SORTERS = {Algorithm.COUNTING_SORT, Algorithm.RADIX_SORT};
+
+	/** Number of origins the distance operations cycle through */
+	private static final int ORIGINS = 16;
+
+	/** Sizes of the parks to measure */
+	private int[] sizes = {1000, 10000, 100000};
+
+	/** Number of runs before measuring starts */
+	private int warmup = 20;
+
+	/** Largest number of measured runs */
+	private int iterations = 200;
+
+	/** Time in milliseconds after which no further measured runs are started */
+	private long timeLimit = 5000;
+
+	/** Largest park that quadratic data structures are run on */
+	private int quadraticLimit = 20000;
+
+	/** Operations to run */
+	private String operations = "construct,distances,report,firstAid,identifiedSort";
+
+	/** Layout of the synthetic parks */
+	private Topology topology = Topology.TREE;
+
+	/** Number of extra trails per landmark in the synthetic parks */
+	private double extraTrails = 0.5;
+
+	/** Seed of the synthetic parks */
+	private long seed = 1;
+
+	/** Destination of the results */
+	private PrintStream out = System.out;
+
+	/**
+	 * Runs the benchmarks.
+	 * @param args command line options
+	 * @throws Exception if a benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+		TrailBenchmark benchmark = new TrailBenchmark();
+		benchmark.parse(args);
+		benchmark.run();
+	}
+
+	/**
+	 * Reads the command line options.
+	 * @param args command line options
+	 * @throws IOException if the results file cannot be opened
+	 */
+	private void parse(String[] args) throws IOException {
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			String value = args[i + 1];
+			switch (args[i]) {
+			case "--sizes":
+				String[] parts = value.split(",");
+				sizes = new int[parts.length];
+				for (int j = 0; j < parts.length; j++) {
+					sizes[j] = Integer.parseInt(parts[j].trim());
+				}
+				break;
+			case "--warmup":
+				warmup = Integer.parseInt(value);
+				break;
+			case "--iterations":
+				iterations = Integer.parseInt(value);
+				break;
+			case "--time":
+				timeLimit = Long.parseLong(value);
+				break;
+			case "--quadratic-limit":
+				quadraticLimit = Integer.parseInt(value);
+				break;
+			case "--ops":
+				operations = value;
+				break;
+			case "--topology":
+				topology = Topology.valueOf(value.toUpperCase());
+				break;
+			case "--extra-trails":
+				extraTrails = Double.parseDouble(value);
+				break;
+			case "--seed":
+				seed = Long.parseLong(value);
+				break;
+			case "--out":
+				out = new PrintStream(Files.newOutputStream(Paths.get(value)), true, "UTF-8");
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+	}
+
+	/**
+	 * Runs every selected operation on a park of each size.
+	 * @throws Exception if a benchmark fails
+	 */
+	private void run() throws Exception {
+		out.println(HEADER);
+		for (int size : sizes) {
+			Path directory = Files.createTempDirectory("trail-bench");
+			Path landmarkFile = directory.resolve("landmarks.csv");
+			Path trailFile = directory.resolve("trails.csv");
+			try {
+				new ParkGenerator(topology, size, seed).setExtraTrails(extraTrails).generate(landmarkFile, trailFile);
+				runSize(size, landmarkFile.toString(), trailFile.toString());
+			} finally {
+				Files.deleteIfExists(landmarkFile);
+				Files.deleteIfExists(trailFile);
+				Files.deleteIfExists(directory);
+			}
+		}
+	}
+
+	/**
+	 * Runs every selected operation on one park.
+	 * @param size number of landmarks in the park
+	 * @param landmarkFile path to the landmark file
+	 * @param trailFile path to the trail file
+	 * @throws Exception if a benchmark fails
+	 */
+	private void runSize(int size, String landmarkFile, String trailFile) throws Exception {
+		if (selected("construct")) {
+			report(size, "construct", "-", "-", "-", "-",
+					new Measurement(run -> new TrailManager(landmarkFile, trailFile).getGraph().getTrailCount(),
+							Math.min(warmup, 3), iterations, timeLimit));
+		}
+		TrailManager manager = new TrailManager(landmarkFile, trailFile);
+		ReportManager reports = new ReportManager(manager, 0);
+		String[] origins = new String[ORIGINS];
+		Random random = new Random(seed);
+		for (int i = 0; i < ORIGINS; i++) {
+			origins[i] = manager.getGraph().getId(random.nextInt(size));
+		}
+		boolean small = size <= quadraticLimit;
+		for (DataStructure map : MAPS) {
+			if (!small && contains(LINEAR_MAPS, map)) {
+				continue;
+			}
+			setTypes(map, DataStructure.ARRAYBASEDLIST, Algorithm.MERGESORT, Algorithm.COUNTING_SORT);
+			if (selected("distances")) {
+				report(size, "distances", map.name(), "-", "-", "-", new Measurement(
+						run -> manager.getDistancesToDestinations(origins[run % ORIGINS]).size(), warmup, iterations, timeLimit));
+			}
+			for (DataStructure list : LISTS) {
+				setTypes(map, list, Algorithm.MERGESORT, Algorithm.COUNTING_SORT);
+				if (selected("firstAid")) {
+					report(size, "firstAid", map.name(), list.name(), "-", "-", new Measurement(
+							run -> manager.getProposedFirstAidLocations(1 + run % 4).size(), warmup, iterations, timeLimit));
+				}
+			}
+			setTypes(map, DataStructure.ARRAYBASEDLIST, Algorithm.MERGESORT, Algorithm.COUNTING_SORT);
+			if (selected("report")) {
+				report(size, "report", map.name(), "-", "-", "-", new Measurement(
+						run -> reports.getDistancesReport(origins[run % ORIGINS]).length(), warmup, iterations, timeLimit));
+			}
+		}
+		for (Algorithm sorter : NON_COMPARISON_SORTERS) {
+			setTypes(DataStructure.SKIPLIST, DataStructure.ARRAYBASEDLIST, Algorithm.MERGESORT, sorter);
+			if (selected("identifiedSort")) {
+				Map<Landmark, Integer> distances = manager.getDistancesToDestinations(origins[0]);
+				report(size, "identifiedSort", "-", "-", "-", sorter.name(),
+						new Measurement(run -> sortByDistance(distances), warmup, iterations, timeLimit));
+			}
+		}
+	}
+
+	/**
+	 * Sorts the landmarks of a distance map by distance with the non-comparison sorter.
+	 * @param distances distance to each landmark
+	 * @return the distance of the farthest landmark
+	 */
+	private static long sortByDistance(Map<Landmark, Integer> distances) {
+		Reached[] reached = new Reached[distances.size()];
+		int i = 0;
+		for (Map.Entry<Landmark, Integer> entry : distances.entrySet()) {
+			reached[i++] = new Reached(entry.getValue());
+		}
+		Sorter<Reached> sorter = DSAFactory.getNonComparisonSorter();
+		sorter.sort(reached);
+		return reached[reached.length - 1].getId();
+	}
+
+	/**
+	 * Sets the types DSAFactory creates.
+	 * @param map the map type
+	 * @param list the list type
+	 * @param comparisonSorter the comparison sorter
+	 * @param nonComparisonSorter the non-comparison sorter
+	 */
+	private static void setTypes(DataStructure map, DataStructure list, Algorithm comparisonSorter,
+			Algorithm nonComparisonSorter) {
+		DSAFactory.setMapType(map);
+		DSAFactory.setListType(list);
+		DSAFactory.setComparisonSorterType(comparisonSorter);
+		DSAFactory.setNonComparisonSorterType(nonComparisonSorter);
+	}
+
+	/**
+	 * Returns true if the given operation was selected on the command line.
+	 * @param operation name of the operation
+	 * @return true if the operation should run
+	 */
+	private boolean selected(String operation) {
+		for (String name : operations.split(",")) {
+			if (name.trim().equals(operation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the array contains the value.
+	 * @param values the array to search
+	 * @param value the value to find
+	 * @return true if the value is in the array
+	 */
+	private static boolean contains(Object[] values, Object value) {
+		for (Object candidate : values) {
+			if (candidate == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Prints one line of results.
+	 * @param size number of landmarks in the park
+	 * @param operation name of the operation
+	 * @param map map type, or "-"
+	 * @param list list type, or "-"
+	 * @param comparisonSorter comparison sorter, or "-"
+	 * @param nonComparisonSorter non-comparison sorter, or "-"
+	 * @param measurement the measured runs
+	 */
+	private void report(int size, String operation, String map, String list, String comparisonSorter,
+			String nonComparisonSorter, Measurement measurement) {
+		out.printf("%d,%s,%s,%s,%s,%s,%d,%.2f,%.1f,%.1f,%.1f,%.1f,%.0f,%.1f%n", size, operation, map, list,
+				comparisonSorter, nonComparisonSorter, measurement.getCount(), measurement.getThroughput(),
+				measurement.getPercentile(0.5), measurement.getPercentile(0.9), measurement.getPercentile(0.99),
+				measurement.getPercentile(1.0), measurement.getBytesPerRun(), measurement.getAllocationRate());
+	}
+
+	/**
+	 * Reached is a landmark's distance wrapped for the non-comparison sorters, which sort by ID.
+	 *
+	 * @author Maddie Moore
+	 *
+	 */
+	private static class Reached implements Identifiable {
+
+		/** Distance to the landmark */
+		private final int distance;
+
+		/**
+		 * Constructs a new Reached.
+		 * @param distance distance to the landmark
+		 */
+		Reached(int distance) {
+			this.distance = distance;
+		}
+
+		@Override
+		public int getId() {
+			return distance;
+		}
+	}
+}
@@ -0,0 +1,457 @@
+package edu.ncsu.csc316.trail.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * ParkGenerator writes synthetic landmark and trail files in the same CSV format as the files in input/, for
+ * scale and stress testing. The park is determined entirely by its settings and seed, so the same settings
+ * always produce the same files. Lines are written as they are generated and nothing is kept per landmark or
+ * trail, so files with tens of millions of trails are written in constant memory.
+ *
+ * Every topology lays out its own trails first, and then extra trails are added between landmarks picked by the
+ * degree distribution. Trail lengths are uniform over the distance range.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class ParkGenerator {
+
+	/**
+	 * Layouts of the trails in a generated park.
+	 */
+	public enum Topology {
+		/** Every landmark after the first is joined to a random earlier landmark */
+		TREE,
+		/** Landmarks form a square grid, each joined to its right and lower neighbor */
+		GRID,
+		/** Landmarks form a ring joined to their nearest neighbors, with some trails rewired to random landmarks */
+		SMALL_WORLD,
+		/** Trailheads form a ring, and the other landmarks form chains of spokes that start at a trailhead */
+		HUB
+	}
+
+	/**
+	 * Ways of picking the endpoints of the extra trails.
+	 */
+	public enum DegreeDistribution {
+		/** Every landmark is equally likely to be an endpoint */
+		UNIFORM,
+		/** Landmarks with low indices are far more likely to be endpoints, giving a few very busy landmarks */
+		POWER_LAW
+	}
+
+	/** Types given to the landmarks that are not trailheads */
+	private static final String[] TYPES = {"Overlook", "Restroom", "Campsite", "Pet Waste Station", "Fountain",
+			"Rock Formation", "Garden"};
+
+	/** Type given to the trailheads of a hub park */
+	private static final String TRAILHEAD = "Trailhead";
+
+	/** Number of neighbors on each side that a landmark of a small world park is joined to */
+	private static final int RING_NEIGHBORS = 2;
+
+	/** Probability that a small world trail is rewired to a random landmark */
+	private static final double REWIRE_PROBABILITY = 0.1;
+
+	/** Number of landmarks per trailhead in a hub park */
+	private static final int LANDMARKS_PER_HUB = 1000;
+
+	/** Number of landmarks in each spoke of a hub park */
+	private static final int SPOKE_LENGTH = 20;
+
+	/** Layout of the trails */
+	private final Topology topology;
+
+	/** Number of landmarks */
+	private final int landmarkCount;
+
+	/** Seed of the random choices */
+	private final long seed;
+
+	/** Shortest trail in feet */
+	private int minDistance = 50;
+
+	/** Longest trail in feet */
+	private int maxDistance = 5000;
+
+	/** Number of extra trails per landmark */
+	private double extraTrails = 0;
+
+	/** Way of picking the endpoints of the extra trails */
+	private DegreeDistribution distribution = DegreeDistribution.UNIFORM;
+
+	/** Exponent that skews the power law distribution toward low indices */
+	private double skew = 3.0;
+
+	/**
+	 * Constructs a new ParkGenerator.
+	 * @param topology layout of the trails
+	 * @param landmarkCount number of landmarks
+	 * @param seed seed of the random choices
+	 * @throws IllegalArgumentException if landmarkCount is not positive
+	 */
+	public ParkGenerator(Topology topology, int landmarkCount, long seed) {
+		if (landmarkCount <= 0) {
+			throw new IllegalArgumentException("Number of landmarks must be greater than 0.");
+		}
+		this.topology = topology;
+		this.landmarkCount = landmarkCount;
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the range of trail lengths.
+	 * @param minDistance shortest trail in feet
+	 * @param maxDistance longest trail in feet
+	 * @return this generator
+	 * @throws IllegalArgumentException if minDistance is negative or greater than maxDistance
+	 */
+	public ParkGenerator setDistanceRange(int minDistance, int maxDistance) {
+		if (minDistance < 0 || minDistance > maxDistance) {
+			throw new IllegalArgumentException("Invalid distance range: " + minDistance + " to " + maxDistance + ".");
+		}
+		this.minDistance = minDistance;
+		this.maxDistance = maxDistance;
+		return this;
+	}
+
+	/**
+	 * Sets the number of extra trails added per landmark on top of the topology.
+	 * @param extraTrails number of extra trails per landmark, such as 0.5 for one extra trail per two landmarks
+	 * @return this generator
+	 * @throws IllegalArgumentException if extraTrails is negative
+	 */
+	public ParkGenerator setExtraTrails(double extraTrails) {
+		if (extraTrails < 0) {
+			throw new IllegalArgumentException("Number of extra trails cannot be negative.");
+		}
+		this.extraTrails = extraTrails;
+		return this;
+	}
+
+	/**
+	 * Sets how the endpoints of the extra trails are picked.
+	 * @param distribution the degree distribution of the extra trails
+	 * @return this generator
+	 */
+	public ParkGenerator setDegreeDistribution(DegreeDistribution distribution) {
+		this.distribution = distribution;
+		return this;
+	}
+
+	/**
+	 * Sets how strongly the power law distribution favors low landmark indices. A skew of 1 is uniform.
+	 * @param skew exponent of the power law distribution, at least 1
+	 * @return this generator
+	 * @throws IllegalArgumentException if skew is less than 1
+	 */
+	public ParkGenerator setSkew(double skew) {
+		if (skew < 1) {
+			throw new IllegalArgumentException("Skew must be at least 1.");
+		}
+		this.skew = skew;
+		return this;
+	}
+
+	/**
+	 * Writes the park to the given files, replacing them if they exist.
+	 * @param landmarkFile path of the landmark file
+	 * @param trailFile path of the trail file
+	 * @return the number of trails written
+	 * @throws IOException if a file cannot be written
+	 */
+	public long generate(Path landmarkFile, Path trailFile) throws IOException {
+		try (Writer landmarks = Files.newBufferedWriter(landmarkFile, StandardCharsets.UTF_8);
+				Writer trails = Files.newBufferedWriter(trailFile, StandardCharsets.UTF_8)) {
+			writeLandmarks(landmarks);
+			return writeTrails(trails);
+		}
+	}
+
+	/**
+	 * Writes the landmark file, including its header.
+	 * @param out destination of the landmark file
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public void writeLandmarks(Writer out) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed);
+		LineBuffer line = new LineBuffer();
+		out.write("LANDMARK_ID,DESCRIPTION,TYPE\n");
+		int hubs = getHubCount();
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			String type = landmark < hubs ? TRAILHEAD : TYPES[random.nextInt(TYPES.length)];
+			line.clear();
+			line.append('L').append(landmark).append(',').append(type).append(' ')
+					.append(1 + random.nextInt(Math.max(1, landmarkCount / TYPES.length))).append(',').append(type).append('\n');
+			line.writeTo(out);
+		}
+	}
+
+	/**
+	 * Writes the trail file, including its header.
+	 * @param out destination of the trail file
+	 * @return the number of trails written
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public long writeTrails(Writer out) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+		LineBuffer line = new LineBuffer();
+		out.write("LANDMARK_ID,LANDMARK_ID,DISTANCE\n");
+		long count = 0;
+		int n = landmarkCount;
+		switch (topology) {
+		case TREE:
+			for (int landmark = 1; landmark < n; landmark++) {
+				writeTrail(out, line, random, random.nextInt(landmark), landmark);
+				count++;
+			}
+			break;
+		case GRID:
+			int width = (int) Math.ceil(Math.sqrt(n));
+			for (int landmark = 0; landmark < n; landmark++) {
+				if ((landmark + 1) % width != 0 && landmark + 1 < n) {
+					writeTrail(out, line, random, landmark, landmark + 1);
+					count++;
+				}
+				if (landmark + width < n) {
+					writeTrail(out, line, random, landmark, landmark + width);
+					count++;
+				}
+			}
+			break;
+		case SMALL_WORLD:
+			for (int landmark = 0; landmark < n && n > 1; landmark++) {
+				for (int step = 1; step <= RING_NEIGHBORS && step < n; step++) {
+					int other = (landmark + step) % n;
+					if (random.nextDouble() < REWIRE_PROBABILITY) {
+						other = otherThan(landmark, random.nextInt(n));
+					}
+					writeTrail(out, line, random, landmark, other);
+					count++;
+				}
+			}
+			break;
+		default:
+			int hubs = getHubCount();
+			for (int hub = 0; hub < hubs && hubs > 1; hub++) {
+				writeTrail(out, line, random, hub, (hub + 1) % hubs);
+				count++;
+			}
+			for (int landmark = hubs; landmark < n; landmark++) {
+				int previous = (landmark - hubs) % SPOKE_LENGTH == 0 ? random.nextInt(hubs) : landmark - 1;
+				writeTrail(out, line, random, previous, landmark);
+				count++;
+			}
+			break;
+		}
+		long extra = n > 1 ? Math.round(n * extraTrails) : 0;
+		for (long i = 0; i < extra; i++) {
+			int one = pick(random);
+			writeTrail(out, line, random, one, otherThan(one, pick(random)));
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of trailheads, which is only more than 0 for a hub park.
+	 * @return the number of trailheads
+	 */
+	private int getHubCount() {
+		if (topology != Topology.HUB) {
+			return 0;
+		}
+		return Math.max(1, landmarkCount / LANDMARKS_PER_HUB);
+	}
+
+	/**
+	 * Picks an endpoint of an extra trail from the degree distribution.
+	 * @param random source of random choices
+	 * @return index of the landmark
+	 */
+	private int pick(SplittableRandom random) {
+		if (distribution == DegreeDistribution.UNIFORM) {
+			return random.nextInt(landmarkCount);
+		}
+		return Math.min(landmarkCount - 1, (int) (landmarkCount * Math.pow(random.nextDouble(), skew)));
+	}
+
+	/**
+	 * Returns the given landmark, or the next one if it is the same as the first endpoint.
+	 * @param one the first endpoint
+	 * @param other the proposed second endpoint
+	 * @return a second endpoint that is not the first
+	 */
+	private int otherThan(int one, int other) {
+		return other == one ? (other + 1) % landmarkCount : other;
+	}
+
+	/**
+	 * Writes one trail with a random length.
+	 * @param out destination of the trail file
+	 * @param line reusable line buffer
+	 * @param random source of random choices
+	 * @param one index of the first landmark
+	 * @param two index of the second landmark
+	 * @throws IOException if the destination cannot be written to
+	 */
+	private void writeTrail(Writer out, LineBuffer line, SplittableRandom random, int one, int two) throws IOException {
+		int distance = (int) random.nextLong(minDistance, (long) maxDistance + 1);
+		line.clear();
+		line.append('L').append(one).append(",L").append(two).append(',').append(distance).append('\n');
+		line.writeTo(out);
+	}
+
+	/**
+	 * Generates a park from the command line.
+	 *
+	 * Usage: java ParkGenerator landmarks.csv trails.csv [--landmarks 1000] [--topology tree|grid|small_world|hub]
+	 * [--seed 1] [--min-distance 50] [--max-distance 5000] [--extra-trails 0] [--degree uniform|power_law]
+	 * [--skew 3]
+	 * @param args command line arguments
+	 * @throws IOException if a file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: java ParkGenerator landmarks.csv trails.csv [--landmarks N] [--topology tree|grid|"
+					+ "small_world|hub] [--seed S] [--min-distance FEET] [--max-distance FEET] [--extra-trails PER_LANDMARK] "
+					+ "[--degree uniform|power_law] [--skew EXPONENT]");
+			return;
+		}
+		int landmarks = 1000;
+		Topology topology = Topology.TREE;
+		long seed = 1;
+		int minDistance = 50;
+		int maxDistance = 5000;
+		double extraTrails = 0;
+		DegreeDistribution distribution = DegreeDistribution.UNIFORM;
+		double skew = 3.0;
+		for (int i = 2; i + 1 < args.length; i += 2) {
+			String value = args[i + 1];
+			switch (args[i]) {
+			case "--landmarks":
+				landmarks = Integer.parseInt(value);
+				break;
+			case "--topology":
+				topology = Topology.valueOf(value.toUpperCase());
+				break;
+			case "--seed":
+				seed = Long.parseLong(value);
+				break;
+			case "--min-distance":
+				minDistance = Integer.parseInt(value);
+				break;
+			case "--max-distance":
+				maxDistance = Integer.parseInt(value);
+				break;
+			case "--extra-trails":
+				extraTrails = Double.parseDouble(value);
+				break;
+			case "--degree":
+				distribution = DegreeDistribution.valueOf(value.toUpperCase());
+				break;
+			case "--skew":
+				skew = Double.parseDouble(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		long trails = new ParkGenerator(topology, landmarks, seed).setDistanceRange(minDistance, maxDistance)
+				.setExtraTrails(extraTrails).setDegreeDistribution(distribution).setSkew(skew)
+				.generate(Paths.get(args[0]), Paths.get(args[1]));
+		System.out.println("Wrote " + landmarks + " landmarks and " + trails + " trails.");
+	}
+
+	/**
+	 * LineBuffer collects one CSV line in a reusable character array, so lines are written without building a
+	 * String for each one.
+	 *
+	 * @author Maddie Moore
+	 *
+	 */
+	private static class LineBuffer {
+
+		/** Characters of the line */
+		private char[] chars = new char[128];
+
+		/** Number of characters in the line */
+		private int length;
+
+		/**
+		 * Empties the line.
+		 */
+		void clear() {
+			length = 0;
+		}
+
+		/**
+		 * Adds a character to the line.
+		 * @param c the character to add
+		 * @return this buffer
+		 */
+		LineBuffer append(char c) {
+			ensure(1);
+			chars[length++] = c;
+			return this;
+		}
+
+		/**
+		 * Adds text to the line.
+		 * @param text the text to add
+		 * @return this buffer
+		 */
+		LineBuffer append(String text) {
+			ensure(text.length());
+			text.getChars(0, text.length(), chars, length);
+			length += text.length();
+			return this;
+		}
+
+		/**
+		 * Adds a nonnegative number to the line.
+		 * @param value the number to add
+		 * @return this buffer
+		 */
+		LineBuffer append(int value) {
+			int digits = 1;
+			for (int rest = value / 10; rest > 0; rest /= 10) {
+				digits++;
+			}
+			ensure(digits);
+			for (int i = length + digits - 1; i >= length; i--) {
+				chars[i] = (char) ('0' + value % 10);
+				value /= 10;
+			}
+			length += digits;
+			return this;
+		}
+
+		/**
+		 * Writes the line.
+		 * @param out destination of the line
+		 * @throws IOException if the destination cannot be written to
+		 */
+		void writeTo(Writer out) throws IOException {
+			out.write(chars, 0, length);
+		}
+
+		/**
+		 * Makes room for more characters.
+		 * @param extra number of characters that will be added
+		 */
+		private void ensure(int extra) {
+			if (length + extra > chars.length) {
+				char[] larger = new char[Math.max(chars.length * 2, length + extra)];
+				System.arraycopy(chars, 0, larger, 0, length);
+				chars = larger;
+			}
+		}
+	}
+}
@@ -0,0 +1,372 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * AltIndex holds the preprocessing for A* route searches with landmark lower bounds (ALT). A few anchor landmarks
+ * are chosen far apart from each other, and the shortest distance from every anchor to every landmark is stored.
+ * By the triangle inequality, |d(a, t) - d(a, v)| is a lower bound on the distance from v to t for every anchor
+ * a, so a RouteSearch that uses the index can steer towards the destination and settle far fewer landmarks.
+ * Anchors also show when two landmarks are in different components: an anchor that reaches one but not the other.
+ *
+ * The index is saved to its own binary file next to the network data. All values are little-endian. The file
+ * starts with a 32 byte header:
+ *
+ * <pre>
+ * magic (8 bytes "TRAILALT"), version, landmarkCount, anchorCount, padding, fingerprint (8 bytes)
+ * </pre>
+ *
+ * followed by the anchors (anchorCount ints) and the distances (landmarkCount * anchorCount ints, grouped by
+ * landmark so that a lower bound reads one contiguous row), each starting on an 8 byte boundary. A landmark in
+ * the anchor's component that is farther away than an int can hold is stored as Integer.MAX_VALUE, which still
+ * counts as reached but gives no bound. The fingerprint identifies the graph the index was built for, so an index
+ * is never used with a network it does not match.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class AltIndex {
+
+	/** Number of anchors chosen when none is given */
+	public static final int DEFAULT_ANCHORS = 16;
+
+	/** Extension added to the network file name to name the index file saved next to it */
+	public static final String EXTENSION = ".alt";
+
+	/** First bytes of every index file */
+	private static final byte[] MAGIC = "TRAILALT".getBytes(StandardCharsets.US_ASCII);
+
+	/** Version of the format written by this class */
+	public static final int VERSION = 1;
+
+	/** Number of bytes in the header */
+	private static final int HEADER_BYTES = 32;
+
+	/** Size of the buffer used to write the file */
+	private static final int WRITE_BUFFER = 1 << 16;
+
+	/** Distance stored for a landmark that an anchor reaches only by a route longer than Integer.MAX_VALUE feet */
+	static final int FAR = Integer.MAX_VALUE;
+
+	/** Most distances an index can hold, so that they fit in one int buffer that can also be mapped */
+	static final int MAX_DISTANCES = Integer.MAX_VALUE / 4;
+
+	/** Number of landmarks in the graph */
+	private final int landmarkCount;
+
+	/** Number of anchors */
+	private final int anchorCount;
+
+	/** Landmark index of each anchor */
+	private final IntBuffer anchors;
+
+	/** Distance from each anchor to each landmark, at landmark * anchorCount + anchor, or UNREACHED or FAR */
+	private final IntBuffer distances;
+
+	/** Fingerprint of the graph the index was built for */
+	private final long fingerprint;
+
+	/**
+	 * Constructs a new AltIndex.
+	 * @param landmarkCount number of landmarks in the graph
+	 * @param anchors landmark index of each anchor
+	 * @param distances distance from each anchor to each landmark, grouped by landmark
+	 * @param fingerprint fingerprint of the graph
+	 */
+	private AltIndex(int landmarkCount, IntBuffer anchors, IntBuffer distances, long fingerprint) {
+		this.landmarkCount = landmarkCount;
+		this.anchorCount = anchors.capacity();
+		this.anchors = anchors;
+		this.distances = distances;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Builds the index of the given graph. Each anchor is the landmark farthest from the anchors already chosen,
+	 * which counts a landmark none of them reach as infinitely far, so small networks and separate components
+	 * get anchors of their own. The first anchor is the landmark farthest from landmark 0.
+	 * @param graph the graph to index
+	 * @param anchorCount the number of anchors, which is reduced to the number of landmarks if it is larger
+	 * @return the index
+	 * @throws IllegalArgumentException if anchorCount is not positive, or the graph has too many landmarks for
+	 *         that many anchors
+	 */
+	public static AltIndex build(TrailGraph graph, int anchorCount) {
+		if (anchorCount <= 0) {
+			throw new IllegalArgumentException("Number of anchors must be greater than 0.");
+		}
+		int landmarkCount = graph.getLandmarkCount();
+		anchorCount = Math.min(anchorCount, landmarkCount);
+		long distanceCount = (long) landmarkCount * anchorCount;
+		if (distanceCount > MAX_DISTANCES) {
+			throw new IllegalArgumentException("A route index of " + landmarkCount + " landmarks cannot have "
+					+ anchorCount + " anchors.");
+		}
+		int[] anchors = new int[anchorCount];
+		int[] distances = new int[(int) distanceCount];
+		int[] nearest = new int[landmarkCount];
+		boolean[] chosen = new boolean[landmarkCount];
+		TrailSearch search = new TrailSearch(graph);
+		ComponentIndex components = new ComponentIndex(graph);
+		if (anchorCount > 0) {
+			search.search(0);
+			anchors[0] = search.getReached(search.getReachedCount() - 1);
+		}
+		Arrays.fill(nearest, Integer.MAX_VALUE);
+		for (int anchor = 0; anchor < anchorCount; anchor++) {
+			if (anchor > 0) {
+				int farthest = -1;
+				for (int landmark = 0; landmark < landmarkCount; landmark++) {
+					if (!chosen[landmark] && (farthest == -1 || nearest[landmark] > nearest[farthest])) {
+						farthest = landmark;
+					}
+				}
+				anchors[anchor] = farthest;
+			}
+			chosen[anchors[anchor]] = true;
+			search.search(anchors[anchor]);
+			for (int landmark = 0; landmark < landmarkCount; landmark++) {
+				int distance = search.getDistance(landmark);
+				if (distance == TrailSearch.UNREACHED && components.isReachable(anchors[anchor], landmark)) {
+					distance = FAR;
+				}
+				distances[landmark * anchorCount + anchor] = distance;
+				if (distance != TrailSearch.UNREACHED && distance < nearest[landmark]) {
+					nearest[landmark] = distance;
+				}
+			}
+		}
+		return new AltIndex(landmarkCount, IntBuffer.wrap(anchors), IntBuffer.wrap(distances), fingerprint(graph));
+	}
+
+	/**
+	 * Returns a fingerprint of the trails of a graph, which changes if a landmark or trail is added, removed,
+	 * closed, or changed in length. Closed trails are skipped, so an edited graph has the same fingerprint as the
+	 * graph compact() builds from it. A graph read from a snapshot has its fingerprint recorded in the snapshot,
+	 * so its trails are not read again.
+	 * @param graph the graph
+	 * @return the fingerprint
+	 */
+	public static long fingerprint(TrailGraph graph) {
+		if (graph.savedFingerprint != 0) {
+			return graph.savedFingerprint;
+		}
+		int trailCount = graph.getTrailCount();
+		long hash = graph.getLandmarkCount() * 0x9E3779B97F4A7C15L + trailCount - graph.getClosedTrails().length;
+		for (int trail = 0; trail < trailCount; trail++) {
+			if (graph.isClosed(trail)) {
+				continue;
+			}
+			hash = hash * 31 + graph.getTrailOne(trail);
+			hash = hash * 31 + graph.getTrailTwo(trail);
+			hash = hash * 31 + graph.getTrailLength(trail);
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the path of the index file saved next to the given network file.
+	 * @param networkFile path of a snapshot or other file that holds the network
+	 * @return the path of the index file
+	 */
+	public static Path pathFor(Path networkFile) {
+		return networkFile.resolveSibling(networkFile.getFileName() + EXTENSION);
+	}
+
+	/**
+	 * Returns the number of landmarks in the graph the index was built for.
+	 * @return the number of landmarks
+	 */
+	public int getLandmarkCount() {
+		return landmarkCount;
+	}
+
+	/**
+	 * Returns the number of anchors.
+	 * @return the number of anchors
+	 */
+	public int getAnchorCount() {
+		return anchorCount;
+	}
+
+	/**
+	 * Returns an anchor.
+	 * @param anchor number of the anchor, from 0 to getAnchorCount() - 1
+	 * @return the landmark index of the anchor
+	 */
+	public int getAnchor(int anchor) {
+		return anchors.get(anchor);
+	}
+
+	/**
+	 * Returns the distance from an anchor to a landmark.
+	 * @param anchor number of the anchor, from 0 to getAnchorCount() - 1
+	 * @param landmark index of the landmark
+	 * @return the distance in feet, TrailSearch.UNREACHED if the landmark is in another component, or
+	 *         Integer.MAX_VALUE if it is farther than an int can hold
+	 */
+	public int getDistance(int anchor, int landmark) {
+		return distances.get(landmark * anchorCount + anchor);
+	}
+
+	/**
+	 * Returns the number of bytes the anchors and distances take up.
+	 * @return the size of the index in bytes
+	 */
+	public long getBytes() {
+		return 4L * anchorCount + 4L * landmarkCount * anchorCount;
+	}
+
+	/**
+	 * Returns true if the index was built for the given graph.
+	 * @param graph the graph
+	 * @return true if the graph has the landmarks and trails the index was built for
+	 */
+	public boolean matches(TrailGraph graph) {
+		return graph.getLandmarkCount() == landmarkCount && fingerprint(graph) == fingerprint;
+	}
+
+	/**
+	 * Copies the distances from every anchor to a landmark, which RouteSearch keeps for its destination.
+	 * @param landmark index of the landmark
+	 * @param row array of at least getAnchorCount() ints that the distances are copied into
+	 */
+	void getRow(int landmark, int[] row) {
+		int start = landmark * anchorCount;
+		for (int anchor = 0; anchor < anchorCount; anchor++) {
+			row[anchor] = distances.get(start + anchor);
+		}
+	}
+
+	/**
+	 * Returns a lower bound on the distance from a landmark to the target whose row is given.
+	 * @param landmark index of the landmark
+	 * @param target distances from every anchor to the target
+	 * @return a distance in feet that is no longer than the shortest route from the landmark to the target
+	 */
+	int lowerBound(int landmark, int[] target) {
+		int start = landmark * anchorCount;
+		int bound = 0;
+		for (int anchor = 0; anchor < anchorCount; anchor++) {
+			int distance = distances.get(start + anchor);
+			int targetDistance = target[anchor];
+			if (distance != TrailSearch.UNREACHED && targetDistance != TrailSearch.UNREACHED && distance != FAR
+					&& targetDistance != FAR) {
+				bound = Math.max(bound, Math.abs(targetDistance - distance));
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 * Returns true if an anchor shows that a landmark cannot reach the target whose row is given.
+	 * @param landmark index of the landmark
+	 * @param target distances from every anchor to the target
+	 * @return true if the landmark and the target are in different components
+	 */
+	boolean separated(int landmark, int[] target) {
+		int start = landmark * anchorCount;
+		for (int anchor = 0; anchor < anchorCount; anchor++) {
+			if ((distances.get(start + anchor) == TrailSearch.UNREACHED) != (target[anchor] == TrailSearch.UNREACHED)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the index to a file. The index is written to a temporary file that then replaces the file, so an
+	 * index that is mapped from the old file is never changed under it.
+	 * @param file path of the index file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		TrailGraphSnapshot.replace(file, channel -> {
+			ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.put(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(landmarkCount);
+			buffer.putInt(anchorCount);
+			buffer.putInt(0);
+			buffer.putLong(fingerprint);
+			long written = TrailGraphSnapshot.putInts(anchors, buffer, channel, HEADER_BYTES);
+			TrailGraphSnapshot.putInts(distances, buffer, channel, written);
+			TrailGraphSnapshot.flush(buffer, channel);
+		});
+	}
+
+	/**
+	 * Reads an index file onto the heap.
+	 * @param file path of the index file
+	 * @param graph the graph the index is used with
+	 * @return the index stored in the file
+	 * @throws IOException if the file cannot be read, is not an index of a supported version, or was built for
+	 *         a different graph
+	 */
+	public static AltIndex read(Path file, TrailGraph graph) throws IOException {
+		return open(file, graph, false);
+	}
+
+	/**
+	 * Memory-maps an index file, so the distances are read straight from the file.
+	 * @param file path of the index file
+	 * @param graph the graph the index is used with
+	 * @return the index stored in the file
+	 * @throws IOException if the file cannot be read, is not an index of a supported version, or was built for
+	 *         a different graph
+	 */
+	public static AltIndex map(Path file, TrailGraph graph) throws IOException {
+		return open(file, graph, true);
+	}
+
+	/**
+	 * Opens an index file, either copying its sections onto the heap or mapping them.
+	 * @param file path of the index file
+	 * @param graph the graph the index is used with
+	 * @param mapped true to map the sections rather than copy them
+	 * @return the index stored in the file
+	 * @throws IOException if the file cannot be read, is not an index of a supported version, or was built for
+	 *         a different graph
+	 */
+	private static AltIndex open(Path file, TrailGraph graph, boolean mapped) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES) {
+				throw new IOException(file + " is not a route index.");
+			}
+			ByteBuffer header = TrailGraphSnapshot.section(channel, 0, HEADER_BYTES, false);
+			byte[] magic = new byte[MAGIC.length];
+			header.get(magic);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IOException(file + " is not a route index.");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException(file + " is route index version " + version + ", but version " + VERSION + " is required.");
+			}
+			int landmarkCount = header.getInt();
+			int anchorCount = header.getInt();
+			header.getInt();
+			long fingerprint = header.getLong();
+			if (landmarkCount != graph.getLandmarkCount() || fingerprint != fingerprint(graph)) {
+				throw new IOException(file + " was built for a different network.");
+			}
+			if (anchorCount < 0 || anchorCount > landmarkCount
+					|| (long) landmarkCount * anchorCount > MAX_DISTANCES) {
+				throw new IOException(file + " has an invalid number of anchors.");
+			}
+			long position = HEADER_BYTES;
+			IntBuffer anchors = TrailGraphSnapshot.ints(channel, position, anchorCount, mapped);
+			position = TrailGraphSnapshot.align(position + 4L * anchorCount);
+			IntBuffer distances = TrailGraphSnapshot.ints(channel, position, landmarkCount * anchorCount, mapped);
+			return new AltIndex(landmarkCount, anchors, distances, fingerprint);
+		}
+	}
+}
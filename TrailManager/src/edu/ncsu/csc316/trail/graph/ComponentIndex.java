@@ -0,0 +1,191 @@
+package edu.ncsu.csc316.trail.graph;
+
+/**
+ * ComponentIndex groups the landmarks of a TrailGraph into connected components: landmarks that can reach each
+ * other along open trails share a component. The components are found with a union-find over the trails, and
+ * each landmark's component, each component's size, and each component's landmarks are then stored in arrays,
+ * so reachability checks and component sizes take constant time. Components are numbered in order of their
+ * lowest landmark index, and the landmarks of a component are listed in index order.
+ *
+ * @author Maddie Moore
+ *
+ */
+public final class ComponentIndex {
+
+	/** Graph the index was built for */
+	private final TrailGraph graph;
+
+	/** Component of each landmark */
+	private final int[] components;
+
+	/** Start of each component's landmarks in members, followed by the number of landmarks */
+	private final int[] starts;
+
+	/** Landmarks of every component, grouped by component */
+	private final int[] members;
+
+	/**
+	 * Constructs the components of the given graph.
+	 * @param graph the graph
+	 */
+	public ComponentIndex(TrailGraph graph) {
+		this.graph = graph;
+		int landmarkCount = graph.getLandmarkCount();
+		int[] parents = new int[landmarkCount];
+		int[] sizes = new int[landmarkCount];
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			parents[landmark] = landmark;
+			sizes[landmark] = 1;
+		}
+		for (int trail = 0; trail < graph.getTrailCount(); trail++) {
+			if (graph.isClosed(trail)) {
+				continue;
+			}
+			int one = find(parents, graph.getTrailOne(trail));
+			int two = find(parents, graph.getTrailTwo(trail));
+			if (one == two) {
+				continue;
+			}
+			if (sizes[one] < sizes[two]) {
+				int swap = one;
+				one = two;
+				two = swap;
+			}
+			parents[two] = one;
+			sizes[one] += sizes[two];
+		}
+		components = new int[landmarkCount];
+		int[] numbers = sizes;
+		int count = 0;
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			if (parents[landmark] == landmark) {
+				numbers[landmark] = -1;
+			}
+		}
+		int[] counts = new int[landmarkCount + 1];
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			int root = find(parents, landmark);
+			if (numbers[root] == -1) {
+				numbers[root] = count++;
+			}
+			components[landmark] = numbers[root];
+			counts[components[landmark] + 1]++;
+		}
+		starts = new int[count + 1];
+		for (int component = 0; component < count; component++) {
+			starts[component + 1] = starts[component] + counts[component + 1];
+		}
+		members = new int[landmarkCount];
+		int[] next = counts;
+		System.arraycopy(starts, 0, next, 0, count);
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			members[next[components[landmark]]++] = landmark;
+		}
+	}
+
+	/**
+	 * Constructs an index over another version of a graph that shares the given arrays.
+	 * @param graph the graph
+	 * @param other index whose arrays are shared
+	 */
+	private ComponentIndex(TrailGraph graph, ComponentIndex other) {
+		this.graph = graph;
+		this.components = other.components;
+		this.starts = other.starts;
+		this.members = other.members;
+	}
+
+	/**
+	 * Finds the root of a landmark's set, halving the path to it.
+	 * @param parents parent of each landmark
+	 * @param landmark the landmark
+	 * @return the root
+	 */
+	private static int find(int[] parents, int landmark) {
+		while (parents[landmark] != landmark) {
+			parents[landmark] = parents[parents[landmark]];
+			landmark = parents[landmark];
+		}
+		return landmark;
+	}
+
+	/**
+	 * Returns an index for an edited version of the graph in which a trail between two landmarks was opened,
+	 * added, or given a new length, none of which can split a component. If the landmarks were already in the
+	 * same component and no landmark was added, the arrays are shared; otherwise the index is built again. An
+	 * edit that closes a trail may split a component, so it needs a new index.
+	 * @param changed the edited graph
+	 * @param one landmark at one end of the trail
+	 * @param two landmark at the other end of the trail
+	 * @return the index of the edited graph
+	 */
+	public ComponentIndex update(TrailGraph changed, int one, int two) {
+		if (changed.getLandmarkCount() == components.length && components[one] == components[two]) {
+			return new ComponentIndex(changed, this);
+		}
+		return new ComponentIndex(changed);
+	}
+
+	/**
+	 * Returns the graph the index was built for.
+	 * @return the graph
+	 */
+	public TrailGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the number of components.
+	 * @return the number of components
+	 */
+	public int getComponentCount() {
+		return starts.length - 1;
+	}
+
+	/**
+	 * Returns the component of a landmark.
+	 * @param landmark index of the landmark
+	 * @return the component, from 0 to getComponentCount() - 1
+	 */
+	public int getComponent(int landmark) {
+		return components[landmark];
+	}
+
+	/**
+	 * Returns the number of landmarks in a component.
+	 * @param component the component
+	 * @return the number of landmarks
+	 */
+	public int getSize(int component) {
+		return starts[component + 1] - starts[component];
+	}
+
+	/**
+	 * Returns the number of landmarks a landmark can reach, including itself.
+	 * @param landmark index of the landmark
+	 * @return the size of the landmark's component
+	 */
+	public int getReachableCount(int landmark) {
+		return getSize(components[landmark]);
+	}
+
+	/**
+	 * Returns true if there is a route along open trails between two landmarks.
+	 * @param one index of one landmark
+	 * @param two index of the other landmark
+	 * @return true if the landmarks are in the same component
+	 */
+	public boolean isReachable(int one, int two) {
+		return components[one] == components[two];
+	}
+
+	/**
+	 * Returns a landmark of a component.
+	 * @param component the component
+	 * @param position position of the landmark in the component, from 0 to getSize(component) - 1
+	 * @return the index of the landmark; landmarks are in index order
+	 */
+	public int getMember(int component, int position) {
+		return members[starts[component] + position];
+	}
+}
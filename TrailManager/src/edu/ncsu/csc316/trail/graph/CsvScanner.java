@@ -0,0 +1,235 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CsvScanner reads the lines of a byte range of a CSV file through memory-mapped windows. Each line is copied
+ * into a reusable byte array and split on commas, so reading a line allocates nothing unless the caller asks
+ * for one of its fields as a String.
+ *
+ * @author Maddie Moore
+ *
+ */
+class CsvScanner {
+
+	/** Number of bytes mapped at a time */
+	private static final int WINDOW = 1 << 26;
+
+	/** Largest number of fields recorded for a single line */
+	private static final int MAX_FIELDS = 8;
+
+	/** Channel of the file being read */
+	private final FileChannel channel;
+
+	/** Position just past the last byte to read */
+	private final long end;
+
+	/** Window of the file that is currently mapped */
+	private MappedByteBuffer window;
+
+	/** File position of the first byte of the current window */
+	private long windowStart;
+
+	/** File position of the next byte to read */
+	private long position;
+
+	/** Bytes of the current line, without the line separator */
+	private byte[] line;
+
+	/** Number of bytes in the current line */
+	private int lineLength;
+
+	/** Position in line of the first byte of each field */
+	private final int[] fieldStart;
+
+	/** Position in line just past the last byte of each field */
+	private final int[] fieldEnd;
+
+	/** Number of fields in the current line */
+	private int fieldCount;
+
+	/** Line number of the current line, counting from 1 */
+	private long lineNumber;
+
+	/**
+	 * Constructs a new CsvScanner over the given range of a file. The range must start at the beginning of a
+	 * line.
+	 * @param channel channel of the file to read
+	 * @param start position of the first byte to read
+	 * @param end position just past the last byte to read
+	 * @param firstLineNumber line number of the first line in the range
+	 */
+	CsvScanner(FileChannel channel, long start, long end, long firstLineNumber) {
+		this.channel = channel;
+		this.end = end;
+		position = start;
+		windowStart = start;
+		line = new byte[256];
+		fieldStart = new int[MAX_FIELDS];
+		fieldEnd = new int[MAX_FIELDS];
+		lineNumber = firstLineNumber - 1;
+	}
+
+	/**
+	 * Reads the next line of the range and splits it into fields.
+	 * @return true if a line was read, or false if the end of the range was reached
+	 * @throws IOException if the file cannot be mapped
+	 */
+	boolean nextLine() throws IOException {
+		if (position >= end) {
+			return false;
+		}
+		lineLength = 0;
+		boolean found = false;
+		while (!found && position < end) {
+			if (window == null || position >= windowStart + window.limit()) {
+				windowStart = position;
+				window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, end - position));
+			}
+			int from = (int) (position - windowStart);
+			int limit = window.limit();
+			int i = from;
+			while (i < limit && window.get(i) != '\n') {
+				i++;
+			}
+			found = i < limit;
+			append(from, i - from);
+			position = windowStart + i + (found ? 1 : 0);
+		}
+		if (lineLength > 0 && line[lineLength - 1] == '\r') {
+			lineLength--;
+		}
+		lineNumber++;
+		split();
+		return true;
+	}
+
+	/**
+	 * Returns the line number of the current line.
+	 * @return the line number, counting from 1
+	 */
+	long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Returns true if the current line holds no bytes.
+	 * @return true if the current line is blank
+	 */
+	boolean isBlank() {
+		return lineLength == 0;
+	}
+
+	/**
+	 * Returns the number of fields in the current line.
+	 * @return the number of fields
+	 */
+	int getFieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * Returns the bytes of the current line. Field positions index into this array.
+	 * @return the bytes of the current line
+	 */
+	byte[] getLine() {
+		return line;
+	}
+
+	/**
+	 * Returns the position of the first byte of the given field.
+	 * @param field the field number, from 0
+	 * @return the position of the first byte of the field in getLine()
+	 */
+	int getFieldStart(int field) {
+		return fieldStart[field];
+	}
+
+	/**
+	 * Returns the number of bytes in the given field.
+	 * @param field the field number, from 0
+	 * @return the length of the field
+	 */
+	int getFieldLength(int field) {
+		return fieldEnd[field] - fieldStart[field];
+	}
+
+	/**
+	 * Decodes the given field as a UTF-8 String.
+	 * @param field the field number, from 0
+	 * @return the field as a String
+	 */
+	String getString(int field) {
+		return new String(line, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Parses the given field as a decimal int.
+	 * @param field the field number, from 0
+	 * @return the value of the field
+	 * @throws NumberFormatException if the field is not a decimal int
+	 */
+	int getInt(int field) {
+		int i = fieldStart[field];
+		int stop = fieldEnd[field];
+		boolean negative = false;
+		if (i < stop && (line[i] == '-' || line[i] == '+')) {
+			negative = line[i] == '-';
+			i++;
+		}
+		if (i == stop) {
+			throw new NumberFormatException("Field " + (field + 1) + " is not a number.");
+		}
+		long value = 0;
+		for (; i < stop; i++) {
+			int digit = line[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException("Field " + (field + 1) + " is not a number.");
+			}
+			value = value * 10 + digit;
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				throw new NumberFormatException("Field " + (field + 1) + " is out of range.");
+			}
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE) {
+			throw new NumberFormatException("Field " + (field + 1) + " is out of range.");
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Copies bytes from the current window onto the end of the current line.
+	 * @param from position in the window of the first byte to copy
+	 * @param length number of bytes to copy
+	 */
+	private void append(int from, int length) {
+		if (lineLength + length > line.length) {
+			line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+		}
+		window.get(from, line, lineLength, length);
+		lineLength += length;
+	}
+
+	/**
+	 * Records the position of every comma separated field in the current line.
+	 */
+	private void split() {
+		fieldCount = 0;
+		int start = 0;
+		for (int i = 0; i <= lineLength; i++) {
+			if (i == lineLength || line[i] == ',') {
+				if (fieldCount < MAX_FIELDS) {
+					fieldStart[fieldCount] = start;
+					fieldEnd[fieldCount] = i;
+				}
+				fieldCount++;
+				start = i + 1;
+			}
+		}
+	}
+}
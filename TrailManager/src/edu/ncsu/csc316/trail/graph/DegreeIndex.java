@@ -0,0 +1,218 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * DegreeIndex lists the landmarks of a TrailGraph in first aid report order: by descending number of intersecting
+ * trails, then by description, then by descending ID, which is where the report's merge sort has always left
+ * landmarks that tie on both. The landmarks with at least n intersecting trails are therefore the
+ * first getCount(n) positions of the index, and a report for any threshold is read off without sorting. The
+ * index is built once for a graph with a counting sort by degree over the landmarks in description order. When
+ * trails are closed, opened, or added, update() moves only the landmarks whose degree changed.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class DegreeIndex {
+
+	/** Graph that is indexed */
+	private final TrailGraph graph;
+
+	/** Landmark indices in report order */
+	private final int[] order;
+
+	/** Number of landmarks with at least d intersecting trails, for d from 0 to the largest degree + 1 */
+	private final int[] atLeast;
+
+	/** Ranks of the landmarks in description order */
+	private final DescriptionRanks ranks;
+
+	/**
+	 * Constructs a new DegreeIndex for the given graph.
+	 * @param graph the graph to index
+	 */
+	public DegreeIndex(TrailGraph graph) {
+		this.graph = graph;
+		ranks = new DescriptionRanks(graph);
+		int landmarkCount = graph.getLandmarkCount();
+		int maxDegree = 0;
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			maxDegree = Math.max(maxDegree, graph.getDegree(landmark));
+		}
+		atLeast = new int[maxDegree + 2];
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			atLeast[graph.getDegree(landmark)]++;
+		}
+		for (int degree = maxDegree - 1; degree >= 0; degree--) {
+			atLeast[degree] += atLeast[degree + 1];
+		}
+		order = new int[landmarkCount];
+		int[] next = new int[maxDegree + 1];
+		for (int degree = 0; degree <= maxDegree; degree++) {
+			next[degree] = atLeast[degree + 1];
+		}
+		for (int i = 0; i < landmarkCount; i++) {
+			int landmark = ranks.getLandmark(i);
+			order[next[graph.getDegree(landmark)]++] = landmark;
+		}
+	}
+
+	/**
+	 * Constructs a new DegreeIndex from arrays that are already in report order.
+	 * @param graph the indexed graph
+	 * @param order landmark indices in report order
+	 * @param atLeast number of landmarks with at least each degree
+	 * @param ranks ranks of the landmarks in description order
+	 */
+	private DegreeIndex(TrailGraph graph, int[] order, int[] atLeast, DescriptionRanks ranks) {
+		this.graph = graph;
+		this.order = order;
+		this.atLeast = atLeast;
+		this.ranks = ranks;
+	}
+
+	/**
+	 * Returns an index for an edited version of the graph. Each changed landmark is found in its old degree's run
+	 * of the index and inserted into its new degree's run with a binary search, so only the order array is
+	 * copied instead of sorting the landmarks again. Landmarks added to the graph are always inserted, whether
+	 * or not they are listed.
+	 * @param changed the edited graph, which has every landmark of the indexed graph
+	 * @param landmarks landmarks whose number of intersecting trails may have changed
+	 * @return the index of the edited graph
+	 * @throws IllegalArgumentException if a landmark is not part of the edited graph, or the edited graph has
+	 *         fewer landmarks than the indexed graph
+	 */
+	public DegreeIndex update(TrailGraph changed, int... landmarks) {
+		int oldCount = order.length;
+		int landmarkCount = changed.getLandmarkCount();
+		if (landmarkCount < oldCount) {
+			throw new IllegalArgumentException("The network has fewer landmarks than the index.");
+		}
+		int[] moved = Arrays.copyOf(landmarks, landmarks.length + landmarkCount - oldCount);
+		for (int landmark = oldCount; landmark < landmarkCount; landmark++) {
+			moved[landmarks.length + landmark - oldCount] = landmark;
+		}
+		Arrays.sort(moved);
+		int movedCount = 0;
+		for (int landmark : moved) {
+			if (landmark < 0 || landmark >= landmarkCount) {
+				throw new IllegalArgumentException("Landmark " + landmark + " is not a landmark in the park.");
+			}
+			if (movedCount == 0 || moved[movedCount - 1] != landmark) {
+				moved[movedCount++] = landmark;
+			}
+		}
+		int length = atLeast.length;
+		for (int i = 0; i < movedCount; i++) {
+			length = Math.max(length, changed.getDegree(moved[i]) + 2);
+		}
+		int[] counts = Arrays.copyOf(atLeast, length);
+		int[] removed = new int[movedCount];
+		int removedCount = 0;
+		for (int i = 0; i < movedCount && moved[i] < oldCount; i++) {
+			int degree = graph.getDegree(moved[i]);
+			removed[removedCount++] = search(ranks, order, atLeast[degree + 1], atLeast[degree], moved[i]);
+			for (int d = 0; d <= degree; d++) {
+				counts[d]--;
+			}
+		}
+		Arrays.sort(removed, 0, removedCount);
+		DescriptionRanks newRanks = landmarkCount == oldCount ? ranks : new DescriptionRanks(changed);
+		int[] newOrder = new int[landmarkCount];
+		int size = 0;
+		int from = 0;
+		for (int i = 0; i < removedCount; i++) {
+			System.arraycopy(order, from, newOrder, size, removed[i] - from);
+			size += removed[i] - from;
+			from = removed[i] + 1;
+		}
+		System.arraycopy(order, from, newOrder, size, oldCount - from);
+		size += oldCount - from;
+		for (int i = 0; i < movedCount; i++) {
+			int degree = changed.getDegree(moved[i]);
+			int position = search(newRanks, newOrder, counts[degree + 1], counts[degree], moved[i]);
+			System.arraycopy(newOrder, position, newOrder, position + 1, size - position);
+			newOrder[position] = moved[i];
+			size++;
+			for (int d = 0; d <= degree; d++) {
+				counts[d]++;
+			}
+		}
+		int maxDegree = length - 2;
+		while (maxDegree > 0 && counts[maxDegree] == 0) {
+			maxDegree--;
+		}
+		return new DegreeIndex(changed, newOrder, Arrays.copyOf(counts, maxDegree + 2), newRanks);
+	}
+
+	/**
+	 * Finds a landmark's position in a run of landmarks that are in description order.
+	 * @param ranks ranks of the landmarks in description order
+	 * @param order landmark indices in report order
+	 * @param low first position of the run
+	 * @param high end (exclusive) of the run
+	 * @param landmark the landmark to find
+	 * @return the position of the landmark, or the position it would be inserted at if it is not in the run
+	 */
+	private static int search(DescriptionRanks ranks, int[] order, int low, int high, int landmark) {
+		int rank = ranks.getRank(landmark);
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (ranks.getRank(order[middle]) < rank) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the graph that is indexed.
+	 * @return the indexed graph
+	 */
+	public TrailGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the number of landmarks with at least the given number of intersecting trails.
+	 * @param numberOfIntersectingTrails the smallest number of intersecting trails
+	 * @return the number of landmarks at the start of the index with at least that many trails
+	 */
+	public int getCount(int numberOfIntersectingTrails) {
+		if (numberOfIntersectingTrails <= 0) {
+			return order.length;
+		}
+		if (numberOfIntersectingTrails >= atLeast.length) {
+			return 0;
+		}
+		return atLeast[numberOfIntersectingTrails];
+	}
+
+	/**
+	 * Returns the landmark at the given position of the index.
+	 * @param position position in report order, from 0 to the number of landmarks - 1
+	 * @return the index of the landmark
+	 */
+	public int get(int position) {
+		return order[position];
+	}
+
+	/**
+	 * Returns the ranks of the landmarks in description order, which the index was built from and which reports
+	 * sort their ties by.
+	 * @return the description ranks of the indexed graph
+	 */
+	public DescriptionRanks getRanks() {
+		return ranks;
+	}
+
+	/**
+	 * Returns the largest number of intersecting trails of any landmark.
+	 * @return the largest degree in the graph
+	 */
+	public int getMaxDegree() {
+		return atLeast.length - 2;
+	}
+}
@@ -0,0 +1,98 @@
+package edu.ncsu.csc316.trail.graph;
+
+/**
+ * DescriptionRanks numbers the landmarks of a TrailGraph in report tie order: by description, then by descending
+ * ID. Reports that list landmarks by a number, such as a distance, and then by description can then pack the
+ * number and the rank into one long key with pack(), and sorting the keys as plain longs gives the report order
+ * without comparing a single string. Ranks depend only on the landmarks, so they stay valid while trails are
+ * edited.
+ *
+ * @author Maddie Moore
+ *
+ */
+public final class DescriptionRanks {
+
+	/** Rank of each landmark */
+	private final int[] ranks;
+
+	/** Landmark with each rank */
+	private final int[] landmarks;
+
+	/**
+	 * Constructs the ranks of the landmarks of the given graph.
+	 * @param graph the graph
+	 */
+	public DescriptionRanks(TrailGraph graph) {
+		int landmarkCount = graph.getLandmarkCount();
+		String[] descriptions = new String[landmarkCount];
+		String[] ids = new String[landmarkCount];
+		landmarks = new int[landmarkCount];
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			descriptions[landmark] = graph.getDescription(landmark);
+			ids[landmark] = graph.getId(landmark);
+			landmarks[landmark] = landmark;
+		}
+		LandmarkOrder.sort(landmarks, new int[landmarkCount], 0, landmarkCount, (first, second) -> {
+			int result = descriptions[first].compareTo(descriptions[second]);
+			return result != 0 ? result : ids[second].compareTo(ids[first]);
+		});
+		ranks = new int[landmarkCount];
+		for (int rank = 0; rank < landmarkCount; rank++) {
+			ranks[landmarks[rank]] = rank;
+		}
+	}
+
+	/**
+	 * Returns the number of ranked landmarks.
+	 * @return the number of landmarks
+	 */
+	public int size() {
+		return ranks.length;
+	}
+
+	/**
+	 * Returns the rank of a landmark.
+	 * @param landmark index of the landmark
+	 * @return the rank, from 0 for the first landmark in description order
+	 */
+	public int getRank(int landmark) {
+		return ranks[landmark];
+	}
+
+	/**
+	 * Returns the landmark with the given rank.
+	 * @param rank the rank
+	 * @return the index of the landmark
+	 */
+	public int getLandmark(int rank) {
+		return landmarks[rank];
+	}
+
+	/**
+	 * Packs a non-negative number and a landmark's rank into a key that sorts by the number, then by the rank.
+	 * @param value the number to sort by first, such as a distance, which must not be negative
+	 * @param landmark index of the landmark
+	 * @return the key
+	 */
+	public long pack(int value, int landmark) {
+		return ((long) value << 32) | ranks[landmark];
+	}
+
+	/**
+	 * Returns the number packed into a key.
+	 * @param key the key
+	 * @return the number the key sorts by first
+	 */
+	public static int valueOf(long key) {
+		return (int) (key >>> 32);
+	}
+
+	/**
+	 * Returns the landmark packed into a key.
+	 * @param key the key
+	 * @return the index of the landmark
+	 */
+	public int landmarkOf(long key) {
+		return landmarks[(int) key];
+	}
+}
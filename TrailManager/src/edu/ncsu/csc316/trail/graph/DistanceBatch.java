@@ -0,0 +1,65 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * DistanceBatch finds the shortest distances from many origins at once by running the single-origin searches on
+ * a fork-join pool. The batch keeps its own pool of idle TrailSearches: each piece of work takes one, or
+ * allocates one if none is idle, and returns it when the piece is done, so a batch allocates about one search
+ * per worker thread, and they are released with the batch rather than left on the pool's threads. Each origin's
+ * distances are handed to a sink as soon as they are found instead of being collected, so a batch over every
+ * landmark never holds more than one row of distances per worker.
+ *
+ * @author Maddie Moore
+ *
+ */
+public final class DistanceBatch {
+
+	/**
+	 * DistanceBatch only has static methods.
+	 */
+	private DistanceBatch() {
+	}
+
+	/**
+	 * Searches from every given origin and hands each result to the sink. Origins are searched in no particular
+	 * order, and the sink is called from the pool's worker threads.
+	 * @param graph the graph to search
+	 * @param origins indices of the origin landmarks
+	 * @param pool the pool the searches run on
+	 * @param sink receiver of each origin's distances
+	 * @throws IOException if the sink cannot write a result; the remaining origins are not searched
+	 * @throws IllegalArgumentException if an origin is not a landmark of the graph
+	 */
+	public static void run(TrailGraph graph, int[] origins, ForkJoinPool pool, DistanceSink sink) throws IOException {
+		for (int origin : origins) {
+			if (origin < 0 || origin >= graph.getLandmarkCount()) {
+				throw new IllegalArgumentException("Invalid origin landmark index: " + origin + ".");
+			}
+		}
+		ConcurrentLinkedQueue<TrailSearch> idle = new ConcurrentLinkedQueue<TrailSearch>();
+		try {
+			pool.invoke(new RangeTask((from, to) -> {
+				TrailSearch search = idle.poll();
+				if (search == null) {
+					search = new TrailSearch(graph);
+				}
+				try {
+					for (int i = from; i < to; i++) {
+						search.search(origins[i]);
+						sink.accept(origins[i], search);
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				} finally {
+					idle.offer(search);
+				}
+			}, 0, origins.length, 1));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * DistanceCsvWriter writes the distances of a DistanceBatch as CSV lines of the form ORIGIN_ID,DESTINATION_ID,DISTANCE,
+ * with one line for every landmark an origin reaches other than itself. Each worker thread formats an origin's
+ * lines into a buffer that no other thread is using, and whole origins are written one at a time, so the lines
+ * of an origin are always together and in order of increasing distance, but origins appear in the order their
+ * searches finish.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class DistanceCsvWriter implements DistanceSink, Closeable {
+
+	/** Header line of the CSV file */
+	public static final String HEADER = "ORIGIN_ID,DESTINATION_ID,DISTANCE\n";
+
+	/** Destination of the lines */
+	private final Writer out;
+
+	/** Idle buffers a thread takes to format an origin's lines into, released with the writer */
+	private final ConcurrentLinkedQueue<StringBuilder> lines = new ConcurrentLinkedQueue<StringBuilder>();
+
+	/**
+	 * Constructs a new DistanceCsvWriter and writes the header line.
+	 * @param out destination of the lines, which is closed when this writer is closed
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public DistanceCsvWriter(Writer out) throws IOException {
+		this.out = out;
+		out.write(HEADER);
+	}
+
+	@Override
+	public void accept(int origin, TrailSearch search) throws IOException {
+		StringBuilder line = lines.poll();
+		if (line == null) {
+			line = new StringBuilder();
+		}
+		try {
+			line.setLength(0);
+			TrailGraph graph = search.getGraph();
+			String originId = graph.getId(origin);
+			for (int i = 1; i < search.getReachedCount(); i++) {
+				int landmark = search.getReached(i);
+				line.append(originId).append(',').append(graph.getId(landmark)).append(',')
+						.append(search.getDistance(landmark)).append('\n');
+			}
+			synchronized (out) {
+				out.append(line);
+			}
+		} finally {
+			lines.offer(line);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,234 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * DistanceMatrix reads a binary distance matrix written by a DistanceMatrix.Writer. All values are little-endian
+ * ints. The file starts with a 32 byte header:
+ *
+ * <pre>
+ * magic (8 bytes "TRAILDST"), version, landmarkCount, originCount
+ * </pre>
+ *
+ * followed by one row per origin, in the order the origins were given to the writer. Each row is the origin's
+ * landmark index followed by its distance to every landmark, or TrailSearch.UNREACHED. Rows are read from the
+ * file as they are asked for, so a matrix does not need to fit in memory.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class DistanceMatrix implements Closeable {
+
+	/** First bytes of every distance matrix file */
+	private static final byte[] MAGIC = "TRAILDST".getBytes(StandardCharsets.US_ASCII);
+
+	/** Version of the format */
+	public static final int VERSION = 1;
+
+	/** Number of bytes in the header */
+	private static final int HEADER_BYTES = 32;
+
+	/** Open file of the matrix */
+	private final FileChannel channel;
+
+	/** Number of landmarks, which is the number of distances in each row */
+	private final int landmarkCount;
+
+	/** Number of rows */
+	private final int originCount;
+
+	/**
+	 * Opens a distance matrix file.
+	 * @param file path of the matrix file
+	 * @throws IOException if the file cannot be read, is not a distance matrix, or has an unsupported version
+	 */
+	public DistanceMatrix(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(header, 0);
+			byte[] magic = new byte[MAGIC.length];
+			header.get(magic);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IOException(file + " is not a distance matrix.");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported distance matrix version " + version + ".");
+			}
+			landmarkCount = header.getInt();
+			originCount = header.getInt();
+			if (channel.size() < rowPosition(originCount)) {
+				throw new IOException(file + " is truncated.");
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of landmarks, which is the number of distances in each row.
+	 * @return the number of landmarks
+	 */
+	public int getLandmarkCount() {
+		return landmarkCount;
+	}
+
+	/**
+	 * Returns the number of rows.
+	 * @return the number of origins
+	 */
+	public int getOriginCount() {
+		return originCount;
+	}
+
+	/**
+	 * Reads one row of the matrix.
+	 * @param row the row to read, from 0 to getOriginCount() - 1
+	 * @param distances array of at least getLandmarkCount() ints that the distances are read into
+	 * @return the landmark index of the row's origin
+	 * @throws IOException if the file cannot be read
+	 */
+	public int readRow(int row, int[] distances) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(rowBytes(landmarkCount)).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(buffer, rowPosition(row));
+		int origin = buffer.getInt();
+		buffer.asIntBuffer().get(distances, 0, landmarkCount);
+		return origin;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Fills the buffer from the given position of the file.
+	 * @param buffer the buffer to fill
+	 * @param position position in the file to read from
+	 * @throws IOException if the file ends before the buffer is full
+	 */
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Distance matrix is truncated.");
+			}
+		}
+		buffer.flip();
+	}
+
+	/**
+	 * Returns the position of a row in the file.
+	 * @param row the row
+	 * @return the position of the row
+	 */
+	private long rowPosition(int row) {
+		return HEADER_BYTES + (long) row * rowBytes(landmarkCount);
+	}
+
+	/**
+	 * Returns the size of a row in bytes.
+	 * @param landmarkCount number of landmarks
+	 * @return the number of bytes in a row
+	 */
+	private static int rowBytes(int landmarkCount) {
+		return 4 * (landmarkCount + 1);
+	}
+
+	/**
+	 * Writer writes a binary distance matrix as a DistanceSink. Each origin's row goes straight to its place in
+	 * the file, so rows can be written from several threads at once and in any order.
+	 *
+	 * @author Maddie Moore
+	 *
+	 */
+	public static class Writer implements DistanceSink, Closeable {
+
+		/** Open file of the matrix */
+		private final FileChannel channel;
+
+		/** Number of landmarks */
+		private final int landmarkCount;
+
+		/** Row of each origin landmark, or -1 */
+		private final int[] rowOf;
+
+		/** Idle buffers a thread takes to fill with a row before writing it, released with the writer */
+		private final ConcurrentLinkedQueue<ByteBuffer> rows = new ConcurrentLinkedQueue<ByteBuffer>();
+
+		/**
+		 * Creates a distance matrix file, replacing it if it exists, with a row for each of the given origins.
+		 * @param file path of the matrix file
+		 * @param graph the graph the distances are found in
+		 * @param origins indices of the origin landmarks, in the order of their rows
+		 * @throws IOException if the file cannot be written
+		 * @throws IllegalArgumentException if an origin is given twice or is not a landmark of the graph
+		 */
+		public Writer(Path file, TrailGraph graph, int[] origins) throws IOException {
+			landmarkCount = graph.getLandmarkCount();
+			rowOf = new int[landmarkCount];
+			Arrays.fill(rowOf, -1);
+			for (int row = 0; row < origins.length; row++) {
+				if (origins[row] < 0 || origins[row] >= landmarkCount || rowOf[origins[row]] != -1) {
+					throw new IllegalArgumentException("Invalid or repeated origin landmark index: " + origins[row] + ".");
+				}
+				rowOf[origins[row]] = row;
+			}
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.put(MAGIC).putInt(VERSION).putInt(landmarkCount).putInt(origins.length);
+			header.position(HEADER_BYTES).flip();
+			writeFully(header, 0);
+		}
+
+		@Override
+		public void accept(int origin, TrailSearch search) throws IOException {
+			if (rowOf[origin] == -1) {
+				throw new IllegalArgumentException("Landmark " + origin + " has no row in the distance matrix.");
+			}
+			ByteBuffer row = rows.poll();
+			if (row == null) {
+				row = ByteBuffer.allocateDirect(rowBytes(landmarkCount)).order(ByteOrder.LITTLE_ENDIAN);
+			}
+			try {
+				row.clear();
+				row.putInt(origin);
+				for (int landmark = 0; landmark < landmarkCount; landmark++) {
+					row.putInt(search.getDistance(landmark));
+				}
+				row.flip();
+				writeFully(row, HEADER_BYTES + (long) rowOf[origin] * rowBytes(landmarkCount));
+			} finally {
+				rows.offer(row);
+			}
+		}
+
+		/**
+		 * Writes the whole buffer at the given position of the file.
+		 * @param buffer the bytes to write
+		 * @param position position in the file
+		 * @throws IOException if the file cannot be written
+		 */
+		private void writeFully(ByteBuffer buffer, long position) throws IOException {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer, position + buffer.position());
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package edu.ncsu.csc316.trail.graph;
+
+/**
+ * DistanceQueue is the priority queue of landmarks used by TrailSearch, keyed by tentative distance. A landmark
+ * may be offered more than once; an implementation either lowers the landmark's key or keeps the extra entry,
+ * in which case the search skips it when it is polled after the landmark has been settled.
+ *
+ * @author Maddie Moore
+ *
+ */
+interface DistanceQueue {
+
+	/**
+	 * Adds the landmark with the given distance, or lowers its distance if it is already in the queue.
+	 * @param landmark index of the landmark
+	 * @param distance tentative distance of the landmark, which is never less than the last distance polled
+	 */
+	void offer(int landmark, int distance);
+
+	/**
+	 * Removes and returns a landmark with the smallest distance in the queue.
+	 * @return the index of the landmark
+	 */
+	int poll();
+
+	/**
+	 * Returns true if the queue is empty.
+	 * @return true if the queue is empty
+	 */
+	boolean isEmpty();
+
+	/**
+	 * Removes every landmark from the queue.
+	 */
+	void clear();
+}
@@ -0,0 +1,22 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.IOException;
+
+/**
+ * DistanceSink receives the result of each single-origin search of a DistanceBatch. A sink is called from several
+ * worker threads at once, and must only read the search during the call, since the worker reuses it for its
+ * next origin.
+ *
+ * @author Maddie Moore
+ *
+ */
+public interface DistanceSink {
+
+	/**
+	 * Receives the distances from one origin.
+	 * @param origin index of the origin landmark
+	 * @param search the search from the origin, whose reached landmarks and distances are those of the origin
+	 * @throws IOException if the result cannot be written
+	 */
+	void accept(int origin, TrailSearch search) throws IOException;
+}
@@ -0,0 +1,590 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * GraphDelta is the overlay of changes made to a TrailGraph since it was built or compacted: closed and reopened
+ * trails, new trails and landmarks, and new trail lengths. The base graph's arrays are never touched. Instead,
+ * every landmark whose trails changed gets a new adjacency list appended to the delta's own slot arrays, and
+ * its range in those arrays replaces its range in the base graph. The slots of the delta come after the base
+ * graph's slots, so slot numbers stay unique. Like the base graph, each adjacency list is kept in descending
+ * trail order, so compacting the graph gives back the same lists.
+ *
+ * A delta is immutable once an edit returns it. Each edit copies the parts of the delta it changes, which takes
+ * time proportional to the size of the delta rather than the size of the graph, so every graph version made by
+ * an edit can be read by other threads while later edits are made. The slot arrays are the exception: they have
+ * room to spare, and the version that wrote their last slots appends its new lists after them in place, since
+ * no other version reads past the slots it wrote. Any other version copies the arrays before appending, doubling
+ * their capacity. Once the slots left behind by rewritten lists outnumber the live ones, the next edit copies
+ * only the live lists into new arrays.
+ *
+ * @author Maddie Moore
+ *
+ */
+final class GraphDelta {
+
+	/** Range returned for a landmark whose adjacency list has not changed */
+	static final long NO_RANGE = -1L;
+
+	/** Fewest dead slots that make an edit repack the delta's slot arrays */
+	private static final int REPACK_MINIMUM = 1024;
+
+	/** Number of landmarks in the base graph */
+	final int baseLandmarks;
+
+	/** Number of trails in the base graph */
+	final int baseTrails;
+
+	/** Number of adjacency slots in the base graph, which is the first slot number of the delta */
+	final int baseSlots;
+
+	/** Range of the delta's slots holding each changed landmark's adjacency list, packed by range */
+	private IntLongMap ranges = IntLongMap.NONE;
+
+	/** Landmark at the other end of each slot of the delta */
+	private int[] slotNeighbors = new int[0];
+
+	/** Trail length of each slot of the delta */
+	private int[] slotLengths = new int[0];
+
+	/** Trail of each slot of the delta */
+	private int[] slotTrails = new int[0];
+
+	/** Landmark at the other end of each slot of the delta, for searches */
+	IntBuffer neighbors = IntBuffer.wrap(slotNeighbors);
+
+	/** Trail length of each slot of the delta, for searches */
+	IntBuffer lengths = IntBuffer.wrap(slotLengths);
+
+	/** Trail of each slot of the delta, for searches */
+	IntBuffer trails = IntBuffer.wrap(slotTrails);
+
+	/** Number of adjacency slots in use across the whole graph */
+	private int slotCount;
+
+	/** Number of the delta's slots written by this version, whether or not a list still uses them */
+	private int slotEnd;
+
+	/** Number of the delta's slots in the current lists of the changed landmarks */
+	private int liveSlots;
+
+	/** Number of slots written into the slot arrays by the versions that share them, in a shared array of one */
+	private int[] written = {0};
+
+	/** First endpoint of each added trail */
+	private int[] addedOne = new int[0];
+
+	/** Second endpoint of each added trail */
+	private int[] addedTwo = new int[0];
+
+	/** Length of each added trail */
+	private int[] addedLength = new int[0];
+
+	/** New length of each base trail whose length changed */
+	private IntLongMap trailLengths = IntLongMap.NONE;
+
+	/** 1 for each trail that is closed and 0 for each trail that was closed and reopened */
+	private IntLongMap closed = IntLongMap.NONE;
+
+	/** ID of each added landmark */
+	private String[] addedIds = new String[0];
+
+	/** Description of each added landmark */
+	private String[] addedDescriptions = new String[0];
+
+	/** Type of each added landmark */
+	private String[] addedTypes = new String[0];
+
+	/** Index of each added landmark by ID */
+	private HashMap<String, Integer> addedIndex = new HashMap<String, Integer>();
+
+	/**
+	 * Constructs an empty delta over the given base graph.
+	 * @param base the graph as built or compacted
+	 */
+	GraphDelta(TrailGraph base) {
+		baseLandmarks = base.getLandmarkCount();
+		baseTrails = base.getTrailCount();
+		baseSlots = base.getSlotCount();
+		slotCount = baseSlots;
+	}
+
+	/**
+	 * Constructs a copy of the given delta that shares its arrays until an edit replaces them.
+	 * @param other the delta to copy
+	 */
+	private GraphDelta(GraphDelta other) {
+		baseLandmarks = other.baseLandmarks;
+		baseTrails = other.baseTrails;
+		baseSlots = other.baseSlots;
+		ranges = other.ranges;
+		slotNeighbors = other.slotNeighbors;
+		slotLengths = other.slotLengths;
+		slotTrails = other.slotTrails;
+		neighbors = other.neighbors;
+		lengths = other.lengths;
+		trails = other.trails;
+		slotCount = other.slotCount;
+		slotEnd = other.slotEnd;
+		liveSlots = other.liveSlots;
+		written = other.written;
+		addedOne = other.addedOne;
+		addedTwo = other.addedTwo;
+		addedLength = other.addedLength;
+		trailLengths = other.trailLengths;
+		closed = other.closed;
+		addedIds = other.addedIds;
+		addedDescriptions = other.addedDescriptions;
+		addedTypes = other.addedTypes;
+		addedIndex = other.addedIndex;
+	}
+
+	/**
+	 * Packs a range of the delta's slots.
+	 * @param start first slot of the range, counted from the delta's first slot
+	 * @param end end (exclusive) of the range
+	 * @return the packed range
+	 */
+	static long range(int start, int end) {
+		return ((long) start << 32) | end;
+	}
+
+	/**
+	 * Returns the first slot of a packed range, counted from the delta's first slot.
+	 * @param range the packed range
+	 * @return the first slot
+	 */
+	static int start(long range) {
+		return (int) (range >>> 32);
+	}
+
+	/**
+	 * Returns the end (exclusive) of a packed range, counted from the delta's first slot.
+	 * @param range the packed range
+	 * @return the end of the range
+	 */
+	static int end(long range) {
+		return (int) range;
+	}
+
+	/**
+	 * Returns the range of the delta's slots that holds the given landmark's adjacency list.
+	 * @param landmark index of the landmark
+	 * @return the packed range, or NO_RANGE if the landmark's trails are the ones in the base graph
+	 */
+	long getRange(int landmark) {
+		return ranges.get(landmark, NO_RANGE);
+	}
+
+	/**
+	 * Returns the number of landmarks, including added ones.
+	 * @return the number of landmarks
+	 */
+	int getLandmarkCount() {
+		return baseLandmarks + addedIds.length;
+	}
+
+	/**
+	 * Returns the number of trails, including added and closed ones.
+	 * @return the number of trails
+	 */
+	int getTrailCount() {
+		return baseTrails + addedOne.length;
+	}
+
+	/**
+	 * Returns the number of adjacency slots of open trails.
+	 * @return the number of slots in use
+	 */
+	int getSlotCount() {
+		return slotCount;
+	}
+
+	/**
+	 * Returns the index of the added landmark with the given ID.
+	 * @param id the ID of the landmark
+	 * @return the index of the landmark, or TrailGraph.NO_LANDMARK if no landmark with the ID was added
+	 */
+	int indexOf(String id) {
+		Integer index = addedIndex.get(id);
+		return index == null ? TrailGraph.NO_LANDMARK : index;
+	}
+
+	/**
+	 * Returns the ID of an added landmark.
+	 * @param landmark index of the landmark, at least baseLandmarks
+	 * @return the ID
+	 */
+	String getId(int landmark) {
+		return addedIds[landmark - baseLandmarks];
+	}
+
+	/**
+	 * Returns the description of an added landmark.
+	 * @param landmark index of the landmark, at least baseLandmarks
+	 * @return the description
+	 */
+	String getDescription(int landmark) {
+		return addedDescriptions[landmark - baseLandmarks];
+	}
+
+	/**
+	 * Returns the type of an added landmark.
+	 * @param landmark index of the landmark, at least baseLandmarks
+	 * @return the type
+	 */
+	String getType(int landmark) {
+		return addedTypes[landmark - baseLandmarks];
+	}
+
+	/**
+	 * Returns the first endpoint of a trail.
+	 * @param base the base graph
+	 * @param trail index of the trail
+	 * @return the landmark index of the first endpoint
+	 */
+	int getTrailOne(TrailGraph base, int trail) {
+		return trail < baseTrails ? base.trailOne.get(trail) : addedOne[trail - baseTrails];
+	}
+
+	/**
+	 * Returns the second endpoint of a trail.
+	 * @param base the base graph
+	 * @param trail index of the trail
+	 * @return the landmark index of the second endpoint
+	 */
+	int getTrailTwo(TrailGraph base, int trail) {
+		return trail < baseTrails ? base.trailTwo.get(trail) : addedTwo[trail - baseTrails];
+	}
+
+	/**
+	 * Returns the current length of a trail.
+	 * @param base the base graph
+	 * @param trail index of the trail
+	 * @return the length in feet
+	 */
+	int getTrailLength(TrailGraph base, int trail) {
+		if (trail >= baseTrails) {
+			return addedLength[trail - baseTrails];
+		}
+		return (int) trailLengths.get(trail, base.trailLength.get(trail));
+	}
+
+	/**
+	 * Returns true if the trail is closed.
+	 * @param trail index of the trail
+	 * @return true if the trail is closed
+	 */
+	boolean isClosed(int trail) {
+		return closed.get(trail, 0) == 1;
+	}
+
+	/**
+	 * Returns every closed trail.
+	 * @return the indices of the closed trails, in ascending order
+	 */
+	int[] getClosedTrails() {
+		int[] result = new int[closed.size()];
+		int count = 0;
+		for (int slot = 0; slot < closed.getCapacity(); slot++) {
+			if (closed.keyAt(slot) >= 0 && closed.valueAt(slot) == 1) {
+				result[count++] = closed.keyAt(slot);
+			}
+		}
+		result = Arrays.copyOf(result, count);
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Returns a delta with the given trail closed.
+	 * @param base the base graph
+	 * @param trail index of an open trail
+	 * @return the new delta
+	 */
+	GraphDelta closeTrail(TrailGraph base, int trail) {
+		GraphDelta next = new GraphDelta(this);
+		next.closed = closed.put(trail, 1);
+		next.rewrite(base, getTrailOne(base, trail), trail);
+		next.rewrite(base, getTrailTwo(base, trail), trail);
+		return next;
+	}
+
+	/**
+	 * Returns a delta with the given trail reopened.
+	 * @param base the base graph
+	 * @param trail index of a closed trail
+	 * @return the new delta
+	 */
+	GraphDelta openTrail(TrailGraph base, int trail) {
+		GraphDelta next = new GraphDelta(this);
+		next.closed = closed.put(trail, 0);
+		next.rewrite(base, getTrailOne(base, trail), trail);
+		next.rewrite(base, getTrailTwo(base, trail), trail);
+		return next;
+	}
+
+	/**
+	 * Returns a delta with a new trail between two landmarks. The trail's index is the old number of trails.
+	 * @param base the base graph
+	 * @param landmarkOne index of the first endpoint
+	 * @param landmarkTwo index of the second endpoint
+	 * @param length length of the trail in feet
+	 * @return the new delta
+	 */
+	GraphDelta addTrail(TrailGraph base, int landmarkOne, int landmarkTwo, int length) {
+		GraphDelta next = new GraphDelta(this);
+		int trail = getTrailCount();
+		next.addedOne = append(addedOne, landmarkOne);
+		next.addedTwo = append(addedTwo, landmarkTwo);
+		next.addedLength = append(addedLength, length);
+		next.rewrite(base, landmarkOne, trail);
+		next.rewrite(base, landmarkTwo, trail);
+		return next;
+	}
+
+	/**
+	 * Returns a delta with a new length for the given trail.
+	 * @param base the base graph
+	 * @param trail index of the trail
+	 * @param length new length of the trail in feet
+	 * @return the new delta
+	 */
+	GraphDelta setTrailLength(TrailGraph base, int trail, int length) {
+		GraphDelta next = new GraphDelta(this);
+		if (trail < baseTrails) {
+			next.trailLengths = trailLengths.put(trail, length);
+		} else {
+			next.addedLength = addedLength.clone();
+			next.addedLength[trail - baseTrails] = length;
+		}
+		if (!isClosed(trail)) {
+			next.rewrite(base, getTrailOne(base, trail), trail);
+			next.rewrite(base, getTrailTwo(base, trail), trail);
+		}
+		return next;
+	}
+
+	/**
+	 * Returns a delta with a new landmark that has no trails. The landmark's index is the old number of landmarks.
+	 * @param id ID of the landmark
+	 * @param description description of the landmark
+	 * @param type type of the landmark
+	 * @return the new delta
+	 */
+	GraphDelta addLandmark(String id, String description, String type) {
+		GraphDelta next = new GraphDelta(this);
+		int landmark = getLandmarkCount();
+		next.addedIds = append(addedIds, id);
+		next.addedDescriptions = append(addedDescriptions, description);
+		next.addedTypes = append(addedTypes, type);
+		next.addedIndex = new HashMap<String, Integer>(addedIndex);
+		next.addedIndex.put(id, landmark);
+		next.ranges = ranges.put(landmark, range(slotEnd, slotEnd));
+		return next;
+	}
+
+	/**
+	 * Replaces a landmark's adjacency list with one that reflects the current state of the given trail: its
+	 * slots are dropped if it is closed, added if it is open and missing, and given its current length otherwise.
+	 * The trail's other slots of a trail that loops back to the landmark are handled in the same pass. This must
+	 * only be called on a delta that has not been returned yet.
+	 * @param base the base graph
+	 * @param landmark index of the landmark
+	 * @param trail index of the trail
+	 */
+	private void rewrite(TrailGraph base, int landmark, int trail) {
+		if (slotEnd - liveSlots > Math.max(REPACK_MINIMUM, liveSlots)) {
+			repack();
+		}
+		IntBuffer fromNeighbors;
+		IntBuffer fromLengths;
+		IntBuffer fromTrails;
+		int first;
+		int end;
+		long range = getRange(landmark);
+		if (range == NO_RANGE) {
+			fromNeighbors = base.neighbors;
+			fromLengths = base.lengths;
+			fromTrails = base.trails;
+			first = base.offsets.get(landmark);
+			end = base.offsets.get(landmark + 1);
+		} else {
+			fromNeighbors = neighbors;
+			fromLengths = lengths;
+			fromTrails = trails;
+			first = start(range);
+			end = end(range);
+		}
+		int one = getTrailOne(base, trail);
+		int two = getTrailTwo(base, trail);
+		int copies = isClosed(trail) ? 0 : (one == two ? 2 : 1);
+		int length = getTrailLength(base, trail);
+		int other = one == landmark ? two : one;
+		int oldCount = end - first;
+		int kept = 0;
+		for (int slot = first; slot < end; slot++) {
+			if (fromTrails.get(slot) != trail) {
+				kept++;
+			}
+		}
+		int newCount = kept + copies;
+		int start = reserve(newCount);
+		int[] newNeighbors = slotNeighbors;
+		int[] newLengths = slotLengths;
+		int[] newTrails = slotTrails;
+		int to = start;
+		boolean placed = copies == 0;
+		for (int slot = first; slot < end; slot++) {
+			int slotTrail = fromTrails.get(slot);
+			if (slotTrail == trail) {
+				continue;
+			}
+			if (!placed && slotTrail < trail) {
+				to = put(newNeighbors, newLengths, newTrails, to, other, length, trail, copies);
+				placed = true;
+			}
+			newNeighbors[to] = fromNeighbors.get(slot);
+			newLengths[to] = fromLengths.get(slot);
+			newTrails[to] = slotTrail;
+			to++;
+		}
+		if (!placed) {
+			put(newNeighbors, newLengths, newTrails, to, other, length, trail, copies);
+		}
+		slotCount += newCount - oldCount;
+		liveSlots += range == NO_RANGE ? newCount : newCount - oldCount;
+		ranges = ranges.put(landmark, range(start, start + newCount));
+	}
+
+	/**
+	 * Reserves slots for a new adjacency list after the slots this version has written. The slots are taken in
+	 * place if this version wrote the arrays' last slots and there is room, and otherwise the arrays are copied
+	 * with twice the capacity. This must only be called on a delta that has not been returned yet.
+	 * @param count number of slots
+	 * @return the first slot reserved
+	 */
+	private int reserve(int count) {
+		int start = slotEnd;
+		slotEnd = start + count;
+		synchronized (written) {
+			if (written[0] == start && slotEnd <= slotNeighbors.length) {
+				written[0] = slotEnd;
+				return start;
+			}
+		}
+		setSlots(Math.max(slotEnd, 2 * slotNeighbors.length), start);
+		written = new int[] {slotEnd};
+		return start;
+	}
+
+	/**
+	 * Moves the current lists of the changed landmarks to the front of new slot arrays, leaving out the slots of
+	 * lists that were rewritten since. This must only be called on a delta that has not been returned yet.
+	 */
+	private void repack() {
+		int[] fromNeighbors = slotNeighbors;
+		int[] fromLengths = slotLengths;
+		int[] fromTrails = slotTrails;
+		slotNeighbors = new int[2 * liveSlots];
+		slotLengths = new int[2 * liveSlots];
+		slotTrails = new int[2 * liveSlots];
+		long[] newRanges = new long[ranges.getCapacity()];
+		int to = 0;
+		for (int slot = 0; slot < newRanges.length; slot++) {
+			if (ranges.keyAt(slot) < 0) {
+				continue;
+			}
+			long range = ranges.valueAt(slot);
+			int count = end(range) - start(range);
+			System.arraycopy(fromNeighbors, start(range), slotNeighbors, to, count);
+			System.arraycopy(fromLengths, start(range), slotLengths, to, count);
+			System.arraycopy(fromTrails, start(range), slotTrails, to, count);
+			newRanges[slot] = range(to, to + count);
+			to += count;
+		}
+		ranges = ranges.withValues(newRanges);
+		slotEnd = to;
+		written = new int[] {to};
+		neighbors = IntBuffer.wrap(slotNeighbors);
+		lengths = IntBuffer.wrap(slotLengths);
+		trails = IntBuffer.wrap(slotTrails);
+	}
+
+	/**
+	 * Copies the slot arrays into new arrays of the given capacity.
+	 * @param capacity number of slots in the new arrays
+	 * @param count number of slots to copy
+	 */
+	private void setSlots(int capacity, int count) {
+		int[] newNeighbors = new int[capacity];
+		int[] newLengths = new int[capacity];
+		int[] newTrails = new int[capacity];
+		System.arraycopy(slotNeighbors, 0, newNeighbors, 0, count);
+		System.arraycopy(slotLengths, 0, newLengths, 0, count);
+		System.arraycopy(slotTrails, 0, newTrails, 0, count);
+		slotNeighbors = newNeighbors;
+		slotLengths = newLengths;
+		slotTrails = newTrails;
+		neighbors = IntBuffer.wrap(slotNeighbors);
+		lengths = IntBuffer.wrap(slotLengths);
+		trails = IntBuffer.wrap(slotTrails);
+	}
+
+	/**
+	 * Returns the number of slots the delta's slot arrays can hold, which shows how much room old lists take.
+	 * @return the capacity of the slot arrays
+	 */
+	int getSlotCapacity() {
+		return slotNeighbors.length;
+	}
+
+	/**
+	 * Writes copies of one slot.
+	 * @param neighbors landmark of each slot
+	 * @param lengths trail length of each slot
+	 * @param trails trail of each slot
+	 * @param to first slot to write
+	 * @param neighbor landmark at the other end of the trail
+	 * @param length length of the trail
+	 * @param trail index of the trail
+	 * @param copies number of copies to write
+	 * @return the slot after the last one written
+	 */
+	private static int put(int[] neighbors, int[] lengths, int[] trails, int to, int neighbor, int length, int trail,
+			int copies) {
+		for (int i = 0; i < copies; i++) {
+			neighbors[to] = neighbor;
+			lengths[to] = length;
+			trails[to] = trail;
+			to++;
+		}
+		return to;
+	}
+
+	/**
+	 * Returns a copy of an array with one more value at the end.
+	 * @param array the array
+	 * @param value the value to add
+	 * @return the new array
+	 */
+	private static int[] append(int[] array, int value) {
+		int[] result = Arrays.copyOf(array, array.length + 1);
+		result[array.length] = value;
+		return result;
+	}
+
+	/**
+	 * Returns a copy of an array with one more value at the end.
+	 * @param array the array
+	 * @param value the value to add
+	 * @return the new array
+	 */
+	private static String[] append(String[] array, String value) {
+		String[] result = Arrays.copyOf(array, array.length + 1);
+		result[array.length] = value;
+		return result;
+	}
+}
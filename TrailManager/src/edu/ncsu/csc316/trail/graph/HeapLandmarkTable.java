@@ -0,0 +1,62 @@
+package edu.ncsu.csc316.trail.graph;
+
+/**
+ * HeapLandmarkTable is a LandmarkTable that keeps every ID, description, and type as a String, with IDs found
+ * through an IdTable.
+ *
+ * @author Maddie Moore
+ *
+ */
+class HeapLandmarkTable implements LandmarkTable {
+
+	/** ID of each landmark */
+	private final String[] ids;
+
+	/** Description of each landmark */
+	private final String[] descriptions;
+
+	/** Type of each landmark */
+	private final String[] types;
+
+	/** Table used to find the index of a landmark ID */
+	private final IdTable idTable;
+
+	/**
+	 * Constructs a new HeapLandmarkTable over the given arrays.
+	 * @param ids ID of each landmark
+	 * @param descriptions description of each landmark
+	 * @param types type of each landmark
+	 * @param idTable table of landmark IDs to indices
+	 */
+	HeapLandmarkTable(String[] ids, String[] descriptions, String[] types, IdTable idTable) {
+		this.ids = ids;
+		this.descriptions = descriptions;
+		this.types = types;
+		this.idTable = idTable;
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public int indexOf(String id) {
+		return idTable.get(id);
+	}
+
+	@Override
+	public String getId(int landmark) {
+		return ids[landmark];
+	}
+
+	@Override
+	public String getDescription(int landmark) {
+		return descriptions[landmark];
+	}
+
+	@Override
+	public String getType(int landmark) {
+		return types[landmark];
+	}
+}
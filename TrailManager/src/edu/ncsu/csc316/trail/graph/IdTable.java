@@ -0,0 +1,166 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * IdTable interns landmark ID strings to dense int indices. It is an open addressing hash table with linear
+ * probing that stores the index of each ID in a parallel int array, so a lookup never allocates.
+ *
+ * @author Maddie Moore
+ *
+ */
+class IdTable {
+
+	/** Marker used for an empty slot in the table */
+	private static final int EMPTY = -1;
+
+	/** Keys stored in the table, parallel to values */
+	private String[] keys;
+
+	/** Dense index associated with each key */
+	private int[] values;
+
+	/** Number of keys in the table */
+	private int size;
+
+	/**
+	 * Constructs a new IdTable sized to hold the given number of IDs without resizing.
+	 * @param expectedSize the number of IDs expected to be added
+	 */
+	IdTable(int expectedSize) {
+		int capacity = 16;
+		while (capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		keys = new String[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, EMPTY);
+	}
+
+	/**
+	 * Returns the index associated with the given ID, or -1 if the ID has not been added.
+	 * @param id the landmark ID to find
+	 * @return the index of the ID, or -1 if it is not in the table
+	 */
+	int get(String id) {
+		if (id == null) {
+			return EMPTY;
+		}
+		int mask = keys.length - 1;
+		int slot = mix(id.hashCode()) & mask;
+		while (values[slot] != EMPTY) {
+			if (keys[slot].equals(id)) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the index associated with the ID spelled by the given bytes, or -1 if the ID has not been added.
+	 * The bytes are compared against the stored IDs directly, so no String is created for ASCII IDs.
+	 * @param bytes array holding the UTF-8 bytes of the ID
+	 * @param offset position of the first byte of the ID
+	 * @param length number of bytes in the ID
+	 * @return the index of the ID, or -1 if it is not in the table
+	 */
+	int get(byte[] bytes, int offset, int length) {
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++) {
+			if (bytes[i] < 0) {
+				return get(new String(bytes, offset, length, StandardCharsets.UTF_8));
+			}
+			hash = 31 * hash + bytes[i];
+		}
+		int mask = keys.length - 1;
+		int slot = mix(hash) & mask;
+		while (values[slot] != EMPTY) {
+			if (matches(keys[slot], bytes, offset, length)) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Associates the given ID with the given index, replacing any previous index for the ID.
+	 * @param id the landmark ID to add
+	 * @param index the dense index of the landmark
+	 */
+	void put(String id, int index) {
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length << 1);
+		}
+		int mask = keys.length - 1;
+		int slot = mix(id.hashCode()) & mask;
+		while (values[slot] != EMPTY) {
+			if (keys[slot].equals(id)) {
+				values[slot] = index;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = id;
+		values[slot] = index;
+		size++;
+	}
+
+	/**
+	 * Returns the number of IDs in the table.
+	 * @return the number of IDs in the table
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Rehashes every key into a table of the given capacity.
+	 * @param capacity the new capacity, which must be a power of two
+	 */
+	private void resize(int capacity) {
+		String[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new String[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, EMPTY);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != EMPTY) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the given key is spelled by the given ASCII bytes.
+	 * @param key the stored key
+	 * @param bytes array holding the bytes to compare
+	 * @param offset position of the first byte
+	 * @param length number of bytes
+	 * @return true if the key and the bytes spell the same ID
+	 */
+	private static boolean matches(String key, byte[] bytes, int offset, int length) {
+		if (key.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (key.charAt(i) != bytes[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Spreads the bits of a String hash code so that IDs sharing a prefix do not cluster.
+	 * @param hash the hash code to mix
+	 * @return the mixed hash code
+	 */
+	static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,145 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * IndexedIntHeap is a binary min-heap of landmark indices keyed by int distances. The position of every landmark
+ * in the heap is tracked so that offering a landmark that is already in the heap lowers its key in place, and
+ * the heap never holds more than one entry per landmark. All arrays are allocated once for the size of the
+ * graph.
+ *
+ * @author Maddie Moore
+ *
+ */
+class IndexedIntHeap implements DistanceQueue {
+
+	/** Position stored for a landmark that is not in the heap */
+	private static final int ABSENT = -1;
+
+	/** Landmarks in heap order */
+	private final int[] heap;
+
+	/** Key of each landmark in the heap, by landmark index */
+	private final int[] keys;
+
+	/** Position of each landmark in the heap, or ABSENT */
+	private final int[] positions;
+
+	/** Number of landmarks in the heap */
+	private int size;
+
+	/**
+	 * Constructs a new IndexedIntHeap for landmark indices from 0 to landmarkCount - 1.
+	 * @param landmarkCount the number of landmarks
+	 */
+	IndexedIntHeap(int landmarkCount) {
+		heap = new int[landmarkCount];
+		keys = new int[landmarkCount];
+		positions = new int[landmarkCount];
+		Arrays.fill(positions, ABSENT);
+	}
+
+	@Override
+	public void offer(int landmark, int distance) {
+		int position = positions[landmark];
+		if (position == ABSENT) {
+			keys[landmark] = distance;
+			heap[size] = landmark;
+			positions[landmark] = size;
+			siftUp(size++);
+		} else if (distance < keys[landmark]) {
+			keys[landmark] = distance;
+			siftUp(position);
+		}
+	}
+
+	@Override
+	public int poll() {
+		int min = heap[0];
+		positions[min] = ABSENT;
+		size--;
+		if (size > 0) {
+			int last = heap[size];
+			heap[0] = last;
+			positions[last] = 0;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the smallest distance in the heap, which must not be empty.
+	 * @return the distance of the landmark poll would return
+	 */
+	int peekDistance() {
+		return keys[heap[0]];
+	}
+
+	/**
+	 * Returns the number of landmarks in the heap.
+	 * @return the size of the heap
+	 */
+	int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = ABSENT;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Moves the landmark at the given position up until its parent's key is no larger.
+	 * @param position position of the landmark in the heap
+	 */
+	private void siftUp(int position) {
+		int landmark = heap[position];
+		int key = keys[landmark];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			int above = heap[parent];
+			if (keys[above] <= key) {
+				break;
+			}
+			heap[position] = above;
+			positions[above] = position;
+			position = parent;
+		}
+		heap[position] = landmark;
+		positions[landmark] = position;
+	}
+
+	/**
+	 * Moves the landmark at the given position down until neither child has a smaller key.
+	 * @param position position of the landmark in the heap
+	 */
+	private void siftDown(int position) {
+		int landmark = heap[position];
+		int key = keys[landmark];
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < size && keys[heap[right]] < keys[heap[child]]) {
+				child = right;
+			}
+			int below = heap[child];
+			if (key <= keys[below]) {
+				break;
+			}
+			heap[position] = below;
+			positions[below] = position;
+			position = child;
+		}
+		heap[position] = landmark;
+		positions[landmark] = position;
+	}
+}
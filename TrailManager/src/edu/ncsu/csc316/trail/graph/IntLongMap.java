@@ -0,0 +1,146 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * IntLongMap is a small immutable open addressing map from non-negative ints to longs. Putting a key returns a
+ * copy of the map with the key set, so a map can be shared by every graph version that was built from it. The
+ * copy takes time proportional to the size of the map, which stays small because it only holds the changes a
+ * GraphDelta has made.
+ *
+ * @author Maddie Moore
+ *
+ */
+final class IntLongMap {
+
+	/** Key stored in an empty slot */
+	private static final int EMPTY = -1;
+
+	/** Map with no keys */
+	static final IntLongMap NONE = new IntLongMap(new int[] {EMPTY, EMPTY}, new long[2], 0);
+
+	/** Key of each slot, or EMPTY */
+	private final int[] keys;
+
+	/** Value of each slot */
+	private final long[] values;
+
+	/** Number of keys in the map */
+	private final int size;
+
+	/**
+	 * Constructs a new IntLongMap over the given slots.
+	 * @param keys key of each slot, whose length is a power of two
+	 * @param values value of each slot
+	 * @param size number of keys
+	 */
+	private IntLongMap(int[] keys, long[] values, int size) {
+		this.keys = keys;
+		this.values = values;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the value of the given key.
+	 * @param key the key
+	 * @param missing value returned if the key is not in the map
+	 * @return the value of the key, or missing
+	 */
+	long get(int key, long missing) {
+		int mask = keys.length - 1;
+		for (int slot = IdTable.mix(key) & mask;; slot = (slot + 1) & mask) {
+			int stored = keys[slot];
+			if (stored == key) {
+				return values[slot];
+			}
+			if (stored == EMPTY) {
+				return missing;
+			}
+		}
+	}
+
+	/**
+	 * Returns a copy of the map with the given key set to the given value.
+	 * @param key the key, which must not be negative
+	 * @param value the value
+	 * @return the new map
+	 */
+	IntLongMap put(int key, long value) {
+		int capacity = keys.length;
+		if (2 * (size + 1) > capacity) {
+			capacity *= 2;
+		}
+		int[] newKeys = new int[capacity];
+		long[] newValues = new long[capacity];
+		Arrays.fill(newKeys, EMPTY);
+		int newSize = 0;
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != EMPTY && keys[slot] != key) {
+				insert(newKeys, newValues, keys[slot], values[slot]);
+				newSize++;
+			}
+		}
+		insert(newKeys, newValues, key, value);
+		return new IntLongMap(newKeys, newValues, newSize + 1);
+	}
+
+	/**
+	 * Returns a map with the same keys whose value in each slot is taken from the given array.
+	 * @param newValues value of each slot, with getCapacity() entries
+	 * @return the new map
+	 */
+	IntLongMap withValues(long[] newValues) {
+		return new IntLongMap(keys, newValues, size);
+	}
+
+	/**
+	 * Returns the number of keys in the map.
+	 * @return the size of the map
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the key in the given slot.
+	 * @param slot the slot, from 0 to getCapacity() - 1
+	 * @return the key, or a negative number if the slot is empty
+	 */
+	int keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * Returns the value in the given slot.
+	 * @param slot the slot, from 0 to getCapacity() - 1
+	 * @return the value
+	 */
+	long valueAt(int slot) {
+		return values[slot];
+	}
+
+	/**
+	 * Returns the number of slots, for walking every key with keyAt.
+	 * @return the number of slots
+	 */
+	int getCapacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Stores a key that is not yet in the given slots.
+	 * @param keys key of each slot
+	 * @param values value of each slot
+	 * @param key the key
+	 * @param value the value
+	 */
+	private static void insert(int[] keys, long[] values, int key, long value) {
+		int mask = keys.length - 1;
+		int slot = IdTable.mix(key) & mask;
+		while (keys[slot] != EMPTY) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+	}
+}
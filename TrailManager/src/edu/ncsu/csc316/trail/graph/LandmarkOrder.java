@@ -0,0 +1,154 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * LandmarkOrder sorts ranges of landmark indices with a stable merge sort. Before merging two sorted halves it
+ * checks whether they are already in order, so input that is already sorted, or nearly so, takes linear time.
+ * It also sorts packed long keys, such as the ones DescriptionRanks makes, with an LSD radix sort.
+ *
+ * @author Maddie Moore
+ *
+ */
+public final class LandmarkOrder {
+
+	/** Smallest range of keys that is radix sorted instead of sorted with Arrays.sort */
+	static final int RADIX_THRESHOLD = 256;
+
+	/** Smallest range of keys that is sorted in parallel */
+	static final int PARALLEL_THRESHOLD = 1 << 20;
+
+	/** Number of bits in each radix digit */
+	private static final int DIGIT_BITS = 8;
+
+	/** Number of values of a radix digit */
+	private static final int RADIX = 1 << DIGIT_BITS;
+
+	/** Number of radix digits in a key */
+	private static final int DIGITS = Long.SIZE / DIGIT_BITS;
+
+	/** Length of the counts that a radix sort of long keys needs */
+	public static final int COUNTS_LENGTH = DIGITS * RADIX;
+
+	/**
+	 * Order of two landmarks.
+	 */
+	public interface Comparator {
+		/**
+		 * Compares two landmarks.
+		 * @param first index of the first landmark
+		 * @param second index of the second landmark
+		 * @return a negative number, zero, or a positive number as the first landmark sorts before, with, or
+		 *         after the second
+		 */
+		int compare(int first, int second);
+	}
+
+	/**
+	 * LandmarkOrder only has static methods.
+	 */
+	private LandmarkOrder() {
+	}
+
+	/**
+	 * Sorts a range of landmark indices.
+	 * @param landmarks the landmark indices to sort
+	 * @param buffer scratch space at least as long as the end of the range
+	 * @param from start of the range (inclusive)
+	 * @param to end of the range (exclusive)
+	 * @param comparator order of the landmarks
+	 */
+	public static void sort(int[] landmarks, int[] buffer, int from, int to, Comparator comparator) {
+		if (to - from < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		sort(landmarks, buffer, from, middle, comparator);
+		sort(landmarks, buffer, middle, to, comparator);
+		if (comparator.compare(landmarks[middle - 1], landmarks[middle]) <= 0) {
+			return;
+		}
+		System.arraycopy(landmarks, from, buffer, from, to - from);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+				landmarks[i] = buffer[left++];
+			} else {
+				landmarks[i] = buffer[right++];
+			}
+		}
+	}
+
+	/**
+	 * Sorts a range of non-negative long keys in ascending order. Large ranges are radix sorted one byte at a time
+	 * from the lowest byte up, skipping every byte that is the same in all keys, which for keys packed from a
+	 * distance and a rank usually leaves four or five passes. Small ranges use Arrays.sort, and very large ones
+	 * Arrays.parallelSort.
+	 * @param keys the keys to sort, none of which may be negative
+	 * @param buffer scratch space at least as long as the end of the range
+	 * @param from start of the range (inclusive)
+	 * @param to end (exclusive) of the range
+	 */
+	public static void sort(long[] keys, long[] buffer, int from, int to) {
+		sort(keys, buffer, null, from, to);
+	}
+
+	/**
+	 * Sorts a range of non-negative long keys in ascending order, counting digits in the given scratch space
+	 * instead of a new array, so a caller that keeps its scratch space sorts without allocating unless the range
+	 * is large enough to be sorted in parallel.
+	 * @param keys the keys to sort, none of which may be negative
+	 * @param buffer scratch space at least as long as the end of the range
+	 * @param counts scratch space of COUNTS_LENGTH ints, or null to allocate it when it is needed
+	 * @param from start of the range (inclusive)
+	 * @param to end (exclusive) of the range
+	 */
+	public static void sort(long[] keys, long[] buffer, int[] counts, int from, int to) {
+		int count = to - from;
+		if (count < RADIX_THRESHOLD) {
+			Arrays.sort(keys, from, to);
+			return;
+		}
+		if (count >= PARALLEL_THRESHOLD) {
+			Arrays.parallelSort(keys, from, to);
+			return;
+		}
+		if (counts == null) {
+			counts = new int[COUNTS_LENGTH];
+		} else {
+			Arrays.fill(counts, 0);
+		}
+		for (int i = from; i < to; i++) {
+			long key = keys[i];
+			for (int digit = 0; digit < DIGITS; digit++) {
+				counts[digit * RADIX + (int) ((key >>> (digit * DIGIT_BITS)) & (RADIX - 1))]++;
+			}
+		}
+		long[] source = keys;
+		long[] target = buffer;
+		for (int digit = 0; digit < DIGITS; digit++) {
+			int base = digit * RADIX;
+			int shift = digit * DIGIT_BITS;
+			if (counts[base + (int) ((keys[from] >>> shift) & (RADIX - 1))] == count) {
+				continue;
+			}
+			int next = from;
+			for (int value = 0; value < RADIX; value++) {
+				int size = counts[base + value];
+				counts[base + value] = next;
+				next += size;
+			}
+			for (int i = from; i < to; i++) {
+				long key = source[i];
+				target[counts[base + (int) ((key >>> shift) & (RADIX - 1))]++] = key;
+			}
+			long[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != keys) {
+			System.arraycopy(source, from, keys, from, count);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package edu.ncsu.csc316.trail.graph;
+
+/**
+ * LandmarkTable holds the ID, description, and type of every landmark in a TrailGraph and finds the index of a
+ * landmark from its ID.
+ *
+ * @author Maddie Moore
+ *
+ */
+interface LandmarkTable {
+
+	/**
+	 * Returns the number of landmarks in the table.
+	 * @return the number of landmarks
+	 */
+	int size();
+
+	/**
+	 * Returns the index of the landmark with the given ID.
+	 * @param id the ID of the landmark
+	 * @return the index of the landmark, or TrailGraph.NO_LANDMARK if no landmark has the ID
+	 */
+	int indexOf(String id);
+
+	/**
+	 * Returns the ID of the landmark at the given index.
+	 * @param landmark index of the landmark
+	 * @return the ID of the landmark
+	 */
+	String getId(int landmark);
+
+	/**
+	 * Returns the description of the landmark at the given index.
+	 * @param landmark index of the landmark
+	 * @return the description of the landmark
+	 */
+	String getDescription(int landmark);
+
+	/**
+	 * Returns the type of the landmark at the given index.
+	 * @param landmark index of the landmark
+	 * @return the type of the landmark
+	 */
+	String getType(int landmark);
+}
@@ -0,0 +1,47 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.file.Path;
+
+/**
+ * MalformedLineException is thrown when a line of a landmark or trail file cannot be parsed. It keeps the file,
+ * line number, and reason separately so that a loader that reads part of a file can renumber the line.
+ *
+ * @author Maddie Moore
+ *
+ */
+class MalformedLineException extends IllegalArgumentException {
+
+	/** ID used for serialization */
+	private static final long serialVersionUID = 1L;
+
+	/** File that holds the malformed line */
+	private final Path file;
+
+	/** Line number of the malformed line, counting from 1 */
+	private final long lineNumber;
+
+	/** Reason the line is malformed */
+	private final String reason;
+
+	/**
+	 * Constructs a new MalformedLineException.
+	 * @param file file that holds the malformed line
+	 * @param lineNumber line number of the malformed line
+	 * @param reason reason the line is malformed
+	 */
+	MalformedLineException(Path file, long lineNumber, String reason) {
+		super("Line " + lineNumber + " of " + file + " is malformed: " + reason);
+		this.file = file;
+		this.lineNumber = lineNumber;
+		this.reason = reason;
+	}
+
+	/**
+	 * Returns a copy of this exception with the line number moved down by the given number of lines.
+	 * @param linesBefore number of lines that come before the line this exception was numbered from
+	 * @return a new exception with the corrected line number
+	 */
+	MalformedLineException shift(long linesBefore) {
+		return new MalformedLineException(file, lineNumber + linesBefore, reason);
+	}
+}
@@ -0,0 +1,350 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.ncsu.csc316.trail.metrics.Counter;
+import edu.ncsu.csc316.trail.metrics.Metrics;
+import edu.ncsu.csc316.trail.metrics.Phase;
+
+/**
+ * ParallelTrailGraphLoader reads landmark and trail CSV files on a fork-join pool. Each file is split into byte
+ * ranges that start and end on line boundaries, and every range is parsed by its own task into primitive
+ * arrays. Landmark IDs are then interned in file order, so the graph is identical to the one TrailGraphLoader
+ * builds, and the trail ranges are resolved against the interned IDs and packed with
+ * TrailGraphBuilder.build(ForkJoinPool).
+ *
+ * @author Maddie Moore
+ *
+ */
+public class ParallelTrailGraphLoader {
+
+	/** Smallest range of a file that is given its own task */
+	private static final long MIN_RANGE = 1 << 20;
+
+	/**
+	 * Reads the given landmark and trail files into a new TrailGraph using the common pool.
+	 * @param pathToLandmarkFile path to the landmark file
+	 * @param pathToTrailFile path to the trail file
+	 * @return a graph of the landmarks and trails in the files
+	 * @throws FileNotFoundException if either file does not exist
+	 * @throws IllegalArgumentException if either file has a malformed line
+	 */
+	public static TrailGraph load(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
+		return load(pathToLandmarkFile, pathToTrailFile, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Reads the given landmark and trail files into a new TrailGraph using the given pool.
+	 * @param pathToLandmarkFile path to the landmark file
+	 * @param pathToTrailFile path to the trail file
+	 * @param pool the pool that parses the files and builds the graph
+	 * @return a graph of the landmarks and trails in the files
+	 * @throws FileNotFoundException if either file does not exist
+	 * @throws IllegalArgumentException if either file has a malformed line
+	 */
+	public static TrailGraph load(String pathToLandmarkFile, String pathToTrailFile, ForkJoinPool pool)
+			throws FileNotFoundException {
+		return load(pathToLandmarkFile, pathToTrailFile, pool, MIN_RANGE);
+	}
+
+	/**
+	 * Reads the given landmark and trail files into a new TrailGraph using the given pool and range size.
+	 * @param pathToLandmarkFile path to the landmark file
+	 * @param pathToTrailFile path to the trail file
+	 * @param pool the pool that parses the files and builds the graph
+	 * @param minRange smallest range of a file that is given its own task
+	 * @return a graph of the landmarks and trails in the files
+	 * @throws FileNotFoundException if either file does not exist
+	 */
+	static TrailGraph load(String pathToLandmarkFile, String pathToTrailFile, ForkJoinPool pool, long minRange)
+			throws FileNotFoundException {
+		Path landmarkPath = TrailGraphLoader.toPath(pathToLandmarkFile);
+		Path trailPath = TrailGraphLoader.toPath(pathToTrailFile);
+		try (FileChannel landmarkChannel = TrailGraphLoader.open(landmarkPath);
+				FileChannel trailChannel = TrailGraphLoader.open(trailPath)) {
+			long start = Metrics.start();
+			TrailGraphBuilder builder = new TrailGraphBuilder(TrailGraphLoader.estimateRows(landmarkPath), 1);
+			addLandmarks(parseLandmarks(landmarkChannel, landmarkPath, pool, minRange), builder);
+			TrailRange[] trails = parseTrails(trailChannel, trailPath, builder, pool, minRange);
+			Metrics.stop(Phase.PARSE, start);
+			Metrics.count(Counter.BYTES_PARSED, landmarkChannel.size() + trailChannel.size());
+			start = Metrics.start();
+			int[] starts = new int[trails.length + 1];
+			for (int i = 0; i < trails.length; i++) {
+				starts[i + 1] = starts[i] + trails[i].count;
+			}
+			int total = starts[trails.length];
+			int[] one = new int[total];
+			int[] two = new int[total];
+			int[] length = new int[total];
+			TrailRange[] ranges = trails;
+			pool.invoke(new RangeTask((from, to) -> {
+				for (int i = from; i < to; i++) {
+					System.arraycopy(ranges[i].one, 0, one, starts[i], ranges[i].count);
+					System.arraycopy(ranges[i].two, 0, two, starts[i], ranges[i].count);
+					System.arraycopy(ranges[i].length, 0, length, starts[i], ranges[i].count);
+				}
+			}, 0, ranges.length, 1));
+			builder.setTrails(one, two, length, total);
+			TrailGraph graph = builder.build(pool);
+			Metrics.stop(Phase.INDEX, start);
+			return graph;
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Parses every range of a landmark file in parallel.
+	 * @param channel channel of the landmark file
+	 * @param file path of the landmark file
+	 * @param pool the pool that parses the ranges
+	 * @param minRange smallest range of the file that is given its own task
+	 * @return the landmarks of each range, in file order
+	 * @throws IOException if the file cannot be read
+	 */
+	private static LandmarkRange[] parseLandmarks(FileChannel channel, Path file, ForkJoinPool pool, long minRange)
+			throws IOException {
+		long[] bounds = split(channel, pool.getParallelism(), minRange);
+		LandmarkRange[] ranges = new LandmarkRange[bounds.length - 1];
+		run(pool, channel, file, bounds, (index, scanner) -> {
+			LandmarkRange range = new LandmarkRange();
+			TrailGraphLoader.readLandmarks(scanner, file, range);
+			ranges[index] = range;
+		});
+		return ranges;
+	}
+
+	/**
+	 * Interns the parsed landmarks into the builder in file order.
+	 * @param ranges the landmarks of each range, in file order
+	 * @param builder builder that receives the landmarks
+	 */
+	private static void addLandmarks(LandmarkRange[] ranges, TrailGraphBuilder builder) {
+		for (LandmarkRange range : ranges) {
+			for (int i = 0; i < range.count; i++) {
+				builder.addLandmark(range.ids[i], range.descriptions[i], range.types[i]);
+			}
+		}
+	}
+
+	/**
+	 * Parses every range of a trail file in parallel.
+	 * @param channel channel of the trail file
+	 * @param file path of the trail file
+	 * @param builder builder that holds every landmark
+	 * @param pool the pool that parses the ranges
+	 * @param minRange smallest range of the file that is given its own task
+	 * @return the trails of each range, in file order
+	 * @throws IOException if the file cannot be read
+	 */
+	private static TrailRange[] parseTrails(FileChannel channel, Path file, TrailGraphBuilder builder, ForkJoinPool pool,
+			long minRange) throws IOException {
+		long[] bounds = split(channel, pool.getParallelism(), minRange);
+		TrailRange[] ranges = new TrailRange[bounds.length - 1];
+		run(pool, channel, file, bounds, (index, scanner) -> {
+			TrailRange range = new TrailRange();
+			TrailGraphLoader.readTrails(scanner, file, builder, range);
+			ranges[index] = range;
+		});
+		return ranges;
+	}
+
+	/**
+	 * Work done to parse one range of a file.
+	 */
+	private interface RangeParser {
+
+		/**
+		 * Parses the lines that remain in the scanner.
+		 * @param index the index of the range
+		 * @param scanner scanner positioned before the first row of the range
+		 * @throws IOException if the file cannot be read
+		 */
+		void parse(int index, CsvScanner scanner) throws IOException;
+	}
+
+	/**
+	 * Runs the parser over every range of a file in parallel. The first line of the file is the header and is
+	 * skipped. If any range has a malformed line, the malformed line that comes first in the file is reported
+	 * with its line number in the whole file.
+	 * @param pool the pool that runs the parser
+	 * @param channel channel of the file
+	 * @param file path of the file
+	 * @param bounds the start of each range, followed by the end of the file
+	 * @param parser the parser to run
+	 * @throws IOException if the file cannot be read
+	 */
+	private static void run(ForkJoinPool pool, FileChannel channel, Path file, long[] bounds, RangeParser parser)
+			throws IOException {
+		int count = bounds.length - 1;
+		RuntimeException[] failures = new RuntimeException[count];
+		pool.invoke(new RangeTask((from, to) -> {
+			for (int i = from; i < to; i++) {
+				try {
+					CsvScanner scanner = new CsvScanner(channel, bounds[i], bounds[i + 1], 1);
+					if (i == 0) {
+						scanner.nextLine();
+					}
+					parser.parse(i, scanner);
+				} catch (IOException e) {
+					failures[i] = new UncheckedIOException(e);
+				} catch (RuntimeException e) {
+					failures[i] = e;
+				}
+			}
+		}, 0, count, 1));
+		for (int i = 0; i < count; i++) {
+			if (failures[i] instanceof MalformedLineException) {
+				throw ((MalformedLineException) failures[i]).shift(countLines(channel, bounds[i]));
+			}
+			if (failures[i] instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) failures[i]).getCause();
+			}
+			if (failures[i] != null) {
+				throw failures[i];
+			}
+		}
+	}
+
+	/**
+	 * Splits a file into ranges that each start at the beginning of a line.
+	 * @param channel channel of the file
+	 * @param parallelism the parallelism of the pool that will parse the ranges
+	 * @param minRange smallest range that is given its own task
+	 * @return the start of each range, followed by the end of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long[] split(FileChannel channel, int parallelism, long minRange) throws IOException {
+		long size = channel.size();
+		int count = (int) Math.max(1, Math.min(parallelism * 4L, size / minRange));
+		long[] bounds = new long[count + 1];
+		int used = 1;
+		for (int i = 1; i < count; i++) {
+			long start = lineStart(channel, size * i / count);
+			if (start > bounds[used - 1] && start < size) {
+				bounds[used++] = start;
+			}
+		}
+		bounds[used] = size;
+		return Arrays.copyOf(bounds, used + 1);
+	}
+
+	/**
+	 * Finds the first line that starts at or after the given position.
+	 * @param channel channel of the file
+	 * @param position the position to start from
+	 * @return the position of the start of the line, or the size of the file if no line starts there
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long lineStart(FileChannel channel, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		long at = position - 1;
+		while (true) {
+			buffer.clear();
+			int read = channel.read(buffer, at);
+			if (read <= 0) {
+				return channel.size();
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return at + i + 1;
+				}
+			}
+			at += read;
+		}
+	}
+
+	/**
+	 * Counts the lines that come before the given position, which must be the start of a line.
+	 * @param channel channel of the file
+	 * @param end the position to count up to
+	 * @return the number of line separators before the position
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long countLines(FileChannel channel, long end) throws IOException {
+		long lines = 0;
+		for (long start = 0; start < end; start += Integer.MAX_VALUE) {
+			MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start,
+					Math.min(Integer.MAX_VALUE, end - start));
+			for (int i = 0; i < window.limit(); i++) {
+				if (window.get(i) == '\n') {
+					lines++;
+				}
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Landmarks parsed from one range of a landmark file.
+	 */
+	private static class LandmarkRange implements TrailGraphLoader.LandmarkSink {
+
+		/** ID of each landmark */
+		private String[] ids = new String[64];
+
+		/** Description of each landmark */
+		private String[] descriptions = new String[64];
+
+		/** Type of each landmark */
+		private String[] types = new String[64];
+
+		/** Number of landmarks */
+		private int count;
+
+		@Override
+		public void addLandmark(String id, String description, String type) {
+			if (count == ids.length) {
+				ids = Arrays.copyOf(ids, count * 2);
+				descriptions = Arrays.copyOf(descriptions, count * 2);
+				types = Arrays.copyOf(types, count * 2);
+			}
+			ids[count] = id;
+			descriptions[count] = description;
+			types[count] = type;
+			count++;
+		}
+	}
+
+	/**
+	 * Trails parsed from one range of a trail file.
+	 */
+	private static class TrailRange implements TrailGraphLoader.TrailSink {
+
+		/** First endpoint of each trail */
+		private int[] one = new int[256];
+
+		/** Second endpoint of each trail */
+		private int[] two = new int[256];
+
+		/** Length of each trail */
+		private int[] length = new int[256];
+
+		/** Number of trails */
+		private int count;
+
+		@Override
+		public void addTrail(int landmarkOne, int landmarkTwo, int trailLength) {
+			if (count == one.length) {
+				one = Arrays.copyOf(one, count * 2);
+				two = Arrays.copyOf(two, count * 2);
+				length = Arrays.copyOf(length, count * 2);
+			}
+			one[count] = landmarkOne;
+			two[count] = landmarkTwo;
+			length[count] = trailLength;
+			count++;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * RadixHeap is a monotone priority queue for non-negative int distances. Each entry is kept in the bucket named
+ * by the highest bit in which its distance differs from the last distance polled, so an entry moves to a lower
+ * bucket at most 32 times. Offering a landmark again adds a second entry rather than lowering the first, and the
+ * search skips the stale entry. Buckets grow as needed and keep their capacity across searches.
+ *
+ * @author Maddie Moore
+ *
+ */
+class RadixHeap implements DistanceQueue {
+
+	/** Number of buckets; bucket 0 holds entries equal to the last distance polled */
+	private static final int BUCKETS = 33;
+
+	/** Entries of each bucket, with the distance in the high half and the landmark in the low half */
+	private final long[][] buckets;
+
+	/** Number of entries in each bucket */
+	private final int[] sizes;
+
+	/** Distance of the last entry polled */
+	private int last;
+
+	/** Number of entries in the heap */
+	private int size;
+
+	/**
+	 * Constructs a new, empty RadixHeap.
+	 */
+	RadixHeap() {
+		buckets = new long[BUCKETS][];
+		sizes = new int[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = new long[16];
+		}
+	}
+
+	@Override
+	public void offer(int landmark, int distance) {
+		add(bucketOf(distance), ((long) distance << 32) | landmark);
+		size++;
+	}
+
+	@Override
+	public int poll() {
+		if (sizes[0] == 0) {
+			int i = 1;
+			while (sizes[i] == 0) {
+				i++;
+			}
+			long[] bucket = buckets[i];
+			int count = sizes[i];
+			int min = Integer.MAX_VALUE;
+			for (int j = 0; j < count; j++) {
+				min = Math.min(min, (int) (bucket[j] >>> 32));
+			}
+			last = min;
+			sizes[i] = 0;
+			for (int j = 0; j < count; j++) {
+				long entry = bucket[j];
+				add(bucketOf((int) (entry >>> 32)), entry);
+			}
+		}
+		size--;
+		return (int) buckets[0][--sizes[0]];
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(sizes, 0);
+		size = 0;
+		last = 0;
+	}
+
+	/**
+	 * Returns the bucket for the given distance relative to the last distance polled.
+	 * @param distance the distance of an entry
+	 * @return the bucket number
+	 */
+	private int bucketOf(int distance) {
+		return 32 - Integer.numberOfLeadingZeros(distance ^ last);
+	}
+
+	/**
+	 * Adds an entry to the given bucket, growing the bucket if it is full.
+	 * @param bucket the bucket number
+	 * @param entry the entry to add
+	 */
+	private void add(int bucket, long entry) {
+		if (sizes[bucket] == buckets[bucket].length) {
+			buckets[bucket] = Arrays.copyOf(buckets[bucket], sizes[bucket] * 2);
+		}
+		buckets[bucket][sizes[bucket]++] = entry;
+	}
+}
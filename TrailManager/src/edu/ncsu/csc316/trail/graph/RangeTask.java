@@ -0,0 +1,65 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RangeTask runs a body over a range of ints on a fork-join pool by splitting the range in half until each
+ * piece is no larger than the grain size.
+ *
+ * @author Maddie Moore
+ *
+ */
+class RangeTask extends RecursiveAction {
+
+	/** ID used for serialization */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Work done for one piece of the range.
+	 */
+	interface Body {
+
+		/**
+		 * Runs the work for the given piece of the range.
+		 * @param from the first value of the piece
+		 * @param to the value just past the last value of the piece
+		 */
+		void run(int from, int to);
+	}
+
+	/** Work to run for each piece */
+	private final Body body;
+
+	/** First value of this task's range */
+	private final int from;
+
+	/** Value just past the last value of this task's range */
+	private final int to;
+
+	/** Largest piece that is run without splitting */
+	private final int grain;
+
+	/**
+	 * Constructs a new RangeTask.
+	 * @param body work to run for each piece
+	 * @param from the first value of the range
+	 * @param to the value just past the last value of the range
+	 * @param grain largest piece that is run without splitting
+	 */
+	RangeTask(Body body, int from, int to, int grain) {
+		this.body = body;
+		this.from = from;
+		this.to = to;
+		this.grain = Math.max(grain, 1);
+	}
+
+	@Override
+	protected void compute() {
+		if (to - from <= grain) {
+			body.run(from, to);
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		invokeAll(new RangeTask(body, from, middle, grain), new RangeTask(body, middle, to, grain));
+	}
+}
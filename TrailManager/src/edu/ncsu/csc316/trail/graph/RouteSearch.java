@@ -0,0 +1,364 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * RouteSearch finds the shortest route between two landmarks with a bidirectional Dijkstra search: one search
+ * grows from the origin and one from the destination, always advancing the side with the smaller frontier, and
+ * both stop as soon as no unsettled landmark could lead to a shorter route than the best meeting point found so
+ * far. A typical query settles only the landmarks within about half the route's length of either end instead of
+ * the whole reachable component. Like TrailSearch, all arrays are allocated once per graph and only the entries
+ * touched by the previous route are cleared.
+ *
+ * A RouteSearch that is given an AltIndex runs the same search as a bidirectional A* search. Both sides use the
+ * average potential p(v) = (b(v, destination) - b(v, origin)) / 2, where b is the index's lower bound: the forward
+ * side orders landmarks by distance + p(v) and the backward side by distance - p(v). The two potentials add up to
+ * zero, so both sides still search the same reweighted graph, the stopping test stays the same, and each side is
+ * steered towards the other. A destination that an anchor shows to be in another component is rejected without
+ * searching at all.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class RouteSearch {
+
+	/** Graph that is searched */
+	private TrailGraph graph;
+
+	/** Lower bounds that steer the search, or null for a plain bidirectional search */
+	private AltIndex index;
+
+	/** Distance from every anchor of the index to the last origin */
+	private int[] source;
+
+	/** Distance from every anchor of the index to the last destination */
+	private int[] target;
+
+	/** Search that grows from the origin */
+	private final Side forward;
+
+	/** Search that grows from the destination */
+	private final Side backward;
+
+	/** Landmarks of the last route, from the origin to the destination */
+	private final int[] path;
+
+	/** Trails of the last route; trail i joins landmarks i and i + 1 */
+	private final int[] pathTrails;
+
+	/** Number of landmarks in the last route, or 0 if there was none */
+	private int pathLength;
+
+	/** Length of the last route in feet, or TrailSearch.UNREACHED */
+	private int distance;
+
+	/**
+	 * Constructs a new RouteSearch for the given graph.
+	 * @param graph the graph to search
+	 */
+	public RouteSearch(TrailGraph graph) {
+		this(graph, null);
+	}
+
+	/**
+	 * Constructs a new RouteSearch for the given graph that is steered by the given index.
+	 * @param graph the graph to search
+	 * @param index lower bounds built for the graph, or null for a plain bidirectional search
+	 * @throws IllegalArgumentException if the index was not built for the graph
+	 */
+	public RouteSearch(TrailGraph graph, AltIndex index) {
+		if (index != null && index.getLandmarkCount() != graph.getLandmarkCount()) {
+			throw new IllegalArgumentException("The route index was built for a different network.");
+		}
+		this.graph = graph;
+		this.index = index;
+		int landmarkCount = graph.getLandmarkCount();
+		source = new int[index == null ? 0 : index.getAnchorCount()];
+		target = new int[index == null ? 0 : index.getAnchorCount()];
+		forward = new Side(landmarkCount, 1);
+		backward = new Side(landmarkCount, -1);
+		path = new int[landmarkCount];
+		pathTrails = new int[Math.max(0, landmarkCount - 1)];
+		distance = TrailSearch.UNREACHED;
+	}
+
+	/**
+	 * Finds the shortest route between two landmarks.
+	 * @param origin index of the origin landmark
+	 * @param destination index of the destination landmark
+	 * @return the length of the route in feet, or TrailSearch.UNREACHED if the destination cannot be reached
+	 */
+	public int search(int origin, int destination) {
+		pathLength = 0;
+		distance = TrailSearch.UNREACHED;
+		if (index != null) {
+			index.getRow(origin, source);
+			index.getRow(destination, target);
+		}
+		forward.reset(origin);
+		backward.reset(destination);
+		if (index != null && index.separated(origin, target)) {
+			return distance;
+		}
+		int scale = index == null ? 1 : 2;
+		int meeting = origin;
+		int best = origin == destination ? 0 : Integer.MAX_VALUE;
+		while (!forward.queue.isEmpty() && !backward.queue.isEmpty()
+				&& (long) forward.queue.peekDistance() + backward.queue.peekDistance() < (long) scale * best) {
+			Side side = forward.queue.size() <= backward.queue.size() ? forward : backward;
+			Side other = side == forward ? backward : forward;
+			int found = side.settleNext(other, best);
+			if (found != TrailGraph.NO_LANDMARK) {
+				meeting = found;
+				best = side.distances[found] + other.distances[found];
+			}
+		}
+		if (best == Integer.MAX_VALUE) {
+			return distance;
+		}
+		distance = best;
+		for (int landmark = meeting; landmark != origin; landmark = forward.parents[landmark]) {
+			path[pathLength++] = landmark;
+		}
+		path[pathLength++] = origin;
+		for (int i = 0, j = pathLength - 1; i < j; i++, j--) {
+			int swap = path[i];
+			path[i] = path[j];
+			path[j] = swap;
+		}
+		for (int i = 1; i < pathLength; i++) {
+			pathTrails[i - 1] = forward.trails[path[i]];
+		}
+		for (int landmark = meeting; landmark != destination; landmark = backward.parents[landmark]) {
+			pathTrails[pathLength - 1] = backward.trails[landmark];
+			path[pathLength++] = backward.parents[landmark];
+		}
+		return distance;
+	}
+
+	/**
+	 * Returns twice the forward potential of a landmark, b(v, destination) - b(v, origin), or 0 without an index.
+	 * @param landmark index of the landmark
+	 * @return twice the potential
+	 */
+	private int potential(int landmark) {
+		if (index == null) {
+			return 0;
+		}
+		return index.lowerBound(landmark, target) - index.lowerBound(landmark, source);
+	}
+
+	/**
+	 * Points the search at another version of its graph, such as one returned by an edit, which must have the
+	 * same landmarks. The arrays of the search are kept.
+	 * @param graph the graph to search
+	 * @param index lower bounds that are valid for the graph, or null for a plain bidirectional search
+	 * @throws IllegalArgumentException if the graph has a different number of landmarks than the search, or the
+	 *         index was not built for a graph with its landmarks
+	 */
+	public void setGraph(TrailGraph graph, AltIndex index) {
+		int landmarkCount = graph.getLandmarkCount();
+		if (landmarkCount != path.length || index != null && index.getLandmarkCount() != landmarkCount) {
+			throw new IllegalArgumentException("The route index was built for a different network.");
+		}
+		if (index != null && index.getAnchorCount() > source.length) {
+			source = new int[index.getAnchorCount()];
+			target = new int[index.getAnchorCount()];
+		}
+		this.graph = graph;
+		this.index = index;
+	}
+
+	/**
+	 * Returns the index that steers the search.
+	 * @return the index, or null for a plain bidirectional search
+	 */
+	public AltIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the graph that is searched.
+	 * @return the searched graph
+	 */
+	public TrailGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the length of the last route.
+	 * @return the length in feet, or TrailSearch.UNREACHED if the last destination could not be reached
+	 */
+	public int getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Returns the number of landmarks on the last route, including both ends.
+	 * @return the number of landmarks, or 0 if the last destination could not be reached
+	 */
+	public int getLandmarkCount() {
+		return pathLength;
+	}
+
+	/**
+	 * Returns a landmark on the last route.
+	 * @param position position on the route, from 0 (the origin) to getLandmarkCount() - 1 (the destination)
+	 * @return the index of the landmark
+	 */
+	public int getLandmark(int position) {
+		return path[position];
+	}
+
+	/**
+	 * Returns a trail on the last route.
+	 * @param position position on the route, from 0 to getLandmarkCount() - 2; the trail joins the landmarks at
+	 *        position and position + 1
+	 * @return the index of the trail
+	 */
+	public int getTrail(int position) {
+		return pathTrails[position];
+	}
+
+	/**
+	 * Returns the number of landmarks the last search settled from either end, which shows how much of the graph
+	 * it explored.
+	 * @return the number of landmarks settled
+	 */
+	public int getSettledCount() {
+		return forward.settledCount + backward.settledCount;
+	}
+
+	/**
+	 * One direction of the search: its distances, the landmark and trail each landmark was reached from, and its
+	 * queue. The graph is undirected, so both directions follow the same adjacency lists. With an index, queue
+	 * keys are twice the distance plus the side's potential, which keeps them integers. A key too large for an int
+	 * is kept at Integer.MAX_VALUE: it then sorts no later than its landmark should, so the stopping test stays
+	 * safe, and a landmark polled too early is queued again when a shorter distance to it is found. As in
+	 * TrailSearch, a landmark only reachable by a route longer than Integer.MAX_VALUE feet is not reached.
+	 */
+	private final class Side {
+
+		/** Distance from this side's start to each landmark, or TrailSearch.UNREACHED */
+		private final int[] distances;
+
+		/** Landmark each landmark was reached from */
+		private final int[] parents;
+
+		/** Trail each landmark was reached along */
+		private final int[] trails;
+
+		/** Landmarks whose distance was set by the last search */
+		private final int[] touched;
+
+		/** Queue of landmarks that have been reached but not settled */
+		private final IndexedIntHeap queue;
+
+		/** 1 for the forward side and -1 for the backward side, which negates the potential */
+		private final int direction;
+
+		/** Number of entries in touched */
+		private int touchedCount;
+
+		/** Number of landmarks settled by the last search */
+		private int settledCount;
+
+		/**
+		 * Constructs a new Side for the given number of landmarks.
+		 * @param landmarkCount the number of landmarks
+		 * @param direction 1 for the forward side and -1 for the backward side
+		 */
+		private Side(int landmarkCount, int direction) {
+			distances = new int[landmarkCount];
+			parents = new int[landmarkCount];
+			trails = new int[landmarkCount];
+			touched = new int[landmarkCount];
+			queue = new IndexedIntHeap(landmarkCount);
+			this.direction = direction;
+			Arrays.fill(distances, TrailSearch.UNREACHED);
+		}
+
+		/**
+		 * Returns the queue key of a landmark at the given distance from this side's start.
+		 * @param landmark index of the landmark
+		 * @param distance distance of the landmark
+		 * @return the key
+		 */
+		private int key(int landmark, int distance) {
+			if (index == null) {
+				return distance;
+			}
+			return (int) Math.min(2L * distance + direction * potential(landmark), Integer.MAX_VALUE);
+		}
+
+		/**
+		 * Clears the last search and starts a new one from the given landmark.
+		 * @param start index of the landmark this side starts from
+		 */
+		private void reset(int start) {
+			for (int i = 0; i < touchedCount; i++) {
+				distances[touched[i]] = TrailSearch.UNREACHED;
+			}
+			touchedCount = 0;
+			settledCount = 0;
+			queue.clear();
+			distances[start] = 0;
+			touched[touchedCount++] = start;
+			queue.offer(start, key(start, 0));
+		}
+
+		/**
+		 * Settles the landmark with the smallest key and relaxes its trails.
+		 * @param other the opposite side of the search
+		 * @param best length of the shortest route found so far
+		 * @return a landmark where the two sides now meet with a route shorter than best, or
+		 *         TrailGraph.NO_LANDMARK if no shorter route was found
+		 */
+		private int settleNext(Side other, int best) {
+			IntBuffer neighbors = graph.neighbors;
+			IntBuffer lengths = graph.lengths;
+			IntBuffer slotTrails = graph.trails;
+			int current = queue.poll();
+			settledCount++;
+			int distance = distances[current];
+			int meeting = TrailGraph.NO_LANDMARK;
+			int slot;
+			int end;
+			GraphDelta delta = graph.delta;
+			long range = delta == null ? GraphDelta.NO_RANGE : delta.getRange(current);
+			if (range == GraphDelta.NO_RANGE) {
+				slot = graph.offsets.get(current);
+				end = graph.offsets.get(current + 1);
+			} else {
+				neighbors = delta.neighbors;
+				lengths = delta.lengths;
+				slotTrails = delta.trails;
+				slot = GraphDelta.start(range);
+				end = GraphDelta.end(range);
+			}
+			for (; slot < end; slot++) {
+				int next = neighbors.get(slot);
+				int candidate = distance + lengths.get(slot);
+				if (candidate < 0) {
+					continue;
+				}
+				if (distances[next] == TrailSearch.UNREACHED) {
+					touched[touchedCount++] = next;
+				} else if (candidate >= distances[next]) {
+					continue;
+				}
+				distances[next] = candidate;
+				parents[next] = current;
+				trails[next] = slotTrails.get(slot);
+				queue.offer(next, key(next, candidate));
+				int across = other.distances[next];
+				if (across != TrailSearch.UNREACHED && (long) candidate + across < best) {
+					best = candidate + across;
+					meeting = next;
+				}
+			}
+			return meeting;
+		}
+	}
+}
@@ -0,0 +1,542 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.IntBuffer;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.data.Trail;
+
+/**
+ * TrailGraph is an immutable view of the park network. Every landmark ID is interned to a dense int index when
+ * the graph is built, and the trails touching each landmark are stored in compressed sparse row form: the
+ * adjacency slots of landmark v are offsets[v] (inclusive) through offsets[v + 1] (exclusive) of the neighbors,
+ * lengths, and trails arrays. Every trail is stored twice, once from each of its endpoints. The arrays are
+ * held as IntBuffers so that a graph can be served either from the heap or straight from a memory-mapped
+ * snapshot file.
+ *
+ * Trails can be closed, reopened, added, and given new lengths, and landmarks can be added, without rebuilding
+ * the arrays. Each edit returns a new graph that shares the arrays of this one and records its changes in a
+ * GraphDelta, so the graph an edit started from can still be searched by other threads. A landmark whose trails
+ * changed has its adjacency slots in the delta, numbered after the slots of the arrays, so its slots may no
+ * longer be consecutive with its neighbors' slots. compact() builds a graph without the delta.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailGraph {
+
+	/** Index returned when a landmark ID is not part of the graph */
+	public static final int NO_LANDMARK = -1;
+
+	/** ID, description, and type of each landmark, by landmark index */
+	private final LandmarkTable landmarks;
+
+	/** First adjacency slot of each landmark; offsets[landmarkCount] is the total number of slots */
+	final IntBuffer offsets;
+
+	/** Landmark index at the other end of each adjacency slot */
+	final IntBuffer neighbors;
+
+	/** Length in feet of the trail in each adjacency slot */
+	final IntBuffer lengths;
+
+	/** Trail index of each adjacency slot */
+	final IntBuffer trails;
+
+	/** First endpoint of each trail, by trail index */
+	final IntBuffer trailOne;
+
+	/** Second endpoint of each trail, by trail index */
+	final IntBuffer trailTwo;
+
+	/** Length in feet of each trail, by trail index */
+	final IntBuffer trailLength;
+
+	/** Changes made since the arrays were built, or null if there are none */
+	final GraphDelta delta;
+
+	/** Fingerprint of the trails recorded in the snapshot the graph was read from, or 0 if none was recorded */
+	final long savedFingerprint;
+
+	/**
+	 * Constructs a new TrailGraph over arrays that have already been filled in by a TrailGraphBuilder.
+	 * @param ids ID of each landmark
+	 * @param descriptions description of each landmark
+	 * @param types type of each landmark
+	 * @param idTable table of landmark IDs to indices
+	 * @param offsets first adjacency slot of each landmark
+	 * @param neighbors landmark at the other end of each slot
+	 * @param lengths trail length of each slot
+	 * @param trails trail index of each slot
+	 * @param trailOne first endpoint of each trail
+	 * @param trailTwo second endpoint of each trail
+	 * @param trailLength length of each trail
+	 */
+	TrailGraph(String[] ids, String[] descriptions, String[] types, IdTable idTable, int[] offsets, int[] neighbors,
+			int[] lengths, int[] trails, int[] trailOne, int[] trailTwo, int[] trailLength) {
+		this(new HeapLandmarkTable(ids, descriptions, types, idTable), IntBuffer.wrap(offsets), IntBuffer.wrap(neighbors),
+				IntBuffer.wrap(lengths), IntBuffer.wrap(trails), IntBuffer.wrap(trailOne), IntBuffer.wrap(trailTwo),
+				IntBuffer.wrap(trailLength));
+	}
+
+	/**
+	 * Constructs a new TrailGraph over the given landmark table and buffers.
+	 * @param landmarks ID, description, and type of each landmark
+	 * @param offsets first adjacency slot of each landmark
+	 * @param neighbors landmark at the other end of each slot
+	 * @param lengths trail length of each slot
+	 * @param trails trail index of each slot
+	 * @param trailOne first endpoint of each trail
+	 * @param trailTwo second endpoint of each trail
+	 * @param trailLength length of each trail
+	 */
+	TrailGraph(LandmarkTable landmarks, IntBuffer offsets, IntBuffer neighbors, IntBuffer lengths, IntBuffer trails,
+			IntBuffer trailOne, IntBuffer trailTwo, IntBuffer trailLength) {
+		this(landmarks, offsets, neighbors, lengths, trails, trailOne, trailTwo, trailLength, null, 0);
+	}
+
+	/**
+	 * Constructs a new TrailGraph over the buffers of a snapshot that recorded the fingerprint of its trails.
+	 * @param landmarks ID, description, and type of each landmark
+	 * @param offsets first adjacency slot of each landmark
+	 * @param neighbors landmark at the other end of each slot
+	 * @param lengths trail length of each slot
+	 * @param trails trail index of each slot
+	 * @param trailOne first endpoint of each trail
+	 * @param trailTwo second endpoint of each trail
+	 * @param trailLength length of each trail
+	 * @param savedFingerprint the fingerprint AltIndex.fingerprint gave the trails when they were saved, or 0
+	 */
+	TrailGraph(LandmarkTable landmarks, IntBuffer offsets, IntBuffer neighbors, IntBuffer lengths, IntBuffer trails,
+			IntBuffer trailOne, IntBuffer trailTwo, IntBuffer trailLength, long savedFingerprint) {
+		this(landmarks, offsets, neighbors, lengths, trails, trailOne, trailTwo, trailLength, null, savedFingerprint);
+	}
+
+	/**
+	 * Constructs a new TrailGraph over the arrays of the given graph with the given changes.
+	 * @param base graph whose arrays are shared
+	 * @param delta changes made to the arrays
+	 */
+	private TrailGraph(TrailGraph base, GraphDelta delta) {
+		this(base.landmarks, base.offsets, base.neighbors, base.lengths, base.trails, base.trailOne, base.trailTwo,
+				base.trailLength, delta, 0);
+	}
+
+	/**
+	 * Constructs a new TrailGraph over the given landmark table, buffers, and changes.
+	 * @param landmarks ID, description, and type of each landmark
+	 * @param offsets first adjacency slot of each landmark
+	 * @param neighbors landmark at the other end of each slot
+	 * @param lengths trail length of each slot
+	 * @param trails trail index of each slot
+	 * @param trailOne first endpoint of each trail
+	 * @param trailTwo second endpoint of each trail
+	 * @param trailLength length of each trail
+	 * @param delta changes made to the arrays, or null
+	 * @param savedFingerprint fingerprint of the trails recorded in a snapshot, or 0
+	 */
+	private TrailGraph(LandmarkTable landmarks, IntBuffer offsets, IntBuffer neighbors, IntBuffer lengths,
+			IntBuffer trails, IntBuffer trailOne, IntBuffer trailTwo, IntBuffer trailLength, GraphDelta delta,
+			long savedFingerprint) {
+		this.delta = delta;
+		this.savedFingerprint = savedFingerprint;
+		this.landmarks = landmarks;
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+		this.lengths = lengths;
+		this.trails = trails;
+		this.trailOne = trailOne;
+		this.trailTwo = trailTwo;
+		this.trailLength = trailLength;
+	}
+
+	/**
+	 * Returns the number of landmarks in the graph.
+	 * @return the number of landmarks
+	 */
+	public int getLandmarkCount() {
+		return delta == null ? landmarks.size() : delta.getLandmarkCount();
+	}
+
+	/**
+	 * Returns the number of trails in the graph.
+	 * @return the number of trails
+	 */
+	public int getTrailCount() {
+		return delta == null ? trailLength.capacity() : delta.getTrailCount();
+	}
+
+	/**
+	 * Returns the index of the landmark with the given ID.
+	 * @param landmarkID the ID of the landmark to find
+	 * @return the index of the landmark, or NO_LANDMARK if no landmark has the given ID
+	 */
+	public int indexOf(String landmarkID) {
+		int index = landmarks.indexOf(landmarkID);
+		if (index == NO_LANDMARK && delta != null) {
+			index = delta.indexOf(landmarkID);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the ID of the landmark at the given index.
+	 * @param landmark index of the landmark
+	 * @return the ID of the landmark
+	 */
+	public String getId(int landmark) {
+		if (delta != null && landmark >= delta.baseLandmarks) {
+			return delta.getId(landmark);
+		}
+		return landmarks.getId(landmark);
+	}
+
+	/**
+	 * Returns the description of the landmark at the given index.
+	 * @param landmark index of the landmark
+	 * @return the description of the landmark
+	 */
+	public String getDescription(int landmark) {
+		if (delta != null && landmark >= delta.baseLandmarks) {
+			return delta.getDescription(landmark);
+		}
+		return landmarks.getDescription(landmark);
+	}
+
+	/**
+	 * Returns the type of the landmark at the given index.
+	 * @param landmark index of the landmark
+	 * @return the type of the landmark
+	 */
+	public String getType(int landmark) {
+		if (delta != null && landmark >= delta.baseLandmarks) {
+			return delta.getType(landmark);
+		}
+		return landmarks.getType(landmark);
+	}
+
+	/**
+	 * Creates a Landmark object for the landmark at the given index.
+	 * @param landmark index of the landmark
+	 * @return a new Landmark with the ID, description, and type of the landmark
+	 */
+	public Landmark getLandmark(int landmark) {
+		return new Landmark(getId(landmark), getDescription(landmark), getType(landmark));
+	}
+
+	/**
+	 * Returns the number of trails that intersect at the landmark with the given index.
+	 * @param landmark index of the landmark
+	 * @return the number of intersecting trails
+	 */
+	public int getDegree(int landmark) {
+		return endSlot(landmark) - firstSlot(landmark);
+	}
+
+	/**
+	 * Returns the first adjacency slot of the given landmark.
+	 * @param landmark index of the landmark
+	 * @return the first adjacency slot of the landmark
+	 */
+	public int firstSlot(int landmark) {
+		if (delta != null) {
+			long range = delta.getRange(landmark);
+			if (range != GraphDelta.NO_RANGE) {
+				return delta.baseSlots + GraphDelta.start(range);
+			}
+		}
+		return offsets.get(landmark);
+	}
+
+	/**
+	 * Returns the slot just past the last adjacency slot of the given landmark.
+	 * @param landmark index of the landmark
+	 * @return the end (exclusive) of the landmark's adjacency slots
+	 */
+	public int endSlot(int landmark) {
+		if (delta != null) {
+			long range = delta.getRange(landmark);
+			if (range != GraphDelta.NO_RANGE) {
+				return delta.baseSlots + GraphDelta.end(range);
+			}
+		}
+		return offsets.get(landmark + 1);
+	}
+
+	/**
+	 * Returns the landmark at the other end of the given adjacency slot.
+	 * @param slot the adjacency slot
+	 * @return the index of the neighboring landmark
+	 */
+	public int getNeighbor(int slot) {
+		if (delta != null && slot >= delta.baseSlots) {
+			return delta.neighbors.get(slot - delta.baseSlots);
+		}
+		return neighbors.get(slot);
+	}
+
+	/**
+	 * Returns the length in feet of the trail in the given adjacency slot.
+	 * @param slot the adjacency slot
+	 * @return the length of the trail
+	 */
+	public int getLength(int slot) {
+		if (delta != null && slot >= delta.baseSlots) {
+			return delta.lengths.get(slot - delta.baseSlots);
+		}
+		return lengths.get(slot);
+	}
+
+	/**
+	 * Returns the trail index of the given adjacency slot.
+	 * @param slot the adjacency slot
+	 * @return the index of the trail
+	 */
+	public int getTrail(int slot) {
+		if (delta != null && slot >= delta.baseSlots) {
+			return delta.trails.get(slot - delta.baseSlots);
+		}
+		return trails.get(slot);
+	}
+
+	/**
+	 * Returns the first endpoint of the trail at the given index.
+	 * @param trail index of the trail
+	 * @return the landmark index of the first endpoint
+	 */
+	public int getTrailOne(int trail) {
+		return delta == null ? trailOne.get(trail) : delta.getTrailOne(this, trail);
+	}
+
+	/**
+	 * Returns the second endpoint of the trail at the given index.
+	 * @param trail index of the trail
+	 * @return the landmark index of the second endpoint
+	 */
+	public int getTrailTwo(int trail) {
+		return delta == null ? trailTwo.get(trail) : delta.getTrailTwo(this, trail);
+	}
+
+	/**
+	 * Returns the length in feet of the trail at the given index.
+	 * @param trail index of the trail
+	 * @return the length of the trail
+	 */
+	public int getTrailLength(int trail) {
+		return delta == null ? trailLength.get(trail) : delta.getTrailLength(this, trail);
+	}
+
+	/**
+	 * Returns the number of adjacency slots in use, which is twice the number of open trails.
+	 * @return the number of adjacency slots
+	 */
+	public int getSlotCount() {
+		return delta == null ? offsets.get(landmarks.size()) : delta.getSlotCount();
+	}
+
+	/**
+	 * Returns the table of landmark IDs, descriptions, and types.
+	 * @return the landmark table
+	 */
+	LandmarkTable getLandmarkTable() {
+		return landmarks;
+	}
+
+	/**
+	 * Creates a Trail object for the trail at the given index.
+	 * @param trail index of the trail
+	 * @return a new Trail with the endpoint IDs and length of the trail
+	 */
+	public Trail getTrailObject(int trail) {
+		return new Trail(getId(getTrailOne(trail)), getId(getTrailTwo(trail)), getTrailLength(trail));
+	}
+
+	/**
+	 * Returns true if the trail at the given index is closed. A closed trail keeps its index, endpoints, and
+	 * length, but is not in the adjacency slots of either endpoint.
+	 * @param trail index of the trail
+	 * @return true if the trail is closed
+	 */
+	public boolean isClosed(int trail) {
+		return delta != null && delta.isClosed(trail);
+	}
+
+	/**
+	 * Returns every closed trail.
+	 * @return the indices of the closed trails, in ascending order
+	 */
+	public int[] getClosedTrails() {
+		return delta == null ? new int[0] : delta.getClosedTrails();
+	}
+
+	/**
+	 * Returns true if the graph has been edited since its arrays were built.
+	 * @return true if the graph has changes that compact() would fold into new arrays
+	 */
+	public boolean hasChanges() {
+		return delta != null;
+	}
+
+	/**
+	 * Returns a graph with the given trail closed.
+	 * @param trail index of the trail
+	 * @return the new graph
+	 * @throws IllegalArgumentException if the trail does not exist or is already closed
+	 */
+	public TrailGraph closeTrail(int trail) {
+		checkTrail(trail);
+		if (isClosed(trail)) {
+			throw new IllegalArgumentException("The trail is already closed.");
+		}
+		return new TrailGraph(this, getDelta().closeTrail(this, trail));
+	}
+
+	/**
+	 * Returns a graph with the given closed trail opened again.
+	 * @param trail index of the trail
+	 * @return the new graph
+	 * @throws IllegalArgumentException if the trail does not exist or is not closed
+	 */
+	public TrailGraph openTrail(int trail) {
+		checkTrail(trail);
+		if (!isClosed(trail)) {
+			throw new IllegalArgumentException("The trail is not closed.");
+		}
+		return new TrailGraph(this, getDelta().openTrail(this, trail));
+	}
+
+	/**
+	 * Returns a graph with a new trail between two landmarks. The new trail's index is this graph's number of
+	 * trails.
+	 * @param landmarkOne index of the first endpoint
+	 * @param landmarkTwo index of the second endpoint
+	 * @param length length of the trail in feet
+	 * @return the new graph
+	 * @throws IllegalArgumentException if either landmark does not exist or the length is negative
+	 */
+	public TrailGraph addTrail(int landmarkOne, int landmarkTwo, int length) {
+		checkLandmark(landmarkOne);
+		checkLandmark(landmarkTwo);
+		checkLength(length);
+		return new TrailGraph(this, getDelta().addTrail(this, landmarkOne, landmarkTwo, length));
+	}
+
+	/**
+	 * Returns a graph where the given trail has a new length.
+	 * @param trail index of the trail
+	 * @param length new length of the trail in feet
+	 * @return the new graph
+	 * @throws IllegalArgumentException if the trail does not exist or the length is negative
+	 */
+	public TrailGraph setTrailLength(int trail, int length) {
+		checkTrail(trail);
+		checkLength(length);
+		return new TrailGraph(this, getDelta().setTrailLength(this, trail, length));
+	}
+
+	/**
+	 * Returns a graph with a new landmark that has no trails. The new landmark's index is this graph's number of
+	 * landmarks.
+	 * @param id ID of the landmark
+	 * @param description description of the landmark
+	 * @param type type of the landmark
+	 * @return the new graph
+	 * @throws IllegalArgumentException if a landmark with the ID already exists
+	 */
+	public TrailGraph addLandmark(String id, String description, String type) {
+		if (indexOf(id) != NO_LANDMARK) {
+			throw new IllegalArgumentException("Landmark " + id + " is already a landmark in the park.");
+		}
+		return new TrailGraph(this, getDelta().addLandmark(id, description, type));
+	}
+
+	/**
+	 * Builds a graph with the same landmarks and open trails as this one, with every change folded into new
+	 * arrays. Landmark indices stay the same, while closed trails are dropped and the open trails keep their
+	 * order.
+	 * @return a graph without changes, which is this graph if it has none
+	 */
+	public TrailGraph compact() {
+		if (delta == null) {
+			return this;
+		}
+		int landmarkCount = getLandmarkCount();
+		TrailGraphBuilder builder = new TrailGraphBuilder(landmarkCount, getTrailCount());
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			builder.addLandmark(getId(landmark), getDescription(landmark), getType(landmark));
+		}
+		for (int trail = 0; trail < getTrailCount(); trail++) {
+			if (!isClosed(trail)) {
+				builder.addTrail(getTrailOne(trail), getTrailTwo(trail), getTrailLength(trail));
+			}
+		}
+		TrailGraph compacted = builder.build();
+		return isPacked() ? compacted.packLandmarks() : compacted;
+	}
+
+	/**
+	 * Returns a graph with the same landmarks, trails, and edits whose landmark IDs, descriptions, and types are
+	 * stored as UTF-8 bytes in direct buffers outside the Java heap, with IDs found through a table of landmark
+	 * indices. Strings are only created when one is asked for, such as when a report line is written, so a large
+	 * park keeps almost none of its strings on the heap. Landmarks added by later edits are kept on the heap
+	 * until the graph is compacted, which packs them too.
+	 * @return the packed graph, or this graph if its landmarks are already packed
+	 * @throws IllegalArgumentException if the landmark strings take more than 2 GB
+	 */
+	public TrailGraph packLandmarks() {
+		if (isPacked()) {
+			return this;
+		}
+		return new TrailGraph(Utf8LandmarkTable.pack(landmarks), offsets, neighbors, lengths, trails, trailOne,
+				trailTwo, trailLength, delta, savedFingerprint);
+	}
+
+	/**
+	 * Returns true if the landmark strings are stored as UTF-8 bytes, either packed by packLandmarks() or read
+	 * from a snapshot file.
+	 * @return true if the landmarks are packed
+	 */
+	public boolean isPacked() {
+		return landmarks instanceof Utf8LandmarkTable;
+	}
+
+	/**
+	 * Returns the changes made to the arrays, creating an empty delta if there are none.
+	 * @return the delta to edit
+	 */
+	private GraphDelta getDelta() {
+		return delta == null ? new GraphDelta(this) : delta;
+	}
+
+	/**
+	 * Checks that a trail index is part of the graph.
+	 * @param trail index of the trail
+	 * @throws IllegalArgumentException if the trail does not exist
+	 */
+	private void checkTrail(int trail) {
+		if (trail < 0 || trail >= getTrailCount()) {
+			throw new IllegalArgumentException("Trail " + trail + " is not a trail in the park.");
+		}
+	}
+
+	/**
+	 * Checks that a landmark index is part of the graph.
+	 * @param landmark index of the landmark
+	 * @throws IllegalArgumentException if the landmark does not exist
+	 */
+	private void checkLandmark(int landmark) {
+		if (landmark < 0 || landmark >= getLandmarkCount()) {
+			throw new IllegalArgumentException("Trail endpoint is not a landmark in the park.");
+		}
+	}
+
+	/**
+	 * Checks that a trail length is valid.
+	 * @param length length of a trail in feet
+	 * @throws IllegalArgumentException if the length is negative
+	 */
+	private void checkLength(int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Trail length cannot be negative.");
+		}
+	}
+}
@@ -0,0 +1,299 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * TrailGraphBuilder collects landmarks and trails and then packs them into an immutable TrailGraph. Landmarks
+ * must be added before any trail that uses them. Adding a landmark with an ID that was already added replaces
+ * its description and type, the same way putting it into a map would. A builder should not be used again
+ * once build has been called.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailGraphBuilder {
+
+	/** ID of each landmark added so far */
+	private String[] ids;
+
+	/** Description of each landmark added so far */
+	private String[] descriptions;
+
+	/** Type of each landmark added so far */
+	private String[] types;
+
+	/** Number of landmarks added so far */
+	private int landmarkCount;
+
+	/** Table used to intern landmark IDs */
+	private IdTable idTable;
+
+	/** First endpoint of each trail added so far */
+	private int[] trailOne;
+
+	/** Second endpoint of each trail added so far */
+	private int[] trailTwo;
+
+	/** Length of each trail added so far */
+	private int[] trailLength;
+
+	/** Number of trails added so far */
+	private int trailCount;
+
+	/** Smallest number of trails or landmarks handled by one task of a parallel build */
+	private static final int MIN_GRAIN = 1 << 12;
+
+	/**
+	 * Constructs a new, empty TrailGraphBuilder.
+	 */
+	public TrailGraphBuilder() {
+		this(16, 16);
+	}
+
+	/**
+	 * Constructs a new TrailGraphBuilder sized for the expected number of landmarks and trails.
+	 * @param expectedLandmarks the number of landmarks expected
+	 * @param expectedTrails the number of trails expected
+	 */
+	public TrailGraphBuilder(int expectedLandmarks, int expectedTrails) {
+		int landmarkCapacity = Math.max(expectedLandmarks, 1);
+		int trailCapacity = Math.max(expectedTrails, 1);
+		ids = new String[landmarkCapacity];
+		descriptions = new String[landmarkCapacity];
+		types = new String[landmarkCapacity];
+		idTable = new IdTable(landmarkCapacity);
+		trailOne = new int[trailCapacity];
+		trailTwo = new int[trailCapacity];
+		trailLength = new int[trailCapacity];
+	}
+
+	/**
+	 * Adds a landmark to the graph, or replaces the description and type of a landmark with the same ID.
+	 * @param id the ID of the landmark
+	 * @param description the description of the landmark
+	 * @param type the type of the landmark
+	 * @return the index of the landmark
+	 */
+	public int addLandmark(String id, String description, String type) {
+		int index = idTable.get(id);
+		if (index != TrailGraph.NO_LANDMARK) {
+			descriptions[index] = description;
+			types[index] = type;
+			return index;
+		}
+		if (landmarkCount == ids.length) {
+			int capacity = ids.length * 2;
+			ids = Arrays.copyOf(ids, capacity);
+			descriptions = Arrays.copyOf(descriptions, capacity);
+			types = Arrays.copyOf(types, capacity);
+		}
+		index = landmarkCount;
+		ids[index] = id;
+		descriptions[index] = description;
+		types[index] = type;
+		idTable.put(id, index);
+		landmarkCount++;
+		return index;
+	}
+
+	/**
+	 * Adds a trail between the two landmarks with the given IDs.
+	 * @param landmarkOne the ID of the first landmark
+	 * @param landmarkTwo the ID of the second landmark
+	 * @param length the length of the trail in feet
+	 * @throws IllegalArgumentException if either landmark has not been added, or the length is negative
+	 */
+	public void addTrail(String landmarkOne, String landmarkTwo, int length) {
+		addTrail(indexOf(landmarkOne), indexOf(landmarkTwo), length);
+	}
+
+	/**
+	 * Adds a trail between the two landmarks with the given indices.
+	 * @param landmarkOne the index of the first landmark
+	 * @param landmarkTwo the index of the second landmark
+	 * @param length the length of the trail in feet
+	 * @throws IllegalArgumentException if either index is not a landmark that has been added, or the length is
+	 *         negative
+	 */
+	public void addTrail(int landmarkOne, int landmarkTwo, int length) {
+		if (landmarkOne < 0 || landmarkOne >= landmarkCount || landmarkTwo < 0 || landmarkTwo >= landmarkCount) {
+			throw new IllegalArgumentException("Trail endpoint is not a landmark in the park.");
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("Trail length cannot be negative.");
+		}
+		if (trailCount == trailLength.length) {
+			int capacity = trailLength.length * 2;
+			trailOne = Arrays.copyOf(trailOne, capacity);
+			trailTwo = Arrays.copyOf(trailTwo, capacity);
+			trailLength = Arrays.copyOf(trailLength, capacity);
+		}
+		trailOne[trailCount] = landmarkOne;
+		trailTwo[trailCount] = landmarkTwo;
+		trailLength[trailCount] = length;
+		trailCount++;
+	}
+
+	/**
+	 * Returns the index of the landmark with the given ID.
+	 * @param landmarkID the ID of the landmark
+	 * @return the index of the landmark
+	 * @throws IllegalArgumentException if no landmark has the given ID
+	 */
+	public int indexOf(String landmarkID) {
+		int index = idTable.get(landmarkID);
+		if (index == TrailGraph.NO_LANDMARK) {
+			throw new IllegalArgumentException("Landmark " + landmarkID + " is not a landmark in the park.");
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index of the landmark whose ID is spelled by the given UTF-8 bytes.
+	 * @param bytes array holding the bytes of the ID
+	 * @param offset position of the first byte of the ID
+	 * @param length number of bytes in the ID
+	 * @return the index of the landmark, or TrailGraph.NO_LANDMARK if no landmark has the ID
+	 */
+	int indexOf(byte[] bytes, int offset, int length) {
+		return idTable.get(bytes, offset, length);
+	}
+
+	/**
+	 * Replaces every trail added so far with the trails in the given arrays. The arrays are used directly and
+	 * every endpoint must already be a valid landmark index.
+	 * @param one first endpoint of each trail
+	 * @param two second endpoint of each trail
+	 * @param length length of each trail
+	 * @param count number of trails in the arrays
+	 */
+	void setTrails(int[] one, int[] two, int[] length, int count) {
+		trailOne = one;
+		trailTwo = two;
+		trailLength = length;
+		trailCount = count;
+	}
+
+	/**
+	 * Returns the number of landmarks added so far.
+	 * @return the number of landmarks
+	 */
+	public int getLandmarkCount() {
+		return landmarkCount;
+	}
+
+	/**
+	 * Packs the landmarks and trails into a TrailGraph. The adjacency slots of each landmark are filled with a
+	 * counting pass, a prefix sum, and a scatter pass. Each landmark's slots list its trails most recent first.
+	 * @return the new TrailGraph
+	 */
+	public TrailGraph build() {
+		int[] offsets = new int[landmarkCount + 1];
+		for (int t = 0; t < trailCount; t++) {
+			offsets[trailOne[t] + 1]++;
+			offsets[trailTwo[t] + 1]++;
+		}
+		for (int v = 0; v < landmarkCount; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		int slots = offsets[landmarkCount];
+		int[] neighbors = new int[slots];
+		int[] lengths = new int[slots];
+		int[] trails = new int[slots];
+		int[] cursor = Arrays.copyOfRange(offsets, 1, landmarkCount + 1);
+		for (int t = 0; t < trailCount; t++) {
+			int one = trailOne[t];
+			int two = trailTwo[t];
+			int slot = --cursor[one];
+			neighbors[slot] = two;
+			lengths[slot] = trailLength[t];
+			trails[slot] = t;
+			slot = --cursor[two];
+			neighbors[slot] = one;
+			lengths[slot] = trailLength[t];
+			trails[slot] = t;
+		}
+		return new TrailGraph(Arrays.copyOf(ids, landmarkCount), Arrays.copyOf(descriptions, landmarkCount),
+				Arrays.copyOf(types, landmarkCount), idTable, offsets, neighbors, lengths, trails,
+				Arrays.copyOf(trailOne, trailCount), Arrays.copyOf(trailTwo, trailCount),
+				Arrays.copyOf(trailLength, trailCount));
+	}
+
+	/**
+	 * Packs the landmarks and trails into a TrailGraph using the given pool. The trails are counted per landmark
+	 * and scattered into their slots in parallel through atomic counters, so no locks are taken, and then each
+	 * landmark's slots are put back in the same order that build() produces. The graph is identical to the one
+	 * build() returns.
+	 * @param pool the pool that runs the build
+	 * @return the new TrailGraph
+	 */
+	public TrailGraph build(ForkJoinPool pool) {
+		return pool.invoke(ForkJoinTask.adapt(() -> buildInPool(pool.getParallelism())));
+	}
+
+	/**
+	 * Packs the landmarks and trails into a TrailGraph. This must be called from a task running in a
+	 * fork-join pool.
+	 * @param parallelism the parallelism of the pool
+	 * @return the new TrailGraph
+	 */
+	private TrailGraph buildInPool(int parallelism) {
+		final int[] one = trailOne;
+		final int[] two = trailTwo;
+		final int[] length = trailLength;
+		int trailGrain = Math.max(trailCount / (parallelism * 4), MIN_GRAIN);
+		int landmarkGrain = Math.max(landmarkCount / (parallelism * 4), MIN_GRAIN);
+		AtomicIntegerArray cursor = new AtomicIntegerArray(landmarkCount);
+		new RangeTask((from, to) -> {
+			for (int t = from; t < to; t++) {
+				cursor.incrementAndGet(one[t]);
+				cursor.incrementAndGet(two[t]);
+			}
+		}, 0, trailCount, trailGrain).invoke();
+		int[] offsets = new int[landmarkCount + 1];
+		new RangeTask((from, to) -> {
+			for (int v = from; v < to; v++) {
+				offsets[v + 1] = cursor.get(v);
+			}
+		}, 0, landmarkCount, landmarkGrain).invoke();
+		Arrays.parallelPrefix(offsets, Integer::sum);
+		new RangeTask((from, to) -> {
+			for (int v = from; v < to; v++) {
+				cursor.set(v, offsets[v + 1]);
+			}
+		}, 0, landmarkCount, landmarkGrain).invoke();
+		int slots = offsets[landmarkCount];
+		int[] neighbors = new int[slots];
+		int[] lengths = new int[slots];
+		int[] trails = new int[slots];
+		new RangeTask((from, to) -> {
+			for (int t = from; t < to; t++) {
+				trails[cursor.decrementAndGet(one[t])] = t;
+				trails[cursor.decrementAndGet(two[t])] = t;
+			}
+		}, 0, trailCount, trailGrain).invoke();
+		new RangeTask((from, to) -> {
+			for (int v = from; v < to; v++) {
+				int first = offsets[v];
+				int last = offsets[v + 1] - 1;
+				Arrays.sort(trails, first, last + 1);
+				for (int i = first, j = last; i < j; i++, j--) {
+					int swap = trails[i];
+					trails[i] = trails[j];
+					trails[j] = swap;
+				}
+				for (int slot = first; slot <= last; slot++) {
+					int t = trails[slot];
+					neighbors[slot] = one[t] == v ? two[t] : one[t];
+					lengths[slot] = length[t];
+				}
+			}
+		}, 0, landmarkCount, landmarkGrain).invoke();
+		return new TrailGraph(Arrays.copyOf(ids, landmarkCount), Arrays.copyOf(descriptions, landmarkCount),
+				Arrays.copyOf(types, landmarkCount), idTable, offsets, neighbors, lengths, trails,
+				Arrays.copyOf(one, trailCount), Arrays.copyOf(two, trailCount), Arrays.copyOf(length, trailCount));
+	}
+}
@@ -0,0 +1,248 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import edu.ncsu.csc316.trail.metrics.Counter;
+import edu.ncsu.csc316.trail.metrics.Metrics;
+import edu.ncsu.csc316.trail.metrics.Phase;
+
+/**
+ * TrailGraphLoader reads landmark and trail CSV files straight into a TrailGraphBuilder. The files are memory
+ * mapped and parsed one row at a time, so no intermediate list of Landmark or Trail objects is ever created.
+ * Landmark files have the header LANDMARK_ID,DESCRIPTION,TYPE and trail files have the header
+ * LANDMARK_ID,LANDMARK_ID,DISTANCE. The first line of each file is the header and is skipped, and blank lines
+ * are ignored. A malformed line causes an IllegalArgumentException that names the file and line number.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailGraphLoader {
+
+	/** Rough number of bytes in one row, used to presize the builder */
+	static final int BYTES_PER_ROW = 24;
+
+	/**
+	 * Receives each landmark row read from a landmark file.
+	 */
+	interface LandmarkSink {
+
+		/**
+		 * Receives one landmark row.
+		 * @param id the ID of the landmark
+		 * @param description the description of the landmark
+		 * @param type the type of the landmark
+		 */
+		void addLandmark(String id, String description, String type);
+	}
+
+	/**
+	 * Receives each trail row read from a trail file, with its endpoints already resolved to landmark indices.
+	 */
+	interface TrailSink {
+
+		/**
+		 * Receives one trail row.
+		 * @param landmarkOne index of the first landmark
+		 * @param landmarkTwo index of the second landmark
+		 * @param length length of the trail in feet
+		 */
+		void addTrail(int landmarkOne, int landmarkTwo, int length);
+	}
+
+	/**
+	 * Reads the given landmark and trail files into a new TrailGraph.
+	 * @param pathToLandmarkFile path to the landmark file
+	 * @param pathToTrailFile path to the trail file
+	 * @return a graph of the landmarks and trails in the files
+	 * @throws FileNotFoundException if either file does not exist
+	 * @throws IllegalArgumentException if either file has a malformed line
+	 */
+	public static TrailGraph load(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
+		Path landmarkPath = toPath(pathToLandmarkFile);
+		Path trailPath = toPath(pathToTrailFile);
+		TrailGraphBuilder builder = new TrailGraphBuilder(estimateRows(landmarkPath), estimateRows(trailPath));
+		long start = Metrics.start();
+		readLandmarks(landmarkPath, builder);
+		readTrails(trailPath, builder);
+		Metrics.stop(Phase.PARSE, start);
+		start = Metrics.start();
+		TrailGraph graph = builder.build();
+		Metrics.stop(Phase.INDEX, start);
+		return graph;
+	}
+
+	/**
+	 * Reads every landmark in the given file into the builder.
+	 * @param landmarkFile path to the landmark file
+	 * @param builder builder that receives the landmarks
+	 * @throws FileNotFoundException if the file does not exist
+	 * @throws IllegalArgumentException if the file has a malformed line
+	 */
+	public static void readLandmarks(Path landmarkFile, TrailGraphBuilder builder) throws FileNotFoundException {
+		try (FileChannel channel = open(landmarkFile)) {
+			CsvScanner scanner = new CsvScanner(channel, 0, channel.size(), 1);
+			if (scanner.nextLine()) {
+				readLandmarks(scanner, landmarkFile, builder::addLandmark);
+			}
+			Metrics.count(Counter.BYTES_PARSED, channel.size());
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads every trail in the given file into the builder. Every landmark named by a trail must already have
+	 * been added to the builder.
+	 * @param trailFile path to the trail file
+	 * @param builder builder that receives the trails
+	 * @throws FileNotFoundException if the file does not exist
+	 * @throws IllegalArgumentException if the file has a malformed line
+	 */
+	public static void readTrails(Path trailFile, TrailGraphBuilder builder) throws FileNotFoundException {
+		try (FileChannel channel = open(trailFile)) {
+			CsvScanner scanner = new CsvScanner(channel, 0, channel.size(), 1);
+			if (scanner.nextLine()) {
+				readTrails(scanner, trailFile, builder, builder::addTrail);
+			}
+			Metrics.count(Counter.BYTES_PARSED, channel.size());
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the landmark rows that remain in the scanner into the builder.
+	 * @param scanner scanner positioned before the first row to read
+	 * @param file path of the file, used in error messages
+	 * @param sink sink that receives the landmarks
+	 * @throws IOException if the file cannot be read
+	 */
+	static void readLandmarks(CsvScanner scanner, Path file, LandmarkSink sink) throws IOException {
+		while (scanner.nextLine()) {
+			if (scanner.isBlank()) {
+				continue;
+			}
+			if (scanner.getFieldCount() < 3 || scanner.getFieldLength(0) == 0) {
+				throw malformed(file, scanner, "expected LANDMARK_ID,DESCRIPTION,TYPE");
+			}
+			sink.addLandmark(scanner.getString(0), scanner.getString(1), scanner.getString(2));
+		}
+	}
+
+	/**
+	 * Reads the trail rows that remain in the scanner into the builder.
+	 * @param scanner scanner positioned before the first row to read
+	 * @param file path of the file, used in error messages
+	 * @param builder builder that holds every landmark, used to resolve the trail endpoints
+	 * @param sink sink that receives the trails
+	 * @throws IOException if the file cannot be read
+	 */
+	static void readTrails(CsvScanner scanner, Path file, TrailGraphBuilder builder, TrailSink sink) throws IOException {
+		while (scanner.nextLine()) {
+			if (scanner.isBlank()) {
+				continue;
+			}
+			if (scanner.getFieldCount() < 3) {
+				throw malformed(file, scanner, "expected LANDMARK_ID,LANDMARK_ID,DISTANCE");
+			}
+			int landmarkOne = lookup(scanner, 0, file, builder);
+			int landmarkTwo = lookup(scanner, 1, file, builder);
+			int length;
+			try {
+				length = scanner.getInt(2);
+			} catch (NumberFormatException e) {
+				throw malformed(file, scanner, e.getMessage());
+			}
+			if (length < 0) {
+				throw malformed(file, scanner, "distance cannot be negative");
+			}
+			sink.addTrail(landmarkOne, landmarkTwo, length);
+		}
+	}
+
+	/**
+	 * Finds the index of the landmark named by a field of the current line.
+	 * @param scanner scanner holding the current line
+	 * @param field the field that holds the landmark ID
+	 * @param file path of the file, used in error messages
+	 * @param builder builder that holds the landmarks
+	 * @return the index of the landmark
+	 */
+	private static int lookup(CsvScanner scanner, int field, Path file, TrailGraphBuilder builder) {
+		int landmark = builder.indexOf(scanner.getLine(), scanner.getFieldStart(field), scanner.getFieldLength(field));
+		if (landmark == TrailGraph.NO_LANDMARK) {
+			throw malformed(file, scanner, "landmark " + scanner.getString(field) + " is not a landmark in the park");
+		}
+		return landmark;
+	}
+
+	/**
+	 * Creates the exception reported for a malformed line.
+	 * @param file path of the file
+	 * @param scanner scanner holding the malformed line
+	 * @param reason why the line is malformed
+	 * @return an exception that names the file, line number, and reason
+	 */
+	static MalformedLineException malformed(Path file, CsvScanner scanner, String reason) {
+		return new MalformedLineException(file, scanner.getLineNumber(), reason);
+	}
+
+	/**
+	 * Opens the given file for reading.
+	 * @param file path to the file
+	 * @return a channel of the file
+	 * @throws FileNotFoundException if the file does not exist or is not a regular file
+	 */
+	static FileChannel open(Path file) throws FileNotFoundException {
+		if (!Files.isRegularFile(file)) {
+			throw new FileNotFoundException(file + " (No such file)");
+		}
+		try {
+			return FileChannel.open(file, StandardOpenOption.READ);
+		} catch (IOException e) {
+			throw new FileNotFoundException(file + " (" + e.getMessage() + ")");
+		}
+	}
+
+	/**
+	 * Converts the given path String to a Path.
+	 * @param path the path String
+	 * @return the Path
+	 * @throws FileNotFoundException if the String is not a valid path
+	 */
+	static Path toPath(String path) throws FileNotFoundException {
+		if (path == null) {
+			throw new FileNotFoundException("No file given");
+		}
+		try {
+			return Paths.get(path);
+		} catch (InvalidPathException e) {
+			throw new FileNotFoundException(path + " (Invalid path)");
+		}
+	}
+
+	/**
+	 * Estimates the number of rows in the given file from its size.
+	 * @param file path to the file
+	 * @return an estimate of the number of rows
+	 */
+	static int estimateRows(Path file) {
+		try {
+			return (int) Math.min(Files.size(file) / BYTES_PER_ROW + 1, Integer.MAX_VALUE / 4);
+		} catch (IOException e) {
+			return 16;
+		}
+	}
+}
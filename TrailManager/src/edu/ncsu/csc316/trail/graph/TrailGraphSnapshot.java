@@ -0,0 +1,371 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * TrailGraphSnapshot writes a TrailGraph to a single binary file and reads it back, either onto the heap or
+ * memory-mapped so that queries are served straight from the file. All values are little-endian. The file
+ * starts with a fixed size header:
+ *
+ * <pre>
+ * magic (8 bytes "TRAILSNP"), version, landmarkCount, trailCount, slotCount, hashCapacity, stringBytes,
+ * fingerprint (8 bytes)
+ * </pre>
+ *
+ * followed by these sections, each starting on an 8 byte boundary: offsets (landmarkCount + 1 ints),
+ * neighbors, lengths, and trails (slotCount ints each), trailOne, trailTwo, and trailLength (trailCount ints
+ * each), string offsets (3 * landmarkCount + 1 ints), the ID hash table (hashCapacity ints), and the UTF-8
+ * bytes of every landmark's ID, description, and type (stringBytes bytes). The fingerprint is the one
+ * AltIndex.fingerprint gives the trails, so a route index saved next to the snapshot can be checked against it
+ * without reading every trail. A fingerprint of 0 means none was recorded.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailGraphSnapshot {
+
+	/** First bytes of every snapshot file */
+	private static final byte[] MAGIC = "TRAILSNP".getBytes(StandardCharsets.US_ASCII);
+
+	/** Version of the format written by this class */
+	public static final int VERSION = 1;
+
+	/** Number of bytes in the header */
+	private static final int HEADER_BYTES = 64;
+
+	/** Size of the buffer used to write the file */
+	private static final int WRITE_BUFFER = 1 << 16;
+
+	/**
+	 * Writes the given graph to a snapshot file, replacing the file if it exists. A graph that has been edited is
+	 * compacted first, so closed trails are not written. The file is replaced in one step, as replace()
+	 * describes, so a network that has the old file mapped keeps reading it.
+	 * @param graph the graph to write
+	 * @param file path of the snapshot file
+	 * @throws IOException if the file cannot be written, or the landmark strings do not fit in the format
+	 */
+	public static void write(TrailGraph graph, Path file) throws IOException {
+		TrailGraph written = graph.compact();
+		LandmarkTable table = written.getLandmarkTable();
+		int landmarkCount = written.getLandmarkCount();
+		int[] stringOffsets = new int[3 * landmarkCount + 1];
+		long stringBytes = 0;
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			stringOffsets[3 * landmark] = (int) stringBytes;
+			stringBytes += utf8Length(table.getId(landmark));
+			stringOffsets[3 * landmark + 1] = (int) stringBytes;
+			stringBytes += utf8Length(table.getDescription(landmark));
+			stringOffsets[3 * landmark + 2] = (int) stringBytes;
+			stringBytes += utf8Length(table.getType(landmark));
+			if (stringBytes > Integer.MAX_VALUE) {
+				throw new IOException("Landmark strings are too large for a snapshot.");
+			}
+		}
+		int stringLength = (int) stringBytes;
+		stringOffsets[3 * landmarkCount] = stringLength;
+		int[] slots = Utf8LandmarkTable.buildSlots(table);
+		long fingerprint = AltIndex.fingerprint(written);
+		replace(file, channel -> {
+			ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.put(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(landmarkCount);
+			buffer.putInt(written.getTrailCount());
+			buffer.putInt(written.getSlotCount());
+			buffer.putInt(slots.length);
+			buffer.putInt(stringLength);
+			buffer.putLong(fingerprint);
+			buffer.position(HEADER_BYTES);
+			long position = HEADER_BYTES;
+			position = putInts(written.offsets, buffer, channel, position);
+			position = putInts(written.neighbors, buffer, channel, position);
+			position = putInts(written.lengths, buffer, channel, position);
+			position = putInts(written.trails, buffer, channel, position);
+			position = putInts(written.trailOne, buffer, channel, position);
+			position = putInts(written.trailTwo, buffer, channel, position);
+			position = putInts(written.trailLength, buffer, channel, position);
+			position = putInts(IntBuffer.wrap(stringOffsets), buffer, channel, position);
+			putInts(IntBuffer.wrap(slots), buffer, channel, position);
+			for (int landmark = 0; landmark < landmarkCount; landmark++) {
+				putBytes(table.getId(landmark), buffer, channel);
+				putBytes(table.getDescription(landmark), buffer, channel);
+				putBytes(table.getType(landmark), buffer, channel);
+			}
+			flush(buffer, channel);
+		});
+	}
+
+	/**
+	 * Writes a file by handing a channel to a new temporary file in the same directory to the writer, forcing the
+	 * temporary file to disk, and then moving it over the file in one atomic step where the file system allows.
+	 * The old file is unlinked rather than truncated, so a reader that has it mapped keeps reading the old data,
+	 * and a failed write leaves the old file as it was.
+	 * @param file path of the file to replace
+	 * @param writer writer of the new contents
+	 * @throws IOException if the file cannot be written or replaced
+	 */
+	static void replace(Path file, ChannelWriter writer) throws IOException {
+		Path target = file.toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		boolean moved = false;
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				writer.write(channel);
+				channel.force(true);
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			moved = true;
+		} finally {
+			if (!moved) {
+				Files.deleteIfExists(temp);
+			}
+		}
+	}
+
+	/**
+	 * Writes the contents of a file that replace() is replacing.
+	 */
+	interface ChannelWriter {
+		/**
+		 * Writes the whole file.
+		 * @param channel channel to the new file, positioned at its start
+		 * @throws IOException if the file cannot be written
+		 */
+		void write(FileChannel channel) throws IOException;
+	}
+
+	/**
+	 * Reads a snapshot file onto the heap.
+	 * @param file path of the snapshot file
+	 * @return the graph stored in the file
+	 * @throws IOException if the file cannot be read or is not a snapshot of a supported version
+	 */
+	public static TrailGraph read(Path file) throws IOException {
+		return open(file, false);
+	}
+
+	/**
+	 * Memory-maps a snapshot file. The returned graph reads every array and string straight from the file, so
+	 * opening it takes time that does not depend on the size of the network.
+	 * @param file path of the snapshot file
+	 * @return the graph stored in the file
+	 * @throws IOException if the file cannot be read or is not a snapshot of a supported version
+	 */
+	public static TrailGraph map(Path file) throws IOException {
+		return open(file, true);
+	}
+
+	/**
+	 * Opens a snapshot file, either copying its sections onto the heap or mapping them.
+	 * @param file path of the snapshot file
+	 * @param mapped true to map the sections rather than copy them
+	 * @return the graph stored in the file
+	 * @throws IOException if the file cannot be read or is not a snapshot of a supported version
+	 */
+	private static TrailGraph open(Path file, boolean mapped) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES) {
+				throw new IOException(file + " is not a trail graph snapshot.");
+			}
+			ByteBuffer header = section(channel, 0, HEADER_BYTES, false);
+			byte[] magic = new byte[MAGIC.length];
+			header.get(magic);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IOException(file + " is not a trail graph snapshot.");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException(file + " is snapshot version " + version + ", but version " + VERSION + " is required.");
+			}
+			int landmarkCount = header.getInt();
+			int trailCount = header.getInt();
+			int slotCount = header.getInt();
+			int hashCapacity = header.getInt();
+			int stringBytes = header.getInt();
+			long fingerprint = header.getLong();
+			long position = HEADER_BYTES;
+			IntBuffer offsets = ints(channel, position, landmarkCount + 1, mapped);
+			position = align(position + 4L * (landmarkCount + 1));
+			IntBuffer neighbors = ints(channel, position, slotCount, mapped);
+			position = align(position + 4L * slotCount);
+			IntBuffer lengths = ints(channel, position, slotCount, mapped);
+			position = align(position + 4L * slotCount);
+			IntBuffer trails = ints(channel, position, slotCount, mapped);
+			position = align(position + 4L * slotCount);
+			IntBuffer trailOne = ints(channel, position, trailCount, mapped);
+			position = align(position + 4L * trailCount);
+			IntBuffer trailTwo = ints(channel, position, trailCount, mapped);
+			position = align(position + 4L * trailCount);
+			IntBuffer trailLength = ints(channel, position, trailCount, mapped);
+			position = align(position + 4L * trailCount);
+			IntBuffer stringOffsets = ints(channel, position, 3 * landmarkCount + 1, mapped);
+			position = align(position + 4L * (3 * landmarkCount + 1));
+			IntBuffer slots = ints(channel, position, hashCapacity, mapped);
+			position = align(position + 4L * hashCapacity);
+			ByteBuffer strings = section(channel, position, stringBytes, mapped);
+			LandmarkTable table = new Utf8LandmarkTable(strings, stringOffsets, slots, landmarkCount);
+			return new TrailGraph(table, offsets, neighbors, lengths, trails, trailOne, trailTwo, trailLength,
+					fingerprint);
+		}
+	}
+
+	/**
+	 * Reads or maps a section of ints.
+	 * @param channel channel of the snapshot file
+	 * @param position position of the section in the file
+	 * @param count number of ints in the section
+	 * @param mapped true to map the section rather than copy it
+	 * @return the ints of the section
+	 * @throws IOException if the section cannot be read
+	 */
+	static IntBuffer ints(FileChannel channel, long position, int count, boolean mapped) throws IOException {
+		IntBuffer ints = section(channel, position, 4L * count, mapped).asIntBuffer();
+		if (mapped) {
+			return ints;
+		}
+		int[] array = new int[count];
+		ints.get(array);
+		return IntBuffer.wrap(array);
+	}
+
+	/**
+	 * Reads or maps a section of the file as little-endian bytes.
+	 * @param channel channel of the snapshot file
+	 * @param position position of the section in the file
+	 * @param bytes number of bytes in the section
+	 * @param mapped true to map the section rather than copy it
+	 * @return the bytes of the section
+	 * @throws IOException if the section cannot be read or runs past the end of the file
+	 */
+	static ByteBuffer section(FileChannel channel, long position, long bytes, boolean mapped) throws IOException {
+		if (bytes > Integer.MAX_VALUE || position + bytes > channel.size()) {
+			throw new IOException("Snapshot section at " + position + " runs past the end of the file.");
+		}
+		ByteBuffer section;
+		if (mapped) {
+			section = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+		} else {
+			section = ByteBuffer.allocate((int) bytes);
+			while (section.hasRemaining()) {
+				if (channel.read(section, position + section.position()) < 0) {
+					throw new IOException("Snapshot ended early.");
+				}
+			}
+			section.flip();
+		}
+		return section.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Rounds a file position up to the next 8 byte boundary.
+	 * @param position the position to round
+	 * @return the aligned position
+	 */
+	static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+
+	/**
+	 * Writes the given ints followed by padding up to an 8 byte boundary.
+	 * @param ints the ints to write, from index 0 to the capacity
+	 * @param buffer the write buffer
+	 * @param channel channel of the snapshot file
+	 * @param written number of bytes written before these ints
+	 * @return the number of bytes written after these ints and their padding
+	 * @throws IOException if the file cannot be written
+	 */
+	static long putInts(IntBuffer ints, ByteBuffer buffer, FileChannel channel, long written) throws IOException {
+		int count = ints.capacity();
+		for (int i = 0; i < count; i++) {
+			if (buffer.remaining() < 4) {
+				flush(buffer, channel);
+			}
+			buffer.putInt(ints.get(i));
+		}
+		long end = written + 4L * count;
+		if (align(end) != end) {
+			if (buffer.remaining() < 4) {
+				flush(buffer, channel);
+			}
+			buffer.putInt(0);
+		}
+		return align(end);
+	}
+
+	/**
+	 * Writes the UTF-8 bytes of the given string.
+	 * @param string the string to write
+	 * @param buffer the write buffer
+	 * @param channel channel of the snapshot file
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void putBytes(String string, ByteBuffer buffer, FileChannel channel) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		int written = 0;
+		while (written < bytes.length) {
+			if (!buffer.hasRemaining()) {
+				flush(buffer, channel);
+			}
+			int count = Math.min(buffer.remaining(), bytes.length - written);
+			buffer.put(bytes, written, count);
+			written += count;
+		}
+	}
+
+	/**
+	 * Writes everything in the write buffer to the file and clears the buffer.
+	 * @param buffer the write buffer
+	 * @param channel channel of the snapshot file
+	 * @throws IOException if the file cannot be written
+	 */
+	static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Returns the number of bytes in the UTF-8 encoding of the given string. An unpaired surrogate counts as
+	 * the single replacement byte that String.getBytes writes for it.
+	 * @param string the string to measure
+	 * @return the number of UTF-8 bytes
+	 */
+	static int utf8Length(String string) {
+		int length = 0;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < string.length()
+					&& Character.isLowSurrogate(string.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else if (Character.isSurrogate(c)) {
+				length++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+}
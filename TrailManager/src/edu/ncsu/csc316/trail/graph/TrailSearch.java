@@ -0,0 +1,262 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * TrailSearch finds the shortest distance in feet from an origin landmark to every landmark it can reach, using
+ * Dijkstra's algorithm over the trail lengths of a TrailGraph. The distance, stamp, and order arrays and the
+ * priority queue are allocated once per graph and reused by every search, so a search allocates nothing once the
+ * queue has grown to the size the graph needs. Each search has its own epoch, and a landmark's distance only
+ * counts if its stamp is from the current epoch, so starting a search never clears the previous one's entries.
+ * A route longer than Integer.MAX_VALUE feet would overflow its int distance, so a landmark that can only be
+ * reached that way is treated as unreached.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailSearch {
+
+	/** Distance stored for a landmark that has not been reached */
+	public static final int UNREACHED = -1;
+
+	/**
+	 * Priority queues that a TrailSearch can use.
+	 */
+	public enum QueueType {
+		/** Binary heap that lowers a landmark's key in place */
+		BINARY_HEAP,
+		/** Radix heap over the int distances, which keeps stale entries instead of lowering keys */
+		RADIX_HEAP
+	}
+
+	/** Graph that is searched */
+	private TrailGraph graph;
+
+	/** Distance from the origin to each landmark, which only counts if the landmark is stamped this epoch */
+	private final int[] distances;
+
+	/** Epoch in which each landmark was reached, or one more than it if its distance is final */
+	private final int[] stamps;
+
+	/** Epoch of the last search, which is always even */
+	private int epoch;
+
+	/** Landmarks in the order they were settled, which is by nondecreasing distance */
+	private final int[] order;
+
+	/** Queue of landmarks that have been reached but not settled */
+	private final DistanceQueue queue;
+
+	/** Number of landmarks settled by the last search */
+	private int reached;
+
+	/** Number of trails relaxed by the last search */
+	private int relaxed;
+
+	/**
+	 * Constructs a new TrailSearch for the given graph that uses a radix heap.
+	 * @param graph the graph to search
+	 */
+	public TrailSearch(TrailGraph graph) {
+		this(graph, QueueType.RADIX_HEAP);
+	}
+
+	/**
+	 * Constructs a new TrailSearch for the given graph that uses the given priority queue.
+	 * @param graph the graph to search
+	 * @param queueType the priority queue to use
+	 */
+	public TrailSearch(TrailGraph graph, QueueType queueType) {
+		this.graph = graph;
+		int landmarkCount = graph.getLandmarkCount();
+		distances = new int[landmarkCount];
+		stamps = new int[landmarkCount];
+		order = new int[landmarkCount];
+		if (queueType == QueueType.BINARY_HEAP) {
+			queue = new IndexedIntHeap(landmarkCount);
+		} else {
+			queue = new RadixHeap();
+		}
+	}
+
+	/**
+	 * Finds the shortest distance from the given landmark to every landmark it can reach.
+	 * @param origin index of the origin landmark
+	 * @return the number of landmarks reached, including the origin
+	 */
+	public int search(int origin) {
+		return search(origin, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Finds the shortest distance from the given landmark to every landmark it can reach, stopping as soon as the
+	 * given number of landmarks have been settled. When the limit is the number of landmarks the origin can reach,
+	 * as a ComponentIndex gives, the search ends without polling entries that can no longer change a distance.
+	 * A smaller limit leaves every landmark that was not settled unreached.
+	 * @param origin index of the origin landmark
+	 * @param limit most landmarks to settle, including the origin
+	 * @return the number of landmarks reached, including the origin
+	 */
+	public int search(int origin, int limit) {
+		clear();
+		distances[origin] = 0;
+		stamps[origin] = epoch;
+		queue.offer(origin, 0);
+		return run(limit);
+	}
+
+	/**
+	 * Finds the shortest distance to every landmark that can be reached from any of the given origins, where each
+	 * origin starts at its own distance instead of 0. This continues a search that began outside the graph, such
+	 * as in another park whose connector trails lead to the origins. An origin listed twice keeps its smaller
+	 * distance.
+	 * @param origins indices of the origin landmarks
+	 * @param originDistances distance already walked to each origin
+	 * @param count number of origins to use from the arrays
+	 * @return the number of landmarks reached, including the origins
+	 * @throws IllegalArgumentException if an origin distance is negative
+	 */
+	public int search(int[] origins, int[] originDistances, int count) {
+		for (int i = 0; i < count; i++) {
+			if (originDistances[i] < 0) {
+				throw new IllegalArgumentException("Origin distances cannot be negative.");
+			}
+		}
+		clear();
+		for (int i = 0; i < count; i++) {
+			int origin = origins[i];
+			if (stamps[origin] != epoch || originDistances[i] < distances[origin]) {
+				distances[origin] = originDistances[i];
+				stamps[origin] = epoch;
+				queue.offer(origin, originDistances[i]);
+			}
+		}
+		return run(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Starts a new epoch, which leaves every landmark unreached without touching the previous search's entries.
+	 * The stamps are only cleared when the epochs run out.
+	 */
+	private void clear() {
+		if (epoch >= Integer.MAX_VALUE - 2) {
+			Arrays.fill(stamps, 0);
+			epoch = 0;
+		}
+		epoch += 2;
+		reached = 0;
+		queue.clear();
+	}
+
+	/**
+	 * Settles landmarks from the queue, which holds the origins, until it is empty or the limit is reached.
+	 * @param limit most landmarks to settle
+	 * @return the number of landmarks reached
+	 */
+	private int run(int limit) {
+		int relaxedTrails = 0;
+		int settled = epoch + 1;
+		IntBuffer offsets = graph.offsets;
+		GraphDelta delta = graph.delta;
+		while (reached < limit && !queue.isEmpty()) {
+			int current = queue.poll();
+			if (stamps[current] == settled) {
+				continue;
+			}
+			stamps[current] = settled;
+			order[reached++] = current;
+			int distance = distances[current];
+			IntBuffer neighbors = graph.neighbors;
+			IntBuffer lengths = graph.lengths;
+			int slot;
+			int end;
+			long range = delta == null ? GraphDelta.NO_RANGE : delta.getRange(current);
+			if (range == GraphDelta.NO_RANGE) {
+				slot = offsets.get(current);
+				end = offsets.get(current + 1);
+			} else {
+				neighbors = delta.neighbors;
+				lengths = delta.lengths;
+				slot = GraphDelta.start(range);
+				end = GraphDelta.end(range);
+			}
+			for (; slot < end; slot++) {
+				int next = neighbors.get(slot);
+				int stamp = stamps[next];
+				if (stamp == settled) {
+					continue;
+				}
+				int candidate = distance + lengths.get(slot);
+				if (candidate < 0) {
+					continue;
+				}
+				if (stamp != epoch || candidate < distances[next]) {
+					distances[next] = candidate;
+					stamps[next] = epoch;
+					queue.offer(next, candidate);
+					relaxedTrails++;
+				}
+			}
+		}
+		relaxed = relaxedTrails;
+		return reached;
+	}
+
+	/**
+	 * Points the search at another version of its graph, such as one returned by an edit, which must have the
+	 * same landmarks. The arrays of the search are kept.
+	 * @param graph the graph to search
+	 * @throws IllegalArgumentException if the graph has a different number of landmarks
+	 */
+	public void setGraph(TrailGraph graph) {
+		if (graph.getLandmarkCount() != distances.length) {
+			throw new IllegalArgumentException("The network has a different number of landmarks.");
+		}
+		this.graph = graph;
+	}
+
+	/**
+	 * Returns the graph that is searched.
+	 * @return the searched graph
+	 */
+	public TrailGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the number of landmarks reached by the last search, including the origin.
+	 * @return the number of landmarks reached
+	 */
+	public int getReachedCount() {
+		return reached;
+	}
+
+	/**
+	 * Returns the number of trails the last search relaxed, meaning trails that gave a landmark a shorter
+	 * distance than it had.
+	 * @return the number of relaxed trails
+	 */
+	public int getRelaxedCount() {
+		return relaxed;
+	}
+
+	/**
+	 * Returns the landmark reached at the given position of the last search. Landmarks are in order of
+	 * nondecreasing distance, starting with the origin.
+	 * @param position position in the order landmarks were reached, from 0 to getReachedCount() - 1
+	 * @return the index of the landmark
+	 */
+	public int getReached(int position) {
+		return order[position];
+	}
+
+	/**
+	 * Returns the shortest distance from the origin of the last search to the given landmark.
+	 * @param landmark index of the landmark
+	 * @return the distance in feet, or UNREACHED if the landmark was not reached
+	 */
+	public int getDistance(int landmark) {
+		return stamps[landmark] == epoch + 1 ? distances[landmark] : UNREACHED;
+	}
+}
@@ -0,0 +1,214 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Utf8LandmarkTable is a LandmarkTable whose strings live in a single buffer of UTF-8 bytes, which may be a
+ * memory-mapped file. The ID, description, and type of landmark i are the byte ranges between entries 3i,
+ * 3i + 1, 3i + 2, and 3i + 3 of the string offsets. IDs are found through an open addressing table of landmark
+ * indices that uses the same hash as IdTable, and the ID being looked up is compared against the stored bytes
+ * without decoding them. Strings are only created when a caller asks for one.
+ *
+ * A table is either read from a snapshot file or packed from another table with pack(), which copies every
+ * string into direct buffers outside the Java heap. A packed table costs the garbage collector three buffer
+ * objects instead of three Strings and their byte arrays per landmark.
+ *
+ * @author Maddie Moore
+ *
+ */
+class Utf8LandmarkTable implements LandmarkTable {
+
+	/** Marker used for an empty slot in the hash table */
+	static final int EMPTY = -1;
+
+	/** UTF-8 bytes of every ID, description, and type */
+	private final ByteBuffer strings;
+
+	/** Start of each string in strings, followed by the end of the last string */
+	private final IntBuffer stringOffsets;
+
+	/** Open addressing hash table of landmark indices, keyed by ID */
+	private final IntBuffer slots;
+
+	/** Number of landmarks in the table */
+	private final int size;
+
+	/**
+	 * Constructs a new Utf8LandmarkTable over the given buffers.
+	 * @param strings UTF-8 bytes of every ID, description, and type
+	 * @param stringOffsets start of each string, followed by the end of the last string
+	 * @param slots hash table of landmark indices, with a power of two capacity
+	 * @param size number of landmarks
+	 */
+	Utf8LandmarkTable(ByteBuffer strings, IntBuffer stringOffsets, IntBuffer slots, int size) {
+		this.strings = strings;
+		this.stringOffsets = stringOffsets;
+		this.slots = slots;
+		this.size = size;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int indexOf(String id) {
+		if (id == null) {
+			return TrailGraph.NO_LANDMARK;
+		}
+		int mask = slots.capacity() - 1;
+		int slot = IdTable.mix(id.hashCode()) & mask;
+		int landmark;
+		while ((landmark = slots.get(slot)) != EMPTY) {
+			if (matches(3 * landmark, id)) {
+				return landmark;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return TrailGraph.NO_LANDMARK;
+	}
+
+	@Override
+	public String getId(int landmark) {
+		return decode(3 * landmark);
+	}
+
+	@Override
+	public String getDescription(int landmark) {
+		return decode(3 * landmark + 1);
+	}
+
+	@Override
+	public String getType(int landmark) {
+		return decode(3 * landmark + 2);
+	}
+
+	/**
+	 * Decodes the string at the given position of the string offsets.
+	 * @param string position of the string
+	 * @return the decoded string
+	 */
+	private String decode(int string) {
+		int start = stringOffsets.get(string);
+		byte[] bytes = new byte[stringOffsets.get(string + 1) - start];
+		strings.get(start, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns true if the string at the given position spells the given ID.
+	 * @param string position of the string
+	 * @param id the ID to compare against
+	 * @return true if the stored string equals the ID
+	 */
+	private boolean matches(int string, String id) {
+		int start = stringOffsets.get(string);
+		int length = stringOffsets.get(string + 1) - start;
+		if (length < id.length()) {
+			return false;
+		}
+		for (int i = 0; i < id.length(); i++) {
+			char c = id.charAt(i);
+			if (c >= 0x80) {
+				return decode(string).equals(id);
+			}
+			if (strings.get(start + i) != c) {
+				return false;
+			}
+		}
+		return length == id.length();
+	}
+
+	/**
+	 * Copies the strings of the given landmarks into a new table backed by direct buffers.
+	 * @param table the landmarks to copy
+	 * @return the packed table
+	 * @throws IllegalArgumentException if the strings, their offsets, or the hash table take more than
+	 *         Integer.MAX_VALUE bytes
+	 */
+	static Utf8LandmarkTable pack(LandmarkTable table) {
+		int size = table.size();
+		IntBuffer stringOffsets = directInts(3L * size + 1);
+		long stringBytes = 0;
+		for (int landmark = 0; landmark < size; landmark++) {
+			stringOffsets.put(3 * landmark, (int) stringBytes);
+			stringBytes += TrailGraphSnapshot.utf8Length(table.getId(landmark));
+			stringOffsets.put(3 * landmark + 1, (int) stringBytes);
+			stringBytes += TrailGraphSnapshot.utf8Length(table.getDescription(landmark));
+			stringOffsets.put(3 * landmark + 2, (int) stringBytes);
+			stringBytes += TrailGraphSnapshot.utf8Length(table.getType(landmark));
+			if (stringBytes > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Landmark strings are too large to pack.");
+			}
+		}
+		stringOffsets.put(3 * size, (int) stringBytes);
+		ByteBuffer strings = ByteBuffer.allocateDirect((int) stringBytes);
+		CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		for (int landmark = 0; landmark < size; landmark++) {
+			encode(encoder, table.getId(landmark), strings);
+			encode(encoder, table.getDescription(landmark), strings);
+			encode(encoder, table.getType(landmark), strings);
+		}
+		int[] slots = buildSlots(table);
+		IntBuffer slotBuffer = directInts(slots.length);
+		slotBuffer.put(0, slots);
+		return new Utf8LandmarkTable(strings, stringOffsets, slotBuffer, size);
+	}
+
+	/**
+	 * Encodes a string onto the end of the given buffer.
+	 * @param encoder UTF-8 encoder that replaces unpaired surrogates with one byte, as utf8Length counts them
+	 * @param string the string to encode
+	 * @param out buffer with room for the encoded string
+	 */
+	private static void encode(CharsetEncoder encoder, String string, ByteBuffer out) {
+		encoder.reset();
+		encoder.encode(CharBuffer.wrap(string), out, true);
+		encoder.flush(out);
+	}
+
+	/**
+	 * Allocates a direct buffer of ints in native byte order.
+	 * @param count number of ints
+	 * @return the buffer
+	 * @throws IllegalArgumentException if the ints take more than Integer.MAX_VALUE bytes
+	 */
+	static IntBuffer directInts(long count) {
+		if (count > Integer.MAX_VALUE / Integer.BYTES) {
+			throw new IllegalArgumentException("Landmarks are too many to pack.");
+		}
+		return ByteBuffer.allocateDirect(Integer.BYTES * (int) count).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	/**
+	 * Builds the hash table of landmark indices for the given landmarks.
+	 * @param table the landmarks to index
+	 * @return the hash table, with a power of two capacity
+	 */
+	static int[] buildSlots(LandmarkTable table) {
+		int capacity = 16;
+		while (capacity < table.size() * 2) {
+			capacity <<= 1;
+		}
+		int[] slots = new int[capacity];
+		Arrays.fill(slots, EMPTY);
+		int mask = capacity - 1;
+		for (int landmark = 0; landmark < table.size(); landmark++) {
+			int slot = IdTable.mix(table.getId(landmark).hashCode()) & mask;
+			while (slots[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = landmark;
+		}
+		return slots;
+	}
+}
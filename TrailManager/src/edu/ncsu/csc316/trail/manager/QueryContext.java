@@ -0,0 +1,175 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.io.IOException;
+
+import edu.ncsu.csc316.trail.graph.DescriptionRanks;
+import edu.ncsu.csc316.trail.graph.LandmarkOrder;
+import edu.ncsu.csc316.trail.graph.RouteSearch;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailSearch;
+
+/**
+ * QueryContext is the scratch space one thread uses to answer distance queries on one graph: a TrailSearch and
+ * the arrays the reached landmarks are sorted in, and a RouteSearch that is created by the first route query.
+ * Each reached landmark is sorted as one long key packed from its distance and its description rank. A context
+ * is reused for every query its thread runs on the same graph, so searching and sorting allocate nothing once
+ * the context is warm, and only writing the report does. A context must only be used by one thread at a time.
+ *
+ * @author Maddie Moore
+ *
+ */
+class QueryContext {
+
+	/** Graph the context answers queries on */
+	private TrailGraph graph;
+
+	/** Shortest path search over the graph */
+	private final TrailSearch search;
+
+	/** Route search over the graph, or null until the first route query */
+	private RouteSearch routeSearch;
+
+	/** Ranks of the graph's landmarks in description order */
+	private DescriptionRanks ranks;
+
+	/** Keys of the landmarks reached by the last search, other than the origin, in report order */
+	private final long[] reached;
+
+	/** Scratch space for sorting the reached landmarks */
+	private final long[] buffer;
+
+	/** Scratch space for the digit counts of the sort */
+	private final int[] counts;
+
+	/**
+	 * Constructs a new QueryContext for the given graph.
+	 * @param graph the graph queries run on
+	 * @param ranks ranks of the graph's landmarks in description order
+	 */
+	QueryContext(TrailGraph graph, DescriptionRanks ranks) {
+		this.graph = graph;
+		this.ranks = ranks;
+		this.search = new TrailSearch(graph);
+		this.reached = new long[graph.getLandmarkCount()];
+		this.buffer = new long[graph.getLandmarkCount()];
+		this.counts = new int[LandmarkOrder.COUNTS_LENGTH];
+	}
+
+	/**
+	 * Points the context at an edited version of its graph that has the same landmarks, keeping its arrays.
+	 * @param graph the graph queries run on
+	 * @param ranks ranks of the graph's landmarks in description order
+	 */
+	void setGraph(TrailGraph graph, DescriptionRanks ranks) {
+		search.setGraph(graph);
+		if (routeSearch != null) {
+			routeSearch.setGraph(graph, null);
+		}
+		this.graph = graph;
+		this.ranks = ranks;
+	}
+
+	/**
+	 * Returns the graph the context answers queries on.
+	 * @return the graph
+	 */
+	TrailGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the search of the context, which holds the distances of the last search.
+	 * @return the search
+	 */
+	TrailSearch getSearch() {
+		return search;
+	}
+
+	/**
+	 * Searches from the given origin and sorts the landmarks it reaches, other than the origin, by distance, then
+	 * description, then descending ID, which is the order ReportManager's merge sort leaves full ties in.
+	 * @param origin index of the origin landmark
+	 * @return the number of landmarks reached, not counting the origin
+	 */
+	int searchSorted(int origin) {
+		int count = search.search(origin) - 1;
+		for (int i = 0; i < count; i++) {
+			int landmark = search.getReached(i + 1);
+			reached[i] = ranks.pack(search.getDistance(landmark), landmark);
+		}
+		LandmarkOrder.sort(reached, buffer, counts, 0, count);
+		return count;
+	}
+
+	/**
+	 * Returns the landmark at the given position of the last sorted search.
+	 * @param position position in report order
+	 * @return the index of the landmark
+	 */
+	int getReached(int position) {
+		return ranks.landmarkOf(reached[position]);
+	}
+
+	/**
+	 * Writes the distance report of the given origin, with the same text as ReportManager.getDistancesReport.
+	 * @param originLandmark the ID of the origin landmark
+	 * @param out destination of the report
+	 * @throws IOException if the destination cannot be written to
+	 */
+	void writeDistancesReport(String originLandmark, ReportWriter out) throws IOException {
+		int origin = graph.indexOf(originLandmark);
+		if (origin == TrailGraph.NO_LANDMARK) {
+			out.append("The provided landmark ID (").append(originLandmark).append(") is invalid for the park.");
+			return;
+		}
+		int count = searchSorted(origin);
+		if (count == 0) {
+			out.append("No landmarks are reachable from ").append(graph.getDescription(origin)).append(" (")
+					.append(originLandmark).append(").");
+			return;
+		}
+		out.append("Landmarks Reachable from ").append(graph.getDescription(origin)).append(" (").append(graph.getId(origin))
+				.append(") {\n");
+		for (int i = 0; i < count; i++) {
+			int landmark = ranks.landmarkOf(reached[i]);
+			out.append("   ").appendDistance(DescriptionRanks.valueOf(reached[i])).append(" to ").append(graph.getDescription(landmark))
+					.append(" (").append(graph.getId(landmark)).append(")\n");
+		}
+		out.append("}");
+	}
+
+	/**
+	 * Writes the route report between two landmarks, with the same text as ReportManager.getRouteReport.
+	 * @param from the ID of the origin landmark
+	 * @param to the ID of the destination landmark
+	 * @param out destination of the report
+	 * @throws IOException if the destination cannot be written to
+	 */
+	void writeRouteReport(String from, String to, ReportWriter out) throws IOException {
+		int origin = graph.indexOf(from);
+		int destination = graph.indexOf(to);
+		if (origin == TrailGraph.NO_LANDMARK || destination == TrailGraph.NO_LANDMARK) {
+			out.append("The provided landmark ID (").append(origin == TrailGraph.NO_LANDMARK ? from : to)
+					.append(") is invalid for the park.");
+			return;
+		}
+		if (routeSearch == null) {
+			routeSearch = new RouteSearch(graph);
+		}
+		if (routeSearch.search(origin, destination) == TrailSearch.UNREACHED) {
+			out.append("No route from ").append(graph.getDescription(origin)).append(" (").append(from).append(") to ")
+					.append(graph.getDescription(destination)).append(" (").append(to).append(").");
+			return;
+		}
+		out.append("Route from ").append(graph.getDescription(origin)).append(" (").append(from).append(") to ")
+				.append(graph.getDescription(destination)).append(" (").append(to).append(") is ")
+				.appendDistance(routeSearch.getDistance()).append(" {\n");
+		out.append("   Start at ").append(graph.getDescription(origin)).append(" (").append(from).append(")\n");
+		for (int i = 1; i < routeSearch.getLandmarkCount(); i++) {
+			int landmark = routeSearch.getLandmark(i);
+			out.append("   ").appendDistance(graph.getTrailLength(routeSearch.getTrail(i - 1))).append(" to ")
+					.append(graph.getDescription(landmark)).append(" (").append(graph.getId(landmark)).append(")\n");
+		}
+		out.append("}");
+	}
+}
@@ -0,0 +1,154 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * QueryPipeline answers queries written one per line, such as a file of queries or the lines sent over a
+ * connection to a server. Each query is a command and its arguments separated by spaces:
+ *
+ * <pre>
+ * distances ORIGIN_ID
+ * firstaid NUMBER_OF_INTERSECTING_TRAILS
+ * top NUMBER_OF_LOCATIONS
+ * page PAGE_NUMBER PAGE_SIZE
+ * route FROM_ID TO_ID
+ * components
+ * quit
+ * </pre>
+ *
+ * Blank lines and lines starting with # are skipped, and quit stops reading. Each answer is the report
+ * TrailQueryService returns for the query, followed by a blank line, and answers are written in the order of
+ * their queries. Queries that have already arrived run at the same time on the service's worker threads, up to
+ * a window of queries ahead of the oldest answer that has not been written. Whenever no more input is waiting,
+ * every pending answer is written and flushed before the next line is read, so a client that sends one query
+ * and waits for its answer is never kept waiting by the pipeline.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class QueryPipeline {
+
+	/** Number of queries that may run ahead of the oldest unwritten answer by default */
+	public static final int DEFAULT_WINDOW = 64;
+
+	/** Service that answers the queries */
+	private final TrailQueryService service;
+
+	/** Number of queries that may run ahead of the oldest unwritten answer */
+	private final int window;
+
+	/**
+	 * Constructs a new QueryPipeline with the default window.
+	 * @param service service that answers the queries
+	 */
+	public QueryPipeline(TrailQueryService service) {
+		this(service, DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Constructs a new QueryPipeline.
+	 * @param service service that answers the queries
+	 * @param window number of queries that may run ahead of the oldest unwritten answer
+	 * @throws IllegalArgumentException if window is not positive
+	 */
+	public QueryPipeline(TrailQueryService service, int window) {
+		if (window <= 0) {
+			throw new IllegalArgumentException("Window must be greater than 0.");
+		}
+		this.service = service;
+		this.window = window;
+	}
+
+	/**
+	 * Answers one query on the calling thread.
+	 * @param query the query line
+	 * @return the report for the query, or a message naming the query if it is not valid
+	 */
+	public String answer(String query) {
+		String[] words = query.trim().split(" +");
+		try {
+			if (words[0].equals("distances") && words.length == 2) {
+				return service.getDistancesReport(words[1]);
+			} else if (words[0].equals("firstaid") && words.length == 2) {
+				return service.getProposedFirstAidLocations(Integer.parseInt(words[1]));
+			} else if (words[0].equals("top") && words.length == 2) {
+				return service.getTopFirstAidLocations(Integer.parseInt(words[1]));
+			} else if (words[0].equals("page") && words.length == 3) {
+				return service.getFirstAidLocationsPage(Integer.parseInt(words[1]), Integer.parseInt(words[2]));
+			} else if (words[0].equals("route") && words.length == 3) {
+				return service.getRouteReport(words[1], words[2]);
+			} else if (words[0].equals("components") && words.length == 1) {
+				return service.getComponentsReport();
+			}
+		} catch (NumberFormatException e) {
+			// Falls through to the invalid query message
+		}
+		return "Invalid query: " + query.trim();
+	}
+
+	/**
+	 * Reads queries until the input ends or a quit query, and writes every answer in query order.
+	 * @param in source of the queries, one per line
+	 * @param out destination of the answers, which is flushed whenever the pipeline waits for input
+	 * @return the number of queries answered
+	 * @throws IOException if the input cannot be read or the output cannot be written
+	 */
+	public int run(BufferedReader in, Writer out) throws IOException {
+		ArrayDeque<Future<String>> pending = new ArrayDeque<Future<String>>();
+		int answered = 0;
+		String line;
+		while (true) {
+			if (!in.ready()) {
+				answered += drain(pending, 0, out);
+				out.flush();
+			}
+			line = in.readLine();
+			if (line == null || line.trim().equals("quit")) {
+				break;
+			}
+			if (line.trim().isEmpty() || line.trim().startsWith("#")) {
+				continue;
+			}
+			String query = line;
+			pending.addLast(service.submit(() -> answer(query)));
+			answered += drain(pending, window, out);
+		}
+		answered += drain(pending, 0, out);
+		out.flush();
+		return answered;
+	}
+
+	/**
+	 * Writes the oldest pending answers, waiting for each, until at most the given number are pending.
+	 * @param pending answers that have not been written, oldest first
+	 * @param keep number of answers that may stay pending
+	 * @param out destination of the answers
+	 * @return the number of answers written
+	 * @throws IOException if the output cannot be written, or the thread is interrupted while waiting
+	 */
+	private static int drain(ArrayDeque<Future<String>> pending, int keep, Writer out) throws IOException {
+		int written = 0;
+		while (pending.size() > keep) {
+			String answer;
+			try {
+				answer = pending.removeFirst().get();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				answer = "Query failed: " + (cause.getMessage() == null ? cause.toString() : cause.getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for a query.");
+			}
+			out.write(answer);
+			out.write("\n\n");
+			written++;
+		}
+		return written;
+	}
+}
@@ -0,0 +1,368 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * ReportCache holds the distance map and rendered distance report of recently requested origin landmarks so that
+ * repeated requests for the same origin skip the search, the sort, and the string building. Once their estimated
+ * size exceeds the memory budget, entries are evicted oldest first, except that an entry which was used since it
+ * was last passed over is moved to the back instead, so the order is close to least recently used. Every entry
+ * belongs to one version of the TrailManager data, and the whole cache is dropped the first time it is used with
+ * a different version, unless update() was told which entries a single edit could have affected.
+ *
+ * The cache is safe to use from several threads at once. Lookups read a concurrent map and only mark the entry as
+ * used, so threads reading cached reports do not wait on each other; adding, evicting, and dropping entries hold
+ * the cache's lock.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class ReportCache {
+
+	/** Estimated bytes for one cached entry, not counting its landmarks or report */
+	static final long ENTRY_BYTES = 128;
+
+	/** Estimated bytes for each landmark and distance in a cached distance map */
+	static final long LANDMARK_BYTES = 96;
+
+	/** Largest estimated size in bytes of all cached entries */
+	private final long maxBytes;
+
+	/** Cached entries by origin landmark ID */
+	private final ConcurrentHashMap<String, CachedReport> entries = new ConcurrentHashMap<String, CachedReport>();
+
+	/** Cached entries by origin landmark ID in the order they are considered for eviction, guarded by the lock */
+	private final LinkedHashMap<String, CachedReport> order = new LinkedHashMap<String, CachedReport>();
+
+	/** Estimated size in bytes of all cached entries */
+	private long bytes;
+
+	/** Version of the TrailManager data the cached entries were computed from */
+	private volatile long version;
+
+	/** Number of lookups that found an entry */
+	private final LongAdder hits = new LongAdder();
+
+	/** Number of lookups that did not find an entry */
+	private final LongAdder misses = new LongAdder();
+
+	/** Number of entries evicted to stay within the memory budget */
+	private long evictions;
+
+	/**
+	 * Constructs a new ReportCache with the given memory budget.
+	 * @param maxBytes largest estimated size in bytes of all cached entries; 0 disables the cache
+	 * @throws IllegalArgumentException if maxBytes is negative
+	 */
+	public ReportCache(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("Cache budget cannot be negative.");
+		}
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Returns the cached entry for the given origin, or null if there is none. If the data has changed since the
+	 * cache was last used, every entry is dropped first.
+	 * @param origin ID of the origin landmark
+	 * @param dataVersion current version of the TrailManager data
+	 * @return the cached entry, or null if the origin is not cached
+	 */
+	public CachedReport get(String origin, long dataVersion) {
+		if (dataVersion > version) {
+			synchronized (this) {
+				checkVersion(dataVersion);
+			}
+		}
+		CachedReport report = entries.get(origin);
+		if (report == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+			if (!report.used) {
+				report.used = true;
+			}
+		}
+		return report;
+	}
+
+	/**
+	 * Caches the distance map and report of the given origin, evicting the oldest entries that have not been used
+	 * since they were last passed over until the cache fits its memory budget. An entry larger than the whole budget
+	 * is not cached.
+	 * @param origin ID of the origin landmark
+	 * @param dataVersion version of the TrailManager data the entry was computed from
+	 * @param distances distance from the origin to each reachable landmark
+	 * @param report rendered distance report
+	 * @return the new entry
+	 */
+	public synchronized CachedReport put(String origin, long dataVersion, Map<Landmark, Integer> distances, String report) {
+		CachedReport entry = new CachedReport(distances, report);
+		checkVersion(dataVersion);
+		if (dataVersion != version || entry.bytes > maxBytes) {
+			return entry;
+		}
+		CachedReport old = order.remove(origin);
+		if (old != null) {
+			bytes -= old.bytes;
+		}
+		order.put(origin, entry);
+		entries.put(origin, entry);
+		bytes += entry.bytes;
+		while (bytes > maxBytes) {
+			Iterator<java.util.Map.Entry<String, CachedReport>> it = order.entrySet().iterator();
+			java.util.Map.Entry<String, CachedReport> eldest = it.next();
+			it.remove();
+			CachedReport candidate = eldest.getValue();
+			if (candidate.used) {
+				candidate.used = false;
+				order.put(eldest.getKey(), candidate);
+			} else {
+				entries.remove(eldest.getKey());
+				bytes -= candidate.bytes;
+				evictions++;
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Moves the cache to a new version of the data that differs from the old one by a single edit, dropping only
+	 * the entries the edit could have affected. If the cache holds entries from any other version, every entry
+	 * is dropped instead.
+	 * @param fromVersion version of the data before the edit
+	 * @param toVersion version of the data after the edit
+	 * @param affected returns true for an entry that the edit could have changed
+	 */
+	public synchronized void update(long fromVersion, long toVersion, Predicate<CachedReport> affected) {
+		if (version == fromVersion) {
+			Iterator<java.util.Map.Entry<String, CachedReport>> it = order.entrySet().iterator();
+			while (it.hasNext()) {
+				java.util.Map.Entry<String, CachedReport> entry = it.next();
+				if (affected.test(entry.getValue())) {
+					it.remove();
+					entries.remove(entry.getKey());
+					bytes -= entry.getValue().bytes;
+				}
+			}
+			version = toVersion;
+		} else {
+			checkVersion(toVersion);
+		}
+	}
+
+	/**
+	 * Drops every cached entry. The hit, miss, and eviction counts are kept.
+	 */
+	public synchronized void clear() {
+		order.clear();
+		entries.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * Drops every entry if the cached entries were computed from a different version of the data.
+	 * @param dataVersion current version of the TrailManager data
+	 */
+	private void checkVersion(long dataVersion) {
+		if (dataVersion > version) {
+			clear();
+			version = dataVersion;
+		}
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 * @return the number of cached origins
+	 */
+	public synchronized int size() {
+		return order.size();
+	}
+
+	/**
+	 * Returns the estimated size in bytes of all cached entries.
+	 * @return the estimated size of the cache
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the memory budget of the cache.
+	 * @return the largest estimated size in bytes of all cached entries
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Returns the number of lookups that found an entry.
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of lookups that did not find an entry.
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of entries evicted to stay within the memory budget.
+	 * @return the number of evictions
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * CachedReport is the distance map and rendered report of one origin landmark. Neither is changed once the
+	 * entry is cached, and the distance map is returned as a view that cannot be modified, since it is shared by
+	 * every caller that asks for the same origin.
+	 *
+	 * @author Maddie Moore
+	 *
+	 */
+	public static class CachedReport {
+
+		/** Distance from the origin to each reachable landmark */
+		private final Map<Landmark, Integer> distances;
+
+		/** Rendered distance report */
+		private final String report;
+
+		/** Estimated size of the entry in bytes */
+		private final long bytes;
+
+		/** Whether the entry was looked up since the cache last considered evicting it */
+		private volatile boolean used;
+
+		/**
+		 * Constructs a new CachedReport.
+		 * @param distances distance from the origin to each reachable landmark
+		 * @param report rendered distance report
+		 */
+		CachedReport(Map<Landmark, Integer> distances, String report) {
+			this.distances = new ReadOnlyMap<Landmark, Integer>(distances);
+			this.report = report;
+			this.bytes = ENTRY_BYTES + distances.size() * LANDMARK_BYTES + 2L * report.length();
+		}
+
+		/**
+		 * Returns the distance from the origin to each reachable landmark.
+		 * @return the distance map, which cannot be modified
+		 */
+		public Map<Landmark, Integer> getDistances() {
+			return distances;
+		}
+
+		/**
+		 * Returns the rendered distance report.
+		 * @return the distance report
+		 */
+		public String getReport() {
+			return report;
+		}
+
+		/**
+		 * Returns the estimated size of the entry.
+		 * @return the estimated size in bytes
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+	}
+
+	/**
+	 * ReadOnlyMap is a view of a map that throws UnsupportedOperationException on every change.
+	 *
+	 * @author Maddie Moore
+	 *
+	 * @param <K> type of the keys
+	 * @param <V> type of the values
+	 */
+	static class ReadOnlyMap<K, V> implements Map<K, V> {
+
+		/** Map the view reads */
+		private final Map<K, V> map;
+
+		/**
+		 * Constructs a new ReadOnlyMap of the given map.
+		 * @param map the map to read
+		 */
+		ReadOnlyMap(Map<K, V> map) {
+			this.map = map;
+		}
+
+		@Override
+		public Iterator<K> iterator() {
+			return readOnly(map.iterator());
+		}
+
+		@Override
+		public Iterable<Map.Entry<K, V>> entrySet() {
+			return () -> readOnly(map.entrySet().iterator());
+		}
+
+		@Override
+		public V get(K key) {
+			return map.get(key);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return map.isEmpty();
+		}
+
+		@Override
+		public V put(K key, V value) {
+			throw new UnsupportedOperationException("Cached distances cannot be modified.");
+		}
+
+		@Override
+		public V remove(K key) {
+			throw new UnsupportedOperationException("Cached distances cannot be modified.");
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public Iterable<V> values() {
+			return () -> readOnly(map.values().iterator());
+		}
+
+		/**
+		 * Returns an iterator over the same elements whose remove method is not supported.
+		 * @param <E> type of the elements
+		 * @param it the iterator to read
+		 * @return the read-only iterator
+		 */
+		private static <E> Iterator<E> readOnly(Iterator<E> it) {
+			return new Iterator<E>() {
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+
+				@Override
+				public E next() {
+					return it.next();
+				}
+			};
+		}
+	}
+}
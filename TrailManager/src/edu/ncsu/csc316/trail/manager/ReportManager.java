@@ -1,6 +1,8 @@
 package edu.ncsu.csc316.trail.manager;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Comparator;
 import java.util.Iterator;
 
@@ -13,6 +15,14 @@ import edu.ncsu.csc316.trail.data.Trail;
 import edu.ncsu.csc316.trail.dsa.Algorithm;
 import edu.ncsu.csc316.trail.dsa.DSAFactory;
 import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.graph.ComponentIndex;
+import edu.ncsu.csc316.trail.graph.DegreeIndex;
+import edu.ncsu.csc316.trail.graph.DescriptionRanks;
+import edu.ncsu.csc316.trail.graph.LandmarkOrder;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.metrics.Counter;
+import edu.ncsu.csc316.trail.metrics.Metrics;
+import edu.ncsu.csc316.trail.metrics.Phase;
 
 /**
  * ReportManager is responsible for keeping track of all the information within the system. ReportManager works
@@ -23,12 +33,15 @@ import edu.ncsu.csc316.trail.dsa.DataStructure;
  */
 public class ReportManager {
 
-	/** Constant that represents the feet in a mile for converstions */
-	private final double FEET_IN_MILE = 5280.0;
+	/** Default memory budget of the report cache in bytes */
+	public static final long DEFAULT_CACHE_BYTES = 16L * 1024 * 1024;
 	
 	/** TrailManager object that is used for manipulation */
 	private TrailManager manager;
 	
+	/** Cache of the distance maps and reports of recently requested origins */
+	private ReportCache cache;
+	
 	/** 
 	 * Constructs a new ReportManager object by initializing the manager field and setting all the DSAFactory types.
 	 * @param pathToLandmarkFile String of the path to the landmark file
@@ -36,28 +49,303 @@ public class ReportManager {
 	 * @throws FileNotFoundException if the file does not exist or cannot be found
 	 */
     public ReportManager(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
+    	this(pathToLandmarkFile, pathToTrailFile, false);
+    }
+    
+	/** 
+	 * Constructs a new ReportManager object, optionally loading the files in parallel.
+	 * @param pathToLandmarkFile String of the path to the landmark file
+	 * @param pathToTrailFile String of the path to the trail file 
+	 * @param parallelLoad true to parse the files and build the trail graph in parallel
+	 * @throws FileNotFoundException if the file does not exist or cannot be found
+	 */
+    public ReportManager(String pathToLandmarkFile, String pathToTrailFile, boolean parallelLoad) throws FileNotFoundException {
+    	setFactoryTypes();
+        manager = new TrailManager(pathToLandmarkFile, pathToTrailFile, parallelLoad);
+        cache = new ReportCache(DEFAULT_CACHE_BYTES);
+    }
+    
+	/** 
+	 * Constructs a new ReportManager object over a TrailManager that has already been loaded, such as one
+	 * opened from a snapshot with TrailManager.load or TrailManager.map.
+	 * @param manager the TrailManager to report on
+	 */
+    public ReportManager(TrailManager manager) {
+    	this(manager, DEFAULT_CACHE_BYTES);
+    }
+    
+	/** 
+	 * Constructs a new ReportManager object over a TrailManager that has already been loaded, with a report cache
+	 * of the given size.
+	 * @param manager the TrailManager to report on
+	 * @param cacheBytes memory budget of the report cache in bytes; 0 disables the cache
+	 * @throws IllegalArgumentException if cacheBytes is negative
+	 */
+    public ReportManager(TrailManager manager, long cacheBytes) {
+    	setFactoryTypes();
+    	this.manager = manager;
+    	cache = new ReportCache(cacheBytes);
+    }
+    
+    /**
+     * Sets the data structures and algorithms that DSAFactory creates for the reports.
+     */
+    private static void setFactoryTypes() {
     	DSAFactory.setMapType(DataStructure.SKIPLIST);
     	DSAFactory.setListType(DataStructure.ARRAYBASEDLIST);
     	DSAFactory.setNonComparisonSorterType(Algorithm.COUNTING_SORT);
     	DSAFactory.setComparisonSorterType(Algorithm.MERGESORT);
-        manager = new TrailManager(pathToLandmarkFile, pathToTrailFile);
     }
 
     /** 
      * Returns a String of the distance report based off of the map returned from the getDistancesToDestinations method
-     * in TrailManager
+     * in TrailManager. Reports for valid origins are cached until the TrailManager data is reloaded or changed.
      * @param originLandmark the ID of the origin Landmark
      * @return a string of the distances between the given landmark and other landmarks in the trails 
      */
     public String getDistancesReport(String originLandmark) {
-    	Map<Landmark, Integer> entryMap = manager.getDistancesToDestinations(originLandmark);
+    	long start = Metrics.start();
+    	String report = getCachedReport(originLandmark).getReport();
+    	Metrics.stop(Phase.DISTANCES_REPORT, start);
+    	return report;
+    }
+    
+    /** 
+     * Returns the distance from the given landmark to every landmark it can reach, including itself. The map is
+     * shared with the report cache, so it is returned as a view that cannot be modified.
+     * @param originLandmark the ID of the origin Landmark
+     * @return a map of landmarks and their distances from the origin landmark, which is empty for an invalid ID
+     */
+    public Map<Landmark, Integer> getDistancesToDestinations(String originLandmark) {
+    	return getCachedReport(originLandmark).getDistances();
+    }
+    
+    /**
+     * Returns the cache of distance reports, which keeps the hit, miss, and eviction counts.
+     * @return the report cache
+     */
+    public ReportCache getCache() {
+    	return cache;
+    }
+    
+    /**
+     * Replaces the network with the one in the given files and invalidates every cached report.
+     * @param pathToLandmarkFile String of the path to the landmark file
+     * @param pathToTrailFile String of the path to the trail file 
+     * @throws FileNotFoundException if the file does not exist or cannot be found
+     */
+    public void reload(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
+    	manager.reload(pathToLandmarkFile, pathToTrailFile, false);
+    }
+    
+    /**
+     * Closes the shortest open trail between two landmarks. Cached reports are kept unless the trail could be on
+     * a shortest route from their origin.
+     * @param landmarkOne ID of one end of the trail
+     * @param landmarkTwo ID of the other end of the trail
+     * @return the change that was made
+     * @throws IllegalArgumentException if either ID is invalid, or no open trail joins the landmarks
+     */
+    public TrailChange closeTrail(String landmarkOne, String landmarkTwo) {
+    	return invalidate(manager.closeTrail(landmarkOne, landmarkTwo));
+    }
+    
+    /**
+     * Opens the shortest closed trail between two landmarks again. Cached reports are kept unless the trail gives
+     * their origin a shorter route to one of its ends.
+     * @param landmarkOne ID of one end of the trail
+     * @param landmarkTwo ID of the other end of the trail
+     * @return the change that was made
+     * @throws IllegalArgumentException if either ID is invalid, or no closed trail joins the landmarks
+     */
+    public TrailChange openTrail(String landmarkOne, String landmarkTwo) {
+    	return invalidate(manager.openTrail(landmarkOne, landmarkTwo));
+    }
+    
+    /**
+     * Adds a new trail between two landmarks. Cached reports are kept unless the trail gives their origin a
+     * shorter route to one of its ends.
+     * @param landmarkOne ID of one end of the trail
+     * @param landmarkTwo ID of the other end of the trail
+     * @param length length of the trail in feet
+     * @return the change that was made
+     * @throws IllegalArgumentException if either ID is invalid or the length is negative
+     */
+    public TrailChange addTrail(String landmarkOne, String landmarkTwo, int length) {
+    	return invalidate(manager.addTrail(landmarkOne, landmarkTwo, length));
+    }
+    
+    /**
+     * Changes the length of the shortest open trail between two landmarks. Cached reports are kept unless the
+     * change could move a distance from their origin.
+     * @param landmarkOne ID of one end of the trail
+     * @param landmarkTwo ID of the other end of the trail
+     * @param length new length of the trail in feet
+     * @return the change that was made
+     * @throws IllegalArgumentException if either ID is invalid, the length is negative, or no open trail joins
+     *         the landmarks
+     */
+    public TrailChange updateLength(String landmarkOne, String landmarkTwo, int length) {
+    	return invalidate(manager.updateLength(landmarkOne, landmarkTwo, length));
+    }
+    
+    /**
+     * Adds a new landmark that has no trails yet. Every cached report is kept.
+     * @param id ID of the landmark
+     * @param description description of the landmark
+     * @param type type of the landmark
+     * @return the change that was made
+     * @throws IllegalArgumentException if a landmark with the ID already exists
+     */
+    public TrailChange addLandmark(String id, String description, String type) {
+    	return invalidate(manager.addLandmark(id, description, type));
+    }
+    
+    /**
+     * Drops the cached reports that an edit could have affected.
+     * @param change the edit
+     * @return the edit
+     */
+    private TrailChange invalidate(TrailChange change) {
+    	cache.update(change.getVersion() - 1, change.getVersion(), entry -> change.affects(entry.getDistances()));
+    	return change;
+    }
+    
+    /**
+     * Returns the cached distance map and report of the given origin, computing and caching them on a miss. The
+     * distance map, the degree index whose descriptions and ranks the report is written with, and the version the
+     * entry is cached under are read together, so a reload cannot land between them.
+     * @param originLandmark the ID of the origin Landmark
+     * @return the distance map and report of the origin
+     */
+    private ReportCache.CachedReport getCachedReport(String originLandmark) {
+    	long version = manager.getVersion();
+    	ReportCache.CachedReport cached = cache.get(originLandmark, version);
+    	if (cached != null) {
+    		Metrics.count(Counter.CACHE_HITS, 1);
+    		return cached;
+    	}
+    	Metrics.count(Counter.CACHE_MISSES, 1);
+    	Map<Landmark, Integer> entryMap;
+    	DegreeIndex index;
+    	synchronized (manager) {
+    		version = manager.getVersion();
+    		entryMap = manager.getDistancesToDestinations(originLandmark);
+    		index = manager.getDegreeIndex();
+    	}
+    	String report = buildDistancesReport(originLandmark, entryMap, index);
     	if (entryMap.size() == 0) {
-    		return "The provided landmark ID (" + originLandmark + ") is invalid for the park.";
+    		return new ReportCache.CachedReport(entryMap, report);
+    	}
+    	return cache.put(originLandmark, version, entryMap, report);
+    }
+    
+    /**
+     * Builds the distance report of the given origin from its distance map.
+     * @param originLandmark the ID of the origin Landmark
+     * @param entryMap distance from the origin to each reachable landmark
+     * @param index degree index of the graph the distances were found in
+     * @return the distance report
+     */
+    private String buildDistancesReport(String originLandmark, Map<Landmark, Integer> entryMap, DegreeIndex index) {
+    	StringBuilder report = new StringBuilder();
+    	try {
+    		writeDistancesReport(originLandmark, entryMap, index, new ReportWriter(report));
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
+    	return report.toString();
+    }
+    
+    /** 
+     * Writes the distance report of the given origin to the given destination. The text is the same as
+     * getDistancesReport returns, but it is written as it is produced instead of being built up as a String.
+     * A report that is already cached is copied from the cache, and a new report is not added to the cache.
+     * @param originLandmark the ID of the origin Landmark
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    public void writeDistancesReport(String originLandmark, Appendable out) throws IOException {
+    	ReportCache.CachedReport cached = cache.get(originLandmark, manager.getVersion());
+    	if (cached != null) {
+    		Metrics.count(Counter.CACHE_HITS, 1);
+    		out.append(cached.getReport());
+    		return;
+    	}
+    	Metrics.count(Counter.CACHE_MISSES, 1);
+    	Map<Landmark, Integer> entryMap;
+    	DegreeIndex index;
+    	synchronized (manager) {
+    		entryMap = manager.getDistancesToDestinations(originLandmark);
+    		index = manager.getDegreeIndex();
+    	}
+    	writeDistancesReport(originLandmark, entryMap, index, new ReportWriter(out));
+    }
+    
+    /**
+     * Writes the distance report of the given origin from its distance map. Each reached landmark is sorted as one
+     * long key packed from its distance and its rank in description order, so the sort compares primitive longs
+     * instead of unboxing distances and comparing descriptions. The order is the same as DistanceReportComparator
+     * followed by descending ID for full ties. If the map has a landmark that the index's graph does not, the
+     * entries are sorted with the comparator.
+     * @param originLandmark the ID of the origin Landmark
+     * @param entryMap distance from the origin to each reachable landmark
+     * @param index degree index of the graph the distances were found in
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    private void writeDistancesReport(String originLandmark, Map<Landmark, Integer> entryMap, DegreeIndex index,
+    		ReportWriter out) throws IOException {
+    	if (entryMap.size() == 0) {
+    		out.append("The provided landmark ID (").append(originLandmark).append(") is invalid for the park.");
+    		return;
+    	}
+    	TrailGraph graph = index.getGraph();
+    	DescriptionRanks ranks = index.getRanks();
+    	Landmark ogLandmark = null;
+    	long[] keys = new long[entryMap.size() - 1];
+    	int count = 0;
+    	for(Map.Entry<Landmark, Integer> entry : entryMap.entrySet()) {
+    		if (entry != null && !entry.getKey().getId().equals(originLandmark)) {
+    			int landmark = graph.indexOf(entry.getKey().getId());
+    			if (landmark == TrailGraph.NO_LANDMARK) {
+    				writeSortedEntries(originLandmark, entryMap, out);
+    				return;
+    			}
+    			keys[count++] = ranks.pack(entry.getValue(), landmark);
+    		} else if (entry != null) {
+    			ogLandmark = entry.getKey();
+    		}
     	}
-    	Landmark ogLandmark = manager.getLandmarkByID(originLandmark);
     	if (entryMap.size() == 1) { 
-    		return "No landmarks are reachable from " + ogLandmark.getDescription() + " (" + originLandmark + ").";
+    		out.append("No landmarks are reachable from ").append(ogLandmark.getDescription()).append(" (")
+    				.append(originLandmark).append(").");
+    		return;
+    	}
+    	long start = Metrics.start();
+    	LandmarkOrder.sort(keys, new long[count], 0, count);
+    	Metrics.stop(Phase.SORT, start);
+    	start = Metrics.start();
+    	out.append("Landmarks Reachable from ").append(ogLandmark.getDescription()).append(" (").append(ogLandmark.getId())
+    			.append(") {\n");
+    	for (long key : keys) {
+    		int landmark = ranks.landmarkOf(key);
+    		out.append("   ").appendDistance(DescriptionRanks.valueOf(key)).append(" to ").append(graph.getDescription(landmark))
+    				.append(" (").append(graph.getId(landmark)).append(")\n");
     	}
+    	out.append("}");
+    	Metrics.stop(Phase.RENDER, start);
+    }
+    
+    /**
+     * Writes the distance report of the given origin by sorting its map entries with DistanceReportComparator.
+     * @param originLandmark the ID of the origin Landmark
+     * @param entryMap distance from the origin to each reachable landmark, including the origin
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    private void writeSortedEntries(String originLandmark, Map<Landmark, Integer> entryMap, ReportWriter out) throws IOException {
+    	Landmark ogLandmark = null;
     	Entry<Landmark, Integer>[] entryArray = new Map.Entry[entryMap.size() - 1];
     	Sorter<Entry<Landmark, Integer>> sorter = DSAFactory.getComparisonSorter(new DistanceReportComparator());
     	int i = 0;
@@ -65,50 +353,306 @@ public class ReportManager {
     		if (entry != null && !entry.getKey().getId().equals(originLandmark)) {
     			entryArray[i] = entry;
     			i++;
+    		} else if (entry != null) {
+    			ogLandmark = entry.getKey();
     		}
     	}
+    	if (entryMap.size() == 1) { 
+    		out.append("No landmarks are reachable from ").append(ogLandmark.getDescription()).append(" (")
+    				.append(originLandmark).append(").");
+    		return;
+    	}
     	sorter.sort(entryArray);
-    	String report = "Landmarks Reachable from " + ogLandmark.getDescription() + " (" + ogLandmark.getId() + ") {\n";
+    	out.append("Landmarks Reachable from ").append(ogLandmark.getDescription()).append(" (").append(ogLandmark.getId())
+    			.append(") {\n");
     	for(Map.Entry<Landmark, Integer> entry : entryArray) {
-    		report += "   " + entry.getValue() + " feet";
-    		if (entry.getValue() > FEET_IN_MILE) {
-    			double distanceInMiles = (double) entry.getValue() / FEET_IN_MILE;
-    			report += " (" + Math.round(distanceInMiles * 100.0) / 100.0 + " miles)";
-    		}
-    		report += " to " + entry.getKey().getDescription() + " (" + entry.getKey().getId() + ")\n";
+    		out.append("   ").appendDistance(entry.getValue()).append(" to ").append(entry.getKey().getDescription())
+    				.append(" (").append(entry.getKey().getId()).append(")\n");
     	}
-    	report += "}";
-        return report;
+    	out.append("}");
     }
 
     /**
-     * Returns a string of the proposed first aid locations, which is determined from the getProposedFirstAidLocations
-     * in Trail Manager. 
+     * Returns a string of the shortest route between two landmarks, listing each landmark on the route with the
+     * length of the trail walked to reach it.
+     * @param from the ID of the origin Landmark
+     * @param to the ID of the destination Landmark
+     * @return a string that explains the route
+     */
+    public String getRouteReport(String from, String to) {
+    	StringBuilder report = new StringBuilder();
+    	try {
+    		writeRouteReport(from, to, new ReportWriter(report));
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
+    	return report.toString();
+    }
+    
+    /**
+     * Writes the route report between two landmarks.
+     * @param from the ID of the origin Landmark
+     * @param to the ID of the destination Landmark
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    private void writeRouteReport(String from, String to, ReportWriter out) throws IOException {
+    	Landmark origin = manager.getLandmarkByID(from);
+    	Landmark destination = manager.getLandmarkByID(to);
+    	if (origin == null || destination == null) {
+    		out.append("The provided landmark ID (").append(origin == null ? from : to).append(") is invalid for the park.");
+    		return;
+    	}
+    	Route route = manager.getRoute(from, to);
+    	if (route == null) {
+    		out.append("No route from ").append(origin.getDescription()).append(" (").append(origin.getId()).append(") to ")
+    				.append(destination.getDescription()).append(" (").append(destination.getId()).append(").");
+    		return;
+    	}
+    	out.append("Route from ").append(origin.getDescription()).append(" (").append(origin.getId()).append(") to ")
+    			.append(destination.getDescription()).append(" (").append(destination.getId()).append(") is ")
+    			.appendDistance(route.getDistance()).append(" {\n");
+    	out.append("   Start at ").append(origin.getDescription()).append(" (").append(origin.getId()).append(")\n");
+    	for (int i = 1; i < route.getLandmarks().size(); i++) {
+    		Landmark landmark = route.getLandmarks().get(i);
+    		out.append("   ").appendDistance(route.getTrails().get(i - 1).getLength()).append(" to ")
+    				.append(landmark.getDescription()).append(" (").append(landmark.getId()).append(")\n");
+    	}
+    	out.append("}");
+    }
+
+    /**
+     * Returns a string of the proposed first aid locations, which are read in report order from the degree index
+     * that TrailManager builds when the network is loaded, so no map is built and nothing is sorted per call.
      * @param numberOfIntersectingTrails the number of intersecting trails needed to be found
      * @return a string that explains the first aid locations 
      */
     public String getProposedFirstAidLocations(int numberOfIntersectingTrails) {
+    	StringBuilder report = new StringBuilder();
+    	try {
+    		writeProposedFirstAidLocations(numberOfIntersectingTrails, report);
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
+        return report.toString();
+    }
+    
+    /**
+     * Writes the proposed first aid locations report to the given destination. The text is the same as
+     * getProposedFirstAidLocations returns, but it is written as it is produced instead of being built up as a String.
+     * @param numberOfIntersectingTrails the number of intersecting trails needed to be found
+     * @param out destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    public void writeProposedFirstAidLocations(int numberOfIntersectingTrails, Appendable out) throws IOException {
+    	long start = Metrics.start();
+    	writeProposedFirstAidLocations(manager.getDegreeIndex(), numberOfIntersectingTrails, new ReportWriter(out));
+    	Metrics.stop(Phase.FIRST_AID_REPORT, start);
+    }
+    
+    /**
+     * Writes the proposed first aid locations report of the network in the given degree index.
+     * @param index landmarks of the network in first aid report order
+     * @param numberOfIntersectingTrails the number of intersecting trails needed to be found
+     * @param writer destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    static void writeProposedFirstAidLocations(DegreeIndex index, int numberOfIntersectingTrails, ReportWriter writer) throws IOException {
     	if (numberOfIntersectingTrails <= 0) {
-    		return "Number of intersecting trails must be greater than 0.";
+    		writer.append("Number of intersecting trails must be greater than 0.");
+    		return;
     	}
-    	Map<Landmark, List<Trail>> entryMap = manager.getProposedFirstAidLocations(numberOfIntersectingTrails);
-    	if (entryMap.isEmpty()) {
-    		return "No landmarks have at least " + numberOfIntersectingTrails + " intersecting trails.";
+    	int count = index.getCount(numberOfIntersectingTrails);
+    	if (count == 0) {
+    		writer.append("No landmarks have at least ").append(numberOfIntersectingTrails).append(" intersecting trails.");
+    		return;
     	}
-    	Entry<Landmark, List<Trail>>[] entryArray = new Map.Entry[entryMap.size()];
-    	Sorter<Entry<Landmark, List<Trail>>> sorter = DSAFactory.getComparisonSorter(new FirstAidLocationsComparator());
-    	int i = 0;
-    	for(Map.Entry<Landmark, List<Trail>> entry : entryMap.entrySet()) {
-    		entryArray[i] = entry;
-    		i++;
+    	writer.append("Proposed Locations for First Aid Stations {\n");
+    	writeFirstAidLocations(index, 0, count, writer);
+    }
+    
+    /**
+     * Returns a string of the k landmarks with the most intersecting trails, in the same order as the proposed
+     * first aid locations report. The landmarks are the first k positions of the degree index, so the report
+     * costs O(k) no matter how many landmarks the park has. Landmarks with no trails are never listed.
+     * @param k the number of landmarks to list
+     * @return a string that explains the best first aid locations
+     */
+    public String getTopFirstAidLocations(int k) {
+    	StringBuilder report = new StringBuilder();
+    	try {
+    		writeTopFirstAidLocations(manager.getDegreeIndex(), k, new ReportWriter(report));
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
     	}
-    	sorter.sort(entryArray);
-    	String report = "Proposed Locations for First Aid Stations {\n";
-    	for(Map.Entry<Landmark, List<Trail>> entry : entryArray) {
-    		report += "   " + entry.getKey().getDescription() + " (" + entry.getKey().getId() + ") - " + entry.getValue().size() + " intersecting trails\n"; 
+    	return report.toString();
+    }
+    
+    /**
+     * Returns one page of the first aid locations, ranked as in getTopFirstAidLocations. Page 1 lists the
+     * landmarks ranked 1 to pageSize, page 2 the ones ranked pageSize + 1 to 2 * pageSize, and so on.
+     * @param page the page number, starting at 1
+     * @param pageSize the number of landmarks on each page
+     * @return a string that explains the first aid locations on the page
+     */
+    public String getFirstAidLocationsPage(int page, int pageSize) {
+    	StringBuilder report = new StringBuilder();
+    	try {
+    		writeFirstAidLocationsPage(manager.getDegreeIndex(), page, pageSize, new ReportWriter(report));
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
+    	return report.toString();
+    }
+    
+    /**
+     * Writes the report of the k landmarks with the most intersecting trails in the given degree index.
+     * @param index landmarks of the network in first aid report order
+     * @param k the number of landmarks to list
+     * @param writer destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    static void writeTopFirstAidLocations(DegreeIndex index, int k, ReportWriter writer) throws IOException {
+    	if (k <= 0) {
+    		writer.append("Number of locations must be greater than 0.");
+    		return;
+    	}
+    	int count = Math.min(k, index.getCount(1));
+    	if (count == 0) {
+    		writer.append("No landmarks have any intersecting trails.");
+    		return;
+    	}
+    	writer.append("Top ").append(count).append(" Locations for First Aid Stations {\n");
+    	writeFirstAidLocations(index, 0, count, writer);
+    }
+    
+    /**
+     * Writes one page of the first aid locations in the given degree index.
+     * @param index landmarks of the network in first aid report order
+     * @param page the page number, starting at 1
+     * @param pageSize the number of landmarks on each page
+     * @param writer destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    static void writeFirstAidLocationsPage(DegreeIndex index, int page, int pageSize, ReportWriter writer) throws IOException {
+    	if (page <= 0) {
+    		writer.append("Page number must be greater than 0.");
+    		return;
+    	}
+    	if (pageSize <= 0) {
+    		writer.append("Number of locations must be greater than 0.");
+    		return;
+    	}
+    	int total = index.getCount(1);
+    	if (total == 0) {
+    		writer.append("No landmarks have any intersecting trails.");
+    		return;
+    	}
+    	int pages = (int) ((total + (long) pageSize - 1) / pageSize);
+    	if (page > pages) {
+    		writer.append("Page ").append(page).append(" is past the last page (").append(pages).append(").");
+    		return;
+    	}
+    	int from = (page - 1) * pageSize;
+    	int to = (int) Math.min(total, (long) from + pageSize);
+    	writer.append("Locations ").append(from + 1).append(" to ").append(to).append(" of ").append(total)
+    			.append(" for First Aid Stations {\n");
+    	writeFirstAidLocations(index, from, to, writer);
+    }
+    
+    /**
+     * Writes the landmarks at a range of positions of the degree index, one per line, and closes the report.
+     * @param index landmarks of the network in first aid report order
+     * @param from first position to write
+     * @param to end (exclusive) of the positions to write
+     * @param writer destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    private static void writeFirstAidLocations(DegreeIndex index, int from, int to, ReportWriter writer) throws IOException {
+    	long start = Metrics.start();
+    	TrailGraph graph = index.getGraph();
+    	for (int i = from; i < to; i++) {
+    		int landmark = index.get(i);
+    		writer.append("   ").append(graph.getDescription(landmark)).append(" (").append(graph.getId(landmark))
+    				.append(") - ").append(graph.getDegree(landmark)).append(" intersecting trails\n");
+    	}
+    	writer.append("}");
+    	Metrics.stop(Phase.RENDER, start);
+    }
+    
+    /**
+     * Returns a report of the connected components of the network. If some landmarks cannot reach each other, each
+     * group of landmarks that are connected by trails is listed on one line, largest first, with its landmarks in
+     * description order. Groups of the same size are ordered by their first landmark.
+     * @return a string that lists the disconnected groups of landmarks
+     */
+    public String getComponentsReport() {
+    	ComponentIndex components;
+    	DescriptionRanks ranks;
+    	synchronized (manager) {
+    		components = manager.getComponentIndex();
+    		ranks = manager.getDegreeIndex().getRanks();
+    	}
+    	StringBuilder report = new StringBuilder();
+    	try {
+    		writeComponentsReport(components, ranks, new ReportWriter(report));
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e);
+    	}
+    	return report.toString();
+    }
+    
+    /**
+     * Writes the components report of the network in the given component index. Landmarks are sorted as long keys
+     * packed from their component and description rank, and components as keys packed from their size and the
+     * rank of their first landmark, which also names the component, so no strings are compared.
+     * @param components connected components of the network
+     * @param ranks ranks of the network's landmarks in description order
+     * @param writer destination of the report
+     * @throws IOException if the destination cannot be written to
+     */
+    static void writeComponentsReport(ComponentIndex components, DescriptionRanks ranks, ReportWriter writer) throws IOException {
+    	TrailGraph graph = components.getGraph();
+    	int landmarkCount = graph.getLandmarkCount();
+    	int count = components.getComponentCount();
+    	if (landmarkCount == 0) {
+    		writer.append("The park has no landmarks.");
+    		return;
+    	}
+    	if (count == 1) {
+    		writer.append("All ").append(landmarkCount).append(landmarkCount == 1 ? " landmark is" : " landmarks are")
+    				.append(" connected by trails.");
+    		return;
+    	}
+    	long[] members = new long[landmarkCount];
+    	for (int landmark = 0; landmark < landmarkCount; landmark++) {
+    		members[landmark] = ((long) components.getComponent(landmark) << 32) | ranks.getRank(landmark);
+    	}
+    	LandmarkOrder.sort(members, new long[landmarkCount], 0, landmarkCount);
+    	int[] starts = new int[count];
+    	long[] order = new long[count];
+    	for (int component = 0, start = 0; component < count; component++) {
+    		starts[component] = start;
+    		int size = components.getSize(component);
+    		order[component] = ((long) (landmarkCount - size) << 32) | (int) members[start];
+    		start += size;
+    	}
+    	LandmarkOrder.sort(order, new long[count], 0, count);
+    	writer.append("Disconnected Groups of Landmarks (").append(count).append(") {\n");
+    	for (long key : order) {
+    		int component = components.getComponent(ranks.getLandmark((int) key));
+    		int size = components.getSize(component);
+    		writer.append("   ").append(size).append(size == 1 ? " landmark: " : " landmarks: ");
+    		for (int i = 0; i < size; i++) {
+    			int landmark = ranks.getLandmark((int) members[starts[component] + i]);
+    			if (i > 0) {
+    				writer.append(", ");
+    			}
+    			writer.append(graph.getDescription(landmark)).append(" (").append(graph.getId(landmark)).append(")");
+    		}
+    		writer.append("\n");
     	}
-    	report += "}";
-        return report;
+    	writer.append("}");
     }
     
     /**
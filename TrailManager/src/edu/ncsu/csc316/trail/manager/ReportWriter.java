@@ -0,0 +1,135 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * ReportWriter renders report text straight to an Appendable, such as a StringBuilder or a Writer, so that a
+ * report is never built up by concatenating Strings. Numbers are formatted into a reusable character buffer
+ * instead of temporary Strings. Distances over a mile also print their length in miles, rounded to the
+ * hundredth exactly as Math.round(miles * 100.0) / 100.0 would print. A ReportWriter is not safe to use from
+ * several threads at once.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class ReportWriter {
+
+	/** Number of feet in a mile */
+	public static final int FEET_IN_MILE = 5280;
+
+	/** Destination of the report text */
+	private final Appendable out;
+
+	/** Destination of the report text if it is a Writer, or null */
+	private final Writer writer;
+
+	/** Destination of the report text if it is a StringBuilder, or null */
+	private final StringBuilder builder;
+
+	/** Reusable buffer that numbers are formatted into */
+	private final char[] digits = new char[20];
+
+	/**
+	 * Constructs a new ReportWriter. To write to an OutputStream, wrap it in an OutputStreamWriter.
+	 * @param out destination of the report text
+	 */
+	public ReportWriter(Appendable out) {
+		this.out = out;
+		this.writer = out instanceof Writer ? (Writer) out : null;
+		this.builder = out instanceof StringBuilder ? (StringBuilder) out : null;
+	}
+
+	/**
+	 * Writes the given text.
+	 * @param text the text to write
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public ReportWriter append(String text) throws IOException {
+		out.append(text);
+		return this;
+	}
+
+	/**
+	 * Writes the given character.
+	 * @param c the character to write
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public ReportWriter append(char c) throws IOException {
+		out.append(c);
+		return this;
+	}
+
+	/**
+	 * Writes the given number in decimal.
+	 * @param value the number to write
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public ReportWriter append(long value) throws IOException {
+		int start = digits.length;
+		long rest = value;
+		do {
+			digits[--start] = (char) ('0' + Math.abs(rest % 10));
+			rest /= 10;
+		} while (rest != 0);
+		if (value < 0) {
+			digits[--start] = '-';
+		}
+		flushDigits(start);
+		return this;
+	}
+
+	/**
+	 * Writes a distance as "N feet", followed by " (M miles)" if the distance is longer than a mile.
+	 * @param feet the distance in feet
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public ReportWriter appendDistance(int feet) throws IOException {
+		append(feet).append(" feet");
+		if (feet > FEET_IN_MILE) {
+			append(" (").appendMiles(feet).append(" miles)");
+		}
+		return this;
+	}
+
+	/**
+	 * Writes a distance in miles, rounded to the hundredth. Trailing zeros are dropped but at least one digit is
+	 * kept after the decimal point, so the text matches how the rounded double would print.
+	 * @param feet the distance in feet
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public ReportWriter appendMiles(int feet) throws IOException {
+		long hundredths = Math.round((double) feet / FEET_IN_MILE * 100.0);
+		append(hundredths / 100).append('.');
+		int fraction = (int) Math.abs(hundredths % 100);
+		if (fraction % 10 == 0) {
+			out.append((char) ('0' + fraction / 10));
+		} else {
+			out.append((char) ('0' + fraction / 10));
+			out.append((char) ('0' + fraction % 10));
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the end of the digit buffer, starting at the given position.
+	 * @param start first position of the buffer to write
+	 * @throws IOException if the destination cannot be written to
+	 */
+	private void flushDigits(int start) throws IOException {
+		if (builder != null) {
+			builder.append(digits, start, digits.length - start);
+		} else if (writer != null) {
+			writer.write(digits, start, digits.length - start);
+		} else {
+			for (int i = start; i < digits.length; i++) {
+				out.append(digits[i]);
+			}
+		}
+	}
+}
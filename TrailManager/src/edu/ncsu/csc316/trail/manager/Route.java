@@ -0,0 +1,60 @@
+package edu.ncsu.csc316.trail.manager;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.data.Trail;
+
+/**
+ * Route is the shortest way along the trails from one landmark to another: its length and the landmarks and trails
+ * it passes, in order. Trail i joins landmarks i and i + 1, so a route always has one more landmark than trails.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class Route {
+
+	/** Length of the route in feet */
+	private final int distance;
+
+	/** Landmarks on the route, from the origin to the destination */
+	private final List<Landmark> landmarks;
+
+	/** Trails on the route, in the order they are walked */
+	private final List<Trail> trails;
+
+	/**
+	 * Constructs a new Route.
+	 * @param distance length of the route in feet
+	 * @param landmarks landmarks on the route, from the origin to the destination
+	 * @param trails trails on the route, in the order they are walked
+	 */
+	public Route(int distance, List<Landmark> landmarks, List<Trail> trails) {
+		this.distance = distance;
+		this.landmarks = landmarks;
+		this.trails = trails;
+	}
+
+	/**
+	 * Returns the length of the route.
+	 * @return the length in feet
+	 */
+	public int getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Returns the landmarks on the route.
+	 * @return the landmarks, from the origin to the destination
+	 */
+	public List<Landmark> getLandmarks() {
+		return landmarks;
+	}
+
+	/**
+	 * Returns the trails on the route.
+	 * @return the trails, in the order they are walked
+	 */
+	public List<Trail> getTrails() {
+		return trails;
+	}
+}
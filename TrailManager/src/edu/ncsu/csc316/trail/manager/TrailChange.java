@@ -0,0 +1,148 @@
+package edu.ncsu.csc316.trail.manager;
+
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * TrailChange describes one edit made to the network by TrailManager: what kind of edit it was, the landmarks at
+ * the ends of the trail, the trail's length before and after, and the version of the network the edit made. It
+ * can tell from an origin's old distances whether the edit could have changed any of them, which lets cached
+ * reports that the edit cannot affect be kept.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailChange {
+
+	/** Length recorded when there is no length before or after the edit */
+	public static final int NO_LENGTH = -1;
+
+	/**
+	 * Kinds of edits.
+	 */
+	public enum Kind {
+		/** An open trail was closed */
+		CLOSED,
+		/** A closed trail was opened again */
+		OPENED,
+		/** A new trail was added */
+		ADDED,
+		/** The length of an open trail was changed */
+		LENGTH_CHANGED,
+		/** A new landmark with no trails was added */
+		LANDMARK_ADDED
+	}
+
+	/** Kind of edit */
+	private final Kind kind;
+
+	/** First landmark of the trail, or the added landmark */
+	private final Landmark landmarkOne;
+
+	/** Second landmark of the trail, or the added landmark */
+	private final Landmark landmarkTwo;
+
+	/** Length of the trail before the edit, or NO_LENGTH if it was not open */
+	private final int oldLength;
+
+	/** Length of the trail after the edit, or NO_LENGTH if it is not open */
+	private final int newLength;
+
+	/** Version of the network made by the edit */
+	private final long version;
+
+	/**
+	 * Constructs a new TrailChange.
+	 * @param kind kind of edit
+	 * @param landmarkOne first landmark of the trail, or the added landmark
+	 * @param landmarkTwo second landmark of the trail, or the added landmark
+	 * @param oldLength length of the trail before the edit, or NO_LENGTH
+	 * @param newLength length of the trail after the edit, or NO_LENGTH
+	 * @param version version of the network made by the edit
+	 */
+	public TrailChange(Kind kind, Landmark landmarkOne, Landmark landmarkTwo, int oldLength, int newLength,
+			long version) {
+		this.kind = kind;
+		this.landmarkOne = landmarkOne;
+		this.landmarkTwo = landmarkTwo;
+		this.oldLength = oldLength;
+		this.newLength = newLength;
+		this.version = version;
+	}
+
+	/**
+	 * Returns true if the edit could have changed any distance from an origin, given the origin's distances from
+	 * before the edit. A trail that was removed or lengthened only matters if it was tight, meaning its ends'
+	 * distances differ by exactly its old length, since only then can it be on a shortest route. A trail that was
+	 * added or shortened only matters if it reaches a landmark that was unreachable or gives its far end a
+	 * shorter distance. The answer may be true for an edit that changed nothing, but is never false for one that
+	 * changed a distance.
+	 * @param distances distance from the origin to each landmark it reached before the edit
+	 * @return true if a distance may have changed
+	 */
+	public boolean affects(Map<Landmark, Integer> distances) {
+		if (kind == Kind.LANDMARK_ADDED || landmarkOne.equals(landmarkTwo)) {
+			return false;
+		}
+		Integer one = distances.get(landmarkOne);
+		Integer two = distances.get(landmarkTwo);
+		if (oldLength != NO_LENGTH && (newLength == NO_LENGTH || newLength > oldLength)) {
+			return one != null && two != null && Math.abs(one - two) == oldLength;
+		}
+		if (newLength != NO_LENGTH && (oldLength == NO_LENGTH || newLength < oldLength)) {
+			if (one == null || two == null) {
+				return one != null || two != null;
+			}
+			return (long) Math.min(one, two) + newLength < Math.max(one, two);
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the kind of edit.
+	 * @return the kind
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Returns the first landmark of the trail, or the added landmark.
+	 * @return the first landmark
+	 */
+	public Landmark getLandmarkOne() {
+		return landmarkOne;
+	}
+
+	/**
+	 * Returns the second landmark of the trail, or the added landmark.
+	 * @return the second landmark
+	 */
+	public Landmark getLandmarkTwo() {
+		return landmarkTwo;
+	}
+
+	/**
+	 * Returns the length of the trail before the edit.
+	 * @return the length in feet, or NO_LENGTH if the trail was not open
+	 */
+	public int getOldLength() {
+		return oldLength;
+	}
+
+	/**
+	 * Returns the length of the trail after the edit.
+	 * @return the length in feet, or NO_LENGTH if the trail is not open
+	 */
+	public int getNewLength() {
+		return newLength;
+	}
+
+	/**
+	 * Returns the version of the network made by the edit.
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+}
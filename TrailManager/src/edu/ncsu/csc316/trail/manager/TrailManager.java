@@ -1,15 +1,28 @@
 package edu.ncsu.csc316.trail.manager;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
 
 import edu.ncsu.csc316.dsa.list.List;
 import edu.ncsu.csc316.dsa.map.Map;
-import edu.ncsu.csc316.dsa.queue.Queue;
 import edu.ncsu.csc316.trail.data.Landmark;
 import edu.ncsu.csc316.trail.data.Trail;
 import edu.ncsu.csc316.trail.dsa.DSAFactory;
-import edu.ncsu.csc316.trail.io.TrailInputReader;
+import edu.ncsu.csc316.trail.graph.AltIndex;
+import edu.ncsu.csc316.trail.graph.ComponentIndex;
+import edu.ncsu.csc316.trail.graph.DegreeIndex;
+import edu.ncsu.csc316.trail.graph.ParallelTrailGraphLoader;
+import edu.ncsu.csc316.trail.graph.RouteSearch;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+import edu.ncsu.csc316.trail.graph.TrailGraphSnapshot;
+import edu.ncsu.csc316.trail.graph.TrailSearch;
+import edu.ncsu.csc316.trail.metrics.Counter;
+import edu.ncsu.csc316.trail.metrics.Metrics;
+import edu.ncsu.csc316.trail.metrics.Phase;
 
 /**
  * TrailManager is responsible for setting up the manager, lists, and maps that are used for manipulation
@@ -20,97 +33,542 @@ import edu.ncsu.csc316.trail.io.TrailInputReader;
  */
 public class TrailManager {
     
-	/** List of landmarks */
-	private List<Landmark> landmarkList;
+	/** Graph of every landmark and the trails that connect them */
+	private volatile TrailGraph graph;
 	
-	/** List of trails */
-	private List<Trail> trailList;
+	/** Landmarks in first aid report order, or null until a first aid report first needs them */
+	private volatile DegreeIndex degreeIndex;
 	
-	/** Map of landmark ID's and the associated landmark */
-	private Map<String, Landmark> landmarkMap;
+	/** Connected components of the network, which may still join landmarks that a closed trail has split, or null
+	 *  until a query first needs them */
+	private ComponentIndex componentIndex;
 	
-	/** Map of landmarks and a list of trails that involve the given landmark */
-	private Map<Landmark, List<Trail>> trailMap;
+	/** True if componentIndex is exact, and false if a trail was closed since it was built */
+	private boolean componentsExact;
+	
+	/** Shortest path search that is reused by every call to getDistancesToDestinations */
+	private TrailSearch search;
+	
+	/** Route search that is reused by every call to getRoute */
+	private RouteSearch routeSearch;
+	
+	/** Lower bounds that speed up route searches, or null if none have been built or an edit dropped them */
+	private volatile AltIndex routeIndex;
+	
+	/** Number of anchors of the route index that was built or loaded, or 0 if there has been none */
+	private int routeAnchors;
+	
+	/** True if the landmark strings of every loaded network are packed outside the heap */
+	private boolean packedLandmarks;
+	
+	/** Number of times the network has been reloaded or changed, used to invalidate cached reports */
+	private volatile long version;
 	
 	/**
 	 * Constructor that is responsible for taking in the input files and initializing the fields given the
-	 * output of the IO methods with the file parameters.
+	 * output of the IO methods with the file parameters. The files are streamed straight into the graph.
 	 * @param pathToLandmarkFile file that contains info about all landmarks
 	 * @param pathToTrailFile file that contains info about all trails
 	 * @throws FileNotFoundException if the file does not exist
 	 */
     public TrailManager(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
-    	landmarkList = TrailInputReader.readLandmarks(pathToLandmarkFile);
-    	trailList = TrailInputReader.readTrails(pathToTrailFile);
-    	landmarkMap = DSAFactory.getMap(null);
-    	for (Landmark landmark : landmarkList) {
-    		landmarkMap.put(landmark.getId(), landmark);
-    	}
-    	trailMap = DSAFactory.getMap(null);
-    	for (Trail trail : trailList) {
-    		Landmark landmarkOne = landmarkMap.get(trail.getLandmarkOne());
-			Landmark landmarkTwo = landmarkMap.get(trail.getLandmarkTwo());
-			List<Trail> l1trails = trailMap.get(landmarkOne);
-			if (l1trails == null) {
-				l1trails = DSAFactory.getIndexedList();
-				l1trails.addFirst(trail);
-				trailMap.put(landmarkOne, l1trails);
-			}
-			else {
-				l1trails.addFirst(trail);
-				trailMap.put(landmarkOne, l1trails);
-			}
-			List<Trail> l2trails = trailMap.get(landmarkTwo);
-			if (l2trails == null) {
-				l2trails = DSAFactory.getIndexedList();
-				l2trails.addFirst(trail);
-				trailMap.put(landmarkTwo, l2trails);
-			}
-			else {
-				l2trails.addFirst(trail);
-				trailMap.put(landmarkTwo, l2trails);
-			}
+    	this(pathToLandmarkFile, pathToTrailFile, false);
+    }
+    
+	/**
+	 * Constructor that reads the input files either on the calling thread or, for large files, split into
+	 * ranges that are parsed and indexed in parallel on the common fork-join pool.
+	 * @param pathToLandmarkFile file that contains info about all landmarks
+	 * @param pathToTrailFile file that contains info about all trails
+	 * @param parallelLoad true to parse the files and build the graph in parallel
+	 * @throws FileNotFoundException if the file does not exist
+	 */
+    public TrailManager(String pathToLandmarkFile, String pathToTrailFile, boolean parallelLoad) throws FileNotFoundException {
+    	reload(pathToLandmarkFile, pathToTrailFile, parallelLoad);
+    }
+    
+	/**
+	 * Constructor that wraps a graph that has already been built or loaded. The degree and component indexes are
+	 * built the first time a query needs them.
+	 * @param graph the graph of landmarks and trails
+	 */
+    public TrailManager(TrailGraph graph) {
+    	this.graph = graph;
+    	search = new TrailSearch(graph);
+    	routeSearch = new RouteSearch(graph);
+    }
+    
+    /**
+     * Loads a TrailManager from a snapshot file written by save, copying the snapshot onto the heap. A route
+     * index saved next to the snapshot is loaded with it.
+     * @param snapshot path to the snapshot file
+     * @return a TrailManager over the network in the snapshot
+     * @throws IOException if the snapshot cannot be read or has an unsupported version
+     */
+    public static TrailManager load(Path snapshot) throws IOException {
+    	TrailManager manager = new TrailManager(TrailGraphSnapshot.read(snapshot));
+    	Path index = AltIndex.pathFor(snapshot);
+    	if (Files.exists(index)) {
+    		manager.setRouteIndex(AltIndex.read(index, manager.graph));
+    	}
+    	return manager;
+    }
+    
+    /**
+     * Opens a TrailManager over a memory-mapped snapshot file written by save. Queries read the network straight
+     * from the file, and the indexes are built the first time a query needs them, so opening it only allocates
+     * the search arrays. A route index saved next to the snapshot is mapped with it and checked against the
+     * fingerprint the snapshot recorded, without reading the trails.
+     * @param snapshot path to the snapshot file
+     * @return a TrailManager over the network in the snapshot
+     * @throws IOException if the snapshot cannot be read or has an unsupported version
+     */
+    public static TrailManager map(Path snapshot) throws IOException {
+    	TrailManager manager = new TrailManager(TrailGraphSnapshot.map(snapshot));
+    	Path index = AltIndex.pathFor(snapshot);
+    	if (Files.exists(index)) {
+    		manager.setRouteIndex(AltIndex.map(index, manager.graph));
+    	}
+    	return manager;
+    }
+    
+    /**
+     * Saves the network to a snapshot file that load and map can open without parsing the CSV files again. If a
+     * route index has been built, it is saved next to the snapshot, in the file named by AltIndex.pathFor. An
+     * edited network is written from a compacted copy and left as it is, so its closed trails can still be
+     * opened again, and an index that an edit has loosened is rebuilt for the saved copy.
+     * @param snapshot path to the snapshot file, which is replaced if it exists
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized void save(Path snapshot) throws IOException {
+    	TrailGraphSnapshot.write(graph, snapshot);
+    	if (routeIndex != null) {
+    		AltIndex saved = routeIndex.matches(graph) ? routeIndex : AltIndex.build(graph, routeAnchors);
+    		saved.write(AltIndex.pathFor(snapshot));
+    	}
+    }
+    
+    /**
+     * Builds a route index of the network, which getRoute and getDistance use from then on to answer
+     * point-to-point queries with an A* search. The index is rebuilt whenever the network is reloaded or
+     * compacted. Closing a trail or making one longer keeps the index, whose bounds stay valid when distances
+     * only grow, while any other edit drops it until the next compact().
+     * @param anchors the number of anchor landmarks, such as AltIndex.DEFAULT_ANCHORS; more anchors give
+     *        tighter bounds but a larger index
+     * @return the index
+     * @throws IllegalArgumentException if anchors is not positive
+     */
+    public synchronized AltIndex buildRouteIndex(int anchors) {
+    	setRouteIndex(AltIndex.build(graph, anchors));
+    	return routeIndex;
+    }
+    
+    /**
+     * Returns the route index of the network.
+     * @return the index, or null if none has been built or loaded, or an edit has dropped it
+     */
+    public AltIndex getRouteIndex() {
+    	return routeIndex;
+    }
+    
+    /**
+     * Makes route queries use the given index.
+     * @param index the index of the current network
+     */
+    private synchronized void setRouteIndex(AltIndex index) {
+    	routeIndex = index;
+    	routeAnchors = index.getAnchorCount();
+    	routeSearch = new RouteSearch(graph, index);
+    }
+    
+    /**
+     * Replaces the network with the one in the given files. The current network is kept if the files cannot be
+     * read, and any report cached from the old network is invalidated.
+     * @param pathToLandmarkFile file that contains info about all landmarks
+     * @param pathToTrailFile file that contains info about all trails
+     * @param parallelLoad true to parse the files and build the graph in parallel
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public synchronized void reload(String pathToLandmarkFile, String pathToTrailFile, boolean parallelLoad) throws FileNotFoundException {
+    	long start = Metrics.start();
+    	TrailGraph loaded;
+    	if (parallelLoad) {
+    		loaded = ParallelTrailGraphLoader.load(pathToLandmarkFile, pathToTrailFile);
+    	} else {
+    		loaded = TrailGraphLoader.load(pathToLandmarkFile, pathToTrailFile);
+    	}
+    	if (packedLandmarks) {
+    		loaded = loaded.packLandmarks();
+    	}
+    	DegreeIndex index = new DegreeIndex(loaded);
+    	graph = loaded;
+    	degreeIndex = index;
+    	componentIndex = new ComponentIndex(loaded);
+    	componentsExact = true;
+    	search = new TrailSearch(loaded);
+    	routeIndex = routeAnchors > 0 ? AltIndex.build(loaded, routeAnchors) : null;
+    	routeSearch = new RouteSearch(loaded, routeIndex);
+    	version++;
+    	Metrics.stop(Phase.LOAD, start);
+    }
+    
+    /**
+     * Closes the shortest open trail between two landmarks. Routes and distances avoid the trail until it is
+     * opened again, and it is not written by save.
+     * @param landmarkOne ID of one end of the trail
+     * @param landmarkTwo ID of the other end of the trail
+     * @return the change that was made
+     * @throws IllegalArgumentException if either ID is invalid, or no open trail joins the landmarks
+     */
+    public synchronized TrailChange closeTrail(String landmarkOne, String landmarkTwo) {
+    	int one = landmarkIndex(landmarkOne);
+    	int two = landmarkIndex(landmarkTwo);
+    	int trail = findTrail(one, two, false);
+    	int length = graph.getTrailLength(trail);
+    	apply(graph.closeTrail(trail), routeIndex, one, two, true);
+    	return change(TrailChange.Kind.CLOSED, one, two, length, TrailChange.NO_LENGTH);
+    }
+    
+    /**
+     * Opens the shortest closed trail between two landmarks again.
+     * @param landmarkOne ID of one end of the trail
+     * @param landmarkTwo ID of the other end of the trail
+     * @return the change that was made
+     * @throws IllegalArgumentException if either ID is invalid, or no closed trail joins the landmarks
+     */
+    public synchronized TrailChange openTrail(String landmarkOne, String landmarkTwo) {
+    	int one = landmarkIndex(landmarkOne);
+    	int two = landmarkIndex(landmarkTwo);
+    	int trail = findTrail(one, two, true);
+    	apply(graph.openTrail(trail), null, one, two, false);
+    	return change(TrailChange.Kind.OPENED, one, two, TrailChange.NO_LENGTH, graph.getTrailLength(trail));
+    }
+    
+    /**
+     * Adds a new trail between two landmarks.
+     * @param landmarkOne ID of one end of the trail
+     * @param landmarkTwo ID of the other end of the trail
+     * @param length length of the trail in feet
+     * @return the change that was made
+     * @throws IllegalArgumentException if either ID is invalid or the length is negative
+     */
+    public synchronized TrailChange addTrail(String landmarkOne, String landmarkTwo, int length) {
+    	int one = landmarkIndex(landmarkOne);
+    	int two = landmarkIndex(landmarkTwo);
+    	apply(graph.addTrail(one, two, length), null, one, two, false);
+    	return change(TrailChange.Kind.ADDED, one, two, TrailChange.NO_LENGTH, length);
+    }
+    
+    /**
+     * Changes the length of the shortest open trail between two landmarks.
+     * @param landmarkOne ID of one end of the trail
+     * @param landmarkTwo ID of the other end of the trail
+     * @param length new length of the trail in feet
+     * @return the change that was made
+     * @throws IllegalArgumentException if either ID is invalid, the length is negative, or no open trail joins
+     *         the landmarks
+     */
+    public synchronized TrailChange updateLength(String landmarkOne, String landmarkTwo, int length) {
+    	int one = landmarkIndex(landmarkOne);
+    	int two = landmarkIndex(landmarkTwo);
+    	int trail = findTrail(one, two, false);
+    	int oldLength = graph.getTrailLength(trail);
+    	apply(graph.setTrailLength(trail, length), length >= oldLength ? routeIndex : null, one, two, false);
+    	return change(TrailChange.Kind.LENGTH_CHANGED, one, two, oldLength, length);
+    }
+    
+    /**
+     * Adds a new landmark that has no trails yet.
+     * @param id ID of the landmark
+     * @param description description of the landmark
+     * @param type type of the landmark
+     * @return the change that was made
+     * @throws IllegalArgumentException if a landmark with the ID already exists
+     */
+    public synchronized TrailChange addLandmark(String id, String description, String type) {
+    	TrailGraph changed = graph.addLandmark(id, description, type);
+    	int landmark = changed.getLandmarkCount() - 1;
+    	apply(changed, null, landmark, landmark, false);
+    	return change(TrailChange.Kind.LANDMARK_ADDED, landmark, landmark, TrailChange.NO_LENGTH,
+    			TrailChange.NO_LENGTH);
+    }
+    
+    /**
+     * Folds every edit into new graph arrays, so searches no longer look up the landmarks whose trails changed,
+     * and rebuilds the route index if an edit dropped it or left it with loose bounds. Distances do not change, so
+     * the version stays the same.
+     */
+    public synchronized void compact() {
+    	if (!graph.hasChanges()) {
+    		return;
+    	}
+    	TrailGraph compacted = graph.compact();
+    	degreeIndex = degreeIndex == null ? null : degreeIndex.update(compacted);
+    	componentIndex = null;
+    	graph = compacted;
+    	search = new TrailSearch(compacted);
+    	routeIndex = routeAnchors > 0 ? AltIndex.build(compacted, routeAnchors) : null;
+    	routeSearch = new RouteSearch(compacted, routeIndex);
+    }
+    
+    /**
+     * Moves the IDs, descriptions, and types of the landmarks into UTF-8 buffers outside the heap, so a string is
+     * only created when a report line or lookup needs one. Networks read by later reloads are packed as well.
+     * Distances do not change, so the version stays the same.
+     */
+    public synchronized void packLandmarks() {
+    	packedLandmarks = true;
+    	TrailGraph packed = graph.packLandmarks();
+    	if (packed == graph) {
+    		return;
     	}
+    	degreeIndex = degreeIndex == null ? null : degreeIndex.update(packed);
+    	componentIndex = null;
+    	graph = packed;
+    	search.setGraph(packed);
+    	routeSearch.setGraph(packed, routeIndex);
+    }
+    
+    /**
+     * Makes an edited graph the network and moves the landmarks whose trails changed in the degree index. The
+     * component index is kept or rebuilt if the edit cannot split a component. If it can, the index is kept but no
+     * longer exact: landmarks it puts in different components still cannot reach each other, so queries keep
+     * using it to rule out routes, and only the queries that need exact components rebuild it.
+     * @param changed the edited graph
+     * @param index route index whose bounds are valid for the edited graph, or null
+     * @param one landmark at one end of the changed trail
+     * @param two landmark at the other end of the changed trail
+     * @param splits true if the edit closed a trail, which may split a component
+     */
+    private void apply(TrailGraph changed, AltIndex index, int one, int two, boolean splits) {
+    	DegreeIndex updated = degreeIndex == null ? null : degreeIndex.update(changed, one, two);
+    	if (componentIndex != null) {
+    		if (splits) {
+    			componentsExact = false;
+    		} else if (changed.getLandmarkCount() != graph.getLandmarkCount()
+    				|| !componentIndex.isReachable(one, two)) {
+    			componentIndex = new ComponentIndex(changed);
+    			componentsExact = true;
+    		} else if (componentsExact) {
+    			componentIndex = componentIndex.update(changed, one, two);
+    		}
+    	}
+    	if (changed.getLandmarkCount() == graph.getLandmarkCount()) {
+    		search.setGraph(changed);
+    		routeSearch.setGraph(changed, index);
+    	} else {
+    		search = new TrailSearch(changed);
+    		routeSearch = new RouteSearch(changed, index);
+    	}
+    	graph = changed;
+    	degreeIndex = updated;
+    	routeIndex = index;
+    	version++;
+    }
+    
+    /**
+     * Creates the record of an edit that has just been applied.
+     * @param kind kind of edit
+     * @param one landmark at one end of the trail
+     * @param two landmark at the other end of the trail
+     * @param oldLength length of the trail before the edit
+     * @param newLength length of the trail after the edit
+     * @return the change
+     */
+    private TrailChange change(TrailChange.Kind kind, int one, int two, int oldLength, int newLength) {
+    	return new TrailChange(kind, graph.getLandmark(one), graph.getLandmark(two), oldLength, newLength, version);
+    }
+    
+    /**
+     * Returns the index of the landmark with the given ID.
+     * @param landmarkID the ID of the landmark
+     * @return the index of the landmark
+     * @throws IllegalArgumentException if no landmark has the ID
+     */
+    private int landmarkIndex(String landmarkID) {
+    	int landmark = graph.indexOf(landmarkID);
+    	if (landmark == TrailGraph.NO_LANDMARK) {
+    		throw new IllegalArgumentException("The provided landmark ID (" + landmarkID + ") is invalid for the park.");
+    	}
+    	return landmark;
+    }
+    
+    /**
+     * Finds the shortest open or closed trail between two landmarks, choosing the lowest trail index among trails
+     * of the same length.
+     * @param one index of one end of the trail
+     * @param two index of the other end of the trail
+     * @param closed true to find a closed trail, false to find an open one
+     * @return the index of the trail
+     * @throws IllegalArgumentException if no such trail joins the landmarks
+     */
+    private int findTrail(int one, int two, boolean closed) {
+    	int found = -1;
+    	if (closed) {
+    		for (int trail : graph.getClosedTrails()) {
+    			found = shorter(trail, found, one, two);
+    		}
+    	} else {
+    		for (int slot = graph.firstSlot(one); slot < graph.endSlot(one); slot++) {
+    			if (graph.getNeighbor(slot) == two) {
+    				found = shorter(graph.getTrail(slot), found, one, two);
+    			}
+    		}
+    	}
+    	if (found == -1) {
+    		throw new IllegalArgumentException("There is no " + (closed ? "closed" : "open") + " trail between "
+    				+ graph.getId(one) + " and " + graph.getId(two) + ".");
+    	}
+    	return found;
+    }
+    
+    /**
+     * Returns whichever of two trails is the shorter one between two landmarks.
+     * @param trail index of a trail
+     * @param best index of the best trail so far, or -1
+     * @param one index of one landmark
+     * @param two index of the other landmark
+     * @return trail if it joins the landmarks and is shorter than best, or best otherwise
+     */
+    private int shorter(int trail, int best, int one, int two) {
+    	int a = graph.getTrailOne(trail);
+    	int b = graph.getTrailTwo(trail);
+    	if (!(a == one && b == two || a == two && b == one)) {
+    		return best;
+    	}
+    	if (best == -1 || graph.getTrailLength(trail) < graph.getTrailLength(best)
+    			|| graph.getTrailLength(trail) == graph.getTrailLength(best) && trail < best) {
+    		return trail;
+    	}
+    	return best;
+    }
+    
+    /**
+     * Returns the version of the network, which changes every time the network is reloaded or changed.
+     * @return the version of the network
+     */
+    public long getVersion() {
+    	return version;
     }
     
     /**
      * Responsible for returning a map in which each entry is a landmark and how far it is from the given
-     * landmark, which is found using the ID.
+     * landmark, which is found using the ID. Each distance is the length of the shortest route along the
+     * trails, found with Dijkstra's algorithm. Calls share one search, so they run one at a time.
      * @param originLandmark ID of the origin landmark to locate to each landmark
      * @return a map of landmarks and their distances from the origin landmark
      */
-    public Map<Landmark, Integer> getDistancesToDestinations(String originLandmark) {
+    public synchronized Map<Landmark, Integer> getDistancesToDestinations(String originLandmark) {
     	Map<Landmark, Integer> mapField = DSAFactory.getMap(null);
-    	Queue<Landmark> landmarkQueue = DSAFactory.getQueue();
-    	Landmark ogLandmark = landmarkMap.get(originLandmark);
-    	if (ogLandmark == null) {
+    	int origin = graph.indexOf(originLandmark);
+    	if (origin == TrailGraph.NO_LANDMARK) {
     		return mapField;
     	}
-    	landmarkQueue.enqueue(ogLandmark);
-    	mapField.put(ogLandmark, 0);
-    	while (!landmarkQueue.isEmpty()) {
-    		Landmark currentLandmark = landmarkQueue.dequeue();
-    		if (trailMap.get(currentLandmark) == null) {
-    			continue;
+    	long start = Metrics.start();
+    	int reached = search.search(origin, components().getReachableCount(origin));
+    	Metrics.stop(Phase.TRAVERSE, start);
+    	Metrics.count(Counter.LANDMARKS_VISITED, reached);
+    	Metrics.count(Counter.TRAILS_RELAXED, search.getRelaxedCount());
+    	for (int i = 0; i < reached; i++) {
+    		int landmark = search.getReached(i);
+    		mapField.put(graph.getLandmark(landmark), search.getDistance(landmark));
+    	}
+    	Metrics.stop(Phase.DISTANCES, start);
+    	return mapField;
+    }
+    
+    /**
+     * Returns the connected components of the network, building them first if an edit closed a trail since they
+     * were last built.
+     * @return the component index of the current network
+     */
+    public synchronized ComponentIndex getComponentIndex() {
+    	if (componentIndex == null || !componentsExact) {
+    		componentIndex = new ComponentIndex(graph);
+    		componentsExact = true;
+    	}
+    	return componentIndex;
+    }
+    
+    /**
+     * Returns the connected components of the network for ruling out routes, building them first if no query
+     * has needed them yet. The index may still join landmarks that a closed trail has split.
+     * @return the component index, which is exact if componentsExact is true
+     */
+    private ComponentIndex components() {
+    	if (componentIndex == null) {
+    		componentIndex = new ComponentIndex(graph);
+    		componentsExact = true;
+    	}
+    	return componentIndex;
+    }
+    
+    /**
+     * Returns true if there is a route along open trails between two landmarks. Landmarks in different components
+     * are rejected without searching, and landmarks in the same one are accepted without searching unless a
+     * trail was closed since the components were built, in which case the route search decides.
+     * @param from ID of one landmark
+     * @param to ID of the other landmark
+     * @return true if both IDs are valid and the landmarks are connected
+     */
+    public synchronized boolean isReachable(String from, String to) {
+    	int origin = graph.indexOf(from);
+    	int destination = graph.indexOf(to);
+    	if (origin == TrailGraph.NO_LANDMARK || destination == TrailGraph.NO_LANDMARK
+    			|| !components().isReachable(origin, destination)) {
+    		return false;
+    	}
+    	return componentsExact || routeSearch.search(origin, destination) != TrailSearch.UNREACHED;
+    }
+    
+    /**
+     * Returns the shortest route along the trails between two landmarks. The route is found with a bidirectional
+     * Dijkstra search that stops as soon as the two ends meet on a shortest route, or with an A* search once a
+     * route index has been built, so it usually explores far less of the park than getDistancesToDestinations.
+     * Calls share one search, so they run one at a time.
+     * @param from ID of the origin landmark
+     * @param to ID of the destination landmark
+     * @return the route, or null if either ID is invalid or the destination cannot be reached from the origin
+     */
+    public synchronized Route getRoute(String from, String to) {
+    	long start = Metrics.start();
+    	try {
+    		int origin = graph.indexOf(from);
+    		int destination = graph.indexOf(to);
+    		if (origin == TrailGraph.NO_LANDMARK || destination == TrailGraph.NO_LANDMARK
+    				|| !components().isReachable(origin, destination)
+    				|| routeSearch.search(origin, destination) == TrailSearch.UNREACHED) {
+    			return null;
     		}
-    		int num = mapField.get(currentLandmark);
-    		for (Trail trail : trailMap.get(currentLandmark)) {
-    			Landmark landmarkOne = landmarkMap.get(trail.getLandmarkOne());
-    			Landmark landmarkTwo = landmarkMap.get(trail.getLandmarkTwo());
-    			if (trail.getLandmarkOne().equals(currentLandmark.getId()) && (mapField.get(landmarkTwo) == null)) {
-    				landmarkQueue.enqueue(landmarkTwo);
-    				mapField.put(landmarkTwo, trail.getLength() + num);
+    		List<Landmark> landmarks = DSAFactory.getIndexedList();
+    		List<Trail> trails = DSAFactory.getIndexedList();
+    		for (int i = 0; i < routeSearch.getLandmarkCount(); i++) {
+    			landmarks.addLast(graph.getLandmark(routeSearch.getLandmark(i)));
+    			if (i > 0) {
+    				trails.addLast(graph.getTrailObject(routeSearch.getTrail(i - 1)));
     			}
-    			else if (trail.getLandmarkTwo().equals(currentLandmark.getId()) && (mapField.get(landmarkOne) == null)) {
-        			landmarkQueue.enqueue(landmarkOne);
-					mapField.put(landmarkOne, trail.getLength() + num);
-        		}
     		}
+    		return new Route(routeSearch.getDistance(), landmarks, trails);
+    	} finally {
+    		Metrics.stop(Phase.ROUTE, start);
     	}
-    	if (mapField.size() == 1) {
-    		return mapField;
+    }
+    
+    /**
+     * Returns the length of the shortest route between two landmarks without building the route itself.
+     * @param from ID of the origin landmark
+     * @param to ID of the destination landmark
+     * @return the distance in feet, or TrailSearch.UNREACHED if either ID is invalid or the destination cannot
+     *         be reached from the origin
+     */
+    public synchronized int getDistance(String from, String to) {
+    	int origin = graph.indexOf(from);
+    	int destination = graph.indexOf(to);
+    	if (origin == TrailGraph.NO_LANDMARK || destination == TrailGraph.NO_LANDMARK
+    			|| !components().isReachable(origin, destination)) {
+    		return TrailSearch.UNREACHED;
     	}
-    	return mapField;
+    	return routeSearch.search(origin, destination);
     }
     
     /**
@@ -119,10 +577,11 @@ public class TrailManager {
      * @return the landmark with the given ID
      */
     public Landmark getLandmarkByID(String landmarkID) {
-    	if (landmarkMap.isEmpty()) {
+    	int landmark = graph.indexOf(landmarkID);
+    	if (landmark == TrailGraph.NO_LANDMARK) {
     		return null;
     	}
-    	return landmarkMap.get(landmarkID);
+    	return graph.getLandmark(landmark);
     }
     
     /**
@@ -136,11 +595,53 @@ public class TrailManager {
     	if (numberOfIntersectingTrails <= 0) {
     		return mapField;
     	}
-    	for (Landmark entry : trailMap) {
-    		if (trailMap.get(entry).size() >= numberOfIntersectingTrails) {
-    			mapField.put(entry, trailMap.get(entry));
-    		}
+    	long start = Metrics.start();
+    	DegreeIndex index = getDegreeIndex();
+    	for (int i = 0; i < index.getCount(numberOfIntersectingTrails); i++) {
+    		int landmark = index.get(i);
+    		mapField.put(index.getGraph().getLandmark(landmark), getTrails(index.getGraph(), landmark));
     	}
+    	Metrics.stop(Phase.FIRST_AID, start);
     	return mapField;
     }
+    
+    /**
+     * Returns the graph that backs this manager.
+     * @return the graph of landmarks and trails
+     */
+    public TrailGraph getGraph() {
+    	return graph;
+    }
+    
+    /**
+     * Returns the index of landmarks in first aid report order, which is rebuilt whenever the network is
+     * reloaded or changed. A network opened from a graph builds it the first time it is asked for.
+     * @return the degree index of the network
+     */
+    public DegreeIndex getDegreeIndex() {
+    	DegreeIndex index = degreeIndex;
+    	if (index == null) {
+    		synchronized (this) {
+    			if (degreeIndex == null) {
+    				degreeIndex = new DegreeIndex(graph);
+    			}
+    			index = degreeIndex;
+    		}
+    	}
+    	return index;
+    }
+    
+    /**
+     * Creates a list of the trails that intersect at the given landmark.
+     * @param graph the graph the landmark belongs to
+     * @param landmark index of the landmark
+     * @return a list of the landmark's trails
+     */
+    private static List<Trail> getTrails(TrailGraph graph, int landmark) {
+    	List<Trail> trails = DSAFactory.getIndexedList();
+    	for (int slot = graph.firstSlot(landmark); slot < graph.endSlot(landmark); slot++) {
+    		trails.addLast(graph.getTrailObject(graph.getTrail(slot)));
+    	}
+    	return trails;
+    }
 }
@@ -0,0 +1,428 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.ncsu.csc316.trail.graph.DegreeIndex;
+import edu.ncsu.csc316.trail.graph.DistanceBatch;
+import edu.ncsu.csc316.trail.graph.DistanceCsvWriter;
+import edu.ncsu.csc316.trail.graph.DistanceMatrix;
+import edu.ncsu.csc316.trail.graph.DistanceSink;
+import edu.ncsu.csc316.trail.graph.ParallelTrailGraphLoader;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+
+/**
+ * TrailQueryService answers distance and first aid report queries from any number of threads at once. Queries
+ * read an immutable TrailSnapshot of the network, so they never lock, and a reload publishes a new snapshot with
+ * a single atomic swap: queries already running finish on the snapshot they started with, and later queries see
+ * the new one. Publishing is synchronized, so publishers take turns and the snapshot with the newest version is
+ * always the one queries read, while queries never take the lock. Each thread keeps its own search scratch space
+ * for the snapshot it last queried. Reports have the same text as the ones from ReportManager, but the service
+ * does not use DSAFactory, whose settings are shared by every thread.
+ *
+ * Queries can run on the calling thread, or be submitted to the service's bounded pool of worker threads. Batches
+ * of distance queries over many origins run on a fork-join pool and stream each origin's distances to a sink.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailQueryService implements AutoCloseable {
+
+	/** Network that queries currently read */
+	private final AtomicReference<TrailSnapshot> snapshot = new AtomicReference<TrailSnapshot>();
+
+	/** Last version number given to a snapshot */
+	private final AtomicLong versions = new AtomicLong();
+
+	/** Search scratch space of each thread, for the snapshot the thread last queried */
+	private final ThreadLocal<QueryContext> contexts = new ThreadLocal<QueryContext>();
+
+	/** Threads that run submitted queries */
+	private final ExecutorService executor;
+
+	/** Whether the executor was created by the service and is shut down when it is closed */
+	private final boolean ownsExecutor;
+
+	/**
+	 * Constructs a new TrailQueryService over the given graph with one worker thread per processor.
+	 * @param graph graph of the network
+	 */
+	public TrailQueryService(TrailGraph graph) {
+		this(graph, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a new TrailQueryService over the given graph with the given number of worker threads.
+	 * @param graph graph of the network
+	 * @param threads number of worker threads
+	 * @throws IllegalArgumentException if threads is not positive
+	 */
+	public TrailQueryService(TrailGraph graph, int threads) {
+		this(graph, newPool(threads), true);
+	}
+
+	/**
+	 * Constructs a new TrailQueryService over the given graph that runs submitted queries on the given executor.
+	 * The executor is not shut down when the service is closed.
+	 * @param graph graph of the network
+	 * @param executor threads that run submitted queries
+	 */
+	public TrailQueryService(TrailGraph graph, ExecutorService executor) {
+		this(graph, executor, false);
+	}
+
+	/**
+	 * Constructs a new TrailQueryService.
+	 * @param graph graph of the network
+	 * @param executor threads that run submitted queries
+	 * @param ownsExecutor whether the executor is shut down when the service is closed
+	 */
+	private TrailQueryService(TrailGraph graph, ExecutorService executor, boolean ownsExecutor) {
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+		publish(graph);
+	}
+
+	/**
+	 * Creates a fixed pool of daemon worker threads.
+	 * @param threads number of threads
+	 * @return the pool
+	 * @throws IllegalArgumentException if threads is not positive
+	 */
+	private static ExecutorService newPool(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be greater than 0.");
+		}
+		return Executors.newFixedThreadPool(threads, task -> {
+			Thread thread = new Thread(task, "trail-query");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Publishes the given graph as the network that later queries read. The degree index is built before the
+	 * publishing lock is taken.
+	 * @param graph graph of the new network
+	 * @return the published snapshot
+	 */
+	public TrailSnapshot publish(TrailGraph graph) {
+		DegreeIndex degreeIndex = new DegreeIndex(graph);
+		synchronized (this) {
+			TrailSnapshot next = new TrailSnapshot(graph, degreeIndex, versions.incrementAndGet());
+			snapshot.set(next);
+			return next;
+		}
+	}
+
+	/**
+	 * Publishes an edited version of the given snapshot's network, such as a graph returned by
+	 * TrailGraph.closeTrail. Instead of rebuilding the degree index, the landmarks whose trails changed are moved in
+	 * the snapshot's index. Worker threads keep their scratch arrays if no landmark was added. If another network
+	 * was published after the given snapshot, the edit would overwrite it, so nothing is published and the caller
+	 * can edit the new snapshot instead.
+	 * @param base the snapshot whose graph was edited
+	 * @param edited the edited graph, which must have been made from the base snapshot's graph
+	 * @param landmarks landmarks whose trails changed
+	 * @return the published snapshot, or null if the base snapshot is no longer the current one
+	 */
+	public synchronized TrailSnapshot publishEdit(TrailSnapshot base, TrailGraph edited, int... landmarks) {
+		if (snapshot.get() != base) {
+			return null;
+		}
+		DegreeIndex degreeIndex = base.getDegreeIndex().update(edited, landmarks);
+		TrailSnapshot next = new TrailSnapshot(edited, degreeIndex, versions.incrementAndGet());
+		snapshot.set(next);
+		return next;
+	}
+
+	/**
+	 * Loads the network in the given files and publishes it. Queries keep running on the current network while
+	 * the files load, and the current network is kept if the files cannot be read. The files are loaded before
+	 * the publishing lock is taken, so other publishers are not held up by the load.
+	 * @param pathToLandmarkFile file that contains info about all landmarks
+	 * @param pathToTrailFile file that contains info about all trails
+	 * @param parallelLoad true to parse the files and build the graph in parallel
+	 * @return the published snapshot
+	 * @throws FileNotFoundException if the file does not exist
+	 */
+	public TrailSnapshot reload(String pathToLandmarkFile, String pathToTrailFile, boolean parallelLoad) throws FileNotFoundException {
+		if (parallelLoad) {
+			return publish(ParallelTrailGraphLoader.load(pathToLandmarkFile, pathToTrailFile));
+		}
+		return publish(TrailGraphLoader.load(pathToLandmarkFile, pathToTrailFile));
+	}
+
+	/**
+	 * Returns the network that queries currently read.
+	 * @return the current snapshot
+	 */
+	public TrailSnapshot getSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Returns the distance report of the given origin, computed on the calling thread.
+	 * @param originLandmark the ID of the origin landmark
+	 * @return the same report as ReportManager.getDistancesReport
+	 */
+	public String getDistancesReport(String originLandmark) {
+		StringBuilder report = new StringBuilder();
+		try {
+			writeDistancesReport(originLandmark, report);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Writes the distance report of the given origin, computed on the calling thread.
+	 * @param originLandmark the ID of the origin landmark
+	 * @param out destination of the report
+	 * @throws IOException if the destination cannot be written to
+	 */
+	public void writeDistancesReport(String originLandmark, Appendable out) throws IOException {
+		getContext(snapshot.get()).writeDistancesReport(originLandmark, new ReportWriter(out));
+	}
+
+	/**
+	 * Returns the proposed first aid locations report, computed on the calling thread.
+	 * @param numberOfIntersectingTrails the number of intersecting trails needed to be found
+	 * @return the same report as ReportManager.getProposedFirstAidLocations
+	 */
+	public String getProposedFirstAidLocations(int numberOfIntersectingTrails) {
+		StringBuilder report = new StringBuilder();
+		try {
+			ReportManager.writeProposedFirstAidLocations(snapshot.get().getDegreeIndex(), numberOfIntersectingTrails,
+					new ReportWriter(report));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Returns the report of the k landmarks with the most intersecting trails, computed on the calling thread.
+	 * @param k the number of landmarks to list
+	 * @return the same report as ReportManager.getTopFirstAidLocations
+	 */
+	public String getTopFirstAidLocations(int k) {
+		StringBuilder report = new StringBuilder();
+		try {
+			ReportManager.writeTopFirstAidLocations(snapshot.get().getDegreeIndex(), k, new ReportWriter(report));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Returns one page of the first aid locations, computed on the calling thread.
+	 * @param page the page number, starting at 1
+	 * @param pageSize the number of landmarks on each page
+	 * @return the same report as ReportManager.getFirstAidLocationsPage
+	 */
+	public String getFirstAidLocationsPage(int page, int pageSize) {
+		StringBuilder report = new StringBuilder();
+		try {
+			ReportManager.writeFirstAidLocationsPage(snapshot.get().getDegreeIndex(), page, pageSize,
+					new ReportWriter(report));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Returns the report of the connected components of the network, computed on the calling thread.
+	 * @return the same report as ReportManager.getComponentsReport
+	 */
+	public String getComponentsReport() {
+		TrailSnapshot current = snapshot.get();
+		StringBuilder report = new StringBuilder();
+		try {
+			ReportManager.writeComponentsReport(current.getComponentIndex(), current.getDegreeIndex().getRanks(),
+					new ReportWriter(report));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Returns the route report between two landmarks, computed on the calling thread.
+	 * @param from the ID of the origin landmark
+	 * @param to the ID of the destination landmark
+	 * @return the same report as ReportManager.getRouteReport
+	 */
+	public String getRouteReport(String from, String to) {
+		StringBuilder report = new StringBuilder();
+		try {
+			getContext(snapshot.get()).writeRouteReport(from, to, new ReportWriter(report));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Computes the distance report of the given origin on a worker thread.
+	 * @param originLandmark the ID of the origin landmark
+	 * @return the future report
+	 */
+	public Future<String> submitDistancesReport(String originLandmark) {
+		return executor.submit(() -> getDistancesReport(originLandmark));
+	}
+
+	/**
+	 * Computes the proposed first aid locations report on a worker thread.
+	 * @param numberOfIntersectingTrails the number of intersecting trails needed to be found
+	 * @return the future report
+	 */
+	public Future<String> submitProposedFirstAidLocations(int numberOfIntersectingTrails) {
+		return executor.submit(() -> getProposedFirstAidLocations(numberOfIntersectingTrails));
+	}
+
+	/**
+	 * Computes the route report between two landmarks on a worker thread.
+	 * @param from the ID of the origin landmark
+	 * @param to the ID of the destination landmark
+	 * @return the future report
+	 */
+	public Future<String> submitRouteReport(String from, String to) {
+		return executor.submit(() -> getRouteReport(from, to));
+	}
+
+	/**
+	 * Runs any query on a worker thread, such as one that calls several of the service's report methods.
+	 * @param query the query
+	 * @return the future result
+	 */
+	public Future<String> submit(Callable<String> query) {
+		return executor.submit(query);
+	}
+
+	/**
+	 * Finds the distances from every given origin on the common fork-join pool and hands each origin's result to
+	 * the sink as soon as it is found. Every search reads the snapshot that was current when the batch started,
+	 * which the sink can reach through the search's graph.
+	 * @param origins IDs of the origin landmarks
+	 * @param sink receiver of each origin's distances, which is called from several threads at once
+	 * @throws IOException if the sink cannot write a result
+	 * @throws IllegalArgumentException if an origin is not a landmark of the network
+	 */
+	public void getDistancesFromAll(Collection<String> origins, DistanceSink sink) throws IOException {
+		getDistancesFromAll(origins, ForkJoinPool.commonPool(), sink);
+	}
+
+	/**
+	 * Finds the distances from every given origin on the given fork-join pool and hands each origin's result to
+	 * the sink as soon as it is found. Every search reads the snapshot that was current when the batch started,
+	 * which the sink can reach through the search's graph.
+	 * @param origins IDs of the origin landmarks
+	 * @param pool the pool the searches run on
+	 * @param sink receiver of each origin's distances, which is called from several threads at once
+	 * @throws IOException if the sink cannot write a result
+	 * @throws IllegalArgumentException if an origin is not a landmark of the network
+	 */
+	public void getDistancesFromAll(Collection<String> origins, ForkJoinPool pool, DistanceSink sink) throws IOException {
+		TrailGraph graph = snapshot.get().getGraph();
+		DistanceBatch.run(graph, indicesOf(graph, origins), pool, sink);
+	}
+
+	/**
+	 * Writes the distances from every given origin to a binary distance matrix file that DistanceMatrix reads,
+	 * with one row per origin in the order the origins are given.
+	 * @param origins IDs of the origin landmarks
+	 * @param file path of the matrix file, which is replaced if it exists
+	 * @param pool the pool the searches run on
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if an origin is not a landmark of the network or is given twice
+	 */
+	public void writeDistanceMatrix(Collection<String> origins, Path file, ForkJoinPool pool) throws IOException {
+		TrailGraph graph = snapshot.get().getGraph();
+		int[] indices = indicesOf(graph, origins);
+		try (DistanceMatrix.Writer writer = new DistanceMatrix.Writer(file, graph, indices)) {
+			DistanceBatch.run(graph, indices, pool, writer);
+		}
+	}
+
+	/**
+	 * Writes the distances from every given origin to a CSV file of ORIGIN_ID,DESTINATION_ID,DISTANCE lines.
+	 * @param origins IDs of the origin landmarks
+	 * @param file path of the CSV file, which is replaced if it exists
+	 * @param pool the pool the searches run on
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if an origin is not a landmark of the network
+	 */
+	public void writeDistanceCsv(Collection<String> origins, Path file, ForkJoinPool pool) throws IOException {
+		TrailGraph graph = snapshot.get().getGraph();
+		int[] indices = indicesOf(graph, origins);
+		try (DistanceCsvWriter writer = new DistanceCsvWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+			DistanceBatch.run(graph, indices, pool, writer);
+		}
+	}
+
+	/**
+	 * Returns the landmark indices of the given IDs.
+	 * @param graph the graph the landmarks belong to
+	 * @param ids IDs of the landmarks
+	 * @return the indices of the landmarks, in the order of the IDs
+	 * @throws IllegalArgumentException if an ID is not a landmark of the graph
+	 */
+	private static int[] indicesOf(TrailGraph graph, Collection<String> ids) {
+		int[] indices = new int[ids.size()];
+		int i = 0;
+		for (String id : ids) {
+			indices[i] = graph.indexOf(id);
+			if (indices[i] == TrailGraph.NO_LANDMARK) {
+				throw new IllegalArgumentException("The provided landmark ID (" + id + ") is invalid for the park.");
+			}
+			i++;
+		}
+		return indices;
+	}
+
+	/**
+	 * Returns the calling thread's scratch space for the given snapshot, replacing the thread's previous scratch
+	 * space if it was for a different snapshot.
+	 * @param current the snapshot the query reads
+	 * @return the scratch space of the calling thread
+	 */
+	QueryContext getContext(TrailSnapshot current) {
+		QueryContext context = contexts.get();
+		TrailGraph graph = current.getGraph();
+		if (context != null && context.getGraph() != graph
+				&& context.getGraph().getLandmarkCount() == graph.getLandmarkCount()) {
+			context.setGraph(graph, current.getDegreeIndex().getRanks());
+		} else if (context == null || context.getGraph() != graph) {
+			context = new QueryContext(graph, current.getDegreeIndex().getRanks());
+			contexts.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * Shuts down the worker threads if the service created them. Queries that were already submitted still run.
+	 */
+	@Override
+	public void close() {
+		if (ownsExecutor) {
+			executor.shutdown();
+		}
+	}
+}
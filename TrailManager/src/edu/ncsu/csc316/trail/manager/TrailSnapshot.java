@@ -0,0 +1,90 @@
+package edu.ncsu.csc316.trail.manager;
+
+import edu.ncsu.csc316.trail.graph.ComponentIndex;
+import edu.ncsu.csc316.trail.graph.DegreeIndex;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+
+/**
+ * TrailSnapshot is one immutable version of the park network: the graph, its degree index, and a version number.
+ * Nothing in a snapshot changes after it is constructed, so a snapshot can be read from any number of threads
+ * without locking, and a newer network is published by replacing the whole snapshot. The component index is the
+ * one exception: it is built the first time it is asked for, so publishing an edit stays cheap.
+ *
+ * @author Maddie Moore
+ *
+ */
+public final class TrailSnapshot {
+
+	/** Graph of every landmark and the trails that connect them */
+	private final TrailGraph graph;
+
+	/** Landmarks in first aid report order */
+	private final DegreeIndex degreeIndex;
+
+	/** Connected components of the graph, or null until they are first asked for */
+	private volatile ComponentIndex componentIndex;
+
+	/** Version of the network */
+	private final long version;
+
+	/**
+	 * Constructs a new TrailSnapshot and builds the degree index of the graph.
+	 * @param graph graph of the network
+	 * @param version version of the network
+	 */
+	public TrailSnapshot(TrailGraph graph, long version) {
+		this.graph = graph;
+		this.degreeIndex = new DegreeIndex(graph);
+		this.version = version;
+	}
+
+	/**
+	 * Constructs a new TrailSnapshot with a degree index that was already built for the graph.
+	 * @param graph graph of the network
+	 * @param degreeIndex landmarks of the graph in first aid report order
+	 * @param version version of the network
+	 */
+	TrailSnapshot(TrailGraph graph, DegreeIndex degreeIndex, long version) {
+		this.graph = graph;
+		this.degreeIndex = degreeIndex;
+		this.version = version;
+	}
+
+	/**
+	 * Returns the graph of the network.
+	 * @return the graph of landmarks and trails
+	 */
+	public TrailGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the landmarks of the network in first aid report order.
+	 * @return the degree index
+	 */
+	public DegreeIndex getDegreeIndex() {
+		return degreeIndex;
+	}
+
+	/**
+	 * Returns the connected components of the network, building them the first time. Threads that ask at the same
+	 * time may each build them, and all get equal indexes.
+	 * @return the component index
+	 */
+	public ComponentIndex getComponentIndex() {
+		ComponentIndex index = componentIndex;
+		if (index == null) {
+			index = new ComponentIndex(graph);
+			componentIndex = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the version of the network.
+	 * @return the version number
+	 */
+	public long getVersion() {
+		return version;
+	}
+}
@@ -0,0 +1,39 @@
+package edu.ncsu.csc316.trail.metrics;
+
+/**
+ * Counter names a running total kept by a MetricsRegistry.
+ *
+ * @author Maddie Moore
+ *
+ */
+public enum Counter {
+	/** Landmarks settled by searches */
+	LANDMARKS_VISITED("landmarksVisited"),
+	/** Trails that gave a landmark a shorter distance during a search */
+	TRAILS_RELAXED("trailsRelaxed"),
+	/** Reports answered from the report cache */
+	CACHE_HITS("cacheHits"),
+	/** Reports that had to be written because they were not cached */
+	CACHE_MISSES("cacheMisses"),
+	/** Bytes of landmark and trail files read */
+	BYTES_PARSED("bytesParsed");
+
+	/** Name used by exporters */
+	private final String name;
+
+	/**
+	 * Constructs a counter with the given name.
+	 * @param name name used by exporters
+	 */
+	Counter(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the name exporters use for the counter.
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,56 @@
+package edu.ncsu.csc316.trail.metrics;
+
+import java.io.IOException;
+
+/**
+ * JsonMetricsExporter writes a registry as one JSON object with a "phases" object, holding the count, total,
+ * mean, percentiles, and largest value of every phase in nanoseconds, and a "counters" object, holding the
+ * total of every counter. Every phase and counter is written, even if nothing was recorded, so the shape of
+ * the output never changes.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class JsonMetricsExporter implements MetricsExporter {
+
+	/** Where the object is written */
+	private final Appendable out;
+
+	/**
+	 * Constructs a new JsonMetricsExporter.
+	 * @param out where the object is written
+	 */
+	public JsonMetricsExporter(Appendable out) {
+		this.out = out;
+	}
+
+	@Override
+	public void export(MetricsRegistry registry) throws IOException {
+		out.append("{\"phases\":{");
+		Phase[] phases = Phase.values();
+		for (int i = 0; i < phases.length; i++) {
+			LatencyHistogram histogram = registry.getHistogram(phases[i]);
+			if (i > 0) {
+				out.append(",");
+			}
+			out.append("\"").append(phases[i].getName()).append("\":{");
+			out.append("\"count\":").append(Long.toString(histogram.getCount()));
+			out.append(",\"totalNanos\":").append(Long.toString(histogram.getTotal()));
+			out.append(",\"meanNanos\":").append(Long.toString(Math.round(histogram.getMean())));
+			out.append(",\"p50Nanos\":").append(Long.toString(histogram.getPercentile(50)));
+			out.append(",\"p90Nanos\":").append(Long.toString(histogram.getPercentile(90)));
+			out.append(",\"p99Nanos\":").append(Long.toString(histogram.getPercentile(99)));
+			out.append(",\"maxNanos\":").append(Long.toString(histogram.getMax())).append("}");
+		}
+		out.append("},\"counters\":{");
+		Counter[] counters = Counter.values();
+		for (int i = 0; i < counters.length; i++) {
+			if (i > 0) {
+				out.append(",");
+			}
+			out.append("\"").append(counters[i].getName()).append("\":")
+					.append(Long.toString(registry.getCount(counters[i])));
+		}
+		out.append("}}\n");
+	}
+}
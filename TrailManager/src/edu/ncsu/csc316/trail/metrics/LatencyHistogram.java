@@ -0,0 +1,160 @@
+package edu.ncsu.csc316.trail.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram counts durations in nanoseconds in log-linear buckets, in the style of HdrHistogram. Values
+ * below SUB_BUCKETS each have their own bucket, and every power of two above that is split into SUB_BUCKETS / 2
+ * equal buckets, so a percentile is never off by more than 1 / 64 of its value, whatever its magnitude. The
+ * buckets are a fixed array of atomic counters, so recording never allocates or locks and any number of
+ * threads may record at once.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class LatencyHistogram {
+
+	/** Number of bits of a value kept exactly by its bucket */
+	private static final int SUB_BITS = 7;
+
+	/** Number of buckets below the first power of two that is split */
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+	/** Number of buckets each power of two is split into */
+	private static final int HALF = SUB_BUCKETS / 2;
+
+	/** Number of buckets, enough for any non-negative long */
+	private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - SUB_BITS) * HALF;
+
+	/** Number of values in each bucket */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/** Number of values recorded */
+	private final LongAdder count = new LongAdder();
+
+	/** Sum of the values recorded */
+	private final LongAdder total = new LongAdder();
+
+	/** Largest value recorded */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a value. Negative values are recorded as 0.
+	 * @param value the value, in nanoseconds
+	 */
+	public void record(long value) {
+		long recorded = Math.max(value, 0);
+		counts.incrementAndGet(bucketOf(recorded));
+		count.increment();
+		total.add(recorded);
+		if (recorded > max.get()) {
+			max.accumulateAndGet(recorded, Math::max);
+		}
+	}
+
+	/**
+	 * Returns the number of values recorded.
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the sum of the values recorded.
+	 * @return the total, in nanoseconds
+	 */
+	public long getTotal() {
+		return total.sum();
+	}
+
+	/**
+	 * Returns the largest value recorded.
+	 * @return the largest value, or 0 if none was recorded
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the mean of the values recorded.
+	 * @return the mean, or 0 if none was recorded
+	 */
+	public double getMean() {
+		long values = getCount();
+		return values == 0 ? 0 : (double) getTotal() / values;
+	}
+
+	/**
+	 * Returns the value at the given percentile: the largest value that could be in the bucket that holds the
+	 * value ranked at that percentile, but never more than the largest value recorded.
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the value, or 0 if none was recorded
+	 * @throws IllegalArgumentException if the percentile is not from 0 to 100
+	 */
+	public long getPercentile(double percentile) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("Percentile must be from 0 to 100.");
+		}
+		long[] snapshot = new long[BUCKETS];
+		long values = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			snapshot[bucket] = counts.get(bucket);
+			values += snapshot[bucket];
+		}
+		if (values == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * values));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += snapshot[bucket];
+			if (seen >= rank) {
+				return Math.min(highestValueOf(bucket), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Clears every value recorded.
+	 */
+	public void reset() {
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			counts.set(bucket, 0);
+		}
+		count.reset();
+		total.reset();
+		max.set(0);
+	}
+
+	/**
+	 * Returns the bucket that counts the given value.
+	 * @param value the value, which must not be negative
+	 * @return the bucket
+	 */
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+		return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+	}
+
+	/**
+	 * Returns the largest value counted by the given bucket.
+	 * @param bucket the bucket
+	 * @return the largest value in the bucket
+	 */
+	static long highestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket - SUB_BUCKETS) / HALF + 1;
+		long top = (bucket - SUB_BUCKETS) % HALF + HALF;
+		long next = (top + 1) << shift;
+		return next < 0 ? Long.MAX_VALUE : next - 1;
+	}
+}
@@ -0,0 +1,103 @@
+package edu.ncsu.csc316.trail.metrics;
+
+/**
+ * Metrics is the switch for instrumentation. While it is disabled, start() returns a constant and stop() and
+ * count() return after reading one volatile field, so instrumented code costs a few instructions per phase and
+ * nothing is allocated. Once a registry is enabled, every phase is timed with System.nanoTime() into the
+ * registry's histograms and, if a flight recording has enabled them, committed as a PhaseEvent. Phases are
+ * timed around whole loads, searches, sorts, and reports, never inside the loops of a search, so counters such
+ * as relaxed trails are added once per search.
+ *
+ * @author Maddie Moore
+ *
+ */
+public final class Metrics {
+
+	/** Start time returned while metrics are disabled */
+	public static final long NOT_STARTED = Long.MIN_VALUE;
+
+	/** Registry that collects values, or null while metrics are disabled */
+	private static volatile MetricsRegistry registry;
+
+	/**
+	 * Metrics only has static methods.
+	 */
+	private Metrics() {
+	}
+
+	/**
+	 * Starts collecting values in the given registry.
+	 * @param registry the registry
+	 * @throws IllegalArgumentException if the registry is null
+	 */
+	public static void enable(MetricsRegistry registry) {
+		if (registry == null) {
+			throw new IllegalArgumentException("Metrics registry cannot be null.");
+		}
+		Metrics.registry = registry;
+	}
+
+	/**
+	 * Stops collecting values.
+	 */
+	public static void disable() {
+		registry = null;
+	}
+
+	/**
+	 * Returns true if values are being collected.
+	 * @return true if metrics are enabled
+	 */
+	public static boolean isEnabled() {
+		return registry != null;
+	}
+
+	/**
+	 * Returns the registry that collects values.
+	 * @return the registry, or null if metrics are disabled
+	 */
+	public static MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Starts timing a phase.
+	 * @return the start time to pass to stop(), or NOT_STARTED if metrics are disabled
+	 */
+	public static long start() {
+		return registry == null ? NOT_STARTED : System.nanoTime();
+	}
+
+	/**
+	 * Finishes timing a phase. Nothing is recorded if metrics were disabled when the phase started or are
+	 * disabled now.
+	 * @param phase the phase
+	 * @param start the time returned by start()
+	 */
+	public static void stop(Phase phase, long start) {
+		MetricsRegistry current = registry;
+		if (current == null || start == NOT_STARTED) {
+			return;
+		}
+		long elapsed = System.nanoTime() - start;
+		current.record(phase, elapsed);
+		PhaseEvent event = new PhaseEvent();
+		if (event.isEnabled()) {
+			event.phase = phase.getName();
+			event.elapsed = elapsed;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Adds to a counter if metrics are enabled.
+	 * @param counter the counter
+	 * @param amount the amount to add
+	 */
+	public static void count(Counter counter, long amount) {
+		MetricsRegistry current = registry;
+		if (current != null) {
+			current.add(counter, amount);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package edu.ncsu.csc316.trail.metrics;
+
+import java.io.IOException;
+
+/**
+ * MetricsExporter writes the contents of a MetricsRegistry somewhere, such as a file or a monitoring system.
+ *
+ * @author Maddie Moore
+ *
+ */
+public interface MetricsExporter {
+
+	/**
+	 * Writes every timing and counter of the registry.
+	 * @param registry the registry
+	 * @throws IOException if the metrics cannot be written
+	 */
+	void export(MetricsRegistry registry) throws IOException;
+}
@@ -0,0 +1,92 @@
+package edu.ncsu.csc316.trail.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricsRegistry holds a LatencyHistogram for every Phase and a running total for every Counter. Both are
+ * created up front and indexed by ordinal, so recording is an array read and an atomic add. A registry only
+ * collects values once it is passed to Metrics.enable().
+ *
+ * @author Maddie Moore
+ *
+ */
+public class MetricsRegistry {
+
+	/** Histogram of each phase, by ordinal */
+	private final LatencyHistogram[] histograms;
+
+	/** Total of each counter, by ordinal */
+	private final LongAdder[] counters;
+
+	/**
+	 * Constructs a new MetricsRegistry with nothing recorded.
+	 */
+	public MetricsRegistry() {
+		histograms = new LatencyHistogram[Phase.values().length];
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = new LatencyHistogram();
+		}
+		counters = new LongAdder[Counter.values().length];
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records one timing of a phase.
+	 * @param phase the phase
+	 * @param nanos how long the phase took, in nanoseconds
+	 */
+	public void record(Phase phase, long nanos) {
+		histograms[phase.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Adds to a counter.
+	 * @param counter the counter
+	 * @param amount the amount to add
+	 */
+	public void add(Counter counter, long amount) {
+		counters[counter.ordinal()].add(amount);
+	}
+
+	/**
+	 * Returns the histogram of a phase.
+	 * @param phase the phase
+	 * @return the histogram of its timings
+	 */
+	public LatencyHistogram getHistogram(Phase phase) {
+		return histograms[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the total of a counter.
+	 * @param counter the counter
+	 * @return the total
+	 */
+	public long getCount(Counter counter) {
+		return counters[counter.ordinal()].sum();
+	}
+
+	/**
+	 * Writes every timing and counter with the given exporter.
+	 * @param exporter the exporter
+	 * @throws IOException if the exporter cannot write
+	 */
+	public void export(MetricsExporter exporter) throws IOException {
+		exporter.export(this);
+	}
+
+	/**
+	 * Clears every timing and counter.
+	 */
+	public void reset() {
+		for (LatencyHistogram histogram : histograms) {
+			histogram.reset();
+		}
+		for (LongAdder counter : counters) {
+			counter.reset();
+		}
+	}
+}
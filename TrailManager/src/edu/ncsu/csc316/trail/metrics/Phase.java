@@ -0,0 +1,54 @@
+package edu.ncsu.csc316.trail.metrics;
+
+/**
+ * Phase names a timed piece of work. The first five are the phases every operation is made of: parsing the
+ * input files, building indexes, traversing the network, sorting results, and writing reports. The rest time
+ * whole public operations of TrailManager and ReportManager, so the phases inside an operation can be compared
+ * with its total.
+ *
+ * @author Maddie Moore
+ *
+ */
+public enum Phase {
+	/** Reading the landmark and trail files */
+	PARSE("parse"),
+	/** Building the graph and its indexes from parsed rows */
+	INDEX("index"),
+	/** Searching the network from an origin */
+	TRAVERSE("traverse"),
+	/** Sorting the lines of a report */
+	SORT("sort"),
+	/** Writing the lines of a report */
+	RENDER("render"),
+	/** Loading a network from its files */
+	LOAD("load"),
+	/** TrailManager.getDistancesToDestinations */
+	DISTANCES("distances"),
+	/** TrailManager.getProposedFirstAidLocations */
+	FIRST_AID("firstAid"),
+	/** ReportManager.getDistancesReport */
+	DISTANCES_REPORT("distancesReport"),
+	/** ReportManager.getProposedFirstAidLocations */
+	FIRST_AID_REPORT("firstAidReport"),
+	/** TrailManager.getRoute */
+	ROUTE("route");
+
+	/** Name used by exporters */
+	private final String name;
+
+	/**
+	 * Constructs a phase with the given name.
+	 * @param name name used by exporters
+	 */
+	Phase(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the name exporters use for the phase.
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+}
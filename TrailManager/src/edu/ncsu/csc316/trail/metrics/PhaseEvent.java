@@ -0,0 +1,34 @@
+package edu.ncsu.csc316.trail.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * PhaseEvent is a Java Flight Recorder event for one timed phase, so phases show up on the same timeline as
+ * garbage collections and thread activity when a recording is running. Events are disabled unless a recording
+ * enables them, and Metrics only creates one while metrics are enabled.
+ *
+ * @author Maddie Moore
+ *
+ */
+@Name("edu.ncsu.csc316.trail.Phase")
+@Label("Trail Phase")
+@Category("TrailManager")
+@Description("One timed phase of loading the network or answering a query")
+@StackTrace(false)
+class PhaseEvent extends Event {
+
+	/** Name of the phase */
+	@Label("Phase")
+	String phase;
+
+	/** How long the phase took */
+	@Label("Elapsed")
+	@Timespan(Timespan.NANOSECONDS)
+	long elapsed;
+}
@@ -0,0 +1,59 @@
+package edu.ncsu.csc316.trail.metrics;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * TextMetricsExporter writes a registry as readable lines, one per phase that has been timed and one per
+ * counter. Times are in microseconds. For example:
+ *
+ * <pre>
+ * distances count=12 mean=85.3us p50=80.1us p90=120.8us p99=190.5us max=190.5us
+ * landmarksVisited 1200
+ * </pre>
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TextMetricsExporter implements MetricsExporter {
+
+	/** Where the lines are written */
+	private final Appendable out;
+
+	/**
+	 * Constructs a new TextMetricsExporter.
+	 * @param out where the lines are written
+	 */
+	public TextMetricsExporter(Appendable out) {
+		this.out = out;
+	}
+
+	@Override
+	public void export(MetricsRegistry registry) throws IOException {
+		for (Phase phase : Phase.values()) {
+			LatencyHistogram histogram = registry.getHistogram(phase);
+			if (histogram.getCount() == 0) {
+				continue;
+			}
+			out.append(phase.getName()).append(" count=").append(Long.toString(histogram.getCount()));
+			out.append(" mean=").append(micros(histogram.getMean()));
+			out.append(" p50=").append(micros(histogram.getPercentile(50)));
+			out.append(" p90=").append(micros(histogram.getPercentile(90)));
+			out.append(" p99=").append(micros(histogram.getPercentile(99)));
+			out.append(" max=").append(micros(histogram.getMax())).append("\n");
+		}
+		for (Counter counter : Counter.values()) {
+			out.append(counter.getName()).append(" ").append(Long.toString(registry.getCount(counter)))
+					.append("\n");
+		}
+	}
+
+	/**
+	 * Formats nanoseconds as microseconds.
+	 * @param nanos the time in nanoseconds
+	 * @return the time in microseconds, with one decimal place and a unit
+	 */
+	private static String micros(double nanos) {
+		return String.format(Locale.ROOT, "%.1fus", nanos / 1000);
+	}
+}
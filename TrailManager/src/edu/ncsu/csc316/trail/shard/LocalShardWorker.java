@@ -0,0 +1,95 @@
+package edu.ncsu.csc316.trail.shard;
+
+import java.io.IOException;
+
+/**
+ * LocalShardWorker serves the parks of a ShardStore in the calling thread. Parks are loaded the first time they
+ * are searched and may be evicted between calls, as the store decides.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class LocalShardWorker implements ShardWorker {
+
+	/** Parks served by the worker */
+	private final ShardStore store;
+
+	/**
+	 * Constructs a new LocalShardWorker.
+	 * @param store parks served by the worker
+	 */
+	public LocalShardWorker(ShardStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Returns the store of parks served by the worker.
+	 * @return the store
+	 */
+	public ShardStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Returns the names of the parks in the store.
+	 * @return the park names
+	 */
+	@Override
+	public String[] getParks() {
+		return store.getParks();
+	}
+
+	/**
+	 * Returns the shortest distance inside the park from each of the given origins to each of the given targets.
+	 * @param park name of the park
+	 * @param origins IDs of the origin landmarks
+	 * @param targets IDs of the target landmarks
+	 * @return the distances with one row per origin, stored row by row
+	 * @throws IOException if the park cannot be loaded
+	 */
+	@Override
+	public int[] getDistances(String park, String[] origins, String[] targets) throws IOException {
+		return store.get(park).getDistances(origins, targets);
+	}
+
+	/**
+	 * Searches the park from the given landmarks, each starting at its own distance.
+	 * @param park name of the park
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @return the reached landmarks in settle order
+	 * @throws IOException if the park cannot be loaded
+	 */
+	@Override
+	public ShardDistances search(String park, String[] ids, int[] distances) throws IOException {
+		checkLengths(ids, distances);
+		return store.get(park).search(ids, distances);
+	}
+
+	/**
+	 * Searches the park from the given landmarks, each starting at its own distance, for one target.
+	 * @param park name of the park
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @param target ID of the target landmark
+	 * @return the distance to the target, or TrailSearch.UNREACHED if no origin reaches it
+	 * @throws IOException if the park cannot be loaded
+	 */
+	@Override
+	public int getDistance(String park, String[] ids, int[] distances, String target) throws IOException {
+		checkLengths(ids, distances);
+		return store.get(park).getDistance(ids, distances, target);
+	}
+
+	/**
+	 * Checks that every origin has a distance.
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	private static void checkLengths(String[] ids, int[] distances) {
+		if (ids.length != distances.length) {
+			throw new IllegalArgumentException("Every origin needs exactly one distance.");
+		}
+	}
+}
@@ -0,0 +1,321 @@
+package edu.ncsu.csc316.trail.shard;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * LoopbackShardWorker stands in for a worker on another machine. Every call is encoded into a request message,
+ * run on the worker's own thread by decoding the message and calling a worker that holds the parks, and answered
+ * with a reply message that is decoded back in the calling thread. Nothing but bytes crosses between the two
+ * sides, so the encoding is exercised exactly as a network transport would exercise it, without opening a
+ * socket. An IllegalArgumentException on the worker's side is sent back and thrown again in the caller, and any
+ * other failure there is thrown as an IOException.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class LoopbackShardWorker implements ShardWorker, AutoCloseable {
+
+	/** Request for the served parks */
+	private static final byte GET_PARKS = 1;
+
+	/** Request for a matrix of distances between landmarks */
+	private static final byte GET_DISTANCES = 2;
+
+	/** Request for every landmark reached from some origins */
+	private static final byte SEARCH = 3;
+
+	/** Request for the distance from some origins to one landmark */
+	private static final byte GET_DISTANCE = 4;
+
+	/** Reply to a call that succeeded */
+	private static final byte OK = 0;
+
+	/** Reply to a call that threw an IllegalArgumentException */
+	private static final byte INVALID = 1;
+
+	/** Reply to a call that failed any other way */
+	private static final byte FAILED = 2;
+
+	/** Worker on the far side of the transport */
+	private final ShardWorker remote;
+
+	/** Thread the far side runs on */
+	private final ExecutorService node;
+
+	/** Number of bytes sent in requests */
+	private long bytesSent;
+
+	/** Number of bytes received in replies */
+	private long bytesReceived;
+
+	/**
+	 * Constructs a new LoopbackShardWorker in front of the given worker.
+	 * @param remote worker that answers the requests
+	 * @param name name of the worker's thread
+	 */
+	public LoopbackShardWorker(ShardWorker remote, String name) {
+		this.remote = remote;
+		this.node = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Asks the far side for the names of the parks it serves.
+	 * @return the park names
+	 * @throws IOException if the call fails
+	 */
+	@Override
+	public String[] getParks() throws IOException {
+		Request request = new Request(GET_PARKS);
+		return readStrings(call(request));
+	}
+
+	/**
+	 * Asks the far side for the distance inside a park from each of the given origins to each of the targets.
+	 * @param park name of the park
+	 * @param origins IDs of the origin landmarks
+	 * @param targets IDs of the target landmarks
+	 * @return the distances with one row per origin, stored row by row
+	 * @throws IOException if the call fails
+	 */
+	@Override
+	public int[] getDistances(String park, String[] origins, String[] targets) throws IOException {
+		Request request = new Request(GET_DISTANCES);
+		request.out.writeUTF(park);
+		writeStrings(request.out, origins);
+		writeStrings(request.out, targets);
+		return readInts(call(request));
+	}
+
+	/**
+	 * Asks the far side to search a park from the given landmarks.
+	 * @param park name of the park
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @return the reached landmarks in settle order
+	 * @throws IOException if the call fails
+	 */
+	@Override
+	public ShardDistances search(String park, String[] ids, int[] distances) throws IOException {
+		Request request = new Request(SEARCH);
+		request.out.writeUTF(park);
+		writeStrings(request.out, ids);
+		writeInts(request.out, distances);
+		DataInputStream in = call(request);
+		return new ShardDistances(in.readUTF(), readStrings(in), readStrings(in), readInts(in));
+	}
+
+	/**
+	 * Asks the far side for the distance from the given landmarks to one target.
+	 * @param park name of the park
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @param target ID of the target landmark
+	 * @return the distance to the target, or TrailSearch.UNREACHED if no origin reaches it
+	 * @throws IOException if the call fails
+	 */
+	@Override
+	public int getDistance(String park, String[] ids, int[] distances, String target) throws IOException {
+		Request request = new Request(GET_DISTANCE);
+		request.out.writeUTF(park);
+		writeStrings(request.out, ids);
+		writeInts(request.out, distances);
+		request.out.writeUTF(target);
+		return call(request).readInt();
+	}
+
+	/**
+	 * Returns the number of bytes sent in requests so far.
+	 * @return the bytes sent
+	 */
+	public synchronized long getBytesSent() {
+		return bytesSent;
+	}
+
+	/**
+	 * Returns the number of bytes received in replies so far.
+	 * @return the bytes received
+	 */
+	public synchronized long getBytesReceived() {
+		return bytesReceived;
+	}
+
+	/**
+	 * Shuts down the worker's thread. Calls that were already sent are still answered.
+	 */
+	@Override
+	public void close() {
+		node.shutdown();
+	}
+
+	/**
+	 * Sends a request to the far side and waits for its reply.
+	 * @param request the request
+	 * @return the body of the reply
+	 * @throws IOException if the far side failed or could not be reached
+	 * @throws IllegalArgumentException if the far side rejected the request
+	 */
+	private DataInputStream call(Request request) throws IOException {
+		byte[] message = request.bytes.toByteArray();
+		byte[] reply;
+		try {
+			reply = node.submit(() -> answer(message)).get();
+		} catch (RejectedExecutionException e) {
+			throw new IOException("Shard worker is closed.");
+		} catch (ExecutionException e) {
+			throw new IOException("Shard worker failed: " + e.getCause().getMessage(), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a shard worker.");
+		}
+		synchronized (this) {
+			bytesSent += message.length;
+			bytesReceived += reply.length;
+		}
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(reply));
+		byte status = in.readByte();
+		if (status == INVALID) {
+			throw new IllegalArgumentException(in.readUTF());
+		} else if (status == FAILED) {
+			throw new IOException(in.readUTF());
+		}
+		return in;
+	}
+
+	/**
+	 * Decodes a request on the far side, calls the worker, and encodes its answer.
+	 * @param message the request
+	 * @return the reply
+	 * @throws IOException if the reply cannot be encoded
+	 */
+	private byte[] answer(byte[] message) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			DataOutputStream bodyOut = new DataOutputStream(body);
+			byte type = in.readByte();
+			if (type == GET_PARKS) {
+				writeStrings(bodyOut, remote.getParks());
+			} else if (type == GET_DISTANCES) {
+				writeInts(bodyOut, remote.getDistances(in.readUTF(), readStrings(in), readStrings(in)));
+			} else if (type == SEARCH) {
+				ShardDistances distances = remote.search(in.readUTF(), readStrings(in), readInts(in));
+				String[] ids = new String[distances.getCount()];
+				String[] descriptions = new String[distances.getCount()];
+				int[] lengths = new int[distances.getCount()];
+				for (int i = 0; i < ids.length; i++) {
+					ids[i] = distances.getId(i);
+					descriptions[i] = distances.getDescription(i);
+					lengths[i] = distances.getDistance(i);
+				}
+				bodyOut.writeUTF(distances.getPark());
+				writeStrings(bodyOut, ids);
+				writeStrings(bodyOut, descriptions);
+				writeInts(bodyOut, lengths);
+			} else if (type == GET_DISTANCE) {
+				bodyOut.writeInt(remote.getDistance(in.readUTF(), readStrings(in), readInts(in), in.readUTF()));
+			} else {
+				throw new IllegalArgumentException("Unknown shard request type " + type + ".");
+			}
+			out.writeByte(OK);
+			body.writeTo(out);
+		} catch (IllegalArgumentException e) {
+			out.writeByte(INVALID);
+			out.writeUTF(String.valueOf(e.getMessage()));
+		} catch (IOException e) {
+			out.writeByte(FAILED);
+			out.writeUTF(String.valueOf(e.getMessage()));
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Writes an array of strings, preceded by its length.
+	 * @param out destination of the strings
+	 * @param strings the strings
+	 * @throws IOException if the strings cannot be written
+	 */
+	private static void writeStrings(DataOutputStream out, String[] strings) throws IOException {
+		out.writeInt(strings.length);
+		for (String string : strings) {
+			out.writeUTF(string);
+		}
+	}
+
+	/**
+	 * Reads an array of strings written by writeStrings().
+	 * @param in source of the strings
+	 * @return the strings
+	 * @throws IOException if the strings cannot be read
+	 */
+	private static String[] readStrings(DataInputStream in) throws IOException {
+		String[] strings = new String[in.readInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = in.readUTF();
+		}
+		return strings;
+	}
+
+	/**
+	 * Writes an array of ints, preceded by its length.
+	 * @param out destination of the ints
+	 * @param values the ints
+	 * @throws IOException if the ints cannot be written
+	 */
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	/**
+	 * Reads an array of ints written by writeInts().
+	 * @param in source of the ints
+	 * @return the ints
+	 * @throws IOException if the ints cannot be read
+	 */
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int[] values = new int[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+	/**
+	 * Request is a message being encoded: its type followed by its arguments.
+	 */
+	private static class Request {
+
+		/** Bytes of the message */
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		/** Writer of the arguments */
+		private final DataOutputStream out = new DataOutputStream(bytes);
+
+		/**
+		 * Starts a message of the given type.
+		 * @param type type of the request
+		 * @throws IOException if the type cannot be written
+		 */
+		Request(byte type) throws IOException {
+			out.writeByte(type);
+		}
+	}
+}
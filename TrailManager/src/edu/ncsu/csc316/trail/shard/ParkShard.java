@@ -0,0 +1,150 @@
+package edu.ncsu.csc316.trail.shard;
+
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailSearch;
+
+/**
+ * ParkShard is one loaded park: its graph and a search that is reused for every query on the park. Queries on
+ * one shard are serialized because they share the search, while queries on different shards run in parallel.
+ *
+ * @author Maddie Moore
+ *
+ */
+final class ParkShard {
+
+	/** Name of the park */
+	private final String park;
+
+	/** Graph of the park's landmarks and trails */
+	private final TrailGraph graph;
+
+	/** Search reused for every query on the park */
+	private final TrailSearch search;
+
+	/** Rough number of bytes the shard keeps while it is loaded */
+	private final long size;
+
+	/**
+	 * Constructs a new ParkShard.
+	 * @param park name of the park
+	 * @param graph graph of the park
+	 * @param stringBytes number of bytes taken by the landmark strings
+	 */
+	ParkShard(String park, TrailGraph graph, long stringBytes) {
+		this.park = park;
+		this.graph = graph;
+		this.search = new TrailSearch(graph);
+		int landmarks = graph.getLandmarkCount();
+		this.size = stringBytes + 16L * landmarks + 8L * graph.getSlotCount() + 12L * graph.getTrailCount();
+	}
+
+	/**
+	 * Returns the name of the park.
+	 * @return the park
+	 */
+	String getPark() {
+		return park;
+	}
+
+	/**
+	 * Returns the graph of the park.
+	 * @return the graph
+	 */
+	TrailGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the rough number of bytes the shard keeps while it is loaded: the landmark strings, the graph's
+	 * arrays, and the search's arrays.
+	 * @return the size in bytes
+	 */
+	long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the shortest distance from each of the given origins to each of the given targets, as a matrix with
+	 * one row per origin stored row by row.
+	 * @param origins IDs of the origin landmarks
+	 * @param targets IDs of the target landmarks
+	 * @return the distances, with TrailSearch.UNREACHED for pairs that cannot reach each other
+	 * @throws IllegalArgumentException if an ID is not a landmark of the park
+	 */
+	synchronized int[] getDistances(String[] origins, String[] targets) {
+		int[] rows = indicesOf(origins);
+		int[] columns = indicesOf(targets);
+		int[] matrix = new int[rows.length * columns.length];
+		for (int row = 0; row < rows.length; row++) {
+			search.search(rows[row]);
+			for (int column = 0; column < columns.length; column++) {
+				matrix[row * columns.length + column] = search.getDistance(columns[column]);
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * Searches from the given landmarks, each starting at its own distance, and returns every landmark reached.
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @return the reached landmarks in settle order
+	 * @throws IllegalArgumentException if an ID is not a landmark of the park or a distance is negative
+	 */
+	synchronized ShardDistances search(String[] ids, int[] distances) {
+		int reached = search.search(indicesOf(ids), distances, ids.length);
+		String[] reachedIds = new String[reached];
+		String[] descriptions = new String[reached];
+		int[] reachedDistances = new int[reached];
+		for (int position = 0; position < reached; position++) {
+			int landmark = search.getReached(position);
+			reachedIds[position] = graph.getId(landmark);
+			descriptions[position] = graph.getDescription(landmark);
+			reachedDistances[position] = search.getDistance(landmark);
+		}
+		return new ShardDistances(park, reachedIds, descriptions, reachedDistances);
+	}
+
+	/**
+	 * Searches from the given landmarks, each starting at its own distance, and returns the distance to one
+	 * target.
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @param target ID of the target landmark
+	 * @return the distance to the target, or TrailSearch.UNREACHED if no origin reaches it
+	 * @throws IllegalArgumentException if an ID is not a landmark of the park or a distance is negative
+	 */
+	synchronized int getDistance(String[] ids, int[] distances, String target) {
+		int landmark = indexOf(target);
+		search.search(indicesOf(ids), distances, ids.length);
+		return search.getDistance(landmark);
+	}
+
+	/**
+	 * Returns the index of each of the given landmarks.
+	 * @param ids IDs of the landmarks
+	 * @return the indices
+	 * @throws IllegalArgumentException if an ID is not a landmark of the park
+	 */
+	private int[] indicesOf(String[] ids) {
+		int[] landmarks = new int[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			landmarks[i] = indexOf(ids[i]);
+		}
+		return landmarks;
+	}
+
+	/**
+	 * Returns the index of a landmark.
+	 * @param id ID of the landmark
+	 * @return the index
+	 * @throws IllegalArgumentException if the ID is not a landmark of the park
+	 */
+	private int indexOf(String id) {
+		int landmark = graph.indexOf(id);
+		if (landmark == TrailGraph.NO_LANDMARK) {
+			throw new IllegalArgumentException("Landmark " + id + " is not a landmark in park " + park + ".");
+		}
+		return landmark;
+	}
+}
@@ -0,0 +1,526 @@
+package edu.ncsu.csc316.trail.shard;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+
+import edu.ncsu.csc316.trail.graph.LandmarkOrder;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphBuilder;
+import edu.ncsu.csc316.trail.graph.TrailSearch;
+import edu.ncsu.csc316.trail.manager.ReportWriter;
+
+/**
+ * PartitionedNetwork answers distance queries over several parks, each held as its own shard by a ShardWorker,
+ * that are joined by connector trails between boundary landmarks. Only the overlay, a small graph of the
+ * boundary landmarks, is kept by the network itself. Its trails are the connectors plus one shortcut for every
+ * pair of boundary landmarks of the same park, whose length is their shortest distance inside the park.
+ *
+ * A query searches the origin's park for its distance to each of the park's boundary landmarks, searches the
+ * overlay from those boundary landmarks to find the shortest distance to every other boundary landmark, and then
+ * searches each park that was reached starting from its boundary landmarks at their overlay distances. Every
+ * route that leaves a park does so through its boundary landmarks, so the answers equal those of one search over
+ * the merged network, and a query only searches the parks the origin can reach.
+ *
+ * Landmarks are named "PARK/ID" in reports. The overlay is built the first time a query needs it after a worker
+ * or connector is added. Its shortcuts need the distances inside every park that has a boundary landmark, so
+ * building it loads each of those parks once, and their stores may evict them again afterwards. Parks without
+ * boundary landmarks are only loaded by queries that start in them.
+ *
+ * The network's lock only guards its workers, connectors, and overlay. Queries, and the building of the
+ * overlay, call the workers without holding it, so queries on different parks run in parallel and a slow worker
+ * does not hold up the others.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class PartitionedNetwork {
+
+	/** Worker that serves each park */
+	private final HashMap<String, ShardWorker> workers;
+
+	/** Connector trails, in the order they were added */
+	private final ArrayList<Connector> connectors;
+
+	/** Overlay of the boundary landmarks, or null if it must be rebuilt */
+	private Overlay overlay;
+
+	/** Number of times a worker or connector has been added, which tells a new overlay if it is already stale */
+	private int version;
+
+	/**
+	 * Constructs a new PartitionedNetwork with no parks.
+	 */
+	public PartitionedNetwork() {
+		workers = new HashMap<String, ShardWorker>();
+		connectors = new ArrayList<Connector>();
+	}
+
+	/**
+	 * Adds a worker and every park it serves.
+	 * @param worker the worker
+	 * @throws IOException if the worker cannot be reached
+	 * @throws IllegalArgumentException if one of the worker's parks is already served by another worker
+	 */
+	public void addWorker(ShardWorker worker) throws IOException {
+		String[] parks = worker.getParks();
+		synchronized (this) {
+			for (String park : parks) {
+				if (workers.containsKey(park)) {
+					throw new IllegalArgumentException("Park " + park + " is served by more than one worker.");
+				}
+			}
+			for (String park : parks) {
+				workers.put(park, worker);
+			}
+			overlay = null;
+			version++;
+		}
+	}
+
+	/**
+	 * Returns the names of every park, sorted.
+	 * @return the park names
+	 */
+	public synchronized String[] getParks() {
+		String[] parks = workers.keySet().toArray(new String[workers.size()]);
+		Arrays.sort(parks);
+		return parks;
+	}
+
+	/**
+	 * Adds a connector trail between landmarks of two parks. The landmarks themselves are checked when the
+	 * overlay is built.
+	 * @param parkOne park of the first landmark
+	 * @param landmarkOne ID of the first landmark
+	 * @param parkTwo park of the second landmark
+	 * @param landmarkTwo ID of the second landmark
+	 * @param length length of the trail in feet
+	 * @throws IllegalArgumentException if either park has no worker or the length is negative
+	 */
+	public synchronized void addConnector(String parkOne, String landmarkOne, String parkTwo, String landmarkTwo,
+			int length) {
+		workerOf(parkOne);
+		workerOf(parkTwo);
+		if (length < 0) {
+			throw new IllegalArgumentException("Connector length cannot be negative.");
+		}
+		connectors.add(new Connector(parkOne, landmarkOne, parkTwo, landmarkTwo, length));
+		overlay = null;
+		version++;
+	}
+
+	/**
+	 * Adds every connector in a connector file. The file has the header PARK,LANDMARK_ID,PARK,LANDMARK_ID,DISTANCE,
+	 * which is skipped, and blank lines are ignored.
+	 * @param pathToConnectorFile path to the connector file
+	 * @throws FileNotFoundException if the file does not exist
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a line is malformed or names a park with no worker
+	 */
+	public void readConnectors(String pathToConnectorFile) throws IOException {
+		try (BufferedReader in = Files.newBufferedReader(Paths.get(pathToConnectorFile), StandardCharsets.UTF_8)) {
+			in.readLine();
+			int lineNumber = 1;
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				lineNumber++;
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				String[] fields = line.split(",", -1);
+				if (fields.length != 5) {
+					throw malformed(pathToConnectorFile, lineNumber, "expected 5 fields but found " + fields.length);
+				}
+				int length;
+				try {
+					length = Integer.parseInt(fields[4].trim());
+				} catch (NumberFormatException e) {
+					throw malformed(pathToConnectorFile, lineNumber, "invalid distance " + fields[4].trim());
+				}
+				addConnector(fields[0].trim(), fields[1].trim(), fields[2].trim(), fields[3].trim(), length);
+			}
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(pathToConnectorFile);
+		}
+	}
+
+	/**
+	 * Returns the shortest distance between two landmarks of the network.
+	 * @param originPark park of the origin
+	 * @param originId ID of the origin
+	 * @param targetPark park of the target
+	 * @param targetId ID of the target
+	 * @return the distance in feet, or TrailSearch.UNREACHED if the target cannot be reached
+	 * @throws IOException if a worker cannot be reached or cannot load a park
+	 * @throws IllegalArgumentException if a park has no worker or an ID is not a landmark of its park
+	 */
+	public int getDistance(String originPark, String originId, String targetPark, String targetId)
+			throws IOException {
+		Overlay current = overlay();
+		ShardWorker target = current.workerOf(targetPark);
+		int[] boundary = current.search(originPark, originId);
+		ArrayList<String> ids = new ArrayList<String>();
+		ArrayList<Integer> distances = new ArrayList<Integer>();
+		if (targetPark.equals(originPark)) {
+			ids.add(originId);
+			distances.add(0);
+		}
+		current.addSources(targetPark, boundary, ids, distances);
+		return target.getDistance(targetPark, ids.toArray(new String[ids.size()]), toArray(distances), targetId);
+	}
+
+	/**
+	 * Returns a report of every landmark of the network that the origin can reach, in the format of the distances
+	 * report, with landmarks named "PARK/ID".
+	 * @param originPark park of the origin
+	 * @param originId ID of the origin
+	 * @return the report
+	 * @throws IOException if a worker cannot be reached or cannot load a park
+	 */
+	public String getDistancesReport(String originPark, String originId) throws IOException {
+		String origin = originPark + "/" + originId;
+		Overlay current = overlay();
+		int[] boundary;
+		try {
+			boundary = current.search(originPark, originId);
+		} catch (IllegalArgumentException e) {
+			return "The provided landmark ID (" + origin + ") is invalid for the network.";
+		}
+		ArrayList<ShardDistances> results = new ArrayList<ShardDistances>();
+		for (String park : current.getParks()) {
+			ArrayList<String> ids = new ArrayList<String>();
+			ArrayList<Integer> distances = new ArrayList<Integer>();
+			if (park.equals(originPark)) {
+				ids.add(originId);
+				distances.add(0);
+			}
+			current.addSources(park, boundary, ids, distances);
+			if (!ids.isEmpty()) {
+				results.add(current.workerOf(park).search(park, ids.toArray(new String[ids.size()]), toArray(distances)));
+			}
+		}
+		int count = 0;
+		for (ShardDistances result : results) {
+			count += result.getCount();
+		}
+		String[] names = new String[count];
+		String[] descriptions = new String[count];
+		int[] distances = new int[count];
+		int[] order = new int[count];
+		String originDescription = null;
+		int reached = 0;
+		for (ShardDistances result : results) {
+			for (int i = 0; i < result.getCount(); i++) {
+				String name = result.getPark() + "/" + result.getId(i);
+				if (name.equals(origin)) {
+					originDescription = result.getDescription(i);
+					continue;
+				}
+				names[reached] = name;
+				descriptions[reached] = result.getDescription(i);
+				distances[reached] = result.getDistance(i);
+				order[reached] = reached;
+				reached++;
+			}
+		}
+		StringBuilder report = new StringBuilder();
+		ReportWriter out = new ReportWriter(report);
+		if (reached == 0) {
+			out.append("No landmarks are reachable from ").append(originDescription).append(" (").append(origin)
+					.append(").");
+			return report.toString();
+		}
+		LandmarkOrder.sort(order, new int[reached], 0, reached, (first, second) -> {
+			int result = Integer.compare(distances[first], distances[second]);
+			if (result == 0) {
+				result = descriptions[first].compareTo(descriptions[second]);
+			}
+			return result != 0 ? result : names[second].compareTo(names[first]);
+		});
+		out.append("Landmarks Reachable from ").append(originDescription).append(" (").append(origin)
+				.append(") {\n");
+		for (int i = 0; i < reached; i++) {
+			int landmark = order[i];
+			out.append("   ").appendDistance(distances[landmark]).append(" to ").append(descriptions[landmark])
+					.append(" (").append(names[landmark]).append(")\n");
+		}
+		out.append("}");
+		return report.toString();
+	}
+
+	/**
+	 * Returns the overlay graph of the boundary landmarks, building it first if needed. Each overlay landmark's
+	 * ID is "PARK,ID", its description is its park, and its type is "Boundary".
+	 * @return the overlay graph
+	 * @throws IOException if a worker cannot be reached or cannot load a park
+	 * @throws IllegalArgumentException if a connector names a landmark that is not in its park
+	 */
+	public TrailGraph getOverlay() throws IOException {
+		return overlay().graph;
+	}
+
+	/**
+	 * Returns the worker that serves a park.
+	 * @param park name of the park
+	 * @return the worker
+	 * @throws IllegalArgumentException if no worker serves the park
+	 */
+	private ShardWorker workerOf(String park) {
+		return workerOf(workers, park);
+	}
+
+	/**
+	 * Returns the worker that serves a park.
+	 * @param workers worker that serves each park
+	 * @param park name of the park
+	 * @return the worker
+	 * @throws IllegalArgumentException if no worker serves the park
+	 */
+	private static ShardWorker workerOf(HashMap<String, ShardWorker> workers, String park) {
+		ShardWorker worker = workers.get(park);
+		if (worker == null) {
+			throw new IllegalArgumentException("Park " + park + " is not served by any worker.");
+		}
+		return worker;
+	}
+
+	/**
+	 * Returns the overlay, building it first if a worker or connector was added since it was last built. The
+	 * overlay is built from a copy of the workers and connectors without holding the lock, and is only kept if
+	 * nothing was added in the meantime. Queries that need it at the same time may each build one.
+	 * @return the overlay
+	 * @throws IOException if a worker cannot be reached or cannot load a park
+	 * @throws IllegalArgumentException if a connector names a landmark that is not in its park
+	 */
+	private Overlay overlay() throws IOException {
+		HashMap<String, ShardWorker> parks;
+		ArrayList<Connector> trails;
+		int builtVersion;
+		synchronized (this) {
+			if (overlay != null) {
+				return overlay;
+			}
+			parks = new HashMap<String, ShardWorker>(workers);
+			trails = new ArrayList<Connector>(connectors);
+			builtVersion = version;
+		}
+		Overlay built = new Overlay(parks, trails);
+		synchronized (this) {
+			if (version == builtVersion) {
+				overlay = built;
+			}
+		}
+		return built;
+	}
+
+	/**
+	 * Returns the values of a list as an array.
+	 * @param values the values
+	 * @return the array
+	 */
+	private static int[] toArray(ArrayList<Integer> values) {
+		int[] array = new int[values.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = values.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Returns the exception for a malformed line of a connector file.
+	 * @param file path to the file
+	 * @param lineNumber number of the line, counting from 1
+	 * @param reason reason the line is malformed
+	 * @return the exception
+	 */
+	private static IllegalArgumentException malformed(String file, int lineNumber, String reason) {
+		return new IllegalArgumentException("Line " + lineNumber + " of " + file + " is malformed: " + reason);
+	}
+
+	/**
+	 * Connector is a trail between landmarks of two parks.
+	 */
+	private static class Connector {
+
+		/** Park of the first landmark */
+		private final String parkOne;
+
+		/** ID of the first landmark */
+		private final String landmarkOne;
+
+		/** Park of the second landmark */
+		private final String parkTwo;
+
+		/** ID of the second landmark */
+		private final String landmarkTwo;
+
+		/** Length of the trail in feet */
+		private final int length;
+
+		/**
+		 * Constructs a new Connector.
+		 * @param parkOne park of the first landmark
+		 * @param landmarkOne ID of the first landmark
+		 * @param parkTwo park of the second landmark
+		 * @param landmarkTwo ID of the second landmark
+		 * @param length length of the trail in feet
+		 */
+		Connector(String parkOne, String landmarkOne, String parkTwo, String landmarkTwo, int length) {
+			this.parkOne = parkOne;
+			this.landmarkOne = landmarkOne;
+			this.parkTwo = parkTwo;
+			this.landmarkTwo = landmarkTwo;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Overlay is the graph of the boundary landmarks and the boundary landmarks of each park, along with the
+	 * workers it was built from. It never changes once built, apart from its search, which is locked while in use.
+	 */
+	private static class Overlay {
+
+		/** Worker that serves each park */
+		private final HashMap<String, ShardWorker> workers;
+
+		/** Graph of the boundary landmarks, joined by connectors and in-park shortcuts */
+		private final TrailGraph graph;
+
+		/** Search of the overlay graph */
+		private final TrailSearch search;
+
+		/** IDs of each park's boundary landmarks */
+		private final HashMap<String, String[]> boundaryIds;
+
+		/** Overlay index of each park's boundary landmarks */
+		private final HashMap<String, int[]> boundaryIndices;
+
+		/**
+		 * Builds the overlay from the connectors, asking each park with boundary landmarks for the distances
+		 * between them.
+		 * @param workers worker that serves each park
+		 * @param connectors the connector trails
+		 * @throws IOException if a worker cannot be reached or cannot load a park
+		 * @throws IllegalArgumentException if a connector names a landmark that is not in its park
+		 */
+		Overlay(HashMap<String, ShardWorker> workers, ArrayList<Connector> connectors) throws IOException {
+			this.workers = workers;
+			LinkedHashMap<String, LinkedHashSet<String>> boundary = new LinkedHashMap<String, LinkedHashSet<String>>();
+			for (Connector connector : connectors) {
+				boundary.computeIfAbsent(connector.parkOne, park -> new LinkedHashSet<String>()).add(connector.landmarkOne);
+				boundary.computeIfAbsent(connector.parkTwo, park -> new LinkedHashSet<String>()).add(connector.landmarkTwo);
+			}
+			TrailGraphBuilder builder = new TrailGraphBuilder();
+			boundaryIds = new HashMap<String, String[]>();
+			boundaryIndices = new HashMap<String, int[]>();
+			for (String park : boundary.keySet()) {
+				String[] ids = boundary.get(park).toArray(new String[boundary.get(park).size()]);
+				int[] indices = new int[ids.length];
+				for (int i = 0; i < ids.length; i++) {
+					indices[i] = builder.addLandmark(park + "," + ids[i], park, "Boundary");
+				}
+				int[] shortcuts = workerOf(park).getDistances(park, ids, ids);
+				for (int one = 0; one < ids.length; one++) {
+					for (int two = one + 1; two < ids.length; two++) {
+						int length = shortcuts[one * ids.length + two];
+						if (length != TrailSearch.UNREACHED) {
+							builder.addTrail(indices[one], indices[two], length);
+						}
+					}
+				}
+				boundaryIds.put(park, ids);
+				boundaryIndices.put(park, indices);
+			}
+			for (Connector connector : connectors) {
+				builder.addTrail(connector.parkOne + "," + connector.landmarkOne,
+						connector.parkTwo + "," + connector.landmarkTwo, connector.length);
+			}
+			graph = builder.build();
+			search = new TrailSearch(graph);
+		}
+
+		/**
+		 * Returns the names of every park, sorted.
+		 * @return the park names
+		 */
+		String[] getParks() {
+			String[] parks = workers.keySet().toArray(new String[workers.size()]);
+			Arrays.sort(parks);
+			return parks;
+		}
+
+		/**
+		 * Returns the worker that serves a park.
+		 * @param park name of the park
+		 * @return the worker
+		 * @throws IllegalArgumentException if no worker serves the park
+		 */
+		ShardWorker workerOf(String park) {
+			return PartitionedNetwork.workerOf(workers, park);
+		}
+
+		/**
+		 * Finds the shortest distance from a landmark to every boundary landmark of the network, searching the
+		 * landmark's park and then the overlay.
+		 * @param park park of the landmark
+		 * @param id ID of the landmark
+		 * @return the distance to each overlay landmark, with TrailSearch.UNREACHED for those it cannot reach
+		 * @throws IOException if a worker cannot be reached or cannot load a park
+		 * @throws IllegalArgumentException if the park has no worker or the ID is not a landmark of the park
+		 */
+		int[] search(String park, String id) throws IOException {
+			ShardWorker worker = workerOf(park);
+			String[] ids = boundaryIds.getOrDefault(park, new String[0]);
+			int[] indices = boundaryIndices.getOrDefault(park, new int[0]);
+			int[] inPark = worker.getDistances(park, new String[] {id}, ids);
+			int[] origins = new int[ids.length];
+			int[] originDistances = new int[ids.length];
+			int count = 0;
+			for (int i = 0; i < ids.length; i++) {
+				if (inPark[i] != TrailSearch.UNREACHED) {
+					origins[count] = indices[i];
+					originDistances[count] = inPark[i];
+					count++;
+				}
+			}
+			int[] distances = new int[graph.getLandmarkCount()];
+			synchronized (search) {
+				search.search(origins, originDistances, count);
+				for (int landmark = 0; landmark < distances.length; landmark++) {
+					distances[landmark] = search.getDistance(landmark);
+				}
+			}
+			return distances;
+		}
+
+		/**
+		 * Adds the boundary landmarks of a park that a search reached to a list of origins for the park.
+		 * @param park name of the park
+		 * @param distances distance to each overlay landmark, as returned by search()
+		 * @param ids IDs of the park's origins
+		 * @param originDistances distance to each of the park's origins
+		 */
+		void addSources(String park, int[] distances, ArrayList<String> ids, ArrayList<Integer> originDistances) {
+			String[] parkIds = boundaryIds.get(park);
+			if (parkIds == null) {
+				return;
+			}
+			int[] indices = boundaryIndices.get(park);
+			for (int i = 0; i < parkIds.length; i++) {
+				if (distances[indices[i]] != TrailSearch.UNREACHED) {
+					ids.add(parkIds[i]);
+					originDistances.add(distances[indices[i]]);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package edu.ncsu.csc316.trail.shard;
+
+/**
+ * ShardDistances is the answer to a search inside one park: the ID, description, and distance of every landmark
+ * the search reached, listed in the order the search settled them, so distances never decrease along the list.
+ * Landmarks are named by their IDs instead of graph indices so that the answer means the same thing on both ends
+ * of a transport.
+ *
+ * @author Maddie Moore
+ *
+ */
+public final class ShardDistances {
+
+	/** Park that was searched */
+	private final String park;
+
+	/** ID of each reached landmark */
+	private final String[] ids;
+
+	/** Description of each reached landmark */
+	private final String[] descriptions;
+
+	/** Distance to each reached landmark */
+	private final int[] distances;
+
+	/**
+	 * Constructs a new ShardDistances. The arrays are kept, not copied.
+	 * @param park park that was searched
+	 * @param ids ID of each reached landmark
+	 * @param descriptions description of each reached landmark
+	 * @param distances distance to each reached landmark
+	 */
+	public ShardDistances(String park, String[] ids, String[] descriptions, int[] distances) {
+		this.park = park;
+		this.ids = ids;
+		this.descriptions = descriptions;
+		this.distances = distances;
+	}
+
+	/**
+	 * Returns the park that was searched.
+	 * @return the name of the park
+	 */
+	public String getPark() {
+		return park;
+	}
+
+	/**
+	 * Returns the number of landmarks the search reached.
+	 * @return the number of reached landmarks
+	 */
+	public int getCount() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the ID of a reached landmark.
+	 * @param position position of the landmark in settle order
+	 * @return the landmark's ID
+	 */
+	public String getId(int position) {
+		return ids[position];
+	}
+
+	/**
+	 * Returns the description of a reached landmark.
+	 * @param position position of the landmark in settle order
+	 * @return the landmark's description
+	 */
+	public String getDescription(int position) {
+		return descriptions[position];
+	}
+
+	/**
+	 * Returns the distance to a reached landmark.
+	 * @param position position of the landmark in settle order
+	 * @return the distance in feet
+	 */
+	public int getDistance(int position) {
+		return distances[position];
+	}
+}
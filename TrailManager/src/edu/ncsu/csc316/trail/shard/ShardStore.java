@@ -0,0 +1,232 @@
+package edu.ncsu.csc316.trail.shard;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+
+/**
+ * ShardStore keeps the parks served by one worker. A park is only registered by its files when it is added, and
+ * its graph is loaded, with its landmarks packed off the heap, the first time a query needs it. Loaded parks are
+ * kept in least recently used order, and when their rough total size goes over the store's budget the least
+ * recently used parks are evicted until it fits again. The park that was just loaded is never evicted, so a park
+ * bigger than the whole budget can still be queried, and is simply loaded again the next time it is needed.
+ *
+ * A park is loaded outside the store's lock, so queries on other parks keep running while it loads. Queries that
+ * need a park that is already loading wait for that load instead of starting another one.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class ShardStore {
+
+	/** Landmark and trail file of each registered park */
+	private final HashMap<String, String[]> files;
+
+	/** Loaded parks, from least to most recently used */
+	private final LinkedHashMap<String, ParkShard> loaded;
+
+	/** Parks that are being loaded, with the load that later queries wait for */
+	private final HashMap<String, FutureTask<ParkShard>> loading = new HashMap<String, FutureTask<ParkShard>>();
+
+	/** Most bytes the loaded parks may take before some are evicted */
+	private final long budget;
+
+	/** Rough number of bytes the loaded parks take */
+	private long size;
+
+	/** Number of times a park has been loaded */
+	private int loadCount;
+
+	/** Number of times a park has been evicted */
+	private int evictionCount;
+
+	/**
+	 * Constructs a new, empty ShardStore.
+	 * @param budget most bytes the loaded parks may take before some are evicted
+	 * @throws IllegalArgumentException if the budget is negative
+	 */
+	public ShardStore(long budget) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("Shard budget cannot be negative.");
+		}
+		this.files = new HashMap<String, String[]>();
+		this.loaded = new LinkedHashMap<String, ParkShard>(16, 0.75f, true);
+		this.budget = budget;
+	}
+
+	/**
+	 * Registers a park without loading it.
+	 * @param park name of the park
+	 * @param pathToLandmarkFile path to the park's landmark file
+	 * @param pathToTrailFile path to the park's trail file
+	 * @throws IllegalArgumentException if the park is already in the store
+	 */
+	public synchronized void addPark(String park, String pathToLandmarkFile, String pathToTrailFile) {
+		if (files.containsKey(park)) {
+			throw new IllegalArgumentException("Park " + park + " is already in the store.");
+		}
+		files.put(park, new String[] {pathToLandmarkFile, pathToTrailFile});
+	}
+
+	/**
+	 * Returns the names of the registered parks, in no particular order.
+	 * @return the park names
+	 */
+	public synchronized String[] getParks() {
+		return files.keySet().toArray(new String[files.size()]);
+	}
+
+	/**
+	 * Returns true if the park is registered.
+	 * @param park name of the park
+	 * @return true if the store serves the park
+	 */
+	public synchronized boolean hasPark(String park) {
+		return files.containsKey(park);
+	}
+
+	/**
+	 * Returns true if the park is loaded.
+	 * @param park name of the park
+	 * @return true if the park's graph is in memory
+	 */
+	public synchronized boolean isLoaded(String park) {
+		return loaded.containsKey(park);
+	}
+
+	/**
+	 * Returns the number of loaded parks.
+	 * @return the number of parks in memory
+	 */
+	public synchronized int getLoadedCount() {
+		return loaded.size();
+	}
+
+	/**
+	 * Returns the rough number of bytes the loaded parks take.
+	 * @return the size in bytes
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of times a park has been loaded, counting each reload after an eviction.
+	 * @return the number of loads
+	 */
+	public synchronized int getLoadCount() {
+		return loadCount;
+	}
+
+	/**
+	 * Returns the number of times a park has been evicted.
+	 * @return the number of evictions
+	 */
+	public synchronized int getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Evicts every loaded park.
+	 */
+	public synchronized void evictAll() {
+		evictionCount += loaded.size();
+		loaded.clear();
+		size = 0;
+	}
+
+	/**
+	 * Returns a loaded park, loading it first if it is not in memory and evicting the least recently used parks
+	 * if the store goes over its budget. The park is loaded without holding the store's lock, and a query that
+	 * needs a park another query is loading waits for that load. A query that already holds an evicted park can
+	 * keep using it.
+	 * @param park name of the park
+	 * @return the loaded park
+	 * @throws FileNotFoundException if one of the park's files does not exist
+	 * @throws InterruptedIOException if the thread is interrupted while waiting for another query to load the park
+	 * @throws IllegalArgumentException if the park is not in the store
+	 */
+	ParkShard get(String park) throws IOException {
+		FutureTask<ParkShard> load;
+		boolean loader = false;
+		synchronized (this) {
+			ParkShard shard = loaded.get(park);
+			if (shard != null) {
+				return shard;
+			}
+			String[] paths = files.get(park);
+			if (paths == null) {
+				throw new IllegalArgumentException("Park " + park + " is not served by this worker.");
+			}
+			load = loading.get(park);
+			if (load == null) {
+				load = new FutureTask<ParkShard>(() -> new ParkShard(park,
+						TrailGraphLoader.load(paths[0], paths[1]).packLandmarks(), new File(paths[0]).length()));
+				loading.put(park, load);
+				loader = true;
+			}
+		}
+		if (loader) {
+			load.run();
+			synchronized (this) {
+				loading.remove(park);
+				publish(park, load);
+			}
+		}
+		try {
+			return load.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw (Error) cause;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for park " + park + " to load.");
+		}
+	}
+
+	/**
+	 * Adds a park that finished loading to the loaded parks and evicts the least recently used parks until the
+	 * store fits its budget. A load that failed is not added, so the next query loads the park again.
+	 * @param park name of the park
+	 * @param load the finished load
+	 */
+	private void publish(String park, FutureTask<ParkShard> load) {
+		ParkShard shard;
+		try {
+			shard = load.get();
+		} catch (ExecutionException | InterruptedException e) {
+			return;
+		}
+		loadCount++;
+		loaded.put(park, shard);
+		size += shard.getSize();
+		Iterator<ParkShard> leastRecent = loaded.values().iterator();
+		while (size > budget && loaded.size() > 1) {
+			size -= leastRecent.next().getSize();
+			leastRecent.remove();
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * Returns the names of the loaded parks, from least to most recently used.
+	 * @return the loaded park names
+	 */
+	public synchronized String[] getLoadedParks() {
+		return loaded.keySet().toArray(new String[loaded.size()]);
+	}
+}
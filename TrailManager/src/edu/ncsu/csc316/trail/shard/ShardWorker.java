@@ -0,0 +1,60 @@
+package edu.ncsu.csc316.trail.shard;
+
+import java.io.IOException;
+
+/**
+ * ShardWorker serves distance searches on the parks it holds. A PartitionedNetwork only talks to parks through
+ * this interface, so a worker may hold its parks in the same process, as LocalShardWorker does, or behind a
+ * transport, as LoopbackShardWorker does. Landmarks are always named by their IDs, never by graph indices.
+ *
+ * @author Maddie Moore
+ *
+ */
+public interface ShardWorker {
+
+	/**
+	 * Returns the names of the parks the worker serves.
+	 * @return the park names
+	 * @throws IOException if the worker cannot be reached
+	 */
+	String[] getParks() throws IOException;
+
+	/**
+	 * Returns the shortest distance inside the park from each of the given origins to each of the given targets,
+	 * as a matrix with one row per origin stored row by row.
+	 * @param park name of the park
+	 * @param origins IDs of the origin landmarks
+	 * @param targets IDs of the target landmarks
+	 * @return the distances, with TrailSearch.UNREACHED for pairs that cannot reach each other
+	 * @throws IOException if the worker cannot be reached or cannot load the park
+	 * @throws IllegalArgumentException if the worker does not serve the park or an ID is not in the park
+	 */
+	int[] getDistances(String park, String[] origins, String[] targets) throws IOException;
+
+	/**
+	 * Searches the park from the given landmarks, each starting at its own distance, and returns every landmark
+	 * reached.
+	 * @param park name of the park
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @return the reached landmarks in settle order
+	 * @throws IOException if the worker cannot be reached or cannot load the park
+	 * @throws IllegalArgumentException if the worker does not serve the park, an ID is not in the park, or a
+	 *         distance is negative
+	 */
+	ShardDistances search(String park, String[] ids, int[] distances) throws IOException;
+
+	/**
+	 * Searches the park from the given landmarks, each starting at its own distance, and returns the distance to
+	 * one target.
+	 * @param park name of the park
+	 * @param ids IDs of the origin landmarks
+	 * @param distances distance already walked to each origin
+	 * @param target ID of the target landmark
+	 * @return the distance to the target, or TrailSearch.UNREACHED if no origin reaches it
+	 * @throws IOException if the worker cannot be reached or cannot load the park
+	 * @throws IllegalArgumentException if the worker does not serve the park, an ID is not in the park, or a
+	 *         distance is negative
+	 */
+	int getDistance(String park, String[] ids, int[] distances, String target) throws IOException;
+}
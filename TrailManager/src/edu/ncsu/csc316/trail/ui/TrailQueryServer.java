@@ -0,0 +1,99 @@
+package edu.ncsu.csc316.trail.ui;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+
+import edu.ncsu.csc316.trail.manager.QueryPipeline;
+
+/**
+ * TrailQueryServer answers queries over local TCP connections with a QueryPipeline. Each connection sends
+ * queries one per line in the pipeline's format and reads the answers in the same order, each followed by a
+ * blank line. A client may send many queries without waiting for their answers, and the queries run at the
+ * same time. Every connection is served by its own thread, and all of them share the pipeline's service and
+ * its loaded network. The server only listens on the loopback address.
+ *
+ * @author Maddie Moore
+ *
+ */
+public class TrailQueryServer implements AutoCloseable {
+
+	/** Pipeline that answers the queries of every connection */
+	private final QueryPipeline pipeline;
+
+	/** Socket that accepts connections */
+	private final ServerSocket serverSocket;
+
+	/**
+	 * Constructs a new TrailQueryServer listening on the given local port.
+	 * @param pipeline pipeline that answers the queries of every connection
+	 * @param port the port, or 0 for any free port
+	 * @throws IOException if the port cannot be opened
+	 */
+	public TrailQueryServer(QueryPipeline pipeline, int port) throws IOException {
+		this.pipeline = pipeline;
+		this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+	}
+
+	/**
+	 * Returns the port the server listens on.
+	 * @return the port
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Accepts connections until the server is closed, serving each on its own daemon thread.
+	 * @throws IOException if a connection cannot be accepted for a reason other than the server closing
+	 */
+	public void serve() throws IOException {
+		while (!serverSocket.isClosed()) {
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (SocketException e) {
+				if (serverSocket.isClosed()) {
+					return;
+				}
+				throw e;
+			}
+			Thread thread = new Thread(() -> handle(socket), "trail-connection");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Answers the queries of one connection until the client stops sending or sends quit, then closes it.
+	 * @param socket the connection
+	 */
+	private void handle(Socket socket) {
+		try (Socket connection = socket;
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+				Writer out = new BufferedWriter(
+						new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+			pipeline.run(in, out);
+		} catch (IOException e) {
+			// The client went away; there is no one left to tell
+		}
+	}
+
+	/**
+	 * Stops accepting connections. Connections already being served finish their queries.
+	 * @throws IOException if the socket cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+	}
+}
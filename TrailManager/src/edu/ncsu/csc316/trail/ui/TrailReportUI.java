@@ -1,12 +1,33 @@
 package edu.ncsu.csc316.trail.ui;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+import edu.ncsu.csc316.trail.manager.QueryPipeline;
 import edu.ncsu.csc316.trail.manager.ReportManager;
+import edu.ncsu.csc316.trail.manager.TrailQueryService;
 
 /**
- * UI for handling the TrailReport
+ * UI for handling the TrailReport. With no arguments the UI asks for the files and queries interactively. The
+ * network can instead be loaded once and queried without prompts, in the QueryPipeline format:
+ *
+ * <pre>
+ * --batch landmark.csv trail.csv [queries.txt [answers.txt]]
+ * --serve landmark.csv trail.csv port
+ * </pre>
+ *
+ * Batch mode reads queries from the file, or standard input, and writes answers to the file, or standard
+ * output. Server mode answers queries over local TCP connections until the process is stopped.
  *
  * @author Maddie Moore
  *
@@ -16,11 +37,19 @@ public class TrailReportUI {
 	/** ReportManager field that is responsible for the manipulation of the program */
 	private static ReportManager manager;
 	
+	/** Arguments the UI accepts when it is not interactive */
+	private static final String USAGE = "Usage: --batch landmark.csv trail.csv [queries.txt [answers.txt]]\n"
+			+ "       --serve landmark.csv trail.csv port";
+	
 	/**
 	 * Main method of the program
 	 * @param args the arguments from the user
 	 */
 	public static void main(String[] args) {
+        if (args.length > 0) {
+        	runCommand(args);
+        	return;
+        }
         Scanner scanner = new Scanner(System.in);
         String input = "";
         boolean valid = false;
@@ -45,6 +74,9 @@ public class TrailReportUI {
 	        System.out.println("Pick an option (Enter the number associated):\n"
 	        		+ "1. Get Distances Report\n"
 	        		+ "2. Get Proposed First Aid Locations\n"
+	        		+ "3. Get Route Between Landmarks\n"
+	        		+ "4. Get Top First Aid Locations\n"
+	        		+ "5. Get Disconnected Groups of Landmarks\n"
 	        		+ "quit: Quit\n");
 	        input = scanner.next();
 	        if (input.equals("1")) {
@@ -59,6 +91,21 @@ public class TrailReportUI {
 	        	input = scanner.next();
 	        	System.out.println(manager.getProposedFirstAidLocations(Integer.parseInt(input)));
 	        }
+	        else if (input.equals("3")) {
+	        	System.out.println("From what landmark ID?");
+	        	String from = scanner.next();
+	        	System.out.println("To what landmark ID?");
+	        	String to = scanner.next();
+	        	System.out.println(manager.getRouteReport(from, to));
+	        }
+	        else if (input.equals("4")) {
+	        	System.out.println("How many locations?");
+	        	input = scanner.next();
+	        	System.out.println(manager.getTopFirstAidLocations(Integer.parseInt(input)));
+	        }
+	        else if (input.equals("5")) {
+	        	System.out.println(manager.getComponentsReport());
+	        }
 	        else if (input.equals("quit")) {
 	        	break;
 	        }
@@ -68,4 +115,53 @@ public class TrailReportUI {
         }
         System.out.println("Goodbye!");
     }
+	
+	/**
+	 * Runs batch or server mode from the command line arguments. Errors are written to standard error and end the
+	 * process with a nonzero exit status, so scripts running a batch can tell that it failed.
+	 * @param args the arguments from the user
+	 */
+	private static void runCommand(String[] args) {
+		boolean batch = args[0].equals("--batch") && args.length >= 3 && args.length <= 5;
+		boolean serve = args[0].equals("--serve") && args.length == 4;
+		if (!batch && !serve) {
+			fail(USAGE);
+		}
+		try (TrailQueryService service = new TrailQueryService(TrailGraphLoader.load(args[1], args[2]))) {
+			QueryPipeline pipeline = new QueryPipeline(service);
+			if (serve) {
+				try (TrailQueryServer server = new TrailQueryServer(pipeline, Integer.parseInt(args[3]))) {
+					System.out.println("Listening on port " + server.getPort());
+					server.serve();
+				}
+				return;
+			}
+			try (BufferedReader in = args.length >= 4 ? Files.newBufferedReader(Paths.get(args[3]))
+					: new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+				if (args.length == 5) {
+					try (Writer out = Files.newBufferedWriter(Paths.get(args[4]))) {
+						pipeline.run(in, out);
+					}
+				} else {
+					// The pipeline flushes its output, and standard output is left open for the rest of the process
+					pipeline.run(in, new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+				}
+			}
+		} catch (FileNotFoundException e) {
+			fail("File invalid");
+		} catch (NumberFormatException e) {
+			fail(USAGE);
+		} catch (IOException | IllegalArgumentException e) {
+			fail(e.getMessage() == null ? e.toString() : e.getMessage());
+		}
+	}
+	
+	/**
+	 * Writes the given message to standard error and exits with a failure status.
+	 * @param message the message to write
+	 */
+	private static void fail(String message) {
+		System.err.println(message);
+		System.exit(1);
+	}
 }
@@ -0,0 +1,101 @@
+package edu.ncsu.csc316.trail.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc316.trail.generator.ParkGenerator.DegreeDistribution;
+import edu.ncsu.csc316.trail.generator.ParkGenerator.Topology;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+import edu.ncsu.csc316.trail.graph.TrailSearch;
+
+/**
+ * Class that is responsible for testing the ParkGenerator class
+ *
+ * @author Maddie Moore
+ *
+ */
+class ParkGeneratorTest {
+
+	/**
+	 * Generates a park into temporary files and loads it.
+	 * @param generator the generator of the park
+	 * @return the loaded park
+	 * @throws IOException if a file cannot be written or read
+	 */
+	private TrailGraph load(ParkGenerator generator) throws IOException {
+		Path landmarks = Files.createTempFile("landmarks", ".csv");
+		Path trails = Files.createTempFile("trails", ".csv");
+		landmarks.toFile().deleteOnExit();
+		trails.toFile().deleteOnExit();
+		long count = generator.generate(landmarks, trails);
+		TrailGraph graph = TrailGraphLoader.load(landmarks.toString(), trails.toString());
+		assertEquals(count, graph.getTrailCount());
+		return graph;
+	}
+
+	/**
+	 * Tests that the tree, grid, and hub topologies connect every landmark
+	 */
+	@Test
+	public void testConnected() throws IOException {
+		Topology[] topologies = {Topology.TREE, Topology.GRID, Topology.HUB};
+		for (Topology topology : topologies) {
+			TrailGraph graph = load(new ParkGenerator(topology, 2500, 3));
+			assertEquals(2500, graph.getLandmarkCount());
+			assertEquals(2500, new TrailSearch(graph).search(0), topology.name());
+		}
+		assertEquals(2499, load(new ParkGenerator(Topology.TREE, 2500, 3)).getTrailCount());
+		assertEquals(2 * 50 * 49, load(new ParkGenerator(Topology.GRID, 2500, 3)).getTrailCount());
+		assertEquals(2 * 2500, load(new ParkGenerator(Topology.SMALL_WORLD, 2500, 3)).getTrailCount());
+		assertEquals("Trailhead", load(new ParkGenerator(Topology.HUB, 2500, 3)).getType(1));
+		assertEquals(0, load(new ParkGenerator(Topology.SMALL_WORLD, 1, 3).setExtraTrails(2)).getTrailCount());
+	}
+
+	/**
+	 * Tests the distance range, extra trails, and degree distributions
+	 */
+	@Test
+	public void testSettings() throws IOException {
+		TrailGraph graph = load(new ParkGenerator(Topology.TREE, 1000, 5).setDistanceRange(100, 200).setExtraTrails(1.5));
+		assertEquals(999 + 1500, graph.getTrailCount());
+		for (int trail = 0; trail < graph.getTrailCount(); trail++) {
+			assertTrue(graph.getTrailLength(trail) >= 100 && graph.getTrailLength(trail) <= 200);
+			assertNotEquals(graph.getTrailOne(trail), graph.getTrailTwo(trail));
+		}
+		TrailGraph uniform = load(new ParkGenerator(Topology.GRID, 1000, 5).setExtraTrails(4));
+		TrailGraph skewed = load(new ParkGenerator(Topology.GRID, 1000, 5).setExtraTrails(4)
+				.setDegreeDistribution(DegreeDistribution.POWER_LAW));
+		assertTrue(skewed.getDegree(0) > 4 * uniform.getDegree(0));
+		assertThrows(IllegalArgumentException.class, () -> new ParkGenerator(Topology.TREE, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new ParkGenerator(Topology.TREE, 1, 1).setDistanceRange(5, 4));
+		assertThrows(IllegalArgumentException.class, () -> new ParkGenerator(Topology.TREE, 1, 1).setExtraTrails(-1));
+		assertThrows(IllegalArgumentException.class, () -> new ParkGenerator(Topology.TREE, 1, 1).setSkew(0.5));
+	}
+
+	/**
+	 * Tests that the same settings and seed always write the same files
+	 */
+	@Test
+	public void testDeterministic() throws IOException {
+		String[] files = new String[4];
+		for (int i = 0; i < 4; i++) {
+			ParkGenerator generator = new ParkGenerator(Topology.SMALL_WORLD, 500, i / 2).setExtraTrails(0.5);
+			StringWriter landmarks = new StringWriter();
+			StringWriter trails = new StringWriter();
+			generator.writeLandmarks(landmarks);
+			generator.writeTrails(trails);
+			files[i] = landmarks + "\n" + trails;
+		}
+		assertEquals(files[0], files[1]);
+		assertEquals(files[2], files[3]);
+		assertNotEquals(files[0], files[2]);
+		assertTrue(files[0].startsWith("LANDMARK_ID,DESCRIPTION,TYPE\nL0,"));
+	}
+}
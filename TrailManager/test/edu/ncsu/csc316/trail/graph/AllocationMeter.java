@@ -0,0 +1,56 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * AllocationMeter counts the bytes the current thread allocates, for tests that check a loop allocates nothing
+ * once it is warm. A test that asks for a meter on a JVM that cannot count allocations is skipped rather than
+ * passed.
+ *
+ * @author Maddie Moore
+ *
+ */
+public final class AllocationMeter {
+
+	/** Thread bean that counts allocated bytes */
+	private final com.sun.management.ThreadMXBean threads;
+
+	/** ID of the thread that is measured */
+	private final long thread;
+
+	/**
+	 * Constructs a new AllocationMeter.
+	 * @param threads thread bean that counts allocated bytes
+	 * @param thread ID of the thread to measure
+	 */
+	private AllocationMeter(com.sun.management.ThreadMXBean threads, long thread) {
+		this.threads = threads;
+		this.thread = thread;
+	}
+
+	/**
+	 * Returns a meter of the current thread, skipping the calling test if the JVM cannot count the bytes a
+	 * thread allocates.
+	 * @return the meter
+	 */
+	public static AllocationMeter ofCurrentThread() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported(),
+				"The JVM cannot count the bytes a thread allocates.");
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		threads.setThreadAllocatedMemoryEnabled(true);
+		return new AllocationMeter(threads, Thread.currentThread().getId());
+	}
+
+	/**
+	 * Returns the number of bytes the thread has allocated since it started.
+	 * @return the allocated bytes
+	 */
+	public long getAllocatedBytes() {
+		return threads.getThreadAllocatedBytes(thread);
+	}
+}
@@ -0,0 +1,137 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the AltIndex class and A* route searches that use it
+ *
+ * @author Maddie Moore
+ *
+ */
+class AltIndexTest {
+
+	/**
+	 * Builds a random graph of several components
+	 * @param random source of the graph
+	 * @param n number of landmarks
+	 * @return the graph
+	 */
+	private TrailGraph randomGraph(Random random, int n) {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < n; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+		}
+		for (int i = 0; i < n * 3 / 2; i++) {
+			int one = random.nextInt(n);
+			int two = random.nextInt(n);
+			if (one % 3 == two % 3) {
+				builder.addTrail(one, two, random.nextInt(1000));
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Tests that A* routes on random graphs are as short as a full Dijkstra search finds and walk real trails
+	 */
+	@Test
+	public void testRoutes() {
+		Random random = new Random(5);
+		for (int round = 0; round < 5; round++) {
+			int n = 100 + random.nextInt(300);
+			TrailGraph graph = randomGraph(random, n);
+			AltIndex index = AltIndex.build(graph, 1 + random.nextInt(8));
+			assertTrue(index.matches(graph));
+			TrailSearch search = new TrailSearch(graph);
+			RouteSearch route = new RouteSearch(graph, index);
+			for (int query = 0; query < 100; query++) {
+				int origin = random.nextInt(n);
+				int destination = random.nextInt(n);
+				search.search(origin);
+				assertEquals(search.getDistance(destination), route.search(origin, destination));
+				if (route.getDistance() == TrailSearch.UNREACHED) {
+					assertEquals(0, route.getLandmarkCount());
+					continue;
+				}
+				assertEquals(origin, route.getLandmark(0));
+				assertEquals(destination, route.getLandmark(route.getLandmarkCount() - 1));
+				int total = 0;
+				for (int i = 0; i < route.getLandmarkCount() - 1; i++) {
+					total += graph.getTrailLength(route.getTrail(i));
+				}
+				assertEquals(route.getDistance(), total);
+			}
+		}
+	}
+
+	/**
+	 * Tests the anchors and bounds of a chain, where an end anchor gives exact distances
+	 */
+	@Test
+	public void testChain() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 2000; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+			if (i > 0) {
+				builder.addTrail(i - 1, i, 10);
+			}
+		}
+		TrailGraph graph = builder.build();
+		AltIndex index = AltIndex.build(graph, 2);
+		assertEquals(2, index.getAnchorCount());
+		assertEquals(1999, index.getAnchor(0));
+		assertEquals(0, index.getAnchor(1));
+		assertEquals(19990, index.getDistance(1, 1999));
+		RouteSearch route = new RouteSearch(graph, index);
+		assertEquals(5000, route.search(100, 600));
+		assertTrue(route.getSettledCount() <= 502);
+		assertEquals(0, route.search(7, 7));
+		assertThrows(IllegalArgumentException.class, () -> AltIndex.build(graph, 0));
+		TrailGraphBuilder single = new TrailGraphBuilder();
+		single.addLandmark("L1", "Only", "Overlook");
+		assertEquals(1, AltIndex.build(single.build(), 16).getAnchorCount());
+	}
+
+	/**
+	 * Tests that an index is written next to a network file and read and mapped back, and that an index is
+	 * rejected by a different network
+	 */
+	@Test
+	public void testFile() throws IOException {
+		Random random = new Random(9);
+		TrailGraph graph = randomGraph(random, 300);
+		AltIndex index = AltIndex.build(graph, 6);
+		Path directory = Files.createTempDirectory("alt");
+		Path file = AltIndex.pathFor(directory.resolve("park.snapshot"));
+		assertEquals("park.snapshot.alt", file.getFileName().toString());
+		try {
+			index.write(file);
+			for (AltIndex copy : new AltIndex[] {AltIndex.read(file, graph), AltIndex.map(file, graph)}) {
+				assertEquals(index.getAnchorCount(), copy.getAnchorCount());
+				assertEquals(index.getBytes(), copy.getBytes());
+				for (int anchor = 0; anchor < index.getAnchorCount(); anchor++) {
+					assertEquals(index.getAnchor(anchor), copy.getAnchor(anchor));
+					for (int landmark = 0; landmark < graph.getLandmarkCount(); landmark++) {
+						assertEquals(index.getDistance(anchor, landmark), copy.getDistance(anchor, landmark));
+					}
+				}
+			}
+			TrailGraph other = randomGraph(random, 300);
+			assertFalse(index.matches(other));
+			assertThrows(IOException.class, () -> AltIndex.read(file, other));
+			assertThrows(IllegalArgumentException.class, () -> new RouteSearch(randomGraph(random, 10), index));
+			Files.write(file, new byte[] {1, 2, 3});
+			assertThrows(IOException.class, () -> AltIndex.map(file, graph));
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(directory);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the ComponentIndex class
+ *
+ * @author Maddie Moore
+ *
+ */
+class ComponentIndexTest {
+
+	/**
+	 * Builds a random graph with the given number of landmarks and trails.
+	 * @param random source of the trails
+	 * @param landmarks number of landmarks
+	 * @param trails number of trails
+	 * @return the graph
+	 */
+	private TrailGraph randomGraph(Random random, int landmarks, int trails) {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < landmarks; i++) {
+			builder.addLandmark("L" + i, "Landmark " + (i % 7), "Type");
+		}
+		for (int i = 0; i < trails; i++) {
+			builder.addTrail(random.nextInt(landmarks), random.nextInt(landmarks), random.nextInt(100));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Checks that the index agrees with a search from every landmark.
+	 * @param graph the graph
+	 * @param index the index of the graph
+	 */
+	private void assertMatchesSearch(TrailGraph graph, ComponentIndex index) {
+		TrailSearch search = new TrailSearch(graph);
+		int members = 0;
+		for (int component = 0; component < index.getComponentCount(); component++) {
+			members += index.getSize(component);
+			for (int i = 0; i < index.getSize(component); i++) {
+				assertEquals(component, index.getComponent(index.getMember(component, i)));
+				if (i > 0) {
+					assertTrue(index.getMember(component, i - 1) < index.getMember(component, i));
+				}
+			}
+		}
+		assertEquals(graph.getLandmarkCount(), members);
+		for (int origin = 0; origin < graph.getLandmarkCount(); origin++) {
+			int reached = search.search(origin);
+			assertEquals(reached, index.getReachableCount(origin));
+			for (int other = 0; other < graph.getLandmarkCount(); other++) {
+				assertEquals(search.getDistance(other) != TrailSearch.UNREACHED, index.isReachable(origin, other));
+			}
+		}
+	}
+
+	/**
+	 * Tests the components of a small graph, which are numbered by their lowest landmark
+	 */
+	@Test
+	public void testComponents() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("L01", "Park Entrance", "Location");
+		builder.addLandmark("L02", "Alone", "Overlook");
+		builder.addLandmark("L03", "Fountain", "Fountain");
+		builder.addLandmark("L04", "Campsite", "Campsite");
+		builder.addLandmark("L05", "Restrooms", "Restroom");
+		builder.addTrail("L01", "L03", 100);
+		builder.addTrail("L04", "L05", 200);
+		builder.addTrail("L05", "L01", 300);
+		builder.addTrail("L02", "L02", 5);
+		TrailGraph graph = builder.build();
+		ComponentIndex index = new ComponentIndex(graph);
+		assertSame(graph, index.getGraph());
+		assertEquals(2, index.getComponentCount());
+		assertEquals(0, index.getComponent(0));
+		assertEquals(1, index.getComponent(1));
+		assertEquals(4, index.getSize(0));
+		assertEquals(1, index.getReachableCount(1));
+		assertTrue(index.isReachable(2, 3));
+		assertFalse(index.isReachable(0, 1));
+		assertEquals(4, index.getMember(0, 3));
+		assertEquals(0, new ComponentIndex(new TrailGraphBuilder().build()).getComponentCount());
+	}
+
+	/**
+	 * Tests random graphs, and that edits that cannot split a component share the arrays while the others are
+	 * built again
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(316);
+		for (int round = 0; round < 20; round++) {
+			int landmarks = 1 + random.nextInt(60);
+			TrailGraph graph = randomGraph(random, landmarks, random.nextInt(landmarks + 10));
+			ComponentIndex index = new ComponentIndex(graph);
+			assertMatchesSearch(graph, index);
+			for (int edit = 0; edit < 5; edit++) {
+				int one = random.nextInt(graph.getLandmarkCount());
+				int two = random.nextInt(graph.getLandmarkCount());
+				if (random.nextBoolean() || graph.getTrailCount() == 0) {
+					graph = graph.addTrail(one, two, 10);
+					index = index.update(graph, one, two);
+				} else if (random.nextBoolean()) {
+					graph = graph.addLandmark("New" + edit, "New", "Type");
+					int added = graph.getLandmarkCount() - 1;
+					index = index.update(graph, added, added);
+				} else {
+					int trail = random.nextInt(graph.getTrailCount());
+					if (graph.isClosed(trail)) {
+						continue;
+					}
+					graph = graph.closeTrail(trail);
+					index = new ComponentIndex(graph);
+				}
+				assertSame(graph, index.getGraph());
+				assertMatchesSearch(graph, index);
+			}
+		}
+	}
+
+	/**
+	 * Tests that a search limited to the size of the origin's component finds every distance, and that a smaller
+	 * limit leaves the landmarks it did not settle unreached for the next search
+	 */
+	@Test
+	public void testSearchLimit() {
+		Random random = new Random(42);
+		TrailGraph graph = randomGraph(random, 200, 260);
+		ComponentIndex index = new ComponentIndex(graph);
+		TrailSearch full = new TrailSearch(graph);
+		TrailSearch limited = new TrailSearch(graph);
+		for (int origin = 0; origin < graph.getLandmarkCount(); origin++) {
+			full.search(origin);
+			assertEquals(full.getReachedCount(), limited.search(origin, index.getReachableCount(origin)));
+			for (int landmark = 0; landmark < graph.getLandmarkCount(); landmark++) {
+				assertEquals(full.getDistance(landmark), limited.getDistance(landmark));
+			}
+			int reached = limited.search(origin, 3);
+			assertTrue(reached <= 3);
+			int unreached = 0;
+			for (int landmark = 0; landmark < graph.getLandmarkCount(); landmark++) {
+				if (limited.getDistance(landmark) == TrailSearch.UNREACHED) {
+					unreached++;
+				}
+			}
+			assertEquals(graph.getLandmarkCount() - reached, unreached);
+		}
+	}
+}
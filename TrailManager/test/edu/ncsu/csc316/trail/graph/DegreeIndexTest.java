@@ -0,0 +1,130 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the DegreeIndex class
+ *
+ * @author Maddie Moore
+ *
+ */
+class DegreeIndexTest {
+
+	/**
+	 * Tests the index of a small graph, including landmarks with no trails and equal descriptions, which are listed
+	 * by descending ID
+	 */
+	@Test
+	public void testIndex() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("L01", "Park Entrance", "Location");
+		builder.addLandmark("L02", "Fountain", "Fountain");
+		builder.addLandmark("L04", "Restrooms", "Restroom");
+		builder.addLandmark("L03", "Restrooms", "Restroom");
+		builder.addLandmark("L05", "Alone", "Overlook");
+		builder.addTrail("L01", "L02", 3013);
+		builder.addTrail("L01", "L03", 1046);
+		builder.addTrail("L01", "L04", 500);
+		builder.addTrail("L02", "L03", 500);
+		builder.addTrail("L02", "L04", 700);
+		DegreeIndex index = new DegreeIndex(builder.build());
+		assertEquals(3, index.getMaxDegree());
+		assertEquals(5, index.getCount(0));
+		assertEquals(4, index.getCount(1));
+		assertEquals(4, index.getCount(2));
+		assertEquals(2, index.getCount(3));
+		assertEquals(0, index.getCount(4));
+		assertEquals(0, index.getCount(Integer.MAX_VALUE));
+		String[] expected = {"L02", "L01", "L04", "L03", "L05"};
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], index.getGraph().getId(index.get(i)));
+		}
+		assertEquals(0, new DegreeIndex(new TrailGraphBuilder().build()).getCount(1));
+	}
+
+	/**
+	 * Tests that every prefix of the index of a random graph is in report order
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(7);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 300; i++) {
+			builder.addLandmark("L" + i, "Landmark " + random.nextInt(40), "Overlook");
+		}
+		for (int i = 0; i < 600; i++) {
+			builder.addTrail(random.nextInt(300), random.nextInt(300), random.nextInt(1000));
+		}
+		TrailGraph graph = builder.build();
+		DegreeIndex index = new DegreeIndex(graph);
+		assertEquals(300, index.getCount(0));
+		for (int i = 1; i < 300; i++) {
+			int previous = index.get(i - 1);
+			int current = index.get(i);
+			int degree = graph.getDegree(previous) - graph.getDegree(current);
+			int description = graph.getDescription(previous).compareTo(graph.getDescription(current));
+			int id = graph.getId(previous).compareTo(graph.getId(current));
+			assertTrue(degree > 0 || (degree == 0 && (description < 0 || (description == 0 && id > 0))));
+		}
+		for (int n = 1; n <= index.getMaxDegree() + 1; n++) {
+			int count = 0;
+			for (int landmark = 0; landmark < 300; landmark++) {
+				if (graph.getDegree(landmark) >= n) {
+					count++;
+				}
+			}
+			assertEquals(count, index.getCount(n));
+		}
+	}
+
+	/**
+	 * Tests that updating the index after random edits gives the same order as building it again
+	 */
+	@Test
+	public void testUpdate() {
+		Random random = new Random(16);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 200; i++) {
+			builder.addLandmark("L" + i, "Landmark " + random.nextInt(30), "Overlook");
+		}
+		for (int i = 0; i < 300; i++) {
+			builder.addTrail(random.nextInt(200), random.nextInt(200), random.nextInt(1000));
+		}
+		TrailGraph graph = builder.build();
+		DegreeIndex index = new DegreeIndex(graph);
+		for (int edit = 0; edit < 400; edit++) {
+			int trail = random.nextInt(graph.getTrailCount());
+			int one = graph.getTrailOne(trail);
+			int two = graph.getTrailTwo(trail);
+			if (edit % 50 == 49) {
+				graph = graph.addLandmark("N" + edit, "Landmark " + random.nextInt(30), "Overlook");
+				index = index.update(graph);
+				continue;
+			} else if (random.nextBoolean()) {
+				one = random.nextInt(graph.getLandmarkCount());
+				two = random.nextInt(graph.getLandmarkCount());
+				graph = graph.addTrail(one, two, 1);
+			} else if (graph.isClosed(trail)) {
+				graph = graph.openTrail(trail);
+			} else {
+				graph = graph.closeTrail(trail);
+			}
+			index = index.update(graph, one, two, one);
+			DegreeIndex expected = new DegreeIndex(graph);
+			assertSame(graph, index.getGraph());
+			assertEquals(expected.getMaxDegree(), index.getMaxDegree());
+			for (int n = 0; n <= expected.getMaxDegree() + 1; n++) {
+				assertEquals(expected.getCount(n), index.getCount(n));
+			}
+			for (int i = 0; i < graph.getLandmarkCount(); i++) {
+				assertEquals(expected.get(i), index.get(i));
+			}
+		}
+		DegreeIndex fixed = index;
+		assertThrows(IllegalArgumentException.class, () -> fixed.update(fixed.getGraph(), 1000));
+	}
+}
@@ -0,0 +1,126 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the DistanceBatch class and its sinks
+ *
+ * @author Maddie Moore
+ *
+ */
+class DistanceBatchTest {
+
+	/** Random graph the batches run on */
+	private TrailGraph graph;
+
+	/** Pool the batches run on */
+	private ForkJoinPool pool;
+
+	/**
+	 * Sets up a random graph and a pool of four threads
+	 */
+	@Before
+	public void setUp() {
+		Random random = new Random(11);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 120; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+		}
+		for (int i = 0; i < 200; i++) {
+			builder.addTrail(random.nextInt(100), random.nextInt(100), random.nextInt(1000));
+		}
+		graph = builder.build();
+		pool = new ForkJoinPool(4);
+	}
+
+	/**
+	 * Tests that every row of a binary matrix matches a single search from its origin, including unreachable
+	 * landmarks
+	 */
+	@Test
+	public void testMatrix() throws IOException {
+		setUp();
+		int[] origins = {5, 0, 119, 42, 7};
+		Path file = Files.createTempFile("distances", ".bin");
+		try {
+			try (DistanceMatrix.Writer writer = new DistanceMatrix.Writer(file, graph, origins)) {
+				DistanceBatch.run(graph, origins, pool, writer);
+			}
+			TrailSearch search = new TrailSearch(graph);
+			int[] row = new int[graph.getLandmarkCount()];
+			try (DistanceMatrix matrix = new DistanceMatrix(file)) {
+				assertEquals(graph.getLandmarkCount(), matrix.getLandmarkCount());
+				assertEquals(origins.length, matrix.getOriginCount());
+				for (int i = 0; i < origins.length; i++) {
+					assertEquals(origins[i], matrix.readRow(i, row));
+					search.search(origins[i]);
+					for (int landmark = 0; landmark < row.length; landmark++) {
+						assertEquals(search.getDistance(landmark), row[landmark]);
+					}
+				}
+			}
+			assertThrows(IllegalArgumentException.class, () -> new DistanceMatrix.Writer(file, graph, new int[] {1, 1}));
+		} finally {
+			Files.deleteIfExists(file);
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that the CSV lists every reachable destination of every origin once
+	 */
+	@Test
+	public void testCsv() throws IOException {
+		setUp();
+		int[] origins = new int[graph.getLandmarkCount()];
+		for (int i = 0; i < origins.length; i++) {
+			origins[i] = i;
+		}
+		StringWriter out = new StringWriter();
+		try (DistanceCsvWriter writer = new DistanceCsvWriter(out)) {
+			DistanceBatch.run(graph, origins, pool, writer);
+		}
+		pool.shutdown();
+		String[] lines = out.toString().split("\n");
+		assertEquals("ORIGIN_ID,DESTINATION_ID,DISTANCE", lines[0]);
+		TrailSearch search = new TrailSearch(graph);
+		int expected = 0;
+		for (int origin : origins) {
+			expected += search.search(origin) - 1;
+		}
+		assertEquals(expected, lines.length - 1);
+		for (int i = 1; i < lines.length; i++) {
+			String[] values = lines[i].split(",");
+			search.search(graph.indexOf(values[0]));
+			assertEquals(search.getDistance(graph.indexOf(values[1])), Integer.parseInt(values[2]));
+		}
+	}
+
+	/**
+	 * Tests that invalid origins are rejected and that a sink's IOException reaches the caller
+	 */
+	@Test
+	public void testErrors() {
+		setUp();
+		assertThrows(IllegalArgumentException.class, () -> DistanceBatch.run(graph, new int[] {0, 120}, pool, (origin, search) -> { }));
+		AtomicInteger calls = new AtomicInteger();
+		IOException e = assertThrows(IOException.class, () -> DistanceBatch.run(graph, new int[] {0, 1, 2}, pool, (origin, search) -> {
+			calls.incrementAndGet();
+			throw new IOException("disk full");
+		}));
+		assertEquals("disk full", e.getMessage());
+		assertTrue(calls.get() >= 1);
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,78 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * GraphFixtures holds the temporary files and graph checks that the loader and snapshot tests share.
+ *
+ * @author Maddie Moore
+ *
+ */
+final class GraphFixtures {
+
+	/**
+	 * GraphFixtures only has static methods.
+	 */
+	private GraphFixtures() {
+	}
+
+	/**
+	 * Creates a new temporary file that is deleted when the tests finish.
+	 * @param suffix the end of the file name
+	 * @return the path to the file
+	 * @throws IOException if the file cannot be created
+	 */
+	static Path tempFile(String suffix) throws IOException {
+		Path file = Files.createTempFile("trail", suffix);
+		file.toFile().deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Writes the given contents to a new temporary CSV file.
+	 * @param contents the contents of the file
+	 * @return the path to the file
+	 * @throws IOException if the file cannot be written
+	 */
+	static Path write(String contents) throws IOException {
+		Path file = tempFile(".csv");
+		Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * Checks that two graphs hold the same landmarks, adjacency slots, and trails.
+	 * @param expected the expected graph
+	 * @param actual the actual graph
+	 */
+	static void assertSameGraph(TrailGraph expected, TrailGraph actual) {
+		assertEquals(expected.getLandmarkCount(), actual.getLandmarkCount());
+		assertEquals(expected.getTrailCount(), actual.getTrailCount());
+		assertEquals(expected.getSlotCount(), actual.getSlotCount());
+		for (int v = 0; v < expected.getLandmarkCount(); v++) {
+			assertEquals(expected.getId(v), actual.getId(v));
+			assertEquals(expected.getDescription(v), actual.getDescription(v));
+			assertEquals(expected.getType(v), actual.getType(v));
+			assertEquals(v, actual.indexOf(expected.getId(v)));
+			assertEquals(expected.firstSlot(v), actual.firstSlot(v));
+			assertEquals(expected.endSlot(v), actual.endSlot(v));
+		}
+		for (int slot = 0; slot < expected.getSlotCount(); slot++) {
+			assertEquals(expected.getNeighbor(slot), actual.getNeighbor(slot));
+			assertEquals(expected.getLength(slot), actual.getLength(slot));
+			assertEquals(expected.getTrail(slot), actual.getTrail(slot));
+		}
+		for (int trail = 0; trail < expected.getTrailCount(); trail++) {
+			assertEquals(expected.getTrailOne(trail), actual.getTrailOne(trail));
+			assertEquals(expected.getTrailTwo(trail), actual.getTrailTwo(trail));
+			assertEquals(expected.getTrailLength(trail), actual.getTrailLength(trail));
+		}
+		assertEquals(TrailGraph.NO_LANDMARK, actual.indexOf("missing"));
+		assertEquals(TrailGraph.NO_LANDMARK, actual.indexOf(null));
+	}
+}
@@ -0,0 +1,68 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the LandmarkOrder and DescriptionRanks classes
+ *
+ * @author Maddie Moore
+ *
+ */
+class LandmarkOrderTest {
+
+	/**
+	 * Tests that packed keys of every size are sorted the same as Arrays.sort sorts them
+	 */
+	@Test
+	public void testSortKeys() {
+		Random random = new Random(316);
+		int[] sizes = {0, 1, 2, LandmarkOrder.RADIX_THRESHOLD - 1, LandmarkOrder.RADIX_THRESHOLD, 5000, 70000};
+		for (int size : sizes) {
+			long[] keys = new long[size + 10];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = ((long) random.nextInt(size / 10 + 1) << 32) | random.nextInt(Integer.MAX_VALUE);
+			}
+			long[] expected = keys.clone();
+			Arrays.sort(expected, 5, 5 + size);
+			LandmarkOrder.sort(keys, new long[keys.length], 5, 5 + size);
+			assertArrayEquals(expected, keys);
+		}
+		long[] same = new long[1000];
+		Arrays.fill(same, 42L << 32 | 7);
+		LandmarkOrder.sort(same, new long[1000], 0, 1000);
+		assertEquals(42L << 32 | 7, same[999]);
+	}
+
+	/**
+	 * Tests that ranks order landmarks by description, then by descending ID, and that packed keys sort by value
+	 * first
+	 */
+	@Test
+	public void testDescriptionRanks() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("L01", "Restrooms", "Restroom");
+		builder.addLandmark("L02", "Fountain", "Fountain");
+		builder.addLandmark("L03", "Restrooms", "Restroom");
+		builder.addLandmark("L04", "Alone", "Overlook");
+		DescriptionRanks ranks = new DescriptionRanks(builder.build());
+		assertEquals(4, ranks.size());
+		assertEquals(0, ranks.getRank(3));
+		assertEquals(1, ranks.getRank(1));
+		assertEquals(2, ranks.getRank(2));
+		assertEquals(3, ranks.getRank(0));
+		assertEquals(2, ranks.getLandmark(2));
+		long[] keys = {ranks.pack(5, 3), ranks.pack(5, 0), ranks.pack(1, 0), ranks.pack(5, 2)};
+		Arrays.sort(keys);
+		assertEquals(0, ranks.landmarkOf(keys[0]));
+		assertEquals(1, DescriptionRanks.valueOf(keys[0]));
+		assertEquals(3, ranks.landmarkOf(keys[1]));
+		assertEquals(2, ranks.landmarkOf(keys[2]));
+		assertEquals(0, ranks.landmarkOf(keys[3]));
+		assertEquals(Integer.MAX_VALUE, DescriptionRanks.valueOf(ranks.pack(Integer.MAX_VALUE, 1)));
+	}
+}
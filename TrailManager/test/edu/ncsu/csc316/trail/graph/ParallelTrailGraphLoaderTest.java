@@ -0,0 +1,74 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static edu.ncsu.csc316.trail.graph.GraphFixtures.assertSameGraph;
+import static edu.ncsu.csc316.trail.graph.GraphFixtures.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the ParallelTrailGraphLoader class
+ *
+ * @author Maddie Moore
+ *
+ */
+class ParallelTrailGraphLoaderTest {
+
+	/** Pool used to load the files */
+	private ForkJoinPool pool = new ForkJoinPool(4);
+
+	/**
+	 * Tests that loading many small ranges in parallel builds the same graph as loading sequentially
+	 */
+	@Test
+	public void testLoad() throws IOException {
+		StringBuilder landmarks = new StringBuilder("LANDMARK_ID,DESCRIPTION,TYPE\n");
+		StringBuilder trails = new StringBuilder("LANDMARK_ID,LANDMARK_ID,DISTANCE\n");
+		for (int i = 0; i < 500; i++) {
+			landmarks.append("L").append(i).append(",Landmark ").append(i).append(",Overlook\n");
+		}
+		for (int i = 1; i < 500; i++) {
+			trails.append("L").append(i / 3).append(",L").append(i).append(",").append(i * 7 % 1000).append("\n");
+			trails.append("L").append(i).append(",L").append((i * 13) % 500).append(",").append(i).append("\n");
+		}
+		Path landmarkFile = write(landmarks.toString());
+		Path trailFile = write(trails.toString());
+		TrailGraph expected = TrailGraphLoader.load(landmarkFile.toString(), trailFile.toString());
+		TrailGraph actual = ParallelTrailGraphLoader.load(landmarkFile.toString(), trailFile.toString(), pool, 64);
+		assertSameGraph(expected, actual);
+		assertSameGraph(expected, ParallelTrailGraphLoader.load(landmarkFile.toString(), trailFile.toString(), pool));
+	}
+
+	/**
+	 * Tests loading the sample files and files that do not exist
+	 */
+	@Test
+	public void testLoadSample() throws IOException {
+		TrailGraph expected = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		assertSameGraph(expected, ParallelTrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv",
+				pool, 16));
+		assertThrows(FileNotFoundException.class, () -> ParallelTrailGraphLoader.load("wrong", "input/trails_sample.csv"));
+		assertThrows(FileNotFoundException.class, () -> ParallelTrailGraphLoader.load("input/landmarks_sample.csv", "wrong"));
+	}
+
+	/**
+	 * Tests that a malformed line in a later range is reported with its line number in the whole file
+	 */
+	@Test
+	public void testLoadMalformed() throws IOException {
+		StringBuilder landmarks = new StringBuilder("LANDMARK_ID,DESCRIPTION,TYPE\n");
+		for (int i = 0; i < 200; i++) {
+			landmarks.append("L").append(i).append(",Landmark ").append(i).append(",Overlook\n");
+		}
+		landmarks.append("L200,Landmark 200\n");
+		Path landmarkFile = write(landmarks.toString());
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ParallelTrailGraphLoader.load(landmarkFile.toString(), "input/trails_sample.csv", pool, 64));
+		assertTrue(e.getMessage().startsWith("Line 202 of "), e.getMessage());
+	}
+}
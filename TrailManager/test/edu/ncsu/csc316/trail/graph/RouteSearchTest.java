@@ -0,0 +1,148 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the RouteSearch class
+ *
+ * @author Maddie Moore
+ *
+ */
+class RouteSearchTest {
+
+	/**
+	 * Checks that the last route of the search is a walk along real trails whose lengths add up to its distance
+	 * @param route the search
+	 * @param origin index of the origin
+	 * @param destination index of the destination
+	 */
+	private void assertValidRoute(RouteSearch route, int origin, int destination) {
+		TrailGraph graph = route.getGraph();
+		assertEquals(origin, route.getLandmark(0));
+		assertEquals(destination, route.getLandmark(route.getLandmarkCount() - 1));
+		int total = 0;
+		for (int i = 0; i < route.getLandmarkCount() - 1; i++) {
+			int trail = route.getTrail(i);
+			int from = route.getLandmark(i);
+			int to = route.getLandmark(i + 1);
+			assertTrue((graph.getTrailOne(trail) == from && graph.getTrailTwo(trail) == to)
+					|| (graph.getTrailOne(trail) == to && graph.getTrailTwo(trail) == from));
+			total += graph.getTrailLength(trail);
+		}
+		assertEquals(route.getDistance(), total);
+	}
+
+	/**
+	 * Tests routes on a small graph, including a route to the origin itself and an unreachable landmark
+	 */
+	@Test
+	public void testSmall() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("L01", "Park Entrance", "Location");
+		builder.addLandmark("L02", "Fountain", "Fountain");
+		builder.addLandmark("L03", "Restrooms", "Restroom");
+		builder.addLandmark("L04", "Alone", "Overlook");
+		builder.addTrail("L01", "L02", 3013);
+		builder.addTrail("L01", "L03", 1046);
+		builder.addTrail("L03", "L02", 500);
+		TrailGraph graph = builder.build();
+		RouteSearch route = new RouteSearch(graph);
+		assertEquals(1546, route.search(0, 1));
+		assertEquals(3, route.getLandmarkCount());
+		assertEquals(2, route.getLandmark(1));
+		assertValidRoute(route, 0, 1);
+		assertEquals(0, route.search(2, 2));
+		assertEquals(1, route.getLandmarkCount());
+		assertEquals(TrailSearch.UNREACHED, route.search(0, 3));
+		assertEquals(TrailSearch.UNREACHED, route.getDistance());
+		assertEquals(0, route.getLandmarkCount());
+		assertEquals(1546, route.search(1, 0));
+		assertValidRoute(route, 1, 0);
+	}
+
+	/**
+	 * Tests that routes on random graphs are as short as a full Dijkstra search finds
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(3);
+		for (int round = 0; round < 5; round++) {
+			TrailGraphBuilder builder = new TrailGraphBuilder();
+			int n = 50 + random.nextInt(200);
+			for (int i = 0; i < n; i++) {
+				builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+			}
+			for (int i = 0; i < n * 3 / 2; i++) {
+				builder.addTrail(random.nextInt(n), random.nextInt(n), random.nextInt(round == 0 ? 3 : 1000));
+			}
+			TrailGraph graph = builder.build();
+			TrailSearch search = new TrailSearch(graph);
+			RouteSearch route = new RouteSearch(graph);
+			for (int query = 0; query < 100; query++) {
+				int origin = random.nextInt(n);
+				int destination = random.nextInt(n);
+				search.search(origin);
+				assertEquals(search.getDistance(destination), route.search(origin, destination));
+				if (route.getDistance() != TrailSearch.UNREACHED) {
+					assertValidRoute(route, origin, destination);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that a route between nearby landmarks of a long chain settles only the landmarks near them
+	 */
+	@Test
+	public void testEarlyTermination() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 10000; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+			if (i > 0) {
+				builder.addTrail(i - 1, i, 100);
+			}
+		}
+		RouteSearch route = new RouteSearch(builder.build());
+		assertEquals(1000, route.search(5000, 5010));
+		assertEquals(11, route.getLandmarkCount());
+		assertTrue(route.getSettledCount() < 30);
+	}
+
+	/**
+	 * Tests that routes over trails whose lengths add up past the range of an int agree with a full Dijkstra
+	 * search, with and without an index
+	 */
+	@Test
+	public void testOverflow() {
+		Random random = new Random(316);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		int n = 60;
+		for (int i = 0; i < n; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+		}
+		for (int i = 0; i < n * 3 / 2; i++) {
+			builder.addTrail(random.nextInt(n), random.nextInt(n), random.nextInt(Integer.MAX_VALUE / 3));
+		}
+		TrailGraph graph = builder.build();
+		TrailSearch search = new TrailSearch(graph);
+		RouteSearch[] routes = {new RouteSearch(graph), new RouteSearch(graph, AltIndex.build(graph, 4))};
+		boolean beyond = false;
+		for (int origin = 0; origin < n; origin++) {
+			search.search(origin);
+			for (int destination = 0; destination < n; destination++) {
+				for (RouteSearch route : routes) {
+					assertEquals(search.getDistance(destination), route.search(origin, destination));
+					if (route.getDistance() != TrailSearch.UNREACHED) {
+						assertValidRoute(route, origin, destination);
+					}
+				}
+				beyond |= search.getDistance(destination) > Integer.MAX_VALUE / 2;
+			}
+		}
+		assertTrue(beyond);
+	}
+}
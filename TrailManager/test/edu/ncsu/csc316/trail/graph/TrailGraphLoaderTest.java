@@ -0,0 +1,79 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static edu.ncsu.csc316.trail.graph.GraphFixtures.write;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the TrailGraphLoader class
+ *
+ * @author Maddie Moore
+ *
+ */
+class TrailGraphLoaderTest {
+
+	/** String that holds the path to the landmark file */
+	private String pathToLandmarkFile = "input/landmarks_sample.csv";
+
+	/** String that holds the path to the trail file */
+	private String pathToTrailFile = "input/trails_sample.csv";
+
+	/**
+	 * Tests loading the sample files
+	 */
+	@Test
+	public void testLoad() {
+		try {
+			TrailGraph graph = TrailGraphLoader.load(pathToLandmarkFile, pathToTrailFile);
+			assertEquals(12, graph.getLandmarkCount());
+			assertEquals(10, graph.getTrailCount());
+			assertEquals("Hidden Gardens", graph.getDescription(graph.indexOf("L10")));
+			assertEquals("Restroom", graph.getType(graph.indexOf("L12")));
+			assertEquals(3, graph.getDegree(graph.indexOf("L01")));
+		} catch (FileNotFoundException e) {
+			fail("Unexpected exception thrown: " + e.getMessage());
+		}
+		assertThrows(FileNotFoundException.class, () -> TrailGraphLoader.load("wrong", pathToTrailFile));
+		assertThrows(FileNotFoundException.class, () -> TrailGraphLoader.load(pathToLandmarkFile, "wrong"));
+		assertThrows(FileNotFoundException.class, () -> TrailGraphLoader.load("input", pathToTrailFile));
+	}
+
+	/**
+	 * Tests loading files with Windows line endings, blank lines, and no trailing newline
+	 */
+	@Test
+	public void testLoadLineEndings() throws IOException {
+		Path landmarks = write("LANDMARK_ID,DESCRIPTION,TYPE\r\nL1,Caf\u00e9,Food\r\n\r\nL2,Lake,Water\r\n");
+		Path trails = write("LANDMARK_ID,LANDMARK_ID,DISTANCE\nL1,L2,42");
+		TrailGraph graph = TrailGraphLoader.load(landmarks.toString(), trails.toString());
+		assertEquals(2, graph.getLandmarkCount());
+		assertEquals("Caf\u00e9", graph.getDescription(0));
+		assertEquals("Water", graph.getType(1));
+		assertEquals(42, graph.getLength(graph.firstSlot(1)));
+	}
+
+	/**
+	 * Tests that malformed lines are reported with their line numbers
+	 */
+	@Test
+	public void testLoadMalformed() throws IOException {
+		Path landmarks = write("LANDMARK_ID,DESCRIPTION,TYPE\nL1,Lake,Water\nL2,Lake\n");
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> TrailGraphLoader.load(landmarks.toString(), pathToTrailFile));
+		assertTrue(e.getMessage().startsWith("Line 3 of "));
+		Path good = write("LANDMARK_ID,DESCRIPTION,TYPE\nL1,Lake,Water\nL2,Lake,Water\n");
+		Path badLength = write("LANDMARK_ID,LANDMARK_ID,DISTANCE\nL1,L2,1\nL1,L2,far\n");
+		e = assertThrows(IllegalArgumentException.class,
+				() -> TrailGraphLoader.load(good.toString(), badLength.toString()));
+		assertTrue(e.getMessage().startsWith("Line 3 of "));
+		Path badLandmark = write("LANDMARK_ID,LANDMARK_ID,DISTANCE\nL1,L3,1\n");
+		e = assertThrows(IllegalArgumentException.class,
+				() -> TrailGraphLoader.load(good.toString(), badLandmark.toString()));
+		assertTrue(e.getMessage().contains("L3"));
+	}
+}
@@ -0,0 +1,128 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static edu.ncsu.csc316.trail.graph.GraphFixtures.assertSameGraph;
+import static edu.ncsu.csc316.trail.graph.GraphFixtures.tempFile;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the TrailGraphSnapshot class
+ *
+ * @author Maddie Moore
+ *
+ */
+class TrailGraphSnapshotTest {
+
+	/**
+	 * Tests writing the sample network and reading it back onto the heap and memory-mapped, with the fingerprint
+	 * of its trails recorded
+	 */
+	@Test
+	public void testWriteRead() throws IOException {
+		TrailGraph graph = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		Path file = tempFile(".snapshot");
+		TrailGraphSnapshot.write(graph, file);
+		assertSameGraph(graph, TrailGraphSnapshot.read(file));
+		TrailGraph mapped = TrailGraphSnapshot.map(file);
+		assertSameGraph(graph, mapped);
+		assertEquals(AltIndex.fingerprint(graph), mapped.savedFingerprint);
+		assertEquals(AltIndex.fingerprint(graph), AltIndex.fingerprint(mapped));
+		assertEquals(0, mapped.closeTrail(0).savedFingerprint);
+		assertEquals(AltIndex.fingerprint(graph.closeTrail(0)), AltIndex.fingerprint(mapped.closeTrail(0)));
+	}
+
+	/**
+	 * Tests that rewriting a snapshot replaces the file instead of truncating it, so a graph that still maps the
+	 * old file keeps reading the old network, and no temporary file is left behind
+	 */
+	@Test
+	public void testRewriteMapped() throws IOException {
+		TrailGraph graph = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		Path file = tempFile(".snapshot");
+		TrailGraphSnapshot.write(graph, file);
+		TrailGraph mapped = TrailGraphSnapshot.map(file);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("X1", "Other", "Location");
+		TrailGraphSnapshot.write(builder.build(), file);
+		assertSameGraph(graph, mapped);
+		assertEquals(1, TrailGraphSnapshot.read(file).getLandmarkCount());
+		try (java.util.stream.Stream<Path> files = Files.list(file.getParent())) {
+			String prefix = file.getFileName().toString();
+			assertEquals(1, files.filter(other -> other.getFileName().toString().startsWith(prefix)).count());
+		}
+	}
+
+	/**
+	 * Tests a snapshot of landmarks whose strings are not ASCII
+	 */
+	@Test
+	public void testWriteReadUnicode() throws IOException {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("L\u00e91", "Caf\u00e9 \ud83c\udf32", "Food");
+		builder.addLandmark("L2", "", "Water");
+		builder.addTrail("L\u00e91", "L2", 7);
+		TrailGraph graph = builder.build();
+		Path file = tempFile(".snapshot");
+		TrailGraphSnapshot.write(graph, file);
+		TrailGraph mapped = TrailGraphSnapshot.map(file);
+		assertSameGraph(graph, mapped);
+		assertEquals(0, mapped.indexOf("L\u00e91"));
+		assertEquals(TrailGraph.NO_LANDMARK, mapped.indexOf("L\u00e9"));
+	}
+
+	/**
+	 * Tests packing landmark strings outside the heap, keeping edits, packing again after compacting, and refusing
+	 * offsets too large for one buffer
+	 */
+	@Test
+	public void testPackLandmarks() throws IOException {
+		TrailGraph graph = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		assertFalse(graph.isPacked());
+		TrailGraph packed = graph.packLandmarks();
+		assertTrue(packed.isPacked());
+		assertSame(packed, packed.packLandmarks());
+		assertSameGraph(graph, packed);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("L\u00e91", "Caf\u00e9 \ud83c\udf32", "Food");
+		builder.addLandmark("L2", "", "Water");
+		builder.addTrail("L\u00e91", "L2", 7);
+		TrailGraph unicode = builder.build();
+		assertSameGraph(unicode, unicode.packLandmarks());
+		int added = graph.getLandmarkCount();
+		TrailGraph edited = packed.addLandmark("L99", "New", "Overlook").addTrail(0, added, 5).closeTrail(0);
+		assertTrue(edited.isPacked());
+		assertEquals(added, edited.indexOf("L99"));
+		assertEquals("New", edited.getDescription(added));
+		TrailGraph compacted = edited.compact();
+		assertTrue(compacted.isPacked());
+		assertEquals(graph.getTrailCount(), compacted.getTrailCount());
+		assertEquals(added, compacted.indexOf("L99"));
+		assertEquals("Overlook", compacted.getType(added));
+		assertEquals(3 * added + 1, Utf8LandmarkTable.directInts(3L * added + 1).capacity());
+		assertThrows(IllegalArgumentException.class, () -> Utf8LandmarkTable.directInts(3L * 200_000_000 + 1));
+	}
+
+	/**
+	 * Tests reading files that are not snapshots
+	 */
+	@Test
+	public void testReadInvalid() throws IOException {
+		Path file = tempFile(".snapshot");
+		Files.write(file, "LANDMARK_ID,DESCRIPTION,TYPE\n".getBytes(StandardCharsets.UTF_8));
+		assertThrows(IOException.class, () -> TrailGraphSnapshot.read(file));
+		TrailGraphSnapshot.write(TrailGraphLoader.load("input/landmarks-1.csv", "input/trails-1.csv"), file);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[8] = 99;
+		Files.write(file, bytes);
+		assertThrows(IOException.class, () -> TrailGraphSnapshot.map(file));
+		Files.write(file, Arrays.copyOf(bytes, 80));
+		assertThrows(IOException.class, () -> TrailGraphSnapshot.read(file));
+	}
+}
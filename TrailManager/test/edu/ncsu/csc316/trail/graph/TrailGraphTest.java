@@ -0,0 +1,490 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the TrailGraph and TrailGraphBuilder classes
+ *
+ * @author Maddie Moore
+ *
+ */
+class TrailGraphTest {
+
+	/** Graph used to test the class */
+	private TrailGraph graph;
+
+	/**
+	 * Method used to set up a small graph before each test
+	 */
+	@Before
+	public void setUp() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("L01", "Park Entrance", "Location");
+		builder.addLandmark("L02", "Entrance Fountain", "Fountain");
+		builder.addLandmark("L03", "Waste Station 1", "Pet Waste Station");
+		builder.addLandmark("L04", "Entrance Restrooms", "Restroom");
+		builder.addTrail("L01", "L02", 3013);
+		builder.addTrail("L01", "L03", 1046);
+		builder.addTrail("L02", "L03", 500);
+		graph = builder.build();
+	}
+
+	/**
+	 * Tests that landmark IDs are interned to indices
+	 */
+	@Test
+	public void testIndexOf() {
+		setUp();
+		assertEquals(4, graph.getLandmarkCount());
+		assertEquals(3, graph.getTrailCount());
+		assertEquals(0, graph.indexOf("L01"));
+		assertEquals(3, graph.indexOf("L04"));
+		assertEquals(TrailGraph.NO_LANDMARK, graph.indexOf("L99"));
+		assertEquals(TrailGraph.NO_LANDMARK, graph.indexOf(null));
+		assertEquals("Entrance Fountain", graph.getDescription(1));
+		assertEquals("Restroom", graph.getType(3));
+		assertEquals("L03", graph.getLandmark(2).getId());
+	}
+
+	/**
+	 * Tests the adjacency slots of each landmark
+	 */
+	@Test
+	public void testAdjacency() {
+		setUp();
+		assertEquals(2, graph.getDegree(0));
+		assertEquals(2, graph.getDegree(1));
+		assertEquals(2, graph.getDegree(2));
+		assertEquals(0, graph.getDegree(3));
+		int first = graph.firstSlot(0);
+		assertEquals(2, graph.getNeighbor(first));
+		assertEquals(1046, graph.getLength(first));
+		assertEquals(1, graph.getNeighbor(first + 1));
+		assertEquals(3013, graph.getLength(first + 1));
+		assertEquals(0, graph.getTrail(first + 1));
+		assertEquals("L01", graph.getTrailObject(0).getLandmarkOne());
+		assertEquals(500, graph.getTrailLength(2));
+	}
+
+	/**
+	 * Tests building a graph with landmarks that are not in the park
+	 */
+	@Test
+	public void testBuilderInvalid() {
+		TrailGraphBuilder builder = new TrailGraphBuilder(1, 1);
+		builder.addLandmark("L01", "Park Entrance", "Location");
+		assertThrows(IllegalArgumentException.class, () -> builder.addTrail("L01", "L02", 10));
+		assertEquals(0, builder.addLandmark("L01", "Renamed", "Location"));
+		assertEquals(1, builder.addLandmark("L02", "Fountain", "Fountain"));
+		builder.addTrail("L01", "L02", 10);
+		TrailGraph built = builder.build();
+		assertEquals("Renamed", built.getDescription(0));
+		assertEquals(1, built.getDegree(1));
+	}
+
+	/**
+	 * Tests searching outward from a landmark
+	 */
+	@Test
+	public void testSearch() {
+		setUp();
+		TrailSearch search = new TrailSearch(graph);
+		assertEquals(3, search.search(0));
+		assertEquals(0, search.getDistance(0));
+		assertEquals(TrailSearch.UNREACHED, search.getDistance(3));
+		assertEquals(1, search.search(3));
+		assertEquals(TrailSearch.UNREACHED, search.getDistance(0));
+		assertEquals(3, search.getReached(0));
+	}
+
+	/**
+	 * Tests that searching finds the shortest distance around a loop rather than the first route found
+	 */
+	@Test
+	public void testSearchShortest() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("A", "A", "Location");
+		builder.addLandmark("B", "B", "Location");
+		builder.addLandmark("C", "C", "Location");
+		builder.addLandmark("D", "D", "Location");
+		builder.addTrail("A", "B", 100);
+		builder.addTrail("A", "C", 1);
+		builder.addTrail("C", "B", 1);
+		builder.addTrail("B", "D", 5);
+		builder.addTrail("D", "D", 3);
+		TrailGraph loop = builder.build();
+		for (TrailSearch.QueueType type : TrailSearch.QueueType.values()) {
+			TrailSearch search = new TrailSearch(loop, type);
+			assertEquals(4, search.search(0));
+			assertEquals(0, search.getDistance(0));
+			assertEquals(2, search.getDistance(1));
+			assertEquals(1, search.getDistance(2));
+			assertEquals(7, search.getDistance(3));
+			assertEquals(0, search.getReached(0));
+			assertEquals(2, search.getReached(1));
+			assertEquals(1, search.getReached(2));
+			assertEquals(3, search.getReached(3));
+			assertEquals(4, search.search(3));
+			assertEquals(7, search.getDistance(0));
+		}
+		assertThrows(IllegalArgumentException.class, () -> builder.addTrail("A", "B", -1));
+	}
+
+	/**
+	 * Tests that both priority queues agree with a full sort on a random graph
+	 */
+	@Test
+	public void testSearchQueues() {
+		Random random = new Random(316);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 300; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+		}
+		for (int i = 0; i < 1200; i++) {
+			builder.addTrail(random.nextInt(300), random.nextInt(300), random.nextInt(5000));
+		}
+		TrailGraph random300 = builder.build();
+		TrailSearch binary = new TrailSearch(random300, TrailSearch.QueueType.BINARY_HEAP);
+		TrailSearch radix = new TrailSearch(random300, TrailSearch.QueueType.RADIX_HEAP);
+		for (int origin = 0; origin < 300; origin += 7) {
+			int reached = binary.search(origin);
+			assertEquals(reached, radix.search(origin));
+			int[] sorted = new int[reached];
+			int count = 0;
+			for (int landmark = 0; landmark < 300; landmark++) {
+				if (binary.getDistance(landmark) != TrailSearch.UNREACHED) {
+					sorted[count++] = binary.getDistance(landmark);
+				}
+			}
+			assertEquals(reached, count);
+			Arrays.sort(sorted);
+			for (int i = 0; i < reached; i++) {
+				int landmark = radix.getReached(i);
+				assertEquals(binary.getDistance(landmark), radix.getDistance(landmark));
+				assertEquals(sorted[i], radix.getDistance(landmark));
+				assertEquals(sorted[i], binary.getDistance(binary.getReached(i)));
+			}
+		}
+	}
+
+	/**
+	 * Tests that both priority queues treat a landmark that is only reachable by a route longer than
+	 * Integer.MAX_VALUE feet as unreached instead of overflowing its distance
+	 */
+	@Test
+	public void testSearchOverflow() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 4; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+		}
+		builder.addTrail("L0", "L1", Integer.MAX_VALUE - 10);
+		builder.addTrail("L1", "L2", 10);
+		builder.addTrail("L2", "L3", Integer.MAX_VALUE);
+		TrailGraph far = builder.build();
+		for (TrailSearch.QueueType type : TrailSearch.QueueType.values()) {
+			TrailSearch search = new TrailSearch(far, type);
+			assertEquals(3, search.search(0));
+			assertEquals(Integer.MAX_VALUE - 10, search.getDistance(1));
+			assertEquals(Integer.MAX_VALUE, search.getDistance(2));
+			assertEquals(TrailSearch.UNREACHED, search.getDistance(3));
+			assertEquals(4, search.search(2));
+			assertEquals(Integer.MAX_VALUE, search.getDistance(3));
+			assertEquals(Integer.MAX_VALUE, search.getDistance(0));
+		}
+	}
+
+	/**
+	 * Tests that a search from several origins with their own starting distances agrees with the closest of the
+	 * single-origin searches
+	 */
+	@Test
+	public void testSearchOrigins() {
+		Random random = new Random(2316);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 200; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+		}
+		for (int i = 0; i < 300; i++) {
+			builder.addTrail(random.nextInt(200), random.nextInt(200), random.nextInt(5000));
+		}
+		TrailGraph random200 = builder.build();
+		TrailSearch single = new TrailSearch(random200);
+		for (TrailSearch.QueueType type : TrailSearch.QueueType.values()) {
+			TrailSearch multiple = new TrailSearch(random200, type);
+			for (int round = 0; round < 20; round++) {
+				int count = 1 + random.nextInt(4);
+				int[] origins = new int[count];
+				int[] starts = new int[count];
+				long[] expected = new long[200];
+				Arrays.fill(expected, Long.MAX_VALUE);
+				for (int i = 0; i < count; i++) {
+					origins[i] = random.nextInt(200);
+					starts[i] = random.nextInt(3000);
+					single.search(origins[i]);
+					for (int landmark = 0; landmark < 200; landmark++) {
+						if (single.getDistance(landmark) != TrailSearch.UNREACHED) {
+							expected[landmark] = Math.min(expected[landmark], starts[i] + single.getDistance(landmark));
+						}
+					}
+				}
+				int reached = 0;
+				for (long distance : expected) {
+					reached += distance == Long.MAX_VALUE ? 0 : 1;
+				}
+				assertEquals(reached, multiple.search(origins, starts, count));
+				for (int landmark = 0; landmark < 200; landmark++) {
+					long distance = expected[landmark] == Long.MAX_VALUE ? TrailSearch.UNREACHED : expected[landmark];
+					assertEquals(distance, multiple.getDistance(landmark));
+				}
+			}
+		}
+		setUp();
+		TrailSearch search = new TrailSearch(graph);
+		search.search(0);
+		assertThrows(IllegalArgumentException.class,
+				() -> search.search(new int[] {0, 1}, new int[] {0, -1}, 2));
+		assertEquals(3, search.getReachedCount());
+		assertEquals(0, search.search(new int[0], new int[0], 0));
+		assertEquals(TrailSearch.UNREACHED, search.getDistance(0));
+	}
+
+	/**
+	 * Tests that searches reuse their arrays and queue, so once a search has warmed up on a graph, with or
+	 * without edits, searching from every landmark allocates fewer bytes than there are searches
+	 */
+	@Test
+	public void testSearchAllocation() {
+		AllocationMeter meter = AllocationMeter.ofCurrentThread();
+		Random random = new Random(23);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 2000; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+		}
+		for (int i = 0; i < 6000; i++) {
+			builder.addTrail(random.nextInt(2000), random.nextInt(2000), random.nextInt(5000));
+		}
+		TrailGraph compact = builder.build();
+		TrailGraph edited = compact.closeTrail(0).addTrail(1, 2, 5).setTrailLength(3, 7);
+		int[] origins = {4, 5, 6};
+		int[] starts = {0, 100, 200};
+		for (TrailGraph searched : new TrailGraph[] {compact, edited}) {
+			for (TrailSearch.QueueType type : TrailSearch.QueueType.values()) {
+				TrailSearch search = new TrailSearch(searched, type);
+				for (int round = 0; round < 3; round++) {
+					long before = meter.getAllocatedBytes();
+					int reached = 0;
+					for (int origin = 0; origin < 2000; origin++) {
+						reached += search.search(origin);
+						reached += search.search(origin, 10);
+					}
+					reached += search.search(origins, starts, origins.length);
+					long allocated = meter.getAllocatedBytes() - before;
+					assertTrue(reached > 4000);
+					if (round == 2) {
+						assertTrue(allocated < 2000, allocated + " bytes allocated");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests closing, opening, and adding trails and landmarks, and that the graph an edit started from is unchanged
+	 */
+	@Test
+	public void testEdits() {
+		setUp();
+		TrailGraph closed = graph.closeTrail(1);
+		assertTrue(closed.isClosed(1));
+		assertFalse(graph.isClosed(1));
+		assertTrue(closed.hasChanges());
+		assertFalse(graph.hasChanges());
+		assertEquals(1, closed.getDegree(0));
+		assertEquals(2, graph.getDegree(0));
+		assertEquals(1, closed.getDegree(2));
+		assertEquals(4, closed.getSlotCount());
+		assertEquals(3, closed.getTrailCount());
+		assertArrayEquals(new int[] {1}, closed.getClosedTrails());
+		assertEquals(1, closed.getNeighbor(closed.firstSlot(0)));
+		assertThrows(IllegalArgumentException.class, () -> closed.closeTrail(1));
+		assertThrows(IllegalArgumentException.class, () -> graph.openTrail(1));
+		TrailGraph opened = closed.openTrail(1);
+		assertFalse(opened.isClosed(1));
+		assertEquals(0, opened.getClosedTrails().length);
+		for (int landmark = 0; landmark < 4; landmark++) {
+			assertEquals(graph.getDegree(landmark), opened.getDegree(landmark));
+			for (int i = 0; i < graph.getDegree(landmark); i++) {
+				assertEquals(graph.getTrail(graph.firstSlot(landmark) + i), opened.getTrail(opened.firstSlot(landmark) + i));
+				assertEquals(graph.getNeighbor(graph.firstSlot(landmark) + i),
+						opened.getNeighbor(opened.firstSlot(landmark) + i));
+			}
+		}
+		TrailGraph added = graph.addLandmark("L05", "Overlook 1", "Overlook");
+		assertEquals(5, added.getLandmarkCount());
+		assertEquals(4, added.indexOf("L05"));
+		assertEquals("Overlook 1", added.getDescription(4));
+		assertEquals("L05", added.getLandmark(4).getId());
+		assertEquals(0, added.getDegree(4));
+		assertThrows(IllegalArgumentException.class, () -> graph.addLandmark("L01", "Park Entrance", "Location"));
+		added = added.addTrail(4, 3, 10).addTrail(4, 4, 5);
+		assertEquals(5, added.getTrailCount());
+		assertEquals(3, added.getDegree(4));
+		assertEquals(1, added.getDegree(3));
+		assertEquals(10, added.getSlotCount());
+		assertEquals("L05", added.getTrailObject(3).getLandmarkOne());
+		assertEquals("L04", added.getTrailObject(3).getLandmarkTwo());
+		added = added.setTrailLength(3, 20);
+		assertEquals(20, added.getTrailLength(3));
+		assertEquals(20, added.getLength(added.firstSlot(3)));
+		assertEquals(3013, added.getTrailLength(0));
+		assertThrows(IllegalArgumentException.class, () -> graph.addTrail(0, 1, -1));
+		assertThrows(IllegalArgumentException.class, () -> graph.addTrail(0, 4, 1));
+		assertThrows(IllegalArgumentException.class, () -> graph.setTrailLength(3, 1));
+		TrailGraph compacted = added.closeTrail(4).compact();
+		assertFalse(compacted.hasChanges());
+		assertEquals(4, compacted.getTrailCount());
+		assertEquals(1, compacted.getDegree(4));
+		assertEquals(AltIndex.fingerprint(added.closeTrail(4)), AltIndex.fingerprint(compacted));
+		assertSame(graph, graph.compact());
+	}
+
+	/**
+	 * Tests that edits reuse the slots of the delta without letting rewritten lists pile up, and that versions
+	 * edited from the same graph do not see each other's slots
+	 */
+	@Test
+	public void testEditSlots() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("HUB", "Hub", "Location");
+		for (int i = 1; i <= 50; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+			builder.addTrail(0, i, 100 + i);
+		}
+		TrailGraph edited = builder.build();
+		for (int edit = 0; edit < 5000; edit++) {
+			edited = edited.setTrailLength(edit % 50, edit);
+		}
+		assertTrue(edited.delta.getSlotCapacity() < 4 * 1024);
+		TrailSearch search = new TrailSearch(edited);
+		search.search(0);
+		for (int trail = 0; trail < 50; trail++) {
+			assertEquals(4950 + trail, search.getDistance(trail + 1));
+		}
+
+		TrailGraph shorter = edited.setTrailLength(0, 1);
+		TrailGraph longer = edited.setTrailLength(0, 2).closeTrail(1);
+		TrailGraph again = shorter.setTrailLength(2, 3);
+		search.search(0);
+		assertEquals(4950, search.getDistance(1));
+		assertEquals(4951, search.getDistance(2));
+		search.setGraph(shorter);
+		search.search(0);
+		assertEquals(1, search.getDistance(1));
+		assertEquals(4951, search.getDistance(2));
+		assertEquals(4952, search.getDistance(3));
+		search.setGraph(longer);
+		search.search(0);
+		assertEquals(2, search.getDistance(1));
+		assertEquals(TrailSearch.UNREACHED, search.getDistance(2));
+		search.setGraph(again);
+		search.search(0);
+		assertEquals(1, search.getDistance(1));
+		assertEquals(3, search.getDistance(3));
+	}
+
+	/**
+	 * Tests that searches on a graph after many random edits agree with a graph built from scratch with the same
+	 * trails
+	 */
+	@Test
+	public void testRandomEdits() {
+		Random random = new Random(15);
+		int landmarkCount = 150;
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < landmarkCount; i++) {
+			builder.addLandmark("L" + i, "Landmark " + i, "Overlook");
+		}
+		int[] one = new int[2000];
+		int[] two = new int[2000];
+		int[] length = new int[2000];
+		boolean[] closed = new boolean[2000];
+		int trailCount = 300;
+		for (int i = 0; i < trailCount; i++) {
+			one[i] = random.nextInt(landmarkCount);
+			two[i] = random.nextInt(landmarkCount);
+			length[i] = random.nextInt(1000);
+			builder.addTrail(one[i], two[i], length[i]);
+		}
+		TrailGraph edited = builder.build();
+		TrailSearch search = new TrailSearch(edited);
+		RouteSearch routes = new RouteSearch(edited);
+		for (int edit = 1; edit <= 600; edit++) {
+			int trail = random.nextInt(trailCount);
+			int kind = random.nextInt(4);
+			if (kind == 0) {
+				edited = closed[trail] ? edited.openTrail(trail) : edited.closeTrail(trail);
+				closed[trail] = !closed[trail];
+			} else if (kind == 1) {
+				length[trail] = random.nextInt(1000);
+				edited = edited.setTrailLength(trail, length[trail]);
+			} else if (kind == 2) {
+				one[trailCount] = random.nextInt(landmarkCount);
+				two[trailCount] = random.nextInt(landmarkCount);
+				length[trailCount] = random.nextInt(1000);
+				edited = edited.addTrail(one[trailCount], two[trailCount], length[trailCount]);
+				trailCount++;
+			} else if (landmarkCount < 200) {
+				edited = edited.addLandmark("L" + landmarkCount, "Landmark " + landmarkCount, "Overlook");
+				landmarkCount++;
+				search = new TrailSearch(edited);
+				routes = new RouteSearch(edited);
+			}
+			if (edit % 100 != 0) {
+				continue;
+			}
+			search.setGraph(edited);
+			routes.setGraph(edited, null);
+			TrailGraphBuilder rebuilt = new TrailGraphBuilder();
+			for (int i = 0; i < landmarkCount; i++) {
+				rebuilt.addLandmark("L" + i, "Landmark " + i, "Overlook");
+			}
+			int open = 0;
+			for (int i = 0; i < trailCount; i++) {
+				if (!closed[i]) {
+					rebuilt.addTrail(one[i], two[i], length[i]);
+					open++;
+				}
+			}
+			TrailGraph expected = rebuilt.build();
+			TrailGraph compacted = edited.compact();
+			assertEquals(open, compacted.getTrailCount());
+			assertEquals(expected.getSlotCount(), edited.getSlotCount());
+			for (int landmark = 0; landmark < landmarkCount; landmark++) {
+				assertEquals(expected.getDegree(landmark), edited.getDegree(landmark));
+				for (int i = 0; i < expected.getDegree(landmark); i++) {
+					assertEquals(expected.getNeighbor(expected.firstSlot(landmark) + i),
+							edited.getNeighbor(edited.firstSlot(landmark) + i));
+					assertEquals(expected.getLength(expected.firstSlot(landmark) + i),
+							edited.getLength(edited.firstSlot(landmark) + i));
+					assertEquals(expected.getTrail(expected.firstSlot(landmark) + i),
+							compacted.getTrail(compacted.firstSlot(landmark) + i));
+				}
+			}
+			TrailSearch fresh = new TrailSearch(expected);
+			for (int origin = 0; origin < landmarkCount; origin += 13) {
+				assertEquals(fresh.search(origin), search.search(origin));
+				for (int landmark = 0; landmark < landmarkCount; landmark++) {
+					assertEquals(fresh.getDistance(landmark), search.getDistance(landmark));
+				}
+				int destination = random.nextInt(landmarkCount);
+				assertEquals(fresh.getDistance(destination), routes.search(origin, destination));
+			}
+		}
+	}
+}
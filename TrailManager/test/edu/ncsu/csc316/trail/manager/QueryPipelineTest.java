@@ -0,0 +1,78 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+
+/**
+ * Class that is responsible for testing the QueryPipeline class
+ *
+ * @author Maddie Moore
+ *
+ */
+class QueryPipelineTest {
+
+	/** Path to the sample landmark file */
+	private String pathToLandmarkFile = "input/landmarks_sample.csv";
+
+	/** Path to the sample trail file */
+	private String pathToTrailFile = "input/trails_sample.csv";
+
+	/**
+	 * Tests answering single queries and rejecting malformed ones
+	 */
+	@Test
+	public void testAnswer() throws IOException {
+		ReportManager manager = new ReportManager(pathToLandmarkFile, pathToTrailFile);
+		try (TrailQueryService service = new TrailQueryService(TrailGraphLoader.load(pathToLandmarkFile, pathToTrailFile), 2)) {
+			QueryPipeline pipeline = new QueryPipeline(service);
+			assertEquals(manager.getDistancesReport("L02"), pipeline.answer("distances L02"));
+			assertEquals(manager.getProposedFirstAidLocations(2), pipeline.answer("  firstaid   2 "));
+			assertEquals(manager.getTopFirstAidLocations(3), pipeline.answer("top 3"));
+			assertEquals(manager.getFirstAidLocationsPage(2, 3), pipeline.answer("page 2 3"));
+			assertEquals(manager.getRouteReport("L01", "L05"), pipeline.answer("route L01 L05"));
+			assertEquals(manager.getComponentsReport(), pipeline.answer("components"));
+			assertEquals("Invalid query: firstaid two", pipeline.answer("firstaid two"));
+			assertEquals("Invalid query: route L01", pipeline.answer("route L01"));
+			assertEquals("Invalid query: hike", pipeline.answer("hike"));
+			assertThrows(IllegalArgumentException.class, () -> new QueryPipeline(service, 0));
+		}
+	}
+
+	/**
+	 * Tests that a batch of queries is answered in order for windows of every size, that blank and comment
+	 * lines are skipped, and that quit stops reading
+	 */
+	@Test
+	public void testRun() throws IOException {
+		ReportManager manager = new ReportManager(pathToLandmarkFile, pathToTrailFile);
+		StringBuilder queries = new StringBuilder("# sample queries\n\n");
+		StringBuilder expected = new StringBuilder();
+		String[] ids = {"L01", "L02", "L03", "L04", "L05", "N/A"};
+		for (int i = 0; i < 40; i++) {
+			String id = ids[i % ids.length];
+			queries.append("distances ").append(id).append("\n");
+			expected.append(manager.getDistancesReport(id)).append("\n\n");
+			queries.append("route ").append(id).append(" L03\n");
+			expected.append(manager.getRouteReport(id, "L03")).append("\n\n");
+			queries.append("firstaid ").append(i % 4).append("\n");
+			expected.append(manager.getProposedFirstAidLocations(i % 4)).append("\n\n");
+		}
+		queries.append("quit\ndistances L01\n");
+		try (TrailQueryService service = new TrailQueryService(TrailGraphLoader.load(pathToLandmarkFile, pathToTrailFile), 4)) {
+			for (int window : new int[] {1, 3, QueryPipeline.DEFAULT_WINDOW}) {
+				StringWriter out = new StringWriter();
+				int answered = new QueryPipeline(service, window).run(new BufferedReader(new StringReader(queries.toString())), out);
+				assertEquals(120, answered);
+				assertEquals(expected.toString(), out.toString());
+			}
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.Before;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.dsa.DSAFactory;
+
+/**
+ * Class that is responsible for testing the ReportCache class
+ *
+ * @author Maddie Moore
+ *
+ */
+class ReportCacheTest {
+
+	/** Manager used to compute the reports */
+	private ReportManager manager;
+
+	/**
+	 * Method used to set up the manager before each test
+	 */
+	@Before
+	public void setUp() {
+		try {
+			manager = new ReportManager("input/landmarks_sample.csv", "input/trails_sample.csv");
+		} catch (Exception e) {
+			fail("Unexpected exception thrown: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates a distance map with the given number of landmarks.
+	 * @param size number of landmarks in the map
+	 * @return the distance map
+	 */
+	private Map<Landmark, Integer> distances(int size) {
+		Map<Landmark, Integer> map = DSAFactory.getMap(null);
+		for (int i = 0; i < size; i++) {
+			map.put(new Landmark("L" + i, "Landmark " + i, "Overlook"), i);
+		}
+		return map;
+	}
+
+	/**
+	 * Tests that repeated reports are served from the cache and counted, and that the cached distances cannot be
+	 * changed by a caller
+	 */
+	@Test
+	public void testHits() {
+		setUp();
+		ReportCache cache = manager.getCache();
+		String report = manager.getDistancesReport("L02");
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertSame(report, manager.getDistancesReport("L02"));
+		Map<Landmark, Integer> distances = manager.getDistancesToDestinations("L02");
+		assertEquals(10, distances.size());
+		assertEquals(2, cache.getHits());
+		Landmark reached = distances.iterator().next();
+		assertThrows(UnsupportedOperationException.class, () -> distances.put(reached, 0));
+		assertThrows(UnsupportedOperationException.class, () -> distances.remove(reached));
+		assertThrows(UnsupportedOperationException.class, () -> {
+			java.util.Iterator<Landmark> it = distances.iterator();
+			it.next();
+			it.remove();
+		});
+		assertEquals(10, manager.getDistancesToDestinations("L02").size());
+		assertEquals(1, cache.size());
+		manager.getDistancesReport("N/A");
+		assertEquals(1, cache.size());
+	}
+
+	/**
+	 * Tests that the least recently used entries are evicted once the cache is over its budget
+	 */
+	@Test
+	public void testEviction() {
+		long entryBytes = new ReportCache.CachedReport(distances(2), "report").getBytes();
+		ReportCache cache = new ReportCache(entryBytes * 2);
+		cache.put("A", 0, distances(2), "report");
+		cache.put("B", 0, distances(2), "report");
+		assertNotNull(cache.get("A", 0));
+		cache.put("C", 0, distances(2), "report");
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertNull(cache.get("B", 0));
+		assertNotNull(cache.get("A", 0));
+		assertNotNull(cache.get("C", 0));
+		assertEquals(entryBytes * 2, cache.getBytes());
+		cache.put("D", 0, distances(100), "report");
+		assertNull(cache.get("D", 0));
+		assertEquals(2, cache.size());
+		assertThrows(IllegalArgumentException.class, () -> new ReportCache(-1));
+	}
+
+	/**
+	 * Tests that the cache is invalidated when the data is reloaded
+	 */
+	@Test
+	public void testInvalidate() throws Exception {
+		setUp();
+		ReportCache cache = manager.getCache();
+		manager.getDistancesReport("L001");
+		assertEquals(0, cache.size());
+		manager.getDistancesReport("L02");
+		assertEquals(1, cache.size());
+		manager.reload("input/landmarks-2.csv", "input/trails-2.csv");
+		assertEquals("Landmarks Reachable from ORIGINAL (L001) {\n"
+				+ "   794 feet to ABCDE (L005)\n"
+				+ "   794 feet to BCDEF (L002)\n"
+				+ "   794 feet to CDEFG (L003)\n"
+				+ "   794 feet to DEFGH (L004)\n"
+				+ "   794 feet to EFGHI (L006)\n"
+				+ "}", manager.getDistancesReport("L001"));
+		assertEquals(1, cache.size());
+		assertNull(cache.get("L02", 1));
+		cache.put("L02", 0, distances(2), "stale");
+		assertNull(cache.get("L02", 1));
+		ReportManager uncached = new ReportManager(new TrailManager("input/landmarks_sample.csv", "input/trails_sample.csv"), 0);
+		assertEquals(manager.getDistancesReport("N/A"), uncached.getDistancesReport("N/A"));
+		uncached.getDistancesReport("L02");
+		assertEquals(0, uncached.getCache().size());
+	}
+
+	/**
+	 * Tests that an edit to the trails only drops the cached reports whose distances it could change
+	 */
+	@Test
+	public void testUpdate() throws Exception {
+		setUp();
+		ReportCache cache = manager.getCache();
+		manager.getDistancesReport("L01");
+		manager.getDistancesReport("L05");
+		manager.getDistancesReport("L11");
+		assertEquals(3, cache.size());
+		assertEquals(TrailChange.Kind.CLOSED, manager.closeTrail("L11", "L12").getKind());
+		assertEquals(2, cache.size());
+		assertNull(cache.get("L11", 2));
+		manager.addTrail("L08", "L09", 100000);
+		assertEquals(2, cache.size());
+		manager.addLandmark("L13", "Overlook 3", "Overlook");
+		assertEquals(2, cache.size());
+		long hits = cache.getHits();
+		String before = manager.getDistancesReport("L01");
+		assertEquals(hits + 1, cache.getHits());
+		manager.updateLength("L01", "L04", 1000);
+		assertEquals(0, cache.size());
+		assertNotEquals(before, manager.getDistancesReport("L01"));
+		assertEquals(Integer.valueOf(1000), manager.getDistancesToDestinations("L01").get(new Landmark("L04", "", "")));
+		ReportManager fresh = new ReportManager(new TrailManager("input/landmarks_sample.csv", "input/trails_sample.csv"));
+		fresh.updateLength("L01", "L04", 1000);
+		fresh.closeTrail("L11", "L12");
+		assertEquals(fresh.getDistancesReport("L05"), manager.getDistancesReport("L05"));
+		cache.update(0, 100, entry -> false);
+		assertEquals(0, cache.size());
+	}
+}
@@ -3,10 +3,18 @@ package edu.ncsu.csc316.trail.manager;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.jupiter.api.Test;
 
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.dsa.DSAFactory;
+
 /**
  * Class that is responsible for testing the ReportManager classs
  *
@@ -98,6 +106,87 @@ class ReportManagerTest {
 				+ "}", manager.getDistancesReport("L001"));
 	}
 	
+	/** 
+	  * Tests that the distance report of a park with many tied distances and descriptions is in the same order as
+	  * sorting the map entries with DistanceReportComparator
+	  */
+	@Test
+	public void testDistancesReportOrder() throws IOException {
+		Random random = new Random(17);
+		StringBuilder landmarks = new StringBuilder("LANDMARK_ID,DESCRIPTION,TYPE\n");
+		StringBuilder trails = new StringBuilder("LANDMARK_ID,LANDMARK_ID,DISTANCE\n");
+		for (int i = 0; i < 600; i++) {
+			landmarks.append("L").append(i).append(",Spot ").append(random.nextInt(15)).append(",Overlook\n");
+		}
+		for (int i = 0; i < 1500; i++) {
+			trails.append("L").append(random.nextInt(600)).append(",L").append(random.nextInt(600)).append(",")
+					.append(random.nextInt(4)).append("\n");
+		}
+		Path directory = Files.createTempDirectory("report");
+		Path landmarkFile = directory.resolve("landmarks.csv");
+		Path trailFile = directory.resolve("trails.csv");
+		try {
+			Files.write(landmarkFile, landmarks.toString().getBytes("UTF-8"));
+			Files.write(trailFile, trails.toString().getBytes("UTF-8"));
+			ReportManager reports = new ReportManager(landmarkFile.toString(), trailFile.toString());
+			for (int origin = 0; origin < 600; origin += 37) {
+				String id = "L" + origin;
+				Map<Landmark, Integer> map = reports.getDistancesToDestinations(id);
+				@SuppressWarnings({"rawtypes", "unchecked"})
+				Map.Entry<Landmark, Integer>[] entries = new Map.Entry[map.size() - 1];
+				int i = 0;
+				Landmark start = null;
+				for (Map.Entry<Landmark, Integer> entry : map.entrySet()) {
+					if (entry.getKey().getId().equals(id)) {
+						start = entry.getKey();
+					} else {
+						entries[i++] = entry;
+					}
+				}
+				DSAFactory.getComparisonSorter(reports.new DistanceReportComparator()).sort(entries);
+				StringBuilder text = new StringBuilder();
+				ReportWriter expected = new ReportWriter(text);
+				if (entries.length == 0) {
+					text.append("No landmarks are reachable from ").append(start.getDescription()).append(" (").append(id)
+							.append(").");
+				} else {
+					text.append("Landmarks Reachable from ").append(start.getDescription()).append(" (").append(id)
+							.append(") {\n");
+					for (Map.Entry<Landmark, Integer> entry : entries) {
+						expected.append("   ").appendDistance(entry.getValue()).append(" to ")
+								.append(entry.getKey().getDescription()).append(" (").append(entry.getKey().getId()).append(")\n");
+					}
+					text.append("}");
+				}
+				assertEquals(text.toString(), reports.getDistancesReport(id));
+			}
+		} finally {
+			Files.deleteIfExists(landmarkFile);
+			Files.deleteIfExists(trailFile);
+			Files.deleteIfExists(directory);
+		}
+	}
+	
+	/** 
+	  * Tests the getRouteReport method with invalid, unreachable, and reachable landmarks
+	  */
+	@Test
+	public void testGetRouteReport() {
+		setUp();
+		assertEquals("The provided landmark ID (N/A) is invalid for the park.", manager.getRouteReport("L01", "N/A"));
+		assertEquals("The provided landmark ID (N/A) is invalid for the park.", manager.getRouteReport("N/A", "L01"));
+		assertEquals("No route from Park Entrance (L01) to Campsite 1 (L11).", manager.getRouteReport("L01", "L11"));
+		assertEquals("Route from Entrance Fountain (L02) to Overlook 1 (L05) is 8263 feet (1.56 miles) {\n"
+				+ "   Start at Entrance Fountain (L02)\n"
+				+ "   3013 feet to Park Entrance (L01)\n"
+				+ "   1046 feet to Waste Station 1 (L03)\n"
+				+ "   4204 feet to Overlook 1 (L05)\n"
+				+ "}", manager.getRouteReport("L02", "L05"));
+		assertEquals("Route from Campsite 1 (L11) to Campsite 1 (L11) is 0 feet {\n"
+				+ "   Start at Campsite 1 (L11)\n"
+				+ "}", manager.getRouteReport("L11", "L11"));
+	}
+	
 	/** 
 	  * Tests the getProposedFirstAidLocations method with incorrect and correct uses
 	  */
@@ -133,5 +222,83 @@ class ReportManagerTest {
 				+ "   Waste Station 2 (L09) - 1 intersecting trails\n"
 				+ "}", manager.getProposedFirstAidLocations(1));
 	}
+	
+	/** 
+	  * Tests the getTopFirstAidLocations and getFirstAidLocationsPage methods, which keep the order of
+	  * getProposedFirstAidLocations
+	  */
+	@Test
+	public void testGetTopFirstAidLocations() {
+		setUp();
+		assertEquals("Number of locations must be greater than 0.", manager.getTopFirstAidLocations(0));
+		assertEquals("Top 3 Locations for First Aid Stations {\n"
+				+ "   Park Entrance (L01) - 3 intersecting trails\n"
+				+ "   Entrance Fountain (L02) - 2 intersecting trails\n"
+				+ "   Entrance Restrooms (L04) - 2 intersecting trails\n"
+				+ "}", manager.getTopFirstAidLocations(3));
+		assertTrue(manager.getTopFirstAidLocations(100).startsWith("Top 12 Locations for First Aid Stations {\n"));
+		assertEquals(manager.getProposedFirstAidLocations(1).substring(manager.getProposedFirstAidLocations(1).indexOf('{')),
+				manager.getTopFirstAidLocations(12).substring(manager.getTopFirstAidLocations(12).indexOf('{')));
+		assertEquals("Locations 6 to 10 of 12 for First Aid Stations {\n"
+				+ "   Rock Formation 1 (L06) - 2 intersecting trails\n"
+				+ "   Waste Station 1 (L03) - 2 intersecting trails\n"
+				+ "   Campsite 1 (L11) - 1 intersecting trails\n"
+				+ "   Campsite Restrooms (L12) - 1 intersecting trails\n"
+				+ "   Hidden Gardens (L10) - 1 intersecting trails\n"
+				+ "}", manager.getFirstAidLocationsPage(2, 5));
+		assertEquals("Locations 11 to 12 of 12 for First Aid Stations {\n"
+				+ "   Overlook Restrooms (L08) - 1 intersecting trails\n"
+				+ "   Waste Station 2 (L09) - 1 intersecting trails\n"
+				+ "}", manager.getFirstAidLocationsPage(3, 5));
+		assertEquals("Page 4 is past the last page (3).", manager.getFirstAidLocationsPage(4, 5));
+		assertEquals("Page number must be greater than 0.", manager.getFirstAidLocationsPage(0, 5));
+		assertEquals("Number of locations must be greater than 0.", manager.getFirstAidLocationsPage(1, 0));
+		assertTrue(manager.getFirstAidLocationsPage(1, Integer.MAX_VALUE).startsWith("Locations 1 to 12 of 12"));
+	}
+	
+	/**
+	 * Tests the components report of the sample park, of parks that are fully connected, and after trails are
+	 * closed and added
+	 */
+	@Test
+	public void testGetComponentsReport() {
+		setUp();
+		assertEquals("Disconnected Groups of Landmarks (2) {\n"
+				+ "   10 landmarks: Entrance Fountain (L02), Entrance Restrooms (L04), Hidden Gardens (L10), Overlook 1 (L05), "
+				+ "Overlook 2 (L07), Overlook Restrooms (L08), Park Entrance (L01), Rock Formation 1 (L06), "
+				+ "Waste Station 1 (L03), Waste Station 2 (L09)\n"
+				+ "   2 landmarks: Campsite 1 (L11), Campsite Restrooms (L12)\n"
+				+ "}", manager.getComponentsReport());
+		manager.closeTrail("L05", "L06");
+		manager.addLandmark("L13", "Alone", "Overlook");
+		assertEquals("Disconnected Groups of Landmarks (4) {\n"
+				+ "   7 landmarks: Entrance Fountain (L02), Entrance Restrooms (L04), Hidden Gardens (L10), Overlook 1 (L05), "
+				+ "Park Entrance (L01), Waste Station 1 (L03), Waste Station 2 (L09)\n"
+				+ "   3 landmarks: Overlook 2 (L07), Overlook Restrooms (L08), Rock Formation 1 (L06)\n"
+				+ "   2 landmarks: Campsite 1 (L11), Campsite Restrooms (L12)\n"
+				+ "   1 landmark: Alone (L13)\n"
+				+ "}", manager.getComponentsReport());
+		manager.addTrail("L13", "L08", 10);
+		manager.addTrail("L13", "L11", 10);
+		manager.addTrail("L13", "L01", 10);
+		assertEquals("All 13 landmarks are connected by trails.", manager.getComponentsReport());
+	}
+	
+	/** 
+	  * Tests that a ReportManager over a saved snapshot reports the same as one over the CSV files
+	  */
+	@Test
+	public void testSnapshot() throws IOException {
+		setUp();
+		Path snapshot = Files.createTempFile("trail", ".snapshot");
+		snapshot.toFile().deleteOnExit();
+		new TrailManager(pathToLandmarkFile, pathToTrailFile).save(snapshot);
+		ReportManager loaded = new ReportManager(TrailManager.load(snapshot));
+		ReportManager mapped = new ReportManager(TrailManager.map(snapshot));
+		assertEquals(manager.getDistancesReport("L02"), loaded.getDistancesReport("L02"));
+		assertEquals(manager.getDistancesReport("L02"), mapped.getDistancesReport("L02"));
+		assertEquals(manager.getProposedFirstAidLocations(1), mapped.getProposedFirstAidLocations(1));
+		assertEquals(manager.getDistancesReport("N/A"), mapped.getDistancesReport("N/A"));
+	}
 
 }
@@ -0,0 +1,93 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class that is responsible for testing the ReportWriter class
+ *
+ * @author Maddie Moore
+ *
+ */
+class ReportWriterTest {
+
+	/**
+	 * Returns the distance text the reports used to build with String concatenation.
+	 * @param feet the distance in feet
+	 * @return the expected distance text
+	 */
+	private String expected(int feet) {
+		String text = feet + " feet";
+		if (feet > 5280.0) {
+			double distanceInMiles = (double) feet / 5280.0;
+			text += " (" + Math.round(distanceInMiles * 100.0) / 100.0 + " miles)";
+		}
+		return text;
+	}
+
+	/**
+	 * Tests that distances are formatted exactly as the rounded doubles print
+	 */
+	@Test
+	public void testAppendDistance() throws IOException {
+		StringBuilder out = new StringBuilder();
+		ReportWriter writer = new ReportWriter(out);
+		for (int feet = 0; feet < 200000; feet++) {
+			out.setLength(0);
+			writer.appendDistance(feet);
+			assertEquals(expected(feet), out.toString());
+		}
+		Random random = new Random(11);
+		for (int i = 0; i < 100000; i++) {
+			int feet = random.nextInt(Integer.MAX_VALUE);
+			out.setLength(0);
+			writer.appendDistance(feet);
+			assertEquals(expected(feet), out.toString());
+		}
+		out.setLength(0);
+		writer.appendDistance(Integer.MAX_VALUE);
+		assertEquals(expected(Integer.MAX_VALUE), out.toString());
+	}
+
+	/**
+	 * Tests writing numbers to each kind of destination
+	 */
+	@Test
+	public void testAppend() throws IOException {
+		StringWriter stringWriter = new StringWriter();
+		new ReportWriter(stringWriter).append(0L).append(' ').append(-42L).append(' ').append(Long.MIN_VALUE);
+		assertEquals("0 -42 " + Long.MIN_VALUE, stringWriter.toString());
+		CharBuffer buffer = CharBuffer.allocate(64);
+		new ReportWriter(buffer).append("x").append(Long.MAX_VALUE).appendDistance(10560);
+		buffer.flip();
+		assertEquals("x" + Long.MAX_VALUE + "10560 feet (2.0 miles)", buffer.toString());
+	}
+
+	/**
+	 * Tests that the streamed reports match the String reports
+	 */
+	@Test
+	public void testWriteReports() throws IOException {
+		ReportManager manager = new ReportManager("input/landmarks_sample.csv", "input/trails_sample.csv");
+		String[] origins = {"L01", "L02", "L08", "L11", "N/A"};
+		for (String origin : origins) {
+			StringWriter streamed = new StringWriter();
+			manager.writeDistancesReport(origin, streamed);
+			assertEquals(manager.getDistancesReport(origin), streamed.toString());
+			streamed = new StringWriter();
+			manager.writeDistancesReport(origin, streamed);
+			assertEquals(manager.getDistancesReport(origin), streamed.toString());
+		}
+		for (int n = 0; n <= 4; n++) {
+			StringWriter streamed = new StringWriter();
+			manager.writeProposedFirstAidLocations(n, streamed);
+			assertEquals(manager.getProposedFirstAidLocations(n), streamed.toString());
+		}
+	}
+}
@@ -3,6 +3,9 @@ package edu.ncsu.csc316.trail.manager;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.Before;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,8 @@ import org.junit.jupiter.api.Test;
 import edu.ncsu.csc316.trail.dsa.Algorithm;
 import edu.ncsu.csc316.trail.dsa.DSAFactory;
 import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.graph.AltIndex;
+import edu.ncsu.csc316.trail.graph.TrailSearch;
 
 class TrailManagerTest {
 	
@@ -68,4 +73,157 @@ class TrailManagerTest {
 		assertEquals(12, manager.getProposedFirstAidLocations(1).size());
 	}
 
+	@Test
+	public void testGetRoute() {
+		setUp();
+		Route route = manager.getRoute("L02", "L05");
+		assertEquals(8263, route.getDistance());
+		assertEquals(4, route.getLandmarks().size());
+		assertEquals("L02", route.getLandmarks().get(0).getId());
+		assertEquals("L01", route.getLandmarks().get(1).getId());
+		assertEquals("L03", route.getLandmarks().get(2).getId());
+		assertEquals("L05", route.getLandmarks().get(3).getId());
+		assertEquals(3, route.getTrails().size());
+		assertEquals(4204, route.getTrails().get(2).getLength());
+		assertEquals(1, manager.getRoute("L07", "L07").getLandmarks().size());
+		assertNull(manager.getRoute("L01", "L11"));
+		assertNull(manager.getRoute("L01", "N/A"));
+	}
+
+	@Test
+	public void testRouteIndex() throws IOException {
+		setUp();
+		assertNull(manager.getRouteIndex());
+		assertEquals(8263, manager.getDistance("L02", "L05"));
+		AltIndex index = manager.buildRouteIndex(AltIndex.DEFAULT_ANCHORS);
+		assertSame(index, manager.getRouteIndex());
+		assertEquals(8263, manager.getDistance("L02", "L05"));
+		assertEquals(8263, manager.getRoute("L02", "L05").getDistance());
+		assertEquals(TrailSearch.UNREACHED, manager.getDistance("L01", "L11"));
+		assertEquals(TrailSearch.UNREACHED, manager.getDistance("L01", "N/A"));
+		Path directory = Files.createTempDirectory("manager");
+		Path snapshot = directory.resolve("park.snapshot");
+		try {
+			manager.save(snapshot);
+			assertTrue(Files.exists(AltIndex.pathFor(snapshot)));
+			TrailManager loaded = TrailManager.load(snapshot);
+			assertEquals(index.getAnchorCount(), loaded.getRouteIndex().getAnchorCount());
+			assertEquals(8263, loaded.getDistance("L02", "L05"));
+			assertNotNull(TrailManager.map(snapshot).getRouteIndex());
+		} finally {
+			Files.deleteIfExists(AltIndex.pathFor(snapshot));
+			Files.deleteIfExists(snapshot);
+			Files.deleteIfExists(directory);
+		}
+		manager.reload("input/landmarks-1.csv", "input/trails-1.csv", false);
+		assertTrue(manager.getRouteIndex().matches(manager.getGraph()));
+		assertEquals(794, manager.getDistance("L001", "L004"));
+	}
+
+
+	@Test
+	public void testPackLandmarks() throws FileNotFoundException {
+		setUp();
+		String report = manager.getDistancesToDestinations("L02").toString();
+		long version = manager.getVersion();
+		manager.packLandmarks();
+		assertTrue(manager.getGraph().isPacked());
+		assertEquals(version, manager.getVersion());
+		assertEquals(report, manager.getDistancesToDestinations("L02").toString());
+		assertEquals("L04", manager.getLandmarkByID("L04").getId());
+		assertEquals(1, manager.getProposedFirstAidLocations(3).size());
+		manager.reload(pathToLandmarkFile, pathToTrailFile, false);
+		assertTrue(manager.getGraph().isPacked());
+		assertEquals(report, manager.getDistancesToDestinations("L02").toString());
+	}
+
+	@Test
+	public void testIsReachable() {
+		setUp();
+		assertTrue(manager.isReachable("L01", "L08"));
+		assertFalse(manager.isReachable("L01", "L11"));
+		assertFalse(manager.isReachable("L01", "N/A"));
+		assertNull(manager.getRoute("L01", "L12"));
+		assertEquals(TrailSearch.UNREACHED, manager.getDistance("L12", "L01"));
+		assertEquals(2, manager.getComponentIndex().getComponentCount());
+		manager.closeTrail("L05", "L06");
+		assertFalse(manager.isReachable("L01", "L08"));
+		assertTrue(manager.isReachable("L01", "L02"));
+		assertEquals(7, manager.getDistancesToDestinations("L01").size());
+		assertEquals(TrailSearch.UNREACHED, manager.getDistance("L01", "L08"));
+		assertNull(manager.getRoute("L08", "L01"));
+		assertEquals(3, manager.getComponentIndex().getComponentCount());
+		assertEquals(7, manager.getDistancesToDestinations("L01").size());
+		manager.addTrail("L12", "L08", 100);
+		assertTrue(manager.isReachable("L11", "L06"));
+		assertEquals(5, manager.getDistancesToDestinations("L11").size());
+		manager.openTrail("L05", "L06");
+		assertTrue(manager.isReachable("L01", "L11"));
+		assertEquals(12, manager.getDistancesToDestinations("L11").size());
+		manager.compact();
+		assertEquals(1, manager.getComponentIndex().getComponentCount());
+	}
+
+	@Test
+	public void testEdits() throws IOException {
+		setUp();
+		long version = manager.getVersion();
+		AltIndex index = manager.buildRouteIndex(4);
+		TrailChange change = manager.closeTrail("L01", "L03");
+		assertEquals(TrailChange.Kind.CLOSED, change.getKind());
+		assertEquals(1046, change.getOldLength());
+		assertEquals(TrailChange.NO_LENGTH, change.getNewLength());
+		assertEquals(version + 1, change.getVersion());
+		assertEquals(version + 1, manager.getVersion());
+		assertSame(index, manager.getRouteIndex());
+		assertEquals(TrailSearch.UNREACHED, manager.getDistance("L01", "L05"));
+		assertEquals(0, manager.getDegreeIndex().getCount(3));
+		assertEquals(0, manager.getProposedFirstAidLocations(3).size());
+		assertThrows(IllegalArgumentException.class, () -> manager.closeTrail("L01", "L03"));
+		assertThrows(IllegalArgumentException.class, () -> manager.closeTrail("L01", "L05"));
+		assertThrows(IllegalArgumentException.class, () -> manager.closeTrail("N/A", "L01"));
+		assertThrows(IllegalArgumentException.class, () -> manager.openTrail("L01", "L02"));
+		assertEquals(1046, manager.openTrail("L03", "L01").getNewLength());
+		assertNull(manager.getRouteIndex());
+		assertEquals(5250, manager.getDistance("L01", "L05"));
+		assertEquals(1, manager.getProposedFirstAidLocations(3).size());
+		manager.addTrail("L10", "L11", 100);
+		assertEquals(7792, manager.getDistance("L01", "L12"));
+		assertEquals(5, manager.getRoute("L01", "L12").getLandmarks().size());
+		assertEquals(3013, manager.updateLength("L01", "L02", 10).getOldLength());
+		assertEquals(3623, manager.getDistance("L01", "L10"));
+		assertThrows(IllegalArgumentException.class, () -> manager.addTrail("L01", "L02", -1));
+		assertThrows(IllegalArgumentException.class, () -> manager.updateLength("L01", "L02", -1));
+		manager.addLandmark("L13", "Overlook 3", "Overlook");
+		assertThrows(IllegalArgumentException.class, () -> manager.addLandmark("L13", "Overlook 3", "Overlook"));
+		assertEquals("Overlook 3", manager.getLandmarkByID("L13").getDescription());
+		assertEquals(TrailSearch.UNREACHED, manager.getDistance("L01", "L13"));
+		manager.addTrail("L13", "L12", 5);
+		assertEquals(4794, manager.getDistance("L01", "L13"));
+		assertEquals(Integer.valueOf(4794), manager.getDistancesToDestinations("L01").get(manager.getLandmarkByID("L13")));
+		assertTrue(manager.getGraph().hasChanges());
+		manager.compact();
+		assertFalse(manager.getGraph().hasChanges());
+		assertTrue(manager.getRouteIndex().matches(manager.getGraph()));
+		assertEquals(4794, manager.getDistance("L01", "L13"));
+		manager.closeTrail("L13", "L12");
+		Path directory = Files.createTempDirectory("manager");
+		Path snapshot = directory.resolve("park.snapshot");
+		try {
+			manager.save(snapshot);
+			TrailManager loaded = TrailManager.load(snapshot);
+			assertEquals(TrailSearch.UNREACHED, loaded.getDistance("L01", "L13"));
+			assertEquals(3623, loaded.getDistance("L01", "L10"));
+			assertEquals(11, loaded.getGraph().getTrailCount());
+			assertTrue(loaded.getRouteIndex().matches(loaded.getGraph()));
+			assertTrue(manager.getGraph().hasChanges());
+			manager.openTrail("L13", "L12");
+			assertEquals(4794, manager.getDistance("L01", "L13"));
+		} finally {
+			Files.deleteIfExists(AltIndex.pathFor(snapshot));
+			Files.deleteIfExists(snapshot);
+			Files.deleteIfExists(directory);
+		}
+	}
+
 }
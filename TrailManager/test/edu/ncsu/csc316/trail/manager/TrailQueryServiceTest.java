@@ -0,0 +1,290 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.data.Trail;
+import edu.ncsu.csc316.trail.dsa.DSAFactory;
+import edu.ncsu.csc316.trail.generator.ParkGenerator;
+import edu.ncsu.csc316.trail.generator.ParkGenerator.Topology;
+import edu.ncsu.csc316.trail.graph.AllocationMeter;
+import edu.ncsu.csc316.trail.graph.DescriptionRanks;
+import edu.ncsu.csc316.trail.graph.DistanceMatrix;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphBuilder;
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+
+/**
+ * Class that is responsible for testing the TrailQueryService class
+ *
+ * @author Maddie Moore
+ *
+ */
+class TrailQueryServiceTest {
+
+	/**
+	 * Builds the first aid report the way ReportManager did before the degree index, by sorting the entries of
+	 * TrailManager's map.
+	 * @param reports the ReportManager whose comparator is used
+	 * @param manager the TrailManager over the same files
+	 * @param n the number of intersecting trails
+	 * @return the report
+	 */
+	private String sortedFirstAidReport(ReportManager reports, TrailManager manager, int n) {
+		Map<Landmark, List<Trail>> map = manager.getProposedFirstAidLocations(n);
+		@SuppressWarnings({"rawtypes", "unchecked"})
+		Map.Entry<Landmark, List<Trail>>[] entries = new Map.Entry[map.size()];
+		int i = 0;
+		for (Map.Entry<Landmark, List<Trail>> entry : map.entrySet()) {
+			entries[i++] = entry;
+		}
+		DSAFactory.getComparisonSorter(reports.new FirstAidLocationsComparator()).sort(entries);
+		StringBuilder report = new StringBuilder("Proposed Locations for First Aid Stations {\n");
+		for (Map.Entry<Landmark, List<Trail>> entry : entries) {
+			report.append("   ").append(entry.getKey().getDescription()).append(" (").append(entry.getKey().getId())
+					.append(") - ").append(entry.getValue().size()).append(" intersecting trails\n");
+		}
+		return report.append("}").toString();
+	}
+
+	/**
+	 * Checks that the service gives the same reports as a ReportManager over the same files.
+	 * @param landmarkFile path to the landmark file
+	 * @param trailFile path to the trail file
+	 * @throws IOException if a file cannot be read
+	 */
+	private void assertSameReports(String landmarkFile, String trailFile) throws IOException {
+		ReportManager manager = new ReportManager(landmarkFile, trailFile);
+		TrailGraph graph = TrailGraphLoader.load(landmarkFile, trailFile);
+		try (TrailQueryService service = new TrailQueryService(graph, 2)) {
+			for (int landmark = 0; landmark < graph.getLandmarkCount(); landmark++) {
+				String id = graph.getId(landmark);
+				assertEquals(manager.getDistancesReport(id), service.getDistancesReport(id));
+			}
+			assertEquals(manager.getDistancesReport("N/A"), service.getDistancesReport("N/A"));
+			assertEquals(manager.getComponentsReport(), service.getComponentsReport());
+			for (int from = 0; from < Math.min(graph.getLandmarkCount(), 8); from++) {
+				for (int to = 0; to < Math.min(graph.getLandmarkCount(), 8); to++) {
+					String fromId = graph.getId(from);
+					String toId = graph.getId(to);
+					assertEquals(manager.getRouteReport(fromId, toId), service.getRouteReport(fromId, toId));
+				}
+			}
+			assertEquals(manager.getRouteReport("N/A", graph.getId(0)), service.getRouteReport("N/A", graph.getId(0)));
+			assertEquals(manager.getRouteReport(graph.getId(0), "N/A"), service.getRouteReport(graph.getId(0), "N/A"));
+			for (int n = 0; n <= 5; n++) {
+				assertEquals(manager.getProposedFirstAidLocations(n), service.getProposedFirstAidLocations(n));
+				assertEquals(manager.getTopFirstAidLocations(n), service.getTopFirstAidLocations(n));
+				assertEquals(manager.getFirstAidLocationsPage(2, n), service.getFirstAidLocationsPage(2, n));
+			}
+			TrailManager trails = new TrailManager(landmarkFile, trailFile);
+			for (int n = 1; n <= 2; n++) {
+				assertEquals(sortedFirstAidReport(manager, trails, n), service.getProposedFirstAidLocations(n));
+			}
+		}
+	}
+
+	/**
+	 * Tests that the reports match ReportManager on the sample files and a generated park with ties
+	 */
+	@Test
+	public void testReports() throws IOException {
+		assertSameReports("input/landmarks_sample.csv", "input/trails_sample.csv");
+		assertSameReports("input/landmarks-1.csv", "input/trails-1.csv");
+		assertSameReports("input/landmarks-2.csv", "input/trails-2.csv");
+		Path landmarks = Files.createTempFile("landmarks", ".csv");
+		Path trails = Files.createTempFile("trails", ".csv");
+		landmarks.toFile().deleteOnExit();
+		trails.toFile().deleteOnExit();
+		new ParkGenerator(Topology.GRID, 300, 4).setDistanceRange(1, 3).setExtraTrails(0.3).generate(landmarks, trails);
+		assertSameReports(landmarks.toString(), trails.toString());
+	}
+
+	/**
+	 * Tests running many queries at once on the worker threads
+	 */
+	@Test
+	public void testConcurrent() throws Exception {
+		TrailGraph graph = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		try (TrailQueryService service = new TrailQueryService(graph, 4)) {
+			String[] expected = new String[graph.getLandmarkCount()];
+			for (int landmark = 0; landmark < expected.length; landmark++) {
+				expected[landmark] = service.getDistancesReport(graph.getId(landmark));
+			}
+			java.util.List<Future<String>> reports = new java.util.ArrayList<Future<String>>();
+			for (int i = 0; i < 2000; i++) {
+				reports.add(service.submitDistancesReport(graph.getId(i % expected.length)));
+			}
+			for (int i = 0; i < reports.size(); i++) {
+				assertEquals(expected[i % expected.length], reports.get(i).get());
+			}
+			assertEquals(service.getProposedFirstAidLocations(2), service.submitProposedFirstAidLocations(2).get());
+		}
+		assertThrows(IllegalArgumentException.class, () -> new TrailQueryService(graph, 0));
+	}
+
+	/**
+	 * Tests that a reload publishes a new snapshot without disturbing queries on the old one
+	 */
+	@Test
+	public void testReload() throws Exception {
+		TrailGraph graph = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		try (TrailQueryService service = new TrailQueryService(graph, 2)) {
+			TrailSnapshot first = service.getSnapshot();
+			String before = service.getDistancesReport("L02");
+			QueryContext context = service.getContext(first);
+			TrailSnapshot second = service.reload("input/landmarks-2.csv", "input/trails-2.csv", false);
+			assertSame(second, service.getSnapshot());
+			assertTrue(second.getVersion() > first.getVersion());
+			assertSame(context, service.getContext(first));
+			assertNotSame(context, service.getContext(second));
+			assertEquals("The provided landmark ID (L02) is invalid for the park.", service.getDistancesReport("L02"));
+			assertTrue(service.getDistancesReport("L001").startsWith("Landmarks Reachable from ORIGINAL (L001) {"));
+			service.publish(graph);
+			assertEquals(before, service.getDistancesReport("L02"));
+			assertThrows(IOException.class, () -> service.reload("wrong", "input/trails-2.csv", true));
+			assertEquals(before, service.getDistancesReport("L02"));
+		}
+	}
+
+	/**
+	 * Tests that reloads and edits published from several threads at once are never lost: an edit of a snapshot
+	 * that was replaced is refused and made again on the current one, and the snapshot left current is the one
+	 * with the newest version
+	 */
+	@Test
+	public void testConcurrentPublish() throws Exception {
+		TrailGraph graph = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		try (TrailQueryService service = new TrailQueryService(graph, 4)) {
+			long first = service.getSnapshot().getVersion();
+			java.util.List<Future<TrailSnapshot>> published = new java.util.ArrayList<Future<TrailSnapshot>>();
+			for (int i = 0; i < 400; i++) {
+				int length = 100 + i;
+				published.add(ForkJoinPool.commonPool().submit(() -> {
+					if (length % 2 == 0) {
+						return service.publish(graph);
+					}
+					TrailSnapshot next = null;
+					while (next == null) {
+						TrailSnapshot base = service.getSnapshot();
+						TrailGraph current = base.getGraph();
+						next = service.publishEdit(base, current.setTrailLength(0, length), current.getTrailOne(0),
+								current.getTrailTwo(0));
+					}
+					return next;
+				}));
+			}
+			for (Future<TrailSnapshot> snapshot : published) {
+				snapshot.get();
+			}
+			assertEquals(first + published.size(), service.getSnapshot().getVersion());
+		}
+	}
+
+	/**
+	 * Tests that an edit of a snapshot is not published once a different network has replaced it
+	 */
+	@Test
+	public void testStaleEdit() throws Exception {
+		TrailGraph graph = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		try (TrailQueryService service = new TrailQueryService(graph, 1)) {
+			TrailSnapshot base = service.getSnapshot();
+			TrailGraph edited = base.getGraph().closeTrail(0);
+			TrailSnapshot reloaded = service.reload("input/landmarks-2.csv", "input/trails-2.csv", false);
+			String firstAid = service.getProposedFirstAidLocations(1);
+			assertNull(service.publishEdit(base, edited, graph.getTrailOne(0), graph.getTrailTwo(0)));
+			assertSame(reloaded, service.getSnapshot());
+			assertEquals(firstAid, service.getProposedFirstAidLocations(1));
+			TrailGraph closed = reloaded.getGraph().closeTrail(0);
+			TrailSnapshot next = service.publishEdit(reloaded, closed, closed.getTrailOne(0), closed.getTrailTwo(0));
+			assertSame(next, service.getSnapshot());
+			assertSame(closed, next.getGraph());
+			assertNotEquals(firstAid, service.getProposedFirstAidLocations(1));
+		}
+	}
+
+	/**
+	 * Tests batches of distance queries by landmark ID, written as a CSV file and a binary matrix
+	 */
+	@Test
+	public void testDistancesFromAll() throws Exception {
+		TrailGraph graph = TrailGraphLoader.load("input/landmarks_sample.csv", "input/trails_sample.csv");
+		Path csv = Files.createTempFile("distances", ".csv");
+		Path matrix = Files.createTempFile("distances", ".bin");
+		try (TrailQueryService service = new TrailQueryService(graph, 1)) {
+			java.util.List<String> origins = Arrays.asList("L02", "L01");
+			service.writeDistanceCsv(origins, csv, ForkJoinPool.commonPool());
+			java.util.List<String> lines = Files.readAllLines(csv);
+			assertEquals("ORIGIN_ID,DESTINATION_ID,DISTANCE", lines.get(0));
+			assertTrue(lines.contains("L02,L01,3013"));
+			assertTrue(lines.contains("L01,L02,3013"));
+			service.writeDistanceMatrix(origins, matrix, ForkJoinPool.commonPool());
+			try (DistanceMatrix distances = new DistanceMatrix(matrix)) {
+				int[] row = new int[distances.getLandmarkCount()];
+				assertEquals(graph.indexOf("L01"), distances.readRow(1, row));
+				assertEquals(3013, row[graph.indexOf("L02")]);
+			}
+			AtomicInteger count = new AtomicInteger();
+			service.getDistancesFromAll(origins, (origin, search) -> count.incrementAndGet());
+			assertEquals(2, count.get());
+			assertThrows(IllegalArgumentException.class,
+					() -> service.getDistancesFromAll(Arrays.asList("L01", "L99"), (origin, search) -> { }));
+		} finally {
+			Files.deleteIfExists(csv);
+			Files.deleteIfExists(matrix);
+		}
+	}
+
+	/**
+	 * Tests that a warm query context searches and sorts without allocating, so distance queries only allocate
+	 * while their reports are written
+	 */
+	@Test
+	public void testContextAllocation() throws IOException {
+		AllocationMeter meter = AllocationMeter.ofCurrentThread();
+		Random random = new Random(5);
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int i = 0; i < 1000; i++) {
+			builder.addLandmark("L" + i, "Landmark " + (i % 50), "Overlook");
+		}
+		for (int i = 0; i < 3000; i++) {
+			builder.addTrail(random.nextInt(1000), random.nextInt(1000), random.nextInt(5000));
+		}
+		TrailGraph graph = builder.build();
+		QueryContext context = new QueryContext(graph, new DescriptionRanks(graph));
+		for (int round = 0; round < 3; round++) {
+			long before = meter.getAllocatedBytes();
+			int reached = 0;
+			for (int origin = 0; origin < 1000; origin++) {
+				reached += context.searchSorted(origin);
+			}
+			long allocated = meter.getAllocatedBytes() - before;
+			assertTrue(reached > 1000 * 256);
+			if (round == 2) {
+				assertTrue(allocated < 1000, allocated + " bytes allocated");
+			}
+		}
+		StringBuilder report = new StringBuilder();
+		context.writeDistancesReport("L0", new ReportWriter(report));
+		TrailManager manager = new TrailManager("input/landmarks_sample.csv", "input/trails_sample.csv");
+		QueryContext sample = new QueryContext(manager.getDegreeIndex().getGraph(), manager.getDegreeIndex().getRanks());
+		StringBuilder sampleReport = new StringBuilder();
+		sample.writeDistancesReport("L01", new ReportWriter(sampleReport));
+		assertEquals(new ReportManager("input/landmarks_sample.csv", "input/trails_sample.csv").getDistancesReport("L01"),
+				sampleReport.toString());
+		assertTrue(report.toString().startsWith("Landmarks Reachable from Landmark 0 (L0) {\n"));
+	}
+}
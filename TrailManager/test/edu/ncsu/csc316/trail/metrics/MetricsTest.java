@@ -0,0 +1,134 @@
+package edu.ncsu.csc316.trail.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc316.trail.manager.ReportManager;
+import edu.ncsu.csc316.trail.manager.TrailManager;
+
+/**
+ * Class that is responsible for testing the Metrics, MetricsRegistry, LatencyHistogram, and exporter classes
+ *
+ * @author Maddie Moore
+ *
+ */
+class MetricsTest {
+
+	/** Path to the sample landmark file */
+	private String pathToLandmarkFile = "input/landmarks_sample.csv";
+
+	/** Path to the sample trail file */
+	private String pathToTrailFile = "input/trails_sample.csv";
+
+	/**
+	 * Tests that every value falls in a bucket whose largest value is within 1/64 of it, and that percentiles
+	 * are ranked correctly
+	 */
+	@Test
+	public void testHistogram() {
+		long[] values = {0, 1, 127, 128, 129, 1000, 123456789, Long.MAX_VALUE};
+		for (long value : values) {
+			long highest = LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(value));
+			assertTrue(highest >= value);
+			assertTrue(highest - value <= value / 64);
+		}
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(50));
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 1000L);
+		}
+		assertEquals(100, histogram.getCount());
+		assertEquals(5050000, histogram.getTotal());
+		assertEquals(100000, histogram.getMax());
+		assertEquals(50500.0, histogram.getMean(), 0.001);
+		long median = histogram.getPercentile(50);
+		assertTrue(median >= 50000 && median <= 50000 + 50000 / 64);
+		long tail = histogram.getPercentile(99);
+		assertTrue(tail >= 99000 && tail <= 99000 + 99000 / 64);
+		assertEquals(100000, histogram.getPercentile(100));
+		assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+	}
+
+	/**
+	 * Tests that nothing is recorded while metrics are disabled, and that the loads, searches, and reports are
+	 * timed and counted while they are enabled, including routes that are rejected without a search
+	 */
+	@Test
+	public void testEnabled() throws FileNotFoundException, IOException {
+		Metrics.disable();
+		assertEquals(Metrics.NOT_STARTED, Metrics.start());
+		assertThrows(IllegalArgumentException.class, () -> Metrics.enable(null));
+		MetricsRegistry registry = new MetricsRegistry();
+		try {
+			new ReportManager(pathToLandmarkFile, pathToTrailFile).getDistancesReport("L01");
+			assertEquals(0, registry.getHistogram(Phase.LOAD).getCount());
+			Metrics.enable(registry);
+			assertTrue(Metrics.isEnabled());
+			assertSame(registry, Metrics.getRegistry());
+			ReportManager manager = new ReportManager(pathToLandmarkFile, pathToTrailFile);
+			manager.getDistancesReport("L01");
+			manager.getDistancesReport("L01");
+			manager.getProposedFirstAidLocations(3);
+			assertEquals(1, registry.getHistogram(Phase.LOAD).getCount());
+			assertEquals(1, registry.getHistogram(Phase.PARSE).getCount());
+			assertEquals(1, registry.getHistogram(Phase.INDEX).getCount());
+			assertEquals(1, registry.getHistogram(Phase.TRAVERSE).getCount());
+			assertEquals(1, registry.getHistogram(Phase.SORT).getCount());
+			assertEquals(2, registry.getHistogram(Phase.RENDER).getCount());
+			assertEquals(2, registry.getHistogram(Phase.DISTANCES_REPORT).getCount());
+			assertEquals(1, registry.getHistogram(Phase.FIRST_AID_REPORT).getCount());
+			assertEquals(1, registry.getCount(Counter.CACHE_HITS));
+			assertEquals(1, registry.getCount(Counter.CACHE_MISSES));
+			assertEquals(Files.size(Paths.get(pathToLandmarkFile)) + Files.size(Paths.get(pathToTrailFile)),
+					registry.getCount(Counter.BYTES_PARSED));
+			assertTrue(registry.getCount(Counter.LANDMARKS_VISITED) > 1);
+			assertTrue(registry.getCount(Counter.TRAILS_RELAXED) >= registry.getCount(Counter.LANDMARKS_VISITED) - 1);
+			TrailManager trails = new TrailManager(pathToLandmarkFile, pathToTrailFile);
+			assertNotNull(trails.getRoute("L01", "L02"));
+			assertNull(trails.getRoute("L01", "N/A"));
+			assertNull(trails.getRoute("L01", "L11"));
+			assertEquals(3, registry.getHistogram(Phase.ROUTE).getCount());
+			registry.reset();
+			assertEquals(0, registry.getHistogram(Phase.LOAD).getCount());
+			assertEquals(0, registry.getCount(Counter.CACHE_HITS));
+		} finally {
+			Metrics.disable();
+		}
+		assertFalse(Metrics.isEnabled());
+	}
+
+	/**
+	 * Tests the text and JSON exporters
+	 */
+	@Test
+	public void testExporters() throws IOException {
+		MetricsRegistry registry = new MetricsRegistry();
+		registry.record(Phase.SORT, 1500);
+		registry.record(Phase.SORT, 2500);
+		registry.add(Counter.CACHE_HITS, 3);
+		StringBuilder text = new StringBuilder();
+		registry.export(new TextMetricsExporter(text));
+		assertEquals("sort count=2 mean=2.0us p50=1.5us p90=2.5us p99=2.5us max=2.5us\n"
+				+ "landmarksVisited 0\n"
+				+ "trailsRelaxed 0\n"
+				+ "cacheHits 3\n"
+				+ "cacheMisses 0\n"
+				+ "bytesParsed 0\n", text.toString());
+		StringBuilder json = new StringBuilder();
+		registry.export(new JsonMetricsExporter(json));
+		String output = json.toString();
+		assertTrue(output.startsWith("{\"phases\":{\"parse\":{\"count\":0,"));
+		assertTrue(output.contains("\"sort\":{\"count\":2,\"totalNanos\":4000,\"meanNanos\":2000,"));
+		assertTrue(output.contains("\"maxNanos\":2500}"));
+		assertTrue(output.endsWith("\"cacheHits\":3,\"cacheMisses\":0,\"bytesParsed\":0}}\n"));
+	}
+}
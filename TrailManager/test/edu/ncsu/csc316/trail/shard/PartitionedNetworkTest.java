@@ -0,0 +1,281 @@
+package edu.ncsu.csc316.trail.shard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphBuilder;
+import edu.ncsu.csc316.trail.graph.TrailSearch;
+
+/**
+ * Class that is responsible for testing the PartitionedNetwork, ShardStore, LocalShardWorker, and
+ * LoopbackShardWorker classes
+ *
+ * @author Maddie Moore
+ *
+ */
+class PartitionedNetworkTest {
+
+	/** Number of parks in the random network */
+	private static final int PARKS = 5;
+
+	/** Number of landmarks in each random park */
+	private static final int LANDMARKS = 40;
+
+	/** Files written by the test */
+	private List<Path> files = new ArrayList<Path>();
+
+	/**
+	 * Writes a file of the given lines.
+	 * @param directory directory of the file
+	 * @param name name of the file
+	 * @param lines lines of the file
+	 * @return path to the file
+	 * @throws IOException if the file cannot be written
+	 */
+	private String write(Path directory, String name, List<String> lines) throws IOException {
+		Path file = directory.resolve(name);
+		Files.write(file, lines, StandardCharsets.UTF_8);
+		files.add(file);
+		return file.toString();
+	}
+
+	/**
+	 * Writes random park files into the directory and registers them with the stores, parks 0 and 1 with the
+	 * first store and the rest with the second. Every landmark and trail is also added to the merged builder under
+	 * the name "PARK/ID".
+	 * @param random source of the parks
+	 * @param directory directory of the files
+	 * @param stores the two stores
+	 * @param merged builder of the merged network
+	 * @throws IOException if a file cannot be written
+	 */
+	private void writeParks(Random random, Path directory, ShardStore[] stores, TrailGraphBuilder merged)
+			throws IOException {
+		for (int park = 0; park < PARKS; park++) {
+			List<String> landmarks = new ArrayList<String>();
+			List<String> trails = new ArrayList<String>();
+			landmarks.add("LANDMARK_ID,DESCRIPTION,TYPE");
+			trails.add("LANDMARK_ID,LANDMARK_ID,DISTANCE");
+			for (int i = 0; i < LANDMARKS; i++) {
+				String description = "Landmark " + (i % 9);
+				landmarks.add("L" + i + "," + description + ",Overlook");
+				merged.addLandmark("P" + park + "/L" + i, description, "Overlook");
+			}
+			for (int i = 0; i < 50; i++) {
+				int one = random.nextInt(LANDMARKS);
+				int two = random.nextInt(LANDMARKS);
+				int length = random.nextInt(3000);
+				trails.add("L" + one + ",L" + two + "," + length);
+				merged.addTrail("P" + park + "/L" + one, "P" + park + "/L" + two, length);
+			}
+			stores[park < 2 ? 0 : 1].addPark("P" + park, write(directory, "landmarks" + park + ".csv", landmarks),
+					write(directory, "trails" + park + ".csv", trails));
+		}
+	}
+
+	/**
+	 * Tests that distances and reports across parks match a search of the merged network, also when queries run
+	 * in parallel, while parks are loaded only when needed and evicted when a store is over its budget
+	 */
+	@Test
+	public void testDistances() throws IOException {
+		Random random = new Random(316);
+		Path directory = Files.createTempDirectory("shards");
+		ShardStore[] stores = {new ShardStore(0), new ShardStore(Long.MAX_VALUE)};
+		TrailGraphBuilder merged = new TrailGraphBuilder();
+		try (LoopbackShardWorker remote = new LoopbackShardWorker(new LocalShardWorker(stores[1]), "shard-test")) {
+			writeParks(random, directory, stores, merged);
+			PartitionedNetwork network = new PartitionedNetwork();
+			network.addWorker(new LocalShardWorker(stores[0]));
+			network.addWorker(remote);
+			assertArrayEquals(new String[] {"P0", "P1", "P2", "P3", "P4"}, network.getParks());
+			List<String> connectors = new ArrayList<String>();
+			connectors.add("PARK,LANDMARK_ID,PARK,LANDMARK_ID,DISTANCE");
+			for (int i = 0; i < 8; i++) {
+				int parkOne = random.nextInt(PARKS - 1);
+				int parkTwo = random.nextInt(PARKS - 1);
+				int one = random.nextInt(LANDMARKS);
+				int two = random.nextInt(LANDMARKS);
+				int length = random.nextInt(2000);
+				connectors.add("P" + parkOne + ",L" + one + ",P" + parkTwo + ",L" + two + "," + length);
+				merged.addTrail("P" + parkOne + "/L" + one, "P" + parkTwo + "/L" + two, length);
+			}
+			connectors.add("");
+			network.readConnectors(write(directory, "connectors.csv", connectors));
+			TrailGraph graph = merged.build();
+			TrailSearch search = new TrailSearch(graph);
+			TrailGraph overlay = network.getOverlay();
+			assertTrue(overlay.getLandmarkCount() > 0);
+			assertEquals(1, stores[0].getLoadedCount());
+			assertTrue(stores[0].getEvictionCount() > 0);
+			for (int origin = 0; origin < graph.getLandmarkCount(); origin += 3) {
+				String[] name = graph.getId(origin).split("/");
+				int reached = search.search(origin);
+				for (int target = 0; target < graph.getLandmarkCount(); target += 5) {
+					String[] targetName = graph.getId(target).split("/");
+					assertEquals(search.getDistance(target),
+							network.getDistance(name[0], name[1], targetName[0], targetName[1]));
+				}
+				String report = network.getDistancesReport(name[0], name[1]);
+				if (reached == 1) {
+					assertEquals("No landmarks are reachable from " + graph.getDescription(origin) + " ("
+							+ graph.getId(origin) + ").", report);
+					continue;
+				}
+				String[] lines = report.split("\n");
+				assertEquals("Landmarks Reachable from " + graph.getDescription(origin) + " (" + graph.getId(origin)
+						+ ") {", lines[0]);
+				assertEquals(reached + 1, lines.length);
+				assertEquals("}", lines[lines.length - 1]);
+				int previous = 0;
+				for (int line = 1; line < lines.length - 1; line++) {
+					String id = lines[line].substring(lines[line].lastIndexOf('(') + 1, lines[line].length() - 1);
+					int distance = Integer.parseInt(lines[line].trim().split(" ")[0]);
+					assertEquals(search.getDistance(graph.indexOf(id)), distance);
+					assertTrue(distance >= previous);
+					previous = distance;
+				}
+			}
+			assertEquals(1, stores[0].getLoadedCount());
+			int[] expected = new int[graph.getLandmarkCount()];
+			search.search(0);
+			for (int target = 0; target < expected.length; target++) {
+				expected[target] = search.getDistance(target);
+			}
+			String[] originName = graph.getId(0).split("/");
+			IntStream.range(0, expected.length).parallel().forEach(target -> {
+				String[] targetName = graph.getId(target).split("/");
+				try {
+					assertEquals(expected[target],
+							network.getDistance(originName[0], originName[1], targetName[0], targetName[1]));
+				} catch (IOException e) {
+					fail(e.getMessage());
+				}
+			});
+			assertTrue(remote.getBytesSent() > 0);
+			assertTrue(remote.getBytesReceived() > 0);
+
+			stores[1].evictAll();
+			int loads = stores[1].getLoadCount();
+			assertFalse(network.getDistancesReport("P4", "L0").startsWith("The provided"));
+			assertEquals(loads + 1, stores[1].getLoadCount());
+			assertArrayEquals(new String[] {"P4"}, stores[1].getLoadedParks());
+			assertEquals(TrailSearch.UNREACHED, network.getDistance("P4", "L0", "P3", "L0"));
+			assertArrayEquals(new String[] {"P4", "P3"}, stores[1].getLoadedParks());
+		} finally {
+			for (Path file : files) {
+				Files.deleteIfExists(file);
+			}
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	/**
+	 * Tests that queries that need a park at the same time load it once and share it, and that a park whose files
+	 * are missing fails every query without being marked as loaded
+	 */
+	@Test
+	public void testConcurrentLoad() throws IOException {
+		ShardStore store = new ShardStore(Long.MAX_VALUE);
+		store.addPark("Sample", "input/landmarks_sample.csv", "input/trails_sample.csv");
+		store.addPark("Missing", "input/missing.csv", "input/trails_sample.csv");
+		LocalShardWorker worker = new LocalShardWorker(store);
+		int[] expected = worker.getDistances("Sample", new String[] {"L01"}, new String[] {"L02"});
+		store.evictAll();
+		int loads = store.getLoadCount();
+		assertTrue(IntStream.range(0, 64).parallel().allMatch(i -> {
+			try {
+				return Arrays.equals(expected, worker.getDistances("Sample", new String[] {"L01"}, new String[] {"L02"}));
+			} catch (IOException e) {
+				return false;
+			}
+		}));
+		assertEquals(loads + 1, store.getLoadCount());
+		assertTrue(IntStream.range(0, 16).parallel().allMatch(i -> {
+			try {
+				worker.getDistances("Missing", new String[0], new String[0]);
+				return false;
+			} catch (IOException e) {
+				return e instanceof FileNotFoundException;
+			}
+		}));
+		assertFalse(store.isLoaded("Missing"));
+		assertEquals(loads + 1, store.getLoadCount());
+	}
+
+	/**
+	 * Tests the errors of the network, its workers, and the stand-in transport
+	 */
+	@Test
+	public void testInvalid() throws IOException {
+		ShardStore store = new ShardStore(Long.MAX_VALUE);
+		store.addPark("Sample", "input/landmarks_sample.csv", "input/trails_sample.csv");
+		store.addPark("Missing", "input/missing.csv", "input/trails_sample.csv");
+		assertThrows(IllegalArgumentException.class, () -> store.addPark("Sample", "a", "b"));
+		assertThrows(IllegalArgumentException.class, () -> new ShardStore(-1));
+		assertFalse(store.isLoaded("Sample"));
+		LoopbackShardWorker remote = new LoopbackShardWorker(new LocalShardWorker(store), "shard-test");
+		String[] parks = remote.getParks();
+		Arrays.sort(parks);
+		assertArrayEquals(new String[] {"Missing", "Sample"}, parks);
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> remote.search("Sample", new String[] {"L99"}, new int[] {0}));
+		assertEquals("Landmark L99 is not a landmark in park Sample.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class,
+				() -> remote.getDistance("Other", new String[] {"L01"}, new int[] {0}, "L02"));
+		assertEquals("Park Other is not served by this worker.", e.getMessage());
+		assertThrows(IllegalArgumentException.class,
+				() -> remote.search("Sample", new String[] {"L01"}, new int[] {-1}));
+		assertThrows(IllegalArgumentException.class,
+				() -> remote.search("Sample", new String[] {"L01"}, new int[0]));
+		assertThrows(IOException.class, () -> remote.getDistances("Missing", new String[0], new String[0]));
+		assertTrue(store.isLoaded("Sample"));
+		assertFalse(store.isLoaded("Missing"));
+
+		ShardDistances distances = remote.search("Sample", new String[] {"L11"}, new int[] {100});
+		assertEquals(2, distances.getCount());
+		assertEquals("Sample", distances.getPark());
+		assertEquals("L11", distances.getId(0));
+		assertEquals("Campsite 1", distances.getDescription(0));
+		assertEquals(100, distances.getDistance(0));
+		assertEquals("L12", distances.getId(1));
+
+		PartitionedNetwork network = new PartitionedNetwork();
+		network.addWorker(remote);
+		assertThrows(IllegalArgumentException.class, () -> network.addWorker(new LocalShardWorker(store)));
+		assertThrows(IllegalArgumentException.class, () -> network.addConnector("Sample", "L01", "Other", "L01", 5));
+		assertThrows(IllegalArgumentException.class, () -> network.addConnector("Sample", "L01", "Sample", "L11", -5));
+		assertThrows(FileNotFoundException.class, () -> network.readConnectors("input/missing.csv"));
+		assertThrows(IllegalArgumentException.class, () -> network.readConnectors("input/trails_sample.csv"));
+		assertEquals("The provided landmark ID (Sample/L99) is invalid for the network.",
+				network.getDistancesReport("Sample", "L99"));
+		assertEquals("The provided landmark ID (Other/L01) is invalid for the network.",
+				network.getDistancesReport("Other", "L01"));
+		assertEquals("Landmarks Reachable from Campsite Restrooms (Sample/L12) {\n"
+				+ "   1066 feet to Campsite 1 (Sample/L11)\n}", network.getDistancesReport("Sample", "L12"));
+		assertEquals(TrailSearch.UNREACHED, network.getDistance("Sample", "L01", "Sample", "L11"));
+
+		network.addConnector("Sample", "L01", "Sample", "L11", 50);
+		assertEquals(50, network.getDistance("Sample", "L01", "Sample", "L11"));
+		assertEquals(50, network.getDistance("Sample", "L11", "Sample", "L01"));
+		assertThrows(IllegalArgumentException.class, () -> network.getDistance("Sample", "L01", "Sample", "L99"));
+		network.addConnector("Sample", "L01", "Sample", "L99", 50);
+		assertThrows(IllegalArgumentException.class, () -> network.getOverlay());
+
+		remote.close();
+		assertThrows(IOException.class, () -> remote.getParks());
+	}
+}
@@ -0,0 +1,84 @@
+package edu.ncsu.csc316.trail.ui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc316.trail.graph.TrailGraphLoader;
+import edu.ncsu.csc316.trail.manager.QueryPipeline;
+import edu.ncsu.csc316.trail.manager.ReportManager;
+import edu.ncsu.csc316.trail.manager.TrailQueryService;
+
+/**
+ * Class that is responsible for testing the TrailQueryServer class
+ *
+ * @author Maddie Moore
+ *
+ */
+class TrailQueryServerTest {
+
+	/** Path to the sample landmark file */
+	private String pathToLandmarkFile = "input/landmarks_sample.csv";
+
+	/** Path to the sample trail file */
+	private String pathToTrailFile = "input/trails_sample.csv";
+
+	/**
+	 * Reads one answer, which ends with a blank line.
+	 * @param in the connection's input
+	 * @return the answer without its blank line
+	 * @throws Exception if the connection cannot be read
+	 */
+	private String readAnswer(BufferedReader in) throws Exception {
+		StringBuilder answer = new StringBuilder();
+		String line;
+		while ((line = in.readLine()) != null && !line.isEmpty()) {
+			if (answer.length() > 0) {
+				answer.append("\n");
+			}
+			answer.append(line);
+		}
+		return answer.toString();
+	}
+
+	/**
+	 * Tests a client that waits for each answer and a client that pipelines its queries
+	 */
+	@Test
+	public void testServe() throws Exception {
+		ReportManager manager = new ReportManager(pathToLandmarkFile, pathToTrailFile);
+		try (TrailQueryService service = new TrailQueryService(TrailGraphLoader.load(pathToLandmarkFile, pathToTrailFile), 2);
+				TrailQueryServer server = new TrailQueryServer(new QueryPipeline(service), 0)) {
+			Thread accepting = new Thread(() -> {
+				try {
+					server.serve();
+				} catch (Exception e) {
+					fail("Unexpected exception thrown: " + e.getMessage());
+				}
+			});
+			accepting.setDaemon(true);
+			accepting.start();
+			try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+					BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+					Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+				out.write("distances L02\n");
+				out.flush();
+				assertEquals(manager.getDistancesReport("L02"), readAnswer(in));
+				out.write("route L01 L05\nfirstaid 2\ntop 2\nquit\n");
+				out.flush();
+				assertEquals(manager.getRouteReport("L01", "L05"), readAnswer(in));
+				assertEquals(manager.getProposedFirstAidLocations(2), readAnswer(in));
+				assertEquals(manager.getTopFirstAidLocations(2), readAnswer(in));
+				assertNull(in.readLine());
+			}
+		}
+	}
+}